@@ -17,9 +17,13 @@ package org.czeal.rfc3986;
 
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.czeal.rfc3986.Utils.newNPE;
 
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Objects;
@@ -262,6 +266,12 @@ public class Authority implements Serializable, Comparable<Authority>
     private final int port;
 
 
+    /**
+     * The decoded {@code userinfo} and {@code host} components, computed lazily.
+     */
+    private transient Decoded decoded;
+
+
     /**
      * A private constructor.
      *
@@ -317,36 +327,252 @@ public class Authority implements Serializable, Comparable<Authority>
 
 
     /**
-     * Returns a string representation of this {@link Authority} object. The string
-     * is constructed by concatenating the {@code userinfo}, {@code host}, and
-     * {@code port} components.
+     * Get the value of the {@code userinfo} component of this {@code Authority}
+     * object, with its percent-encoded values decoded using UTF-8.
+     *
+     * <p>
+     * This method works as if invoking it were equivalent to evaluating the expression
+     * <code>{@link #getDecodedUserinfo(Charset) getDecodedUserinfo}({@link
+     * StandardCharsets}.{@link StandardCharsets#UTF_8 UTF_8})</code>.
+     * </p>
      *
      * @return
-     *         The string representation of this {@link Authority} object.
+     *         The decoded value of the {@code userinfo} component, or {@code null}
+     *         if this {@code Authority} object doesn't have a userinfo.
+     *
+     * @throws IllegalArgumentException
+     *         If the value can not be decoded using UTF-8.
      */
-    @Override
-    public String toString()
+    public String getDecodedUserinfo()
     {
-        var sb = new StringBuilder();
+        return getDecodedUserinfo(UTF_8);
+    }
 
-        // Append the userinfo if present.
-        if (userinfo != null)
-        {
-            sb.append(userinfo).append("@");
-        }
 
-        // Append the host value if present.
-        if (host != null && host.getValue() != null)
+    /**
+     * Get the value of the {@code userinfo} component of this {@code Authority}
+     * object, with its percent-encoded values decoded using the given charset.
+     *
+     * <p>
+     * The decoded value is computed on the first call and cached on this object
+     * for the charset. If the value doesn't contain any percent-encoded value,
+     * the value itself is returned.
+     * </p>
+     *
+     * @param charset
+     *         The charset used for decoding the percent-encoded values.
+     *
+     * @return
+     *         The decoded value of the {@code userinfo} component, or {@code null}
+     *         if this {@code Authority} object doesn't have a userinfo.
+     *
+     * @throws NullPointerException
+     *         If {@code charset} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the value can not be decoded using the charset.
+     */
+    public String getDecodedUserinfo(Charset charset)
+    {
+        return decoded(charset).userinfo;
+    }
+
+
+    /**
+     * Get the value of the {@code host} component of this {@code Authority} object,
+     * with its percent-encoded values decoded using UTF-8.
+     *
+     * <p>
+     * This method works as if invoking it were equivalent to evaluating the expression
+     * <code>{@link #getDecodedHost(Charset) getDecodedHost}({@link
+     * StandardCharsets}.{@link StandardCharsets#UTF_8 UTF_8})</code>.
+     * </p>
+     *
+     * @return
+     *         The decoded value of the {@code host} component, or {@code null} if
+     *         this {@code Authority} object doesn't have a host value.
+     *
+     * @throws IllegalArgumentException
+     *         If the value can not be decoded using UTF-8.
+     */
+    public String getDecodedHost()
+    {
+        return getDecodedHost(UTF_8);
+    }
+
+
+    /**
+     * Get the value of the {@code host} component of this {@code Authority} object,
+     * with its percent-encoded values decoded using the given charset.
+     *
+     * <p>
+     * The decoded value is computed on the first call and cached on this object
+     * for the charset. If the value doesn't contain any percent-encoded value,
+     * the value itself is returned.
+     * </p>
+     *
+     * @param charset
+     *         The charset used for decoding the percent-encoded values.
+     *
+     * @return
+     *         The decoded value of the {@code host} component, or {@code null} if
+     *         this {@code Authority} object doesn't have a host value.
+     *
+     * @throws NullPointerException
+     *         If {@code charset} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the value can not be decoded using the charset.
+     */
+    public String getDecodedHost(Charset charset)
+    {
+        return decoded(charset).host;
+    }
+
+
+    private Decoded decoded(Charset charset)
+    {
+        // Ensure the charset is not null.
+        if (charset == null)
         {
-            sb.append(host.getValue());
+            throw newNPE("The charset must not be null.");
         }
 
-        // Append the port if present.
-        if (port != -1)
+        // Read the field once. The Decoded object is immutable, so it is safe to
+        // publish it without synchronization.
+        var current = decoded;
+
+        if (current == null || !current.charset.equals(charset))
         {
-            sb.append(":").append(port);
+            current = new Decoded(charset, this);
+            decoded = current;
         }
 
+        return current;
+    }
+
+
+    /**
+     * Computes the length of the string representation of this {@link Authority}
+     * object, that is, the length of the string returned by {@link #toString()}.
+     * This can be used to presize a destination for the {@code writeTo} methods.
+     *
+     * @return
+     *         The number of characters of the string representation.
+     */
+    public int serializedLength()
+    {
+        return new URIReferenceWriter().serializedLength(this);
+    }
+
+
+    /**
+     * Appends the string representation of this {@link Authority} object to the
+     * given {@link Appendable}, without creating an intermediate string.
+     *
+     * @param out
+     *         The destination.
+     *
+     * @throws NullPointerException
+     *         If {@code out} is {@code null}.
+     *
+     * @throws IOException
+     *         If the destination throws it.
+     */
+    public void writeTo(Appendable out) throws IOException
+    {
+        new URIReferenceWriter().writeTo(this, out);
+    }
+
+
+    /**
+     * Appends the string representation of this {@link Authority} object to the
+     * given {@link StringBuilder}, without creating an intermediate string.
+     *
+     * @param sb
+     *         The destination.
+     *
+     * @throws NullPointerException
+     *         If {@code sb} is {@code null}.
+     */
+    public void writeTo(StringBuilder sb)
+    {
+        new URIReferenceWriter().writeTo(this, sb);
+    }
+
+
+    /**
+     * Writes the string representation of this {@link Authority} object into the
+     * given {@link ByteBuffer} as US-ASCII bytes, starting at the current position
+     * of the buffer, and advances the position by the number of written bytes.
+     *
+     * <p>
+     * Nothing is written and the position is not changed if the remaining space
+     * of the buffer is not enough.
+     * </p>
+     *
+     * @param buffer
+     *         The destination.
+     *
+     * @return
+     *         The number of written bytes.
+     *
+     * @throws NullPointerException
+     *         If {@code buffer} is {@code null}.
+     *
+     * @throws BufferOverflowException
+     *         If the remaining space of the buffer is less than {@link #serializedLength()}.
+     *
+     * @throws IllegalStateException
+     *         If the string representation contains a non-ASCII character. The
+     *         position of the buffer is not changed in this case.
+     */
+    public int writeAsciiTo(ByteBuffer buffer)
+    {
+        return new URIReferenceWriter().writeAsciiTo(this, buffer);
+    }
+
+
+    /**
+     * Writes the UTF-8 encoding of the string representation of this {@link Authority}
+     * object into the given byte array.
+     *
+     * @param bytes
+     *         The destination.
+     *
+     * @param offset
+     *         The index in {@code bytes} at which the first byte is written.
+     *
+     * @return
+     *         The number of written bytes.
+     *
+     * @throws NullPointerException
+     *         If {@code bytes} is {@code null}.
+     *
+     * @throws IndexOutOfBoundsException
+     *         If {@code offset} is negative or the array doesn't have enough space
+     *         after {@code offset}. Nothing is written in this case.
+     */
+    public int writeUtf8To(byte[] bytes, int offset)
+    {
+        return new URIReferenceWriter().writeUtf8To(this, bytes, offset);
+    }
+
+
+    /**
+     * Returns a string representation of this {@link Authority} object. The string
+     * is constructed by concatenating the {@code userinfo}, {@code host}, and
+     * {@code port} components.
+     *
+     * @return
+     *         The string representation of this {@link Authority} object.
+     */
+    @Override
+    public String toString()
+    {
+        var sb = new StringBuilder(serializedLength());
+        writeTo(sb);
+
         return sb.toString();
     }
 
@@ -408,4 +634,39 @@ public class Authority implements Serializable, Comparable<Authority>
     {
         return this.hashCode() - other.hashCode();
     }
+
+
+    /**
+     * Replaces this object with its compact binary form (see {@link URIReferenceCodec})
+     * in Java serialization. The {@link Authority} object is restored from the binary
+     * form without validating its components again.
+     *
+     * @return
+     *         The serialization proxy holding the binary form of this object.
+     */
+    @Serial
+    private Object writeReplace()
+    {
+        return new URIReferenceCodec.SerializationProxy(this);
+    }
+
+
+    /**
+     * The decoded {@code userinfo} and {@code host} components for a charset.
+     */
+    private static final class Decoded
+    {
+        final Charset charset;
+        final String userinfo;
+        final String host;
+
+
+        Decoded(Charset charset, Authority authority)
+        {
+            this.charset  = charset;
+            this.userinfo = PercentDecoder.decodeIfEncoded(authority.userinfo, charset);
+            this.host     = PercentDecoder.decodeIfEncoded(
+                (authority.host == null) ? null : authority.host.getValue(), charset);
+        }
+    }
 }
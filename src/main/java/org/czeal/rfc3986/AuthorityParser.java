@@ -116,6 +116,65 @@ class AuthorityParser
     }
 
 
+    /**
+     * Splits a given string known to be a valid {@code authority} component into
+     * its components without validating them.
+     *
+     * @param authority
+     *         A valid {@code authority} component, or {@code null}.
+     *
+     * @return
+     *         The {@code Authority} object, or {@code null} if {@code authority}
+     *         is {@code null}.
+     */
+    Authority parseTrusted(String authority)
+    {
+        if (authority == null)
+        {
+            // The input string doesn't contain an authority.
+            return null;
+        }
+
+        // The parse result.
+        var res = new Authority.ProcessResult();
+
+        // The userinfo never contains "@".
+        var at    = authority.indexOf('@');
+        var start = at + 1;
+
+        if (at != -1)
+        {
+            res.userinfo = authority.substring(0, at);
+        }
+
+        // The host ends with "]" if it is an IP-literal, otherwise with ":".
+        // Without them, the host ends at the end of the authority.
+        var ipLiteral = start < authority.length() && authority.charAt(start) == '[';
+        var end       = ipLiteral ? authority.indexOf(']', start) : authority.indexOf(':', start);
+
+        if (end == -1)
+        {
+            end = authority.length();
+        }
+        else if (ipLiteral)
+        {
+            end++;
+        }
+
+        var host = authority.substring(start, end);
+
+        res.host = new Host(new HostTypeDeterminer().determineTrusted(host), host);
+
+        // The port follows ":".
+        if (end + 1 < authority.length())
+        {
+            res.port = Integer.parseInt(authority, end + 1, authority.length(), 10);
+        }
+
+        return res.toAuthority();
+    }
+
+
     private void processAuthority(ParseResult res, String authority)
     {
         // Get a matcher to match the input string as an authority.
@@ -169,7 +228,19 @@ class AuthorityParser
     }
 
 
-    private int parsePort(String rawPort)
+    /**
+     * Parses a validated port value into an int value.
+     *
+     * @param rawPort
+     *         A port value, which may be {@code null} or empty.
+     *
+     * @return
+     *         The port number, or -1 if the port value is {@code null} or empty.
+     *
+     * @throws IllegalArgumentException
+     *         If the port number is too large.
+     */
+    int parsePort(String rawPort)
     {
         if (rawPort == null || rawPort.isEmpty())
         {
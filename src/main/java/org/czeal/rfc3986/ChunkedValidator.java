@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.czeal.rfc3986.Utils.fromHexDigit;
+import java.nio.charset.Charset;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * <p>
+ * Validates a large percent-encoded string in chunks, which are processed in
+ * parallel on the common {@link ForkJoinPool}. The chunks are ranges of the
+ * string, so no part of the string is copied, and the extra memory used is
+ * proportional to the number of the chunks.
+ * </p>
+ *
+ * <p>
+ * A chunk boundary never falls inside a percent-encoded value ({@code "%XX"}).
+ * With UTF-8, it doesn't fall inside the percent-encoded octets of a character
+ * either, so each chunk can be decoded independently. Charsets in which a
+ * character may be encoded into a sequence of octets not identifiable by the
+ * octets alone are not supported (see {@link #isApplicable(String, Charset)}).
+ * </p>
+ *
+ * <p>
+ * This class only tells whether the string is valid. When it is not, the caller
+ * is expected to validate it again sequentially, so that the exception for the
+ * first problem in the string is thrown with the same message as usual.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+class ChunkedValidator
+{
+    /**
+     * The minimum length of a string validated in chunks.
+     */
+    static final int THRESHOLD = 1 << 18;
+
+
+    /**
+     * The approximate length of a chunk.
+     */
+    static final int CHUNK_SIZE = 1 << 15;
+
+
+    /**
+     * A task validating a range of the string.
+     */
+    @SuppressWarnings("serial")
+    private static class ChunkTask extends RecursiveTask<Boolean>
+    {
+        private final PercentEncodedStringValidator validator;
+        private final String value;
+        private final int start;
+        private final int end;
+        private final Charset charset;
+        private final AtomicBoolean failed;
+
+
+        ChunkTask(
+            PercentEncodedStringValidator validator, String value, int start, int end,
+            Charset charset, AtomicBoolean failed)
+        {
+            this.validator = validator;
+            this.value     = value;
+            this.start     = start;
+            this.end       = end;
+            this.charset   = charset;
+            this.failed    = failed;
+        }
+
+
+        @Override
+        protected Boolean compute()
+        {
+            // Skip the remaining chunks once a chunk has turned out to be invalid.
+            if (failed.get())
+            {
+                return false;
+            }
+
+            if (end - start <= CHUNK_SIZE)
+            {
+                return validateChunk();
+            }
+
+            // Split the range into two at a boundary outside percent-encoded values.
+            var middle = boundary(value, start + (end - start) / 2, end, charset);
+
+            if (end <= middle)
+            {
+                return validateChunk();
+            }
+
+            var left = new ChunkTask(validator, value, start, middle, charset, failed);
+            left.fork();
+
+            var right = new ChunkTask(validator, value, middle, end, charset, failed).compute();
+
+            return left.join() && right;
+        }
+
+
+        private boolean validateChunk()
+        {
+            try
+            {
+                validator.process(value, start, end, charset, null);
+
+                return true;
+            }
+            catch (IllegalArgumentException e)
+            {
+                failed.set(true);
+
+                return false;
+            }
+        }
+    }
+
+
+    /**
+     * Checks whether a string is validated in chunks.
+     *
+     * @param value
+     *         The string.
+     *
+     * @param charset
+     *         The charset used in the string, or {@code null} if percent-encoded
+     *         values are not decoded.
+     *
+     * @return
+     *         {@code true} if the string is long enough and the charset is supported;
+     *         otherwise, {@code false}.
+     */
+    static boolean isApplicable(String value, Charset charset)
+    {
+        return value != null && THRESHOLD <= value.length() &&
+               (charset == null || charset == UTF_8 || charset == US_ASCII || charset == ISO_8859_1);
+    }
+
+
+    /**
+     * Validates a string in chunks with the given validator.
+     *
+     * @param validator
+     *         The validator for the characters in the string.
+     *
+     * @param value
+     *         The string to validate.
+     *
+     * @param charset
+     *         The charset used in the string, or {@code null} if percent-encoded
+     *         values are not decoded.
+     *
+     * @return
+     *         {@code true} if the string is valid; otherwise, {@code false}.
+     */
+    boolean isValid(PercentEncodedStringValidator validator, String value, Charset charset)
+    {
+        var task = new ChunkTask(validator, value, 0, value.length(), charset, new AtomicBoolean());
+
+        return ForkJoinPool.commonPool().invoke(task);
+    }
+
+
+    /**
+     * Adjusts the given index so that it doesn't fall inside a percent-encoded
+     * value, or inside the percent-encoded octets of a character in UTF-8.
+     *
+     * @param value
+     *         The string.
+     *
+     * @param index
+     *         The index to adjust.
+     *
+     * @param end
+     *         The end of the range containing the index.
+     *
+     * @param charset
+     *         The charset used in the string, or {@code null}.
+     *
+     * @return
+     *         The adjusted index, which is not smaller than {@code index}.
+     */
+    static int boundary(String value, int index, int end, Charset charset)
+    {
+        var b = index;
+
+        // Move out of a percent-encoded value.
+        if (1 <= b && value.charAt(b - 1) == '%')
+        {
+            b += 2;
+        }
+        else if (2 <= b && value.charAt(b - 2) == '%')
+        {
+            b += 1;
+        }
+
+        if (charset != UTF_8)
+        {
+            return Math.min(b, end);
+        }
+
+        // Skip the percent-encoded continuation octets of a character, which is
+        // at most 3 octets.
+        for (var i = 0; i < 3 && b + 2 < end && value.charAt(b) == '%'; i++)
+        {
+            var high = fromHexDigit(value.charAt(b + 1));
+            var low  = fromHexDigit(value.charAt(b + 2));
+
+            // Stop at an invalid value or an octet which is not a continuation octet
+            // (10xxxxxx).
+            if (high == -1 || low == -1 || (((high << 4) | low) & 0xC0) != 0x80)
+            {
+                break;
+            }
+
+            b += 3;
+        }
+
+        return Math.min(b, end);
+    }
+}
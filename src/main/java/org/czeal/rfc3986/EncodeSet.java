@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.czeal.rfc3986.Utils.isUnreserved;
+
+
+/**
+ * The set of the characters which {@link URIEncoder} writes as they are in a
+ * component of a URI reference. All the other characters, including {@code "%"},
+ * are percent-encoded.
+ *
+ * <p>
+ * Every set except {@link #FORM} contains the unreserved characters ({@code
+ * ALPHA / DIGIT / "-" / "." / "_" / "~"}). The additional characters of each set
+ * are derived from the ABNF of the component in <a href="https://www.rfc-editor.org/rfc/rfc3986#appendix-A">
+ * RFC 3986, Appendix A. Collected ABNF for URI</a>.
+ * </p>
+ *
+ * @see URIEncoder
+ *
+ * @author Hideki Ikeda
+ */
+public enum EncodeSet
+{
+    /**
+     * A path segment ({@code segment}), which preserves the sub-delimiters,
+     * {@code ":"} and {@code "@"}. {@code "/"} is encoded.
+     */
+    PATH_SEGMENT("!$&'()*+,;=:@"),
+
+
+    /**
+     * A path ({@code path}), which preserves the characters of {@link
+     * #PATH_SEGMENT} and {@code "/"}.
+     */
+    PATH("!$&'()*+,;=:@/"),
+
+
+    /**
+     * A query ({@code query}), which preserves the sub-delimiters, {@code ":"},
+     * {@code "@"}, {@code "/"} and {@code "?"}.
+     */
+    QUERY("!$&'()*+,;=:@/?"),
+
+
+    /**
+     * A key or a value of a query parameter, which preserves the characters of
+     * {@link #QUERY} except {@code "&"}, {@code "="} and {@code "+"}, so that
+     * the key or the value doesn't break the structure of {@code "key=value&..."}.
+     */
+    QUERY_PARAM("!$'()*,;:@/?"),
+
+
+    /**
+     * A fragment ({@code fragment}), which preserves the same characters as
+     * {@link #QUERY}.
+     */
+    FRAGMENT("!$&'()*+,;=:@/?"),
+
+
+    /**
+     * A userinfo ({@code userinfo}), which preserves the sub-delimiters and
+     * {@code ":"}.
+     */
+    USERINFO("!$&'()*+,;=:"),
+
+
+    /**
+     * A key or a value in the {@code application/x-www-form-urlencoded} format,
+     * which preserves {@code ALPHA / DIGIT / "*" / "-" / "." / "_"}, as the
+     * URL Standard does. Note that {@code "~"} is encoded, and that a space is
+     * encoded as {@code "%20"} (see {@link FormUrlEncodedCodec} for {@code "+"}).
+     */
+    FORM("*", "~"),
+    ;
+
+
+    /**
+     * The bits of the preserved characters in the range of U+0000 to U+003F.
+     */
+    private final long low;
+
+
+    /**
+     * The bits of the preserved characters in the range of U+0040 to U+007F.
+     */
+    private final long high;
+
+
+    /**
+     * The constructor.
+     *
+     * @param preserved
+     *         The characters preserved in addition to the unreserved characters.
+     */
+    EncodeSet(String preserved)
+    {
+        this(preserved, "");
+    }
+
+
+    /**
+     * The constructor.
+     *
+     * @param preserved
+     *         The characters preserved in addition to the unreserved characters.
+     *
+     * @param excluded
+     *         The unreserved characters which are not preserved.
+     */
+    EncodeSet(String preserved, String excluded)
+    {
+        var low  = 0L;
+        var high = 0L;
+
+        for (var c = 0; c < 128; c++)
+        {
+            if ((isUnreserved((char)c) && excluded.indexOf(c) == -1) || preserved.indexOf(c) != -1)
+            {
+                if (c < 64)
+                {
+                    low |= 1L << c;
+                }
+                else
+                {
+                    high |= 1L << (c - 64);
+                }
+            }
+        }
+
+        this.low  = low;
+        this.high = high;
+    }
+
+
+    /**
+     * Checks whether the given character is written as it is.
+     *
+     * @param c
+     *         A character.
+     *
+     * @return
+     *         {@code true} if the character is in this set.
+     */
+    public boolean preserves(int c)
+    {
+        if (c < 64)
+        {
+            return 0 <= c && (low & (1L << c)) != 0;
+        }
+
+        return c < 128 && (high & (1L << (c - 64))) != 0;
+    }
+}
@@ -0,0 +1,612 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.czeal.rfc3986.Utils.newIAE;
+import static org.czeal.rfc3986.Utils.newNPE;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.util.Map;
+
+
+/**
+ * A parser and a serializer of the {@code application/x-www-form-urlencoded}
+ * format.
+ *
+ * <p>
+ * HTML form bodies and many legacy query strings use this format, which differs
+ * from the {@code query} component of <a href="https://www.rfc-editor.org/rfc/rfc3986">
+ * RFC 3986</a> in that {@code "+"} represents a space. This class follows the
+ * <a href="https://url.spec.whatwg.org/#application/x-www-form-urlencoded">
+ * application/x-www-form-urlencoded</a> section of the URL Standard, except that
+ * errors are reported: an invalid percent-encoded value such as {@code "%zz"}
+ * and octets which are invalid in the charset cause an {@code IllegalArgumentException},
+ * while the URL Standard passes the former through and replaces the latter with
+ * U+FFFD. As in the URL Standard, empty parameters (e.g. between {@code "&&"})
+ * are skipped, and a parameter without {@code "="} has an empty value.
+ * </p>
+ *
+ * <ul>
+ * <li>{@link #parse(CharSequence)} and {@link #parse(ByteBuffer)} parse a body into
+ * the same ordered multimap as {@link URIReference#queryParams()}, except that
+ * {@code "+"} is decoded as a space.</li>
+ * <li>{@link #encode(CharSequence, Appendable)} and {@link #write(Iterable, Appendable)}
+ * write the encoded output straight to an {@link Appendable}, such as a {@link
+ * StringBuilder} or a {@link java.io.Writer}, without creating intermediate strings.
+ * Alphanumeric characters and {@code "*-._"} are written as they are, a space is
+ * written as {@code "+"}, and the other characters are percent-encoded.</li>
+ * </ul>
+ *
+ * <p>
+ * Decoding and encoding with UTF-8, which is the default, are performed by code
+ * specialized for UTF-8, which doesn't go through a {@link java.nio.charset.CharsetDecoder}
+ * or a {@link java.nio.charset.CharsetEncoder}.
+ * </p>
+ *
+ * <p>Examples:</p>
+ * <pre>{@code
+ * QueryParameters params = FormUrlEncodedCodec.parse("name=John+Doe&city=K%C3%B6ln");
+ *
+ * System.out.println(params.getFirst("name"));  // "John Doe"
+ * System.out.println(params.getFirst("city"));  // "Köln"
+ *
+ * StringBuilder sb = new StringBuilder();
+ * FormUrlEncodedCodec.write(List.of(Map.entry("q", "a b&c")), sb);
+ *
+ * System.out.println(sb);  // "q=a+b%26c"
+ * }</pre>
+ *
+ * @see <a href="https://url.spec.whatwg.org/#application/x-www-form-urlencoded">
+ *      URL Standard, 5. application/x-www-form-urlencoded</a>
+ *
+ * @author Hideki Ikeda
+ */
+public final class FormUrlEncodedCodec
+{
+    /**
+     * The private constructor.
+     */
+    private FormUrlEncodedCodec()
+    {
+    }
+
+
+    /**
+     * Parses the given form body, decoding it with UTF-8.
+     *
+     * @param body
+     *         A form body, such as {@code "a=1&b=x+y"}.
+     *
+     * @return
+     *         The parameters of the body.
+     *
+     * @throws NullPointerException
+     *         If {@code body} is {@code null}.
+     */
+    public static QueryParameters parse(CharSequence body)
+    {
+        return parse(body, UTF_8);
+    }
+
+
+    /**
+     * Parses the given form body, decoding it with the given charset.
+     *
+     * <p>
+     * The parameters are decoded lazily by the returned object. An invalid
+     * percent-encoded value is reported by its accessors.
+     * </p>
+     *
+     * @param body
+     *         A form body, such as {@code "a=1&b=x+y"}.
+     *
+     * @param charset
+     *         The charset used for decoding the percent-encoded values.
+     *
+     * @return
+     *         The parameters of the body. An empty body has no parameters.
+     *
+     * @throws NullPointerException
+     *         If {@code body} or {@code charset} is {@code null}.
+     */
+    public static QueryParameters parse(CharSequence body, Charset charset)
+    {
+        // Ensure the body is not null.
+        if (body == null)
+        {
+            throw newNPE("The body must not be null.");
+        }
+
+        // Ensure the charset is not null.
+        if (charset == null)
+        {
+            throw newNPE("The charset must not be null.");
+        }
+
+        // Unlike a query, an empty body has no parameters.
+        var string = body.toString();
+
+        return new QueryParameters(string.isEmpty() ? null : string, charset, true);
+    }
+
+
+    /**
+     * Parses the remaining bytes of the given buffer as a form body, decoding
+     * it with UTF-8. The position of the buffer is advanced to its limit.
+     *
+     * @param body
+     *         A buffer holding a form body.
+     *
+     * @return
+     *         The parameters of the body.
+     *
+     * @throws NullPointerException
+     *         If {@code body} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the body has bytes which are invalid in UTF-8.
+     */
+    public static QueryParameters parse(ByteBuffer body)
+    {
+        return parse(body, UTF_8);
+    }
+
+
+    /**
+     * Parses the remaining bytes of the given buffer as a form body, decoding
+     * it with the given charset. The position of the buffer is advanced to its
+     * limit.
+     *
+     * @param body
+     *         A buffer holding a form body.
+     *
+     * @param charset
+     *         The charset of the body, which is also used for decoding the
+     *         percent-encoded values.
+     *
+     * @return
+     *         The parameters of the body.
+     *
+     * @throws NullPointerException
+     *         If {@code body} or {@code charset} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the body has bytes which are invalid in the charset.
+     */
+    public static QueryParameters parse(ByteBuffer body, Charset charset)
+    {
+        // Ensure the body is not null.
+        if (body == null)
+        {
+            throw newNPE("The body must not be null.");
+        }
+
+        // Ensure the charset is not null.
+        if (charset == null)
+        {
+            throw newNPE("The charset must not be null.");
+        }
+
+        // Decode the body strictly, as the percent-encoded values are decoded.
+        var start   = body.position();
+        var decoder = charset.newDecoder()
+                             .onMalformedInput(CodingErrorAction.REPORT)
+                             .onUnmappableCharacter(CodingErrorAction.REPORT);
+        CharBuffer chars;
+
+        try
+        {
+            chars = decoder.decode(body);
+        }
+        catch (CharacterCodingException e)
+        {
+            // The position of the body is at the invalid bytes.
+            throw newIAE(
+                "The body has bytes which are invalid in the charset \"%s\" at the index %d.",
+                charset.name(), body.position() - start);
+        }
+
+        return parse(chars, charset);
+    }
+
+
+    /**
+     * Decodes the given form-urlencoded value with UTF-8, that is, decodes
+     * {@code "+"} as a space and the percent-encoded values.
+     *
+     * @param value
+     *         A form-urlencoded value, such as {@code "x+y%21"}.
+     *
+     * @return
+     *         The decoded value.
+     *
+     * @throws NullPointerException
+     *         If {@code value} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the value has an invalid percent-encoded value.
+     */
+    public static String decode(CharSequence value)
+    {
+        return decode(value, UTF_8);
+    }
+
+
+    /**
+     * Decodes the given form-urlencoded value with the given charset, that is,
+     * decodes {@code "+"} as a space and the percent-encoded values.
+     *
+     * @param value
+     *         A form-urlencoded value, such as {@code "x+y%21"}.
+     *
+     * @param charset
+     *         The charset used for decoding the percent-encoded values.
+     *
+     * @return
+     *         The decoded value.
+     *
+     * @throws NullPointerException
+     *         If {@code value} or {@code charset} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the value has an invalid percent-encoded value.
+     */
+    public static String decode(CharSequence value, Charset charset)
+    {
+        // Ensure the value is not null.
+        if (value == null)
+        {
+            throw newNPE("The value must not be null.");
+        }
+
+        // Ensure the charset is not null.
+        if (charset == null)
+        {
+            throw newNPE("The charset must not be null.");
+        }
+
+        return decode(value, 0, value.length(), charset);
+    }
+
+
+    /**
+     * Encodes the given value with UTF-8 and writes it to the given destination.
+     *
+     * @param value
+     *         A value to encode, such as {@code "a b&c"}.
+     *
+     * @param destination
+     *         The destination.
+     *
+     * @throws NullPointerException
+     *         If {@code value} or {@code destination} is {@code null}.
+     *
+     * @throws IOException
+     *         If the destination throws it.
+     */
+    public static void encode(CharSequence value, Appendable destination) throws IOException
+    {
+        encode(value, UTF_8, destination);
+    }
+
+
+    /**
+     * Encodes the given value with the given charset and writes it to the given
+     * destination.
+     *
+     * @param value
+     *         A value to encode, such as {@code "a b&c"}.
+     *
+     * @param charset
+     *         The charset used for percent-encoding characters.
+     *
+     * @param destination
+     *         The destination.
+     *
+     * @throws NullPointerException
+     *         If {@code value}, {@code charset} or {@code destination} is {@code
+     *         null}.
+     *
+     * @throws IOException
+     *         If the destination throws it.
+     */
+    public static void encode(
+        CharSequence value, Charset charset, Appendable destination) throws IOException
+    {
+        // Ensure the value is not null.
+        if (value == null)
+        {
+            throw newNPE("The value must not be null.");
+        }
+
+        validate(charset, destination);
+
+        encodeTo(value, charset, destination);
+    }
+
+
+    /**
+     * Encodes the given parameters with UTF-8 and writes them to the given
+     * destination in the form of {@code "key1=value1&key2=value2"}.
+     *
+     * @param params
+     *         The parameters to encode. A parameter with a {@code null} value
+     *         is written without {@code "="}.
+     *
+     * @param destination
+     *         The destination.
+     *
+     * @throws NullPointerException
+     *         If {@code params}, any of the parameters, any of their keys or
+     *         {@code destination} is {@code null}.
+     *
+     * @throws IOException
+     *         If the destination throws it.
+     */
+    public static void write(
+        Iterable<? extends Map.Entry<String, String>> params, Appendable destination) throws IOException
+    {
+        write(params, UTF_8, destination);
+    }
+
+
+    /**
+     * Encodes the given parameters with the given charset and writes them to the
+     * given destination in the form of {@code "key1=value1&key2=value2"}.
+     *
+     * @param params
+     *         The parameters to encode. A parameter with a {@code null} value
+     *         is written without {@code "="}.
+     *
+     * @param charset
+     *         The charset used for percent-encoding characters.
+     *
+     * @param destination
+     *         The destination.
+     *
+     * @throws NullPointerException
+     *         If {@code params}, any of the parameters, any of their keys,
+     *         {@code charset} or {@code destination} is {@code null}.
+     *
+     * @throws IOException
+     *         If the destination throws it.
+     */
+    public static void write(
+        Iterable<? extends Map.Entry<String, String>> params, Charset charset,
+        Appendable destination) throws IOException
+    {
+        // Ensure the parameters are not null.
+        if (params == null)
+        {
+            throw newNPE("The parameters must not be null.");
+        }
+
+        validate(charset, destination);
+
+        var first = true;
+
+        for (var param : params)
+        {
+            // Ensure the parameter and its key are not null.
+            if (param == null || param.getKey() == null)
+            {
+                throw newNPE("The parameters must not contain a null parameter or a null key.");
+            }
+
+            if (!first)
+            {
+                destination.append('&');
+            }
+
+            first = false;
+
+            encodeTo(param.getKey(), charset, destination);
+
+            if (param.getValue() != null)
+            {
+                destination.append('=');
+                encodeTo(param.getValue(), charset, destination);
+            }
+        }
+    }
+
+
+    /**
+     * Decodes the given range of a form-urlencoded value. The range is returned
+     * as it is if it contains neither {@code "+"} nor {@code "%"}.
+     */
+    static String decode(CharSequence value, int start, int end, Charset charset)
+    {
+        if (!needsDecoding(value, start, end))
+        {
+            // Nothing to decode.
+            return value.subSequence(start, end).toString();
+        }
+
+        if (UTF_8.equals(charset))
+        {
+            return decodeUtf8(value, start, end);
+        }
+
+        // Replace "+" with a space, and let PercentDecoder decode the rest.
+        var sb = new StringBuilder(end - start);
+
+        for (var i = start; i < end; i++)
+        {
+            var c = value.charAt(i);
+
+            sb.append((c == '+') ? ' ' : c);
+        }
+
+        return PercentDecoder.decodeIfEncoded(sb.toString(), charset);
+    }
+
+
+    /**
+     * Checks whether the given range contains {@code "+"} or {@code "%"}.
+     */
+    static boolean needsDecoding(CharSequence value, int start, int end)
+    {
+        for (var i = start; i < end; i++)
+        {
+            var c = value.charAt(i);
+
+            if (c == '+' || c == '%')
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    private static void validate(Charset charset, Appendable destination)
+    {
+        // Ensure the charset is not null.
+        if (charset == null)
+        {
+            throw newNPE("The charset must not be null.");
+        }
+
+        // Ensure the destination is not null.
+        if (destination == null)
+        {
+            throw newNPE("The destination must not be null.");
+        }
+    }
+
+
+    private static String decodeUtf8(CharSequence value, int start, int end)
+    {
+        // The decoded value is never longer than the encoded one.
+        var chars  = new char[end - start];
+        var length = 0;
+
+        for (var i = start; i < end; )
+        {
+            var c = value.charAt(i);
+
+            if (c == '+')
+            {
+                chars[length++] = ' ';
+                i++;
+                continue;
+            }
+
+            if (c != '%')
+            {
+                chars[length++] = c;
+                i++;
+                continue;
+            }
+
+            var lead = URIDecoder.octet(value, i, end);
+            i += 3;
+
+            if (lead < 0x80)
+            {
+                // A single-byte sequence.
+                chars[length++] = (char)lead;
+                continue;
+            }
+
+            // The number of the continuation bytes and the minimum code point,
+            // which rejects overlong sequences.
+            int count, codePoint, min;
+
+            if ((lead & 0xE0) == 0xC0)
+            {
+                count = 1; codePoint = lead & 0x1F; min = 0x80;
+            }
+            else if ((lead & 0xF0) == 0xE0)
+            {
+                count = 2; codePoint = lead & 0x0F; min = 0x800;
+            }
+            else if ((lead & 0xF8) == 0xF0)
+            {
+                count = 3; codePoint = lead & 0x07; min = 0x10000;
+            }
+            else
+            {
+                throw newInvalidUtf8(value, i - 3);
+            }
+
+            for (var n = 0; n < count; n++, i += 3)
+            {
+                // A continuation byte must be percent-encoded, too.
+                if (i >= end || value.charAt(i) != '%')
+                {
+                    throw newInvalidUtf8(value, i);
+                }
+
+                var octet = URIDecoder.octet(value, i, end);
+
+                if ((octet & 0xC0) != 0x80)
+                {
+                    throw newInvalidUtf8(value, i);
+                }
+
+                codePoint = (codePoint << 6) | (octet & 0x3F);
+            }
+
+            if (codePoint < min || Character.MAX_CODE_POINT < codePoint ||
+                Character.isSurrogate((char)codePoint) && codePoint < 0x10000)
+            {
+                throw newInvalidUtf8(value, i - 3 * (count + 1));
+            }
+
+            length += Character.toChars(codePoint, chars, length);
+        }
+
+        return new String(chars, 0, length);
+    }
+
+
+    private static IllegalArgumentException newInvalidUtf8(CharSequence value, int index)
+    {
+        return newIAE(
+            "The value \"%s\" has an invalid UTF-8 sequence at the index %d.", value, index);
+    }
+
+
+    private static void encodeTo(
+        CharSequence value, Charset charset, Appendable destination) throws IOException
+    {
+        var length = value.length();
+        var start  = 0;
+
+        // Encode the runs between spaces with URIEncoder, and write the spaces
+        // as "+".
+        for (var i = 0; i < length; i++)
+        {
+            if (value.charAt(i) == ' ')
+            {
+                URIEncoder.encode(value, start, i, EncodeSet.FORM, charset, destination);
+                destination.append('+');
+                start = i + 1;
+            }
+        }
+
+        URIEncoder.encode(value, start, length, EncodeSet.FORM, charset, destination);
+    }
+}
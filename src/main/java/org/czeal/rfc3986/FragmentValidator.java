@@ -62,6 +62,14 @@ class FragmentValidator extends PercentEncodedStringValidator
             return;
         }
 
+        // Validate a large fragment in chunks. If it is invalid, validate it again
+        // sequentially to report the first problem.
+        if (ChunkedValidator.isApplicable(fragment, charset) &&
+            new ChunkedValidator().isValid(this, fragment, charset))
+        {
+            return;
+        }
+
         process(fragment, charset, null);
     }
 
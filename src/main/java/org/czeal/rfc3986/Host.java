@@ -313,4 +313,19 @@ public class Host implements Serializable, Comparable<Host>
     {
         return this.hashCode() - other.hashCode();
     }
+
+
+    /**
+     * Replaces this object with its compact binary form (see {@link URIReferenceCodec})
+     * in Java serialization. The {@link Host} object is restored from the binary
+     * form without validating its components again.
+     *
+     * @return
+     *         The serialization proxy holding the binary form of this object.
+     */
+    @Serial
+    private Object writeReplace()
+    {
+        return new URIReferenceCodec.SerializationProxy(this);
+    }
 }
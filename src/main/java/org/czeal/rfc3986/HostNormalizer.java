@@ -64,8 +64,10 @@ class HostNormalizer extends PercentEncodedStringNormalizer
         // Normalize the value.
         var normalizedValue = normalizeValue(host.getValue(), charset);
 
-        // Normalize the type.
-        var normalizedType = new HostTypeDeterminer().determine(normalizedValue, charset);
+        // Normalize the type. The octets of the value have been checked by
+        // normalizing it, and may be invalid in the charset if the host was
+        // parsed with ParseOptions.syntaxOnly(), so only the syntax is checked.
+        var normalizedType = new HostTypeDeterminer().determine(normalizedValue, null);
 
         // Build a Host instance.
         return new Host(normalizedType, normalizedValue);
@@ -20,6 +20,7 @@ import static org.czeal.rfc3986.HostType.IPV4;
 import static org.czeal.rfc3986.HostType.IPV6;
 import static org.czeal.rfc3986.HostType.IPVFUTURE;
 import static org.czeal.rfc3986.HostType.REGNAME;
+import static org.czeal.rfc3986.Utils.isDigit;
 import static org.czeal.rfc3986.Utils.newIAE;
 import java.nio.charset.Charset;
 
@@ -88,6 +89,84 @@ class HostTypeDeterminer
     }
 
 
+    /**
+     * Determines the type of a host value which is known to be valid, without
+     * validating it.
+     *
+     * @param value
+     *         A valid {@code host} value.
+     *
+     * @return
+     *         The type of the host value.
+     */
+    HostType determineTrusted(String value)
+    {
+        // If the host is null or empty.
+        if (value == null || value.isEmpty())
+        {
+            // The host type is determined as a reg-name.
+            return REGNAME;
+        }
+
+        // If the host value is an IP-literal.
+        if (value.charAt(0) == '[')
+        {
+            // An IPvFuture address starts with "v" and an IPv6 address never
+            // contains it.
+            var c = value.charAt(1);
+
+            return (c == 'v' || c == 'V') ? IPVFUTURE : IPV6;
+        }
+
+        // The host value is a reg-name unless it is an IPv4 address.
+        return isIpv4Address(value) ? IPV4 : REGNAME;
+    }
+
+
+    private boolean isIpv4Address(String value)
+    {
+        // Check the value in the same way as Ipv4AddressValidator does, but
+        // without allocating objects.
+        var octets = 0;
+        var length = value.length();
+        var i      = 0;
+
+        while (i <= length)
+        {
+            // Read a dec-octet.
+            var start = i;
+            var n     = 0;
+
+            while (i < length && isDigit(value.charAt(i)))
+            {
+                n = n * 10 + (value.charAt(i++) - '0');
+            }
+
+            var digits = i - start;
+
+            // Ensure the dec-octet has 1 to 3 digits, and a three-digit dec-octet
+            // is in the range from "100" to "255".
+            if (digits == 0 || 3 < digits ||
+                (digits == 3 && (value.charAt(start) == '0' || 255 < n)))
+            {
+                return false;
+            }
+
+            octets++;
+
+            // Ensure the dec-octet is followed by a period or the end.
+            if (i < length && value.charAt(i) != '.')
+            {
+                return false;
+            }
+
+            i++;
+        }
+
+        return octets == 4;
+    }
+
+
     private HostType determineHostTypeForIpLiteral(String value)
     {
         // Ensure the host value ends with ']'.
@@ -0,0 +1,322 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.czeal.rfc3986.Utils.fromHexDigit;
+import static org.czeal.rfc3986.Utils.isInRange;
+import static org.czeal.rfc3986.Utils.isUnreserved;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * <p>
+ * Defines the bits of the normalization hints recorded on a {@link URIReference}
+ * and the checks used to compute them. A bit that is set indicates that the
+ * corresponding component is known to be in the normal form defined by <a href=
+ * "https://www.rfc-editor.org/rfc/rfc3986#section-6">RFC 3986, Section 6:
+ * Normalization and Comparison</a>, so that the normalization of the component
+ * can be skipped. A bit that is not set means the state of the component is unknown.
+ * </p>
+ *
+ * <p>
+ * The checks assume that the given values have already been validated and never
+ * allocate objects.
+ * </p>
+ *
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc3986#section-6">RFC 3986,
+ *      Section 6: Normalization and Comparison</a>
+ *
+ * @author Hideki Ikeda
+ */
+final class NormalizationHints
+{
+    /**
+     * The bit indicating that the {@code scheme} component is normalized.
+     */
+    static final int SCHEME = 1;
+
+
+    /**
+     * The bit indicating that the {@code userinfo} component is normalized.
+     */
+    static final int USERINFO = 1 << 1;
+
+
+    /**
+     * The bit indicating that the {@code host} component is normalized.
+     */
+    static final int HOST = 1 << 2;
+
+
+    /**
+     * The bit indicating that the {@code path} component is normalized.
+     */
+    static final int PATH = 1 << 3;
+
+
+    /**
+     * The bit indicating that the {@code query} component is normalized.
+     */
+    static final int QUERY = 1 << 4;
+
+
+    /**
+     * The bit indicating that the {@code fragment} component is normalized.
+     */
+    static final int FRAGMENT = 1 << 5;
+
+
+    /**
+     * The bits indicating that the {@code authority} component is normalized,
+     * except for the {@code port}, which depends on the scheme and is checked
+     * separately.
+     */
+    static final int AUTHORITY = USERINFO | HOST;
+
+
+    /**
+     * The bits indicating that all the components are normalized.
+     */
+    static final int ALL = SCHEME | AUTHORITY | PATH | QUERY | FRAGMENT;
+
+
+    /**
+     * The private constructor.
+     */
+    private NormalizationHints()
+    {
+    }
+
+
+    /**
+     * Computes the normalization hints for the {@code userinfo} and {@code host}
+     * components of an authority.
+     *
+     * @param authority
+     *         An authority. May be {@code null}.
+     *
+     * @return
+     *         The normalization hints for the authority.
+     */
+    static int of(Authority authority)
+    {
+        if (authority == null)
+        {
+            // No authority to normalize.
+            return AUTHORITY;
+        }
+
+        var hints = 0;
+
+        if (isPercentEncodedStringNormalized(authority.getUserinfo(), false))
+        {
+            hints |= USERINFO;
+        }
+
+        if (authority.getHost() == null ||
+            isPercentEncodedStringNormalized(authority.getHost().getValue(), true))
+        {
+            hints |= HOST;
+        }
+
+        return hints;
+    }
+
+
+    /**
+     * Checks whether a scheme is normalized, that is, it does not contain upper-case
+     * letters.
+     *
+     * @param scheme
+     *         A scheme. May be {@code null}.
+     *
+     * @return
+     *         {@code true} if the scheme is normalized; otherwise, {@code false}.
+     */
+    static boolean isSchemeNormalized(String scheme)
+    {
+        if (scheme == null)
+        {
+            return true;
+        }
+
+        for (var i = 0; i < scheme.length(); i++)
+        {
+            if (isInRange(scheme.charAt(i), 'A', 'Z'))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Checks whether a path is normalized, that is, the path does not contain
+     * a dot segment, it does not contain percent-encoded values that require
+     * normalization, and it is not empty when the URI reference has an authority.
+     *
+     * @param path
+     *         A path. May be {@code null}.
+     *
+     * @param hasAuthority
+     *         Whether the URI reference containing the path has an authority or
+     *         not.
+     *
+     * @return
+     *         {@code true} if the path is normalized; otherwise, {@code false}.
+     */
+    static boolean isPathNormalized(String path, boolean hasAuthority)
+    {
+        if (path == null)
+        {
+            return true;
+        }
+
+        if (path.isEmpty())
+        {
+            // An empty path is normalized to "/" when an authority is present.
+            return !hasAuthority;
+        }
+
+        return !hasDotSegment(path) && isPercentEncodedStringNormalized(path, false);
+    }
+
+
+    /**
+     * Checks whether a percent-encoded string is normalized, that is, none of the
+     * percent-encoded values in the string has lower-case hex digits or represents
+     * an unreserved character, and, if {@code lowerCaseRequired} is {@code true},
+     * the string contains neither upper-case letters nor percent-encoded values
+     * representing non-ASCII octets (whose case can only be determined by decoding
+     * them).
+     *
+     * @param value
+     *         A percent-encoded string. May be {@code null}.
+     *
+     * @param lowerCaseRequired
+     *         Whether the component requires lower-case characters (e.g. {@code
+     *         host}) or not.
+     *
+     * @return
+     *         {@code true} if the string is normalized; otherwise, {@code false}.
+     */
+    static boolean isPercentEncodedStringNormalized(String value, boolean lowerCaseRequired)
+    {
+        if (value == null)
+        {
+            return true;
+        }
+
+        var length = value.length();
+
+        for (var i = 0; i < length; i++)
+        {
+            var c = value.charAt(i);
+
+            if (c != '%')
+            {
+                if (lowerCaseRequired && isInRange(c, 'A', 'Z'))
+                {
+                    return false;
+                }
+
+                continue;
+            }
+
+            if (i + 2 >= length)
+            {
+                // Malformed. Let the normalizer handle it.
+                return false;
+            }
+
+            var hi = value.charAt(i + 1);
+            var lo = value.charAt(i + 2);
+
+            // Lower-case hex digits must be converted to upper-case ones.
+            if (isInRange(hi, 'a', 'f') || isInRange(lo, 'a', 'f'))
+            {
+                return false;
+            }
+
+            var h = fromHexDigit(hi);
+            var l = fromHexDigit(lo);
+
+            if (h == -1 || l == -1)
+            {
+                // Malformed. Let the normalizer handle it.
+                return false;
+            }
+
+            var octet = (h << 4) | l;
+
+            // A percent-encoded unreserved character must be decoded, and a
+            // non-ASCII octet may change when lower-cased.
+            if (isUnreserved((char)octet) || (lowerCaseRequired && octet >= 0x80))
+            {
+                return false;
+            }
+
+            i += 2;
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Checks whether a path contains a complete path segment "." or "..".
+     *
+     * @param path
+     *         A path.
+     *
+     * @return
+     *         {@code true} if the path contains a dot segment; otherwise, {@code
+     *         false}.
+     */
+    static boolean hasDotSegment(String path)
+    {
+        var length = path.length();
+        var start  = 0;
+
+        while (start <= length)
+        {
+            var end = path.indexOf('/', start);
+
+            if (end == -1)
+            {
+                end = length;
+            }
+
+            var segmentLength = end - start;
+
+            if ((segmentLength == 1 && path.charAt(start) == '.') ||
+                (segmentLength == 2 && path.charAt(start) == '.' && path.charAt(start + 1) == '.'))
+            {
+                return true;
+            }
+
+            start = end + 1;
+        }
+
+        return false;
+    }
+}
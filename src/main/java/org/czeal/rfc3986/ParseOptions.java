@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+/**
+ * Options for parsing a URI reference with {@link URIReference#parse(String,
+ * java.nio.charset.Charset, ParseOptions)}.
+ *
+ * <p>
+ * By default, the parser checks the syntax of percent-encoded values and also
+ * decodes each run of them with the charset, to confirm the octets form valid
+ * text in the charset. {@link #syntaxOnly()} skips the decoding, which RFC 3986
+ * doesn't require. With it, a percent-encoded value only needs {@code "%"}
+ * followed by two hex digits, so URI references whose percent-encoded octets
+ * are intentionally binary are accepted, and heavily encoded inputs are parsed
+ * faster.
+ * </p>
+ *
+ * <p>
+ * Note that operations decoding the components of a URI reference parsed with
+ * {@link #syntaxOnly()} (e.g. {@link URIReference#normalize()} with a charset
+ * other than UTF-8, US-ASCII and ISO-8859-1) may still fail on such octets.
+ * </p>
+ *
+ * <p>
+ * By default, all the components are validated when parsing. With {@link
+ * #lazyValidation()}, the {@code path}, {@code query} and {@code fragment}
+ * components are validated when they are read for the first time, or when
+ * {@link URIReference#validate()} is called. An invalid component still causes
+ * an {@code IllegalArgumentException}, but it is thrown by the method reading
+ * the component instead of the parser. This saves validating the components
+ * which are never read. The {@code scheme} and the {@code authority} are always
+ * validated when parsing.
+ * </p>
+ *
+ * <p>Examples:</p>
+ * <pre>{@code
+ * // "%FF" is not valid in UTF-8, but is valid syntax.
+ * URIReference uriRef = URIReference.parse(
+ *         "http://example.com/a%FF", StandardCharsets.UTF_8, ParseOptions.syntaxOnly());
+ *
+ * // The query is validated only if it is read.
+ * URIReference uriRef = URIReference.parse(
+ *         "http://example.com/a?q=[", StandardCharsets.UTF_8, ParseOptions.lazyValidation());
+ *
+ * uriRef.getHost();    // OK
+ * uriRef.getQuery();   // IllegalArgumentException
+ * }</pre>
+ *
+ * <p>
+ * This class is immutable.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+public final class ParseOptions
+{
+    /**
+     * The flag indicating that only the syntax of percent-encoded values is checked.
+     */
+    private static final int SYNTAX_ONLY = 1;
+
+
+    /**
+     * The flag indicating that some components are validated lazily.
+     */
+    private static final int LAZY_VALIDATION = 1 << 1;
+
+
+    /**
+     * The instances for all the combinations of the flags.
+     */
+    private static final ParseOptions[] INSTANCES = {
+        new ParseOptions(0),
+        new ParseOptions(SYNTAX_ONLY),
+        new ParseOptions(LAZY_VALIDATION),
+        new ParseOptions(SYNTAX_ONLY | LAZY_VALIDATION),
+    };
+
+
+    /**
+     * The flags.
+     */
+    private final int flags;
+
+
+    private ParseOptions(int flags)
+    {
+        this.flags = flags;
+    }
+
+
+    /**
+     * Get the default options, with which percent-encoded values are decoded
+     * with the charset to confirm they form valid text, and all the components
+     * are validated when parsing.
+     *
+     * @return
+     *         The default options.
+     */
+    public static ParseOptions defaults()
+    {
+        return INSTANCES[0];
+    }
+
+
+    /**
+     * Get the options with which only the syntax of percent-encoded values
+     * (a {@code "%"} followed by two hex digits) is checked, and no value is
+     * decoded with the charset.
+     *
+     * @return
+     *         The options checking only the syntax.
+     */
+    public static ParseOptions syntaxOnly()
+    {
+        return INSTANCES[SYNTAX_ONLY];
+    }
+
+
+    /**
+     * Get the options with which the {@code path}, {@code query} and {@code
+     * fragment} components are validated when they are read for the first time.
+     *
+     * <p>
+     * Serializing a {@link URIReference} parsed with these options reads all its
+     * components, so the components which have not been validated yet are
+     * validated then, and an invalid component causes an {@code
+     * IllegalArgumentException} thrown by {@link java.io.ObjectOutputStream#writeObject(Object)}.
+     * A deserialized object has no pending validation.
+     * </p>
+     *
+     * @return
+     *         The options validating some components lazily.
+     */
+    public static ParseOptions lazyValidation()
+    {
+        return INSTANCES[LAZY_VALIDATION];
+    }
+
+
+    /**
+     * Get the options which are the same as this object except that only the
+     * syntax of percent-encoded values is checked.
+     *
+     * @return
+     *         The options checking only the syntax.
+     */
+    public ParseOptions withSyntaxOnly()
+    {
+        return INSTANCES[flags | SYNTAX_ONLY];
+    }
+
+
+    /**
+     * Get the options which are the same as this object except that some
+     * components are validated lazily.
+     *
+     * @return
+     *         The options validating some components lazily.
+     */
+    public ParseOptions withLazyValidation()
+    {
+        return INSTANCES[flags | LAZY_VALIDATION];
+    }
+
+
+    /**
+     * Check whether only the syntax of percent-encoded values is checked.
+     *
+     * @return
+     *         {@code true} if percent-encoded values are not decoded with the
+     *         charset; otherwise, {@code false}.
+     */
+    public boolean isSyntaxOnly()
+    {
+        return (flags & SYNTAX_ONLY) != 0;
+    }
+
+
+    /**
+     * Check whether the {@code path}, {@code query} and {@code fragment}
+     * components are validated lazily.
+     *
+     * @return
+     *         {@code true} if the components are validated when they are read
+     *         for the first time; otherwise, {@code false}.
+     */
+    public boolean isLazyValidation()
+    {
+        return (flags & LAZY_VALIDATION) != 0;
+    }
+}
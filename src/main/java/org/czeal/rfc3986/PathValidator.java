@@ -16,6 +16,8 @@
 package org.czeal.rfc3986;
 
 
+import static org.czeal.rfc3986.Utils.isSubdelim;
+import static org.czeal.rfc3986.Utils.isUnreserved;
 import static org.czeal.rfc3986.Utils.newIAE;
 import java.nio.charset.Charset;
 
@@ -76,6 +78,25 @@ import java.nio.charset.Charset;
  */
 class PathValidator
 {
+    /**
+     * Validates the characters of a path, that is, {@code pchar} and {@code "/"}.
+     */
+    private static class PathCharacterValidator extends PercentEncodedStringValidator
+    {
+        PathCharacterValidator()
+        {
+            super("path");
+        }
+
+
+        @Override
+        protected boolean isValidOnNonPercent(char c)
+        {
+            return isUnreserved(c) || isSubdelim(c) || c == ':' || c == '@' || c == '/';
+        }
+    }
+
+
     /**
      * Validates a path value.
      *
@@ -127,6 +148,14 @@ class PathValidator
         //   path-empty    = 0<pchar>
         //
 
+        // Validate a large path in chunks without splitting it into segments. If
+        // it is invalid, it is validated again below to report the problem.
+        if (ChunkedValidator.isApplicable(path, charset) &&
+            isValidInChunks(path, charset, relativeReference, hasAuthority))
+        {
+            return;
+        }
+
         // If the authority is contained in the URI reference.
         if (hasAuthority)
         {
@@ -167,6 +196,42 @@ class PathValidator
     }
 
 
+    private boolean isValidInChunks(
+        String path, Charset charset, boolean relativeReference, boolean hasAuthority)
+    {
+        // The rules for the whole path and the first segment. The path is not
+        // empty here.
+        if (hasAuthority)
+        {
+            // A path-abempty starts with a slash.
+            if (path.charAt(0) != '/')
+            {
+                return false;
+            }
+        }
+        else if (path.startsWith("//"))
+        {
+            // The first segment of a path-absolute is a segment-nz.
+            return false;
+        }
+        else if (relativeReference && path.charAt(0) != '/')
+        {
+            // The first segment of a path-noscheme is a segment-nz-nc.
+            for (var i = 0; i < path.length() && path.charAt(i) != '/'; i++)
+            {
+                if (path.charAt(i) == ':')
+                {
+                    return false;
+                }
+            }
+        }
+
+        // The other rules are the same as the rules for the characters of the
+        // segments, separated by slashes.
+        return new ChunkedValidator().isValid(new PathCharacterValidator(), path, charset);
+    }
+
+
     private void validatePathAbempty(String path, Charset charset)
     {
         if (path == null || path.isEmpty())
@@ -0,0 +1,496 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.czeal.rfc3986.Utils.newNPE;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+
+/**
+ * A read-only view of the segments in a {@code path} component.
+ *
+ * <p>
+ * The segments are the parts of the path separated by {@code "/"}. The leading
+ * {@code "/"} of an absolute path doesn't start an empty segment, so both {@code
+ * "/a/b"} and {@code "a/b"} consist of the two segments {@code "a"} and {@code
+ * "b"}. An empty path has no segments, {@code "/"} consists of one empty segment,
+ * and {@code "/a/"} consists of {@code "a"} and an empty segment.
+ * </p>
+ *
+ * <p>
+ * A {@link PathView} doesn't copy or split the path. {@link #segment(int)} and
+ * {@link #lastSegment()} return {@link CharSequence} slices of the path, and the
+ * iterator returns one slice object which is reused for all the segments. The
+ * segments are found by scanning the path, so the cost of accessing the first
+ * few segments doesn't depend on the length of the rest of the path.
+ * </p>
+ *
+ * <p>Examples:</p>
+ * <pre>{@code
+ * PathView view = URIReference.parse("http://example.com/api/v1/users/caf%C3%A9").getPathView();
+ *
+ * System.out.println(view.segmentCount());           // "4"
+ * System.out.println(view.segment(0));               // "api"
+ * System.out.println(view.segmentEquals(1, "v1"));   // "true"
+ * System.out.println(view.lastSegment());            // "caf%C3%A9"
+ * System.out.println(view.decodedSegment(3));        // "café"
+ *
+ * // This will output "api", "v1", "users" and "caf%C3%A9".
+ * for (CharSequence segment : view)
+ * {
+ *     System.out.println(segment);
+ * }
+ * }</pre>
+ *
+ * <p>
+ * This class is immutable.
+ * </p>
+ *
+ * @see URIReference#getPathView()
+ *
+ * @author Hideki Ikeda
+ */
+public final class PathView implements Iterable<CharSequence>
+{
+    /**
+     * The view of an absent path.
+     */
+    private static final PathView EMPTY = new PathView(null, UTF_8);
+
+
+    /**
+     * Creates a view of the given path, whose segments are decoded with UTF-8.
+     *
+     * @param path
+     *         A path, such as {@code "/a/b"}. May be {@code null}, in which case
+     *         the view has no segments.
+     *
+     * @return
+     *         The view of the path.
+     */
+    public static PathView of(String path)
+    {
+        return (path == null) ? EMPTY : new PathView(path, UTF_8);
+    }
+
+
+    /**
+     * Creates a view of the given path, whose segments are decoded with the given
+     * charset.
+     *
+     * @param path
+     *         A path, such as {@code "/a/b"}. May be {@code null}, in which case
+     *         the view has no segments.
+     *
+     * @param charset
+     *         The charset used by {@link #decodedSegment(int)}.
+     *
+     * @return
+     *         The view of the path.
+     *
+     * @throws NullPointerException
+     *         If {@code charset} is {@code null}.
+     */
+    public static PathView of(String path, Charset charset)
+    {
+        // Ensure the charset is not null.
+        if (charset == null)
+        {
+            throw newNPE("The charset must not be null.");
+        }
+
+        return new PathView(path, charset);
+    }
+
+
+    /**
+     * The path, or {@code null} if the path is absent.
+     */
+    private final String path;
+
+
+    /**
+     * The path, or an empty string if the path is absent.
+     */
+    private final String value;
+
+
+    /**
+     * The charset used for decoding the segments.
+     */
+    private final Charset charset;
+
+
+    /**
+     * The private constructor.
+     *
+     * @param path
+     *         The path.
+     *
+     * @param charset
+     *         The charset used for decoding the segments.
+     */
+    private PathView(String path, Charset charset)
+    {
+        this.path    = path;
+        this.value   = (path == null) ? "" : path;
+        this.charset = charset;
+    }
+
+
+    /**
+     * Get the path of this view.
+     *
+     * @return
+     *         The path, or {@code null} if the path is absent.
+     */
+    public String getPath()
+    {
+        return path;
+    }
+
+
+    /**
+     * Checks whether the path starts with {@code "/"}.
+     *
+     * @return
+     *         {@code true} if the path is absolute.
+     */
+    public boolean isAbsolute()
+    {
+        return value.startsWith("/");
+    }
+
+
+    /**
+     * Get the number of the segments.
+     *
+     * @return
+     *         The number of the segments.
+     */
+    public int segmentCount()
+    {
+        if (value.isEmpty())
+        {
+            return 0;
+        }
+
+        // Every "/" except the leading one starts a new segment.
+        var count = isAbsolute() ? 0 : 1;
+
+        for (var i = value.indexOf('/'); i != -1; i = value.indexOf('/', i + 1))
+        {
+            count++;
+        }
+
+        return count;
+    }
+
+
+    /**
+     * Get the raw segment at the given index.
+     *
+     * @param index
+     *         The index of the segment.
+     *
+     * @return
+     *         A slice of the path holding the segment, which is not percent-decoded.
+     *
+     * @throws IndexOutOfBoundsException
+     *         If {@code index} is out of the range of the segments.
+     */
+    public CharSequence segment(int index)
+    {
+        var start = segmentStart(index);
+
+        return new Slice(value, start, segmentEnd(start));
+    }
+
+
+    /**
+     * Get the segment at the given index, with its percent-encoded values decoded.
+     *
+     * @param index
+     *         The index of the segment.
+     *
+     * @return
+     *         The decoded segment.
+     *
+     * @throws IndexOutOfBoundsException
+     *         If {@code index} is out of the range of the segments.
+     *
+     * @throws IllegalArgumentException
+     *         If the segment can not be decoded with the charset.
+     */
+    public String decodedSegment(int index)
+    {
+        var start = segmentStart(index);
+
+        return PercentDecoder.decodeIfEncoded(value.substring(start, segmentEnd(start)), charset);
+    }
+
+
+    /**
+     * Checks whether the raw segment at the given index is equal to the given
+     * characters. Unlike {@link #segment(int)}, this method doesn't throw an
+     * exception when the index is out of the range of the segments.
+     *
+     * @param index
+     *         The index of the segment.
+     *
+     * @param segment
+     *         The characters to compare with the raw segment.
+     *
+     * @return
+     *         {@code true} if the segment exists and it is equal to {@code segment}.
+     *
+     * @throws NullPointerException
+     *         If {@code segment} is {@code null}.
+     */
+    public boolean segmentEquals(int index, CharSequence segment)
+    {
+        // Ensure the segment is not null.
+        if (segment == null)
+        {
+            throw newNPE("The segment must not be null.");
+        }
+
+        var start = find(index);
+
+        if (start == -1)
+        {
+            return false;
+        }
+
+        var end = segmentEnd(start);
+
+        if (end - start != segment.length())
+        {
+            return false;
+        }
+
+        for (var i = start; i < end; i++)
+        {
+            if (value.charAt(i) != segment.charAt(i - start))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Get the last raw segment.
+     *
+     * @return
+     *         A slice of the path holding the last segment, or {@code null} if
+     *         the path has no segments.
+     */
+    public CharSequence lastSegment()
+    {
+        if (value.isEmpty())
+        {
+            return null;
+        }
+
+        return new Slice(value, value.lastIndexOf('/') + 1, value.length());
+    }
+
+
+    /**
+     * Returns an iterator over the raw segments.
+     *
+     * <p>
+     * To avoid allocation per segment, the iterator returns the same {@link
+     * CharSequence} object from every call of {@link Iterator#next()}, updated
+     * to hold the next segment. Call {@code toString()} on it to keep a segment
+     * after advancing the iterator.
+     * </p>
+     *
+     * @return
+     *         An iterator over the raw segments.
+     */
+    @Override
+    public Iterator<CharSequence> iterator()
+    {
+        return new SegmentIterator();
+    }
+
+
+    /**
+     * Returns the path of this view.
+     *
+     * @return
+     *         The path, or an empty string if the path is absent.
+     */
+    @Override
+    public String toString()
+    {
+        return value;
+    }
+
+
+    private int find(int index)
+    {
+        if (index < 0 || value.isEmpty())
+        {
+            return -1;
+        }
+
+        // The first segment starts after the leading "/", if any.
+        var start = isAbsolute() ? 1 : 0;
+
+        for (var n = 0; n < index; n++)
+        {
+            var slash = value.indexOf('/', start);
+
+            if (slash == -1)
+            {
+                return -1;
+            }
+
+            start = slash + 1;
+        }
+
+        return start;
+    }
+
+
+    private int segmentStart(int index)
+    {
+        var start = find(index);
+
+        // Ensure the segment exists.
+        if (start == -1)
+        {
+            throw new IndexOutOfBoundsException(String.format(
+                "The index %d is out of the range of the segments.", index));
+        }
+
+        return start;
+    }
+
+
+    private int segmentEnd(int start)
+    {
+        // The segment ends at the next "/" or at the end of the path.
+        var end = value.indexOf('/', start);
+
+        return (end == -1) ? value.length() : end;
+    }
+
+
+    /**
+     * A slice of a string.
+     */
+    private static final class Slice implements CharSequence
+    {
+        private final String string;
+        private int start;
+        private int end;
+
+
+        Slice(String string, int start, int end)
+        {
+            this.string = string;
+            this.start  = start;
+            this.end    = end;
+        }
+
+
+        @Override
+        public int length()
+        {
+            return end - start;
+        }
+
+
+        @Override
+        public char charAt(int index)
+        {
+            if (index < 0 || length() <= index)
+            {
+                throw new IndexOutOfBoundsException(String.format(
+                    "The index %d is out of the range of the segment.", index));
+            }
+
+            return string.charAt(start + index);
+        }
+
+
+        @Override
+        public CharSequence subSequence(int from, int to)
+        {
+            if (from < 0 || to < from || length() < to)
+            {
+                throw new IndexOutOfBoundsException(String.format(
+                    "The range [%d, %d) is out of the range of the segment.", from, to));
+            }
+
+            return new Slice(string, start + from, start + to);
+        }
+
+
+        @Override
+        public String toString()
+        {
+            return string.substring(start, end);
+        }
+    }
+
+
+    /**
+     * An iterator reusing one {@link Slice} for all the segments.
+     */
+    private final class SegmentIterator implements Iterator<CharSequence>
+    {
+        private final Slice slice = new Slice(value, 0, 0);
+        private int next = find(0);
+
+
+        @Override
+        public boolean hasNext()
+        {
+            return next != -1;
+        }
+
+
+        @Override
+        public CharSequence next()
+        {
+            if (next == -1)
+            {
+                throw new NoSuchElementException();
+            }
+
+            var end = segmentEnd(next);
+
+            slice.start = next;
+            slice.end   = end;
+
+            // The last segment ends at the end of the path.
+            next = (end == value.length()) ? -1 : end + 1;
+
+            return slice;
+        }
+    }
+}
@@ -65,6 +65,37 @@ class PercentDecoder extends PercentEncodedStringProcessor
     }
 
 
+    /**
+     * Decode percent-encoded values contained in the given string, or return the
+     * string itself if it doesn't contain any percent-encoded value.
+     *
+     * @param input
+     *         A string containing percent-encoded values to decode. May be {@code
+     *         null}.
+     *
+     * @param charset
+     *         The charset to be used for decoding values.
+     *
+     * @return
+     *         The decoded string, {@code input} itself if it doesn't contain "%",
+     *         or {@code null} if {@code input} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the input value has invalid percent-encoded values that can not
+     *         be decoded.
+     */
+    static String decodeIfEncoded(String input, Charset charset)
+    {
+        if (input == null || input.indexOf('%') == -1)
+        {
+            // Nothing to decode.
+            return input;
+        }
+
+        return decode(input, charset);
+    }
+
+
     /**
      * The private constructor.
      */
@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.czeal.rfc3986.Utils.fromHexDigit;
+import static org.czeal.rfc3986.Utils.newNPE;
+import java.io.CharConversionException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+
+
+/**
+ * A {@link ReadableByteChannel} decoding percent-encoded values read from another
+ * {@link ReadableByteChannel} into octets.
+ *
+ * <p>
+ * Unlike {@link PercentDecodingReader}, this channel doesn't use a charset. A
+ * percent-encoded value ({@code "%XX"}) becomes the octet it represents, and the
+ * other bytes are passed through as they are, so binary values such as the
+ * payload of a {@code data:} URI can be decoded. The input is processed in a
+ * fixed-size buffer, runs of bytes without {@code "%"} are copied in bulk, and
+ * a percent-encoded value may be split across the reads of the source.
+ * </p>
+ *
+ * <p>
+ * When the source is in non-blocking mode, {@link #read(ByteBuffer)} may return
+ * {@code 0}, and a percent-encoded value split across the reads is completed by
+ * a later call. An invalid percent-encoded value is reported by {@link
+ * CharConversionException}.
+ * </p>
+ *
+ * <p>Examples:</p>
+ * <pre>{@code
+ * try (ReadableByteChannel channel = new PercentDecodingChannel(Channels.newChannel(input)))
+ * {
+ *     ByteBuffer buffer = ByteBuffer.allocate(8192);
+ *
+ *     while (channel.read(buffer) != -1)
+ *     {
+ *         buffer.flip();
+ *         output.write(buffer);
+ *         buffer.clear();
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @see PercentEncodingChannel
+ * @see PercentDecodingReader
+ *
+ * @author Hideki Ikeda
+ */
+public final class PercentDecodingChannel implements ReadableByteChannel
+{
+    /**
+     * The size of the input buffer.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+
+    /**
+     * The source.
+     */
+    private final ReadableByteChannel source;
+
+
+    /**
+     * The input buffer, in the read mode.
+     */
+    private final ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE).flip();
+
+
+    /**
+     * The index of the first byte of {@link #input} in the whole input, for
+     * error messages.
+     */
+    private long offset;
+
+
+    /**
+     * Whether the source has reached its end.
+     */
+    private boolean eof;
+
+
+    /**
+     * Whether this channel has been closed.
+     */
+    private boolean closed;
+
+
+    /**
+     * Creates a channel decoding the percent-encoded values read from the given
+     * channel.
+     *
+     * @param source
+     *         The source of the percent-encoded values.
+     *
+     * @throws NullPointerException
+     *         If {@code source} is {@code null}.
+     */
+    public PercentDecodingChannel(ReadableByteChannel source)
+    {
+        // Ensure the source is not null.
+        if (source == null)
+        {
+            throw newNPE("The source must not be null.");
+        }
+
+        this.source = source;
+    }
+
+
+    @Override
+    public int read(ByteBuffer destination) throws IOException
+    {
+        if (closed)
+        {
+            throw new ClosedChannelException();
+        }
+
+        var count = 0;
+
+        while (destination.hasRemaining())
+        {
+            if (!input.hasRemaining() && !fill())
+            {
+                break;
+            }
+
+            var p = input.position();
+
+            if (input.get(p) != '%')
+            {
+                count += copyLiterals(destination);
+                continue;
+            }
+
+            // Ensure "%" is followed by two bytes.
+            if (!fill(3))
+            {
+                // No more bytes are available now (non-blocking mode).
+                break;
+            }
+
+            destination.put((byte)octet());
+            count++;
+        }
+
+        return (count == 0 && eof && !input.hasRemaining()) ? -1 : count;
+    }
+
+
+    @Override
+    public boolean isOpen()
+    {
+        return !closed;
+    }
+
+
+    @Override
+    public void close() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+
+        closed = true;
+        source.close();
+    }
+
+
+    private boolean fill(int min) throws IOException
+    {
+        // Read until the input has at least 'min' bytes.
+        while (input.remaining() < min)
+        {
+            if (!fill())
+            {
+                if (eof)
+                {
+                    throw new CharConversionException(String.format(
+                        "The percent symbol \"%%\" at the index %d is not followed by two characters.",
+                        offset + input.position()));
+                }
+
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    private boolean fill() throws IOException
+    {
+        if (eof)
+        {
+            return false;
+        }
+
+        // Keep the unprocessed bytes, such as a split percent-encoded value.
+        offset += input.position();
+        input.compact();
+
+        var n = source.read(input);
+
+        input.flip();
+
+        if (n == -1)
+        {
+            eof = true;
+        }
+
+        return 0 < n;
+    }
+
+
+    private int copyLiterals(ByteBuffer destination)
+    {
+        // Find the end of the run of the bytes without "%".
+        var start = input.position();
+        var end   = start + Math.min(input.remaining(), destination.remaining());
+        var i     = start;
+
+        while (i < end && input.get(i) != '%')
+        {
+            i++;
+        }
+
+        // Copy the run in bulk.
+        var limit = input.limit();
+
+        input.limit(i);
+        destination.put(input);
+        input.limit(limit);
+
+        return i - start;
+    }
+
+
+    private int octet() throws IOException
+    {
+        var p    = input.position();
+        var high = fromHexDigit((char)(input.get(p + 1) & 0xFF));
+        var low  = fromHexDigit((char)(input.get(p + 2) & 0xFF));
+
+        // Ensure the two bytes are hex digits.
+        if (high == -1 || low == -1)
+        {
+            var bad = (high == -1) ? p + 1 : p + 2;
+
+            throw new CharConversionException(String.format(
+                "The character \"%s\" at the index %d is invalid as a hex digit.",
+                (char)(input.get(bad) & 0xFF), offset + bad));
+        }
+
+        input.position(p + 3);
+
+        return (high << 4) | low;
+    }
+}
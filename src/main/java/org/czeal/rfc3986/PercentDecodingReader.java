@@ -0,0 +1,387 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.czeal.rfc3986.Utils.fromHexDigit;
+import static org.czeal.rfc3986.Utils.newNPE;
+import java.io.CharConversionException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Objects;
+
+
+/**
+ * A {@link Reader} decoding percent-encoded characters read from another
+ * {@link Reader}.
+ *
+ * <p>
+ * The input is processed in a fixed-size buffer, so the memory used doesn't
+ * depend on the length of the input. A run of characters without {@code "%"}
+ * is copied to the caller's array as it is. Percent-encoded values ({@code "%XX"})
+ * are collected as octets and decoded with the charset. A percent-encoded value
+ * or a multi-byte sequence may be split across the reads of the source.
+ * </p>
+ *
+ * <p>
+ * The octets of a character must be consecutive percent-encoded values. Invalid
+ * percent-encoded values and octets which are invalid in the charset are reported
+ * by {@link CharConversionException} and {@link java.nio.charset.CharacterCodingException}
+ * respectively, both of which are {@link IOException}s.
+ * </p>
+ *
+ * <p>Examples:</p>
+ * <pre>{@code
+ * // Decode a large form body, where "+" represents a space.
+ * try (Reader reader = new PercentDecodingReader(
+ *         new InputStreamReader(body, StandardCharsets.US_ASCII), StandardCharsets.UTF_8, true))
+ * {
+ *     reader.transferTo(writer);
+ * }
+ * }</pre>
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @see PercentEncodingWriter
+ * @see PercentDecodingChannel
+ *
+ * @author Hideki Ikeda
+ */
+public final class PercentDecodingReader extends Reader
+{
+    /**
+     * The size of the input buffer.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+
+    /**
+     * The size of the buffer for the octets of percent-encoded values.
+     */
+    private static final int OCTET_BUFFER_SIZE = 256;
+
+
+    /**
+     * The source.
+     */
+    private final Reader source;
+
+
+    /**
+     * The decoder of the octets of percent-encoded values.
+     */
+    private final CharsetDecoder decoder;
+
+
+    /**
+     * Whether {@code "+"} is decoded as a space.
+     */
+    private final boolean plusAsSpace;
+
+
+    /**
+     * The input buffer. The characters in the range of {@link #position} to
+     * {@link #limit} have not been processed yet.
+     */
+    private final char[] input = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+
+    /**
+     * The index of {@code input[0]} in the whole input, for error messages.
+     */
+    private long offset;
+
+
+    /**
+     * The octets of percent-encoded values which have not been decoded yet, in
+     * the write mode.
+     */
+    private final ByteBuffer octets = ByteBuffer.allocate(OCTET_BUFFER_SIZE);
+
+
+    /**
+     * The characters decoded from octets which have not been read yet, in the
+     * read mode.
+     */
+    private final CharBuffer decoded = CharBuffer.allocate(2 * OCTET_BUFFER_SIZE).flip();
+
+
+    /**
+     * Whether this reader has been closed.
+     */
+    private boolean closed;
+
+
+    /**
+     * Creates a reader decoding the percent-encoded values with the given charset.
+     *
+     * @param source
+     *         The source of the percent-encoded characters.
+     *
+     * @param charset
+     *         The charset of the octets of the percent-encoded values.
+     *
+     * @throws NullPointerException
+     *         If {@code source} or {@code charset} is {@code null}.
+     */
+    public PercentDecodingReader(Reader source, Charset charset)
+    {
+        this(source, charset, false);
+    }
+
+
+    /**
+     * Creates a reader decoding the percent-encoded values with the given charset.
+     *
+     * @param source
+     *         The source of the percent-encoded characters.
+     *
+     * @param charset
+     *         The charset of the octets of the percent-encoded values.
+     *
+     * @param plusAsSpace
+     *         {@code true} to decode {@code "+"} as a space, as in the {@code
+     *         application/x-www-form-urlencoded} format.
+     *
+     * @throws NullPointerException
+     *         If {@code source} or {@code charset} is {@code null}.
+     */
+    public PercentDecodingReader(Reader source, Charset charset, boolean plusAsSpace)
+    {
+        // Ensure the source is not null.
+        if (source == null)
+        {
+            throw newNPE("The source must not be null.");
+        }
+
+        // Ensure the charset is not null.
+        if (charset == null)
+        {
+            throw newNPE("The charset must not be null.");
+        }
+
+        this.source      = source;
+        this.decoder     = charset.newDecoder()
+                                  .onMalformedInput(CodingErrorAction.REPORT)
+                                  .onUnmappableCharacter(CodingErrorAction.REPORT);
+        this.plusAsSpace = plusAsSpace;
+    }
+
+
+    @Override
+    public int read(char[] buffer, int off, int len) throws IOException
+    {
+        Objects.checkFromIndexSize(off, len, buffer.length);
+        ensureOpen();
+
+        if (len == 0)
+        {
+            return 0;
+        }
+
+        var count = 0;
+
+        while (count < len)
+        {
+            // Return the characters decoded from octets first.
+            if (decoded.hasRemaining())
+            {
+                var n = Math.min(decoded.remaining(), len - count);
+                decoded.get(buffer, off + count, n);
+                count += n;
+                continue;
+            }
+
+            if (position == limit && !fill(1))
+            {
+                // The end of the input. Decode the remaining octets, if any.
+                if (octets.position() != 0 && decodeOctets(true))
+                {
+                    continue;
+                }
+
+                break;
+            }
+
+            var c = input[position];
+
+            if (c != '%')
+            {
+                if (octets.position() != 0)
+                {
+                    // A literal character ends the sequence of octets.
+                    decodeOctets(true);
+                    continue;
+                }
+
+                count += copyLiterals(buffer, off + count, len - count);
+                continue;
+            }
+
+            // Ensure "%" is followed by two characters.
+            if (limit - position < 3 && !fill(3))
+            {
+                throw new CharConversionException(String.format(
+                    "The percent symbol \"%%\" at the index %d is not followed by two characters.",
+                    offset + position));
+            }
+
+            octets.put((byte)octet());
+            position += 3;
+
+            if (!octets.hasRemaining())
+            {
+                // The octet buffer is full. A multi-byte sequence at the end is
+                // kept by the decoder.
+                decodeOctets(false);
+            }
+        }
+
+        return (count == 0) ? -1 : count;
+    }
+
+
+    @Override
+    public void close() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+
+        closed = true;
+        source.close();
+    }
+
+
+    private void ensureOpen() throws IOException
+    {
+        if (closed)
+        {
+            throw new IOException("The reader has been closed.");
+        }
+    }
+
+
+    private boolean fill(int min) throws IOException
+    {
+        // Move the unprocessed characters to the head of the buffer.
+        if (position != 0)
+        {
+            System.arraycopy(input, position, input, 0, limit - position);
+            offset += position;
+            limit  -= position;
+            position = 0;
+        }
+
+        // Read until the buffer holds at least 'min' characters.
+        while (limit < min)
+        {
+            var n = source.read(input, limit, input.length - limit);
+
+            if (n == -1)
+            {
+                return false;
+            }
+
+            limit += n;
+        }
+
+        return true;
+    }
+
+
+    private int copyLiterals(char[] buffer, int off, int len)
+    {
+        // Copy the run of the characters without "%" (and "+").
+        var end = Math.min(limit, position + len);
+        var i   = position;
+
+        while (i < end && input[i] != '%' && !(plusAsSpace && input[i] == '+'))
+        {
+            i++;
+        }
+
+        var n = i - position;
+
+        System.arraycopy(input, position, buffer, off, n);
+        position = i;
+
+        if (n == 0)
+        {
+            // "+" decoded as a space.
+            buffer[off] = ' ';
+            position++;
+            return 1;
+        }
+
+        return n;
+    }
+
+
+    private int octet() throws IOException
+    {
+        var high = fromHexDigit(input[position + 1]);
+        var low  = fromHexDigit(input[position + 2]);
+
+        // Ensure the two characters are hex digits.
+        if (high == -1 || low == -1)
+        {
+            var bad = (high == -1) ? position + 1 : position + 2;
+
+            throw new CharConversionException(String.format(
+                "The character \"%s\" at the index %d is invalid as a hex digit.",
+                input[bad], offset + bad));
+        }
+
+        return (high << 4) | low;
+    }
+
+
+    private boolean decodeOctets(boolean endOfSequence) throws IOException
+    {
+        octets.flip();
+        decoded.clear();
+
+        var result = decoder.decode(octets, decoded, endOfSequence);
+
+        if (result.isError())
+        {
+            result.throwException();
+        }
+
+        if (endOfSequence)
+        {
+            // The decoder is reused for the next sequence.
+            decoder.flush(decoded);
+            decoder.reset();
+        }
+
+        octets.compact();
+        decoded.flip();
+
+        return decoded.hasRemaining();
+    }
+}
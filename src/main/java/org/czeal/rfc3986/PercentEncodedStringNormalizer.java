@@ -16,7 +16,13 @@
 package org.czeal.rfc3986;
 
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.czeal.rfc3986.Utils.fromHexDigit;
+import static org.czeal.rfc3986.Utils.isUnreserved;
 import static org.czeal.rfc3986.Utils.newISE;
+import static org.czeal.rfc3986.Utils.toHexDigit;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 
@@ -55,10 +61,190 @@ import java.nio.charset.Charset;
  * </pre>
  * </blockquote>
  *
+ * <p>
+ * For charsets in which an ASCII octet always represents the same ASCII character
+ * (e.g. UTF-8), the normalization is performed triplet by triplet through a lookup
+ * table without decoding the octets with the charset. Otherwise, each run of
+ * percent-encoded values is decoded with the charset and encoded back.
+ * </p>
+ *
+ * <p>
+ * Octets which can't be decoded with the charset, which are accepted when parsing
+ * with {@link ParseOptions#syntaxOnly()}, are kept percent-encoded with upper-case
+ * hex digits.
+ * </p>
+ *
  * @author Hideki Ikeda
  */
 abstract class PercentEncodedStringNormalizer extends PercentEncodedStringProcessor
 {
+    /**
+     * The lookup table mapping an octet to the unreserved character it represents,
+     * or to {@code 0} if the octet does not represent an unreserved character.
+     */
+    private static final char[] UNRESERVED_OCTETS = new char[256];
+
+
+    static
+    {
+        for (var octet = 0; octet < 0x80; octet++)
+        {
+            if (isUnreserved((char)octet))
+            {
+                UNRESERVED_OCTETS[octet] = (char)octet;
+            }
+        }
+    }
+
+
+    @Override
+    protected String process(String input, Charset charset, StringBuilder outputBuilder)
+    {
+        // If the percent-encoded values can't be normalized triplet by triplet.
+        if (!isTripletNormalizationApplicable(input, charset))
+        {
+            // Decode each run of percent-encoded values with the charset and
+            // encode them back.
+            return super.process(input, charset, outputBuilder);
+        }
+
+        // Normalize each percent-encoded value through the lookup table.
+        return normalizeTriplets(input, outputBuilder);
+    }
+
+
+    /**
+     * Checks whether percent-encoded values in a string using the given charset
+     * can be normalized triplet by triplet, that is, whether a percent-encoded
+     * ASCII octet always represents the same ASCII character in the charset.
+     * This holds for ASCII-compatible charsets whose multi-byte sequences (if
+     * any) never contain ASCII octets.
+     *
+     * @param charset
+     *         The charset.
+     *
+     * @return
+     *         {@code true} if percent-encoded values can be normalized triplet
+     *         by triplet; otherwise, {@code false}.
+     */
+    static boolean isTripletNormalizationSupported(Charset charset)
+    {
+        return charset == UTF_8 || charset == US_ASCII || charset == ISO_8859_1;
+    }
+
+
+    /**
+     * Checks whether a string contains a percent-encoded non-ASCII octet.
+     *
+     * @param input
+     *         The input string.
+     *
+     * @return
+     *         {@code true} if the string contains a percent-encoded non-ASCII octet;
+     *         otherwise, {@code false}.
+     */
+    static boolean hasNonAsciiOctet(String input)
+    {
+        for (var i = input.indexOf('%'); i != -1; i = input.indexOf('%', i + 1))
+        {
+            if (i + 1 < input.length() && fromHexDigit(input.charAt(i + 1)) >= 8)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    private boolean isTripletNormalizationApplicable(String input, Charset charset)
+    {
+        // Ensure a percent-encoded ASCII octet represents the same ASCII character
+        // in the charset.
+        if (!isTripletNormalizationSupported(charset))
+        {
+            return false;
+        }
+
+        // If lower-case is not required, all the percent-encoded values can be
+        // normalized individually.
+        if (!toLowerCase())
+        {
+            return true;
+        }
+
+        // Lower-casing characters represented by non-ASCII octets requires decoding
+        // them with the charset.
+        return !hasNonAsciiOctet(input);
+    }
+
+
+    private String normalizeTriplets(String input, StringBuilder outputBuilder)
+    {
+        // The length of the input.
+        var length = input.length();
+
+        // The output is at most as long as the input.
+        outputBuilder.ensureCapacity(length);
+
+        for (var i = 0; i < length; i++)
+        {
+            // The character at the current index.
+            var c = input.charAt(i);
+
+            // If the character is not "%", process the character.
+            if (c != '%')
+            {
+                onNonPercent(input, outputBuilder, c, i);
+                continue;
+            }
+
+            // Ensure the "%" is followed by two characters.
+            if (i + 2 >= length)
+            {
+                throw onMalformedPercentEncodedValue(input, i);
+            }
+
+            // The higher and lower hex digits of the percent-encoded value.
+            var higher = fromHexDigit(input.charAt(i + 1));
+            var lower  = fromHexDigit(input.charAt(i + 2));
+
+            // Ensure the hex digits are valid.
+            if (higher == -1 || lower == -1)
+            {
+                var index = (higher == -1) ? i + 1 : i + 2;
+                throw onInvalidHexDigit(input, input.charAt(index), index);
+            }
+
+            // Normalize the octet.
+            normalizeOctet((higher << 4) | lower, true, outputBuilder);
+
+            i += 2;
+        }
+
+        // Build the output string.
+        return outputBuilder.toString();
+    }
+
+
+    private void normalizeOctet(int octet, boolean decodable, StringBuilder outputBuilder)
+    {
+        // The unreserved character represented by the octet, if any.
+        var decoded = decodable ? UNRESERVED_OCTETS[octet] : 0;
+
+        if (decoded != 0)
+        {
+            // Decode the percent-encoded unreserved character.
+            outputBuilder.append(toLowerCase() ? Character.toLowerCase(decoded) : decoded);
+        }
+        else
+        {
+            // Keep the percent-encoded value with upper-case hex digits.
+            outputBuilder.append('%').append(toHexDigit(octet >> 4)).append(toHexDigit(octet & 0x0F));
+        }
+    }
+
+
     @Override
     protected void onDecoded(
         Charset charset, StringBuilder outputBuilder, CharBuffer buffer)
@@ -121,6 +307,23 @@ abstract class PercentEncodedStringNormalizer extends PercentEncodedStringProces
     }
 
 
+    @Override
+    protected void onDecodeFailed(
+        String input, Charset charset, StringBuilder outputBuilder, Info info)
+    {
+        // The octets were accepted without being decoded (syntax-only parsing).
+        // Keep them percent-encoded, except the octets representing unreserved
+        // characters if an ASCII octet always represents the same character in
+        // the charset.
+        var decodable = isTripletNormalizationSupported(charset);
+
+        for (var b : info.getByteArray())
+        {
+            normalizeOctet(b & 0xFF, decodable, outputBuilder);
+        }
+    }
+
+
     /**
      * Whether or not lower-case characters are required for the component.
      *
@@ -103,7 +103,8 @@ abstract class PercentEncodedStringProcessor
      *         The input string.
      *
      * @param charset
-     *         The charset used in the input string.
+     *         The charset used in the input string. If {@code null}, only the
+     *         syntax of percent-encoded values is checked and they are not decoded.
      *
      * @param outputBuilder
      *         The output string builder . This property is expected to be populated
@@ -117,12 +118,49 @@ abstract class PercentEncodedStringProcessor
      *         is specified; otherwise, {@code null}.
      */
     protected String process(String input, Charset charset, StringBuilder outputBuilder)
+    {
+        return process(input, 0, input.length(), charset, outputBuilder);
+    }
+
+
+    /**
+     * Processes the given range of an input string in the same way as {@link
+     * #process(String, Charset, StringBuilder)} does. The indexes passed to the
+     * callbacks are the indexes in the whole input string.
+     *
+     * <p>
+     * The range must not split a percent-encoded value. A percent-encoded value
+     * at the end of the range which is not followed by two characters in the
+     * range is handled as malformed.
+     * </p>
+     *
+     * @param input
+     *         The input string.
+     *
+     * @param start
+     *         The index of the first character to process (inclusive).
+     *
+     * @param end
+     *         The index after the last character to process (exclusive).
+     *
+     * @param charset
+     *         The charset used in the input string, or {@code null}.
+     *
+     * @param outputBuilder
+     *         The output string builder, or {@code null}.
+     *
+     * @return
+     *         A string built by {@code outputBuilder} if {@code outputBuilder}
+     *         is specified; otherwise, {@code null}.
+     */
+    protected String process(
+        String input, int start, int end, Charset charset, StringBuilder outputBuilder)
     {
         // The current index.
-        var currentIndex = 0;
+        var currentIndex = start;
 
         // The last index.
-        var lastIndex = input.length() - 1;
+        var lastIndex = end - 1;
 
         // The stream to store bytes represented by percent-encoded values.
         var info = new Info();
@@ -163,6 +201,13 @@ abstract class PercentEncodedStringProcessor
             throw onMalformedPercentEncodedValue(input, currentIndex);
         }
 
+        // If only the syntax is checked, just validate the hex digits.
+        if (charset == null)
+        {
+            toByte(input, currentIndex + 1, currentIndex + 2);
+            return;
+        }
+
         // Extract the target percent-encoded value "%XX" from the input string.
         var percentEncodedValue = input.substring(currentIndex, currentIndex + 3);
 
@@ -242,7 +287,8 @@ abstract class PercentEncodedStringProcessor
         {
             // Failed to decode bytes represented by a sequence of percent-encoded
             // values.
-            throw onDecodeFailed(input, info);
+            onDecodeFailed(input, charset, outputBuilder, info);
+            return;
         }
 
         // Process when the percent-encoded values have been decoded.
@@ -300,6 +346,31 @@ abstract class PercentEncodedStringProcessor
     protected abstract IllegalArgumentException onDecodeFailed(String input, Info info);
 
 
+    /**
+     * Invoked when failed to decoded percent-encoded values contained in the input.
+     * The default implementation throws the exception returned by {@link
+     * #onDecodeFailed(String, Info)}. Subclasses may override this method to
+     * output the percent-encoded values without decoding them instead.
+     *
+     * @param input
+     *         The input value.
+     *
+     * @param charset
+     *         The charset.
+     *
+     * @param outputBuilder
+     *         The output builder.
+     *
+     * @param info
+     *         Information about the percent-encoded values.
+     */
+    protected void onDecodeFailed(
+        String input, Charset charset, StringBuilder outputBuilder, Info info)
+    {
+        throw onDecodeFailed(input, info);
+    }
+
+
     /**
      * Invoked when percent-encoded values contained in the input have been
      * successfully decoded.
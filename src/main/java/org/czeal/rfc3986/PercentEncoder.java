@@ -212,9 +212,15 @@ class PercentEncoder
         {
             // Encode the character using the charset and then convert it to an
             // byte array.
-            return charset.newEncoder()
-                .encode( CharBuffer.wrap(String.valueOf(c)) )
-                .array();
+            var buffer = charset.newEncoder()
+                .encode( CharBuffer.wrap(String.valueOf(c)) );
+
+            // Copy only the encoded bytes. The backing array of the buffer may
+            // be larger than the encoded bytes.
+            var bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+
+            return bytes;
         }
         catch (CharacterCodingException e)
         {
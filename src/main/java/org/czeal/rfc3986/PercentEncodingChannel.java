@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.czeal.rfc3986.Utils.newNPE;
+import static org.czeal.rfc3986.Utils.toHexDigit;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+
+
+/**
+ * A {@link WritableByteChannel} percent-encoding octets and writing them to
+ * another {@link WritableByteChannel}.
+ *
+ * <p>
+ * Unlike {@link PercentEncodingWriter}, this channel doesn't use a charset. An
+ * octet of an ASCII character in the {@link EncodeSet} is written as it is, and
+ * the other octets are written as percent-encoded values ({@code "%XX"}), so
+ * binary values such as the payload of a {@code data:} URI can be encoded. The
+ * output is collected in a fixed-size buffer and runs of octets which are not
+ * encoded are copied in bulk.
+ * </p>
+ *
+ * <p>
+ * {@link #write(ByteBuffer)} consumes all the remaining octets of the given
+ * buffer and writes all the encoded octets to the destination before returning,
+ * so the destination is expected to be in blocking mode.
+ * </p>
+ *
+ * <p>Examples:</p>
+ * <pre>{@code
+ * try (WritableByteChannel channel = new PercentEncodingChannel(
+ *         Channels.newChannel(output), EncodeSet.QUERY_PARAM))
+ * {
+ *     channel.write(ByteBuffer.wrap(payload));
+ * }
+ * }</pre>
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @see PercentDecodingChannel
+ * @see PercentEncodingWriter
+ *
+ * @author Hideki Ikeda
+ */
+public final class PercentEncodingChannel implements WritableByteChannel
+{
+    /**
+     * The size of the output buffer.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+
+    /**
+     * The destination.
+     */
+    private final WritableByteChannel destination;
+
+
+    /**
+     * The octets written as they are.
+     */
+    private final EncodeSet set;
+
+
+    /**
+     * The output buffer, in the write mode.
+     */
+    private final ByteBuffer output = ByteBuffer.allocate(BUFFER_SIZE);
+
+
+    /**
+     * Whether this channel has been closed.
+     */
+    private boolean closed;
+
+
+    /**
+     * Creates a channel percent-encoding the octets written to it.
+     *
+     * @param destination
+     *         The destination of the percent-encoded octets.
+     *
+     * @param set
+     *         The octets written as they are.
+     *
+     * @throws NullPointerException
+     *         If {@code destination} or {@code set} is {@code null}.
+     */
+    public PercentEncodingChannel(WritableByteChannel destination, EncodeSet set)
+    {
+        // Ensure the destination is not null.
+        if (destination == null)
+        {
+            throw newNPE("The destination must not be null.");
+        }
+
+        // Ensure the encode set is not null.
+        if (set == null)
+        {
+            throw newNPE("The encode set must not be null.");
+        }
+
+        this.destination = destination;
+        this.set         = set;
+    }
+
+
+    /**
+     * Percent-encodes all the remaining octets of the given buffer and writes
+     * them to the destination.
+     *
+     * @return
+     *         The number of the consumed octets of {@code source}, which is the
+     *         number of the remaining octets of it before the call.
+     */
+    @Override
+    public int write(ByteBuffer source) throws IOException
+    {
+        if (closed)
+        {
+            throw new ClosedChannelException();
+        }
+
+        var count = source.remaining();
+
+        while (source.hasRemaining())
+        {
+            if (output.remaining() < 3)
+            {
+                drain();
+            }
+
+            var p = source.position();
+
+            if (!set.preserves(source.get(p) & 0xFF))
+            {
+                var octet = source.get() & 0xFF;
+
+                output.put((byte)'%')
+                      .put((byte)toHexDigit(octet >> 4))
+                      .put((byte)toHexDigit(octet & 0x0F));
+                continue;
+            }
+
+            copyPreserved(source);
+        }
+
+        drain();
+
+        return count;
+    }
+
+
+    @Override
+    public boolean isOpen()
+    {
+        return !closed;
+    }
+
+
+    @Override
+    public void close() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+
+        closed = true;
+        destination.close();
+    }
+
+
+    private void copyPreserved(ByteBuffer source)
+    {
+        // Find the end of the run of the octets written as they are.
+        var start = source.position();
+        var end   = start + Math.min(source.remaining(), output.remaining());
+        var i     = start;
+
+        while (i < end && set.preserves(source.get(i) & 0xFF))
+        {
+            i++;
+        }
+
+        // Copy the run in bulk.
+        var limit = source.limit();
+
+        source.limit(i);
+        output.put(source);
+        source.limit(limit);
+    }
+
+
+    private void drain() throws IOException
+    {
+        output.flip();
+
+        while (output.hasRemaining())
+        {
+            destination.write(output);
+        }
+
+        output.clear();
+    }
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.czeal.rfc3986.Utils.newNPE;
+import static org.czeal.rfc3986.Utils.toHexDigit;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Objects;
+
+
+/**
+ * A {@link Writer} percent-encoding characters and writing them to another
+ * {@link Writer}.
+ *
+ * <p>
+ * The characters in the {@link EncodeSet} are written to the destination as
+ * they are, in runs. The other characters are encoded with the charset and
+ * written as percent-encoded values ({@code "%XX"}). A surrogate pair may be
+ * split across the calls of the write methods. An unpaired surrogate and a
+ * character which can not be encoded with the charset are encoded as {@code "?"},
+ * as {@link URIEncoder} does. The memory used doesn't depend on the length of
+ * the input.
+ * </p>
+ *
+ * <p>Examples:</p>
+ * <pre>{@code
+ * try (Writer writer = new PercentEncodingWriter(destination, EncodeSet.QUERY_PARAM, StandardCharsets.UTF_8))
+ * {
+ *     reader.transferTo(writer);
+ * }
+ * }</pre>
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @see PercentDecodingReader
+ * @see PercentEncodingChannel
+ *
+ * @author Hideki Ikeda
+ */
+public final class PercentEncodingWriter extends Writer
+{
+    /**
+     * The size of the buffer for the encoded octets.
+     */
+    private static final int OCTET_BUFFER_SIZE = 256;
+
+
+    /**
+     * The destination.
+     */
+    private final Writer destination;
+
+
+    /**
+     * The characters written as they are.
+     */
+    private final EncodeSet set;
+
+
+    /**
+     * The encoder of the characters to percent-encode.
+     */
+    private final CharsetEncoder encoder;
+
+
+    /**
+     * The octets of the encoded characters, in the write mode.
+     */
+    private final ByteBuffer octets = ByteBuffer.allocate(OCTET_BUFFER_SIZE);
+
+
+    /**
+     * The percent-encoded values of {@link #octets}.
+     */
+    private final char[] encoded = new char[3 * OCTET_BUFFER_SIZE];
+
+
+    /**
+     * A high surrogate written at the end of the last call, waiting for its
+     * low surrogate.
+     */
+    private final CharBuffer pending = CharBuffer.allocate(2);
+
+
+    /**
+     * The buffer for {@link #write(int)}.
+     */
+    private final char[] single = new char[1];
+
+
+    /**
+     * Whether this writer has been closed.
+     */
+    private boolean closed;
+
+
+    /**
+     * Creates a writer percent-encoding the characters with the given charset.
+     *
+     * @param destination
+     *         The destination of the percent-encoded characters.
+     *
+     * @param set
+     *         The characters written as they are.
+     *
+     * @param charset
+     *         The charset used for percent-encoding characters.
+     *
+     * @throws NullPointerException
+     *         If any of the arguments is {@code null}.
+     */
+    public PercentEncodingWriter(Writer destination, EncodeSet set, Charset charset)
+    {
+        // Ensure the destination is not null.
+        if (destination == null)
+        {
+            throw newNPE("The destination must not be null.");
+        }
+
+        // Ensure the encode set is not null.
+        if (set == null)
+        {
+            throw newNPE("The encode set must not be null.");
+        }
+
+        // Ensure the charset is not null.
+        if (charset == null)
+        {
+            throw newNPE("The charset must not be null.");
+        }
+
+        this.destination = destination;
+        this.set         = set;
+        this.encoder     = charset.newEncoder()
+                                  .onMalformedInput(CodingErrorAction.REPLACE)
+                                  .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                                  .replaceWith(new byte[] { '?' });
+    }
+
+
+    @Override
+    public void write(char[] buffer, int off, int len) throws IOException
+    {
+        Objects.checkFromIndexSize(off, len, buffer.length);
+        ensureOpen();
+
+        var end = off + len;
+        var i   = off;
+
+        if (pending.position() != 0 && i < end)
+        {
+            // Complete the surrogate pair of the last call.
+            if (Character.isLowSurrogate(buffer[i]))
+            {
+                pending.put(buffer[i++]);
+            }
+
+            encode(pending.flip(), true);
+            pending.clear();
+        }
+
+        while (i < end)
+        {
+            // Write the run of the characters in the encode set as they are.
+            var start = i;
+
+            while (i < end && set.preserves(buffer[i]))
+            {
+                i++;
+            }
+
+            if (start < i)
+            {
+                destination.write(buffer, start, i - start);
+            }
+
+            // Encode the run of the other characters.
+            start = i;
+
+            while (i < end && !set.preserves(buffer[i]))
+            {
+                i++;
+            }
+
+            if (start == i)
+            {
+                continue;
+            }
+
+            var stop = i;
+
+            if (i == end && Character.isHighSurrogate(buffer[i - 1]))
+            {
+                // The low surrogate may be given by the next call.
+                pending.put(buffer[--stop]);
+            }
+
+            encode(CharBuffer.wrap(buffer, start, stop - start), true);
+        }
+    }
+
+
+    @Override
+    public void write(String str, int off, int len) throws IOException
+    {
+        Objects.checkFromIndexSize(off, len, str.length());
+
+        // Write in chunks to keep the memory used constant.
+        var chunk = new char[Math.min(len, 1024)];
+
+        for (var i = off; i < off + len; i += chunk.length)
+        {
+            var n = Math.min(chunk.length, off + len - i);
+
+            str.getChars(i, i + n, chunk, 0);
+            write(chunk, 0, n);
+        }
+    }
+
+
+    @Override
+    public void write(int c) throws IOException
+    {
+        single[0] = (char)c;
+
+        write(single, 0, 1);
+    }
+
+
+    @Override
+    public void flush() throws IOException
+    {
+        ensureOpen();
+        destination.flush();
+    }
+
+
+    /**
+     * Encodes the pending high surrogate, if any, as {@code "?"}, and closes
+     * the destination.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+
+        try
+        {
+            if (pending.position() != 0)
+            {
+                // The high surrogate is unpaired.
+                encode(pending.flip(), true);
+                pending.clear();
+            }
+        }
+        finally
+        {
+            closed = true;
+            destination.close();
+        }
+    }
+
+
+    private void ensureOpen() throws IOException
+    {
+        if (closed)
+        {
+            throw new IOException("The writer has been closed.");
+        }
+    }
+
+
+    private void encode(CharBuffer chars, boolean endOfInput) throws IOException
+    {
+        while (true)
+        {
+            var result = encoder.encode(chars, octets, endOfInput);
+
+            writeOctets();
+
+            if (result.isUnderflow())
+            {
+                break;
+            }
+        }
+
+        if (endOfInput)
+        {
+            // The encoder is reused for the next run.
+            encoder.flush(octets);
+            writeOctets();
+            encoder.reset();
+        }
+    }
+
+
+    private void writeOctets() throws IOException
+    {
+        octets.flip();
+
+        var n = 0;
+
+        while (octets.hasRemaining())
+        {
+            var octet = octets.get() & 0xFF;
+
+            encoded[n++] = '%';
+            encoded[n++] = toHexDigit(octet >> 4);
+            encoded[n++] = toHexDigit(octet & 0x0F);
+        }
+
+        octets.clear();
+
+        destination.write(encoded, 0, n);
+    }
+}
@@ -46,7 +46,8 @@ class PortNormalizer
      *
      * @param normalizedScheme
      *         The normalized scheme of a URI reference containing the authority.
-     *         Expected to be not {@code null}.
+     *         Expected to be not {@code null}. The scheme is compared case-insensitively,
+     *         so a scheme that has not been normalized yet may also be given.
      *
      * @return
      *         An integer value representing the normalized port.
@@ -82,13 +83,13 @@ class PortNormalizer
         // Check if the port value is 80, which is the default value
         // for "http".
         if (port == 80) {
-            return "http".equals(scheme);
+            return "http".equalsIgnoreCase(scheme);
         }
 
         // Check if the port value is 443, which is the default value
         // for "https".
         if (port == 443) {
-            return "https".equals(scheme);
+            return "https".equalsIgnoreCase(scheme);
         }
 
         return false;
@@ -0,0 +1,601 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.czeal.rfc3986.Utils.isInRange;
+import static org.czeal.rfc3986.Utils.newIAE;
+import static org.czeal.rfc3986.Utils.newNPE;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * An ordered multimap of the decoded parameters in a {@code query} component.
+ *
+ * <p>
+ * The query is interpreted as parameters separated by {@code "&"}, each of which
+ * consists of a key and an optional value separated by the first {@code "="}
+ * (see {@link QueryView}). The keys and the values are percent-decoded with the
+ * charset of the URI reference. Note that {@code "+"} is not decoded as a space,
+ * because it is a literal {@code "+"} in <a href="https://www.rfc-editor.org/rfc/rfc3986">
+ * RFC 3986</a>. The parameters of a form body parsed by {@link FormUrlEncodedCodec}
+ * are the exception, where {@code "+"} is decoded as a space, empty parameters
+ * (e.g. between {@code "&&"}) are skipped, and a parameter without {@code "="}
+ * has an empty value, as in the URL Standard.
+ * </p>
+ *
+ * <p>
+ * The parameters are decoded on the first call of {@link #getAll(String)}, {@link
+ * #getFirst(String)} or {@link #names()}, and the result is cached on this object.
+ * The typed accessors such as {@link #getInt(String, int)} don't decode the whole
+ * query. They find the parameter and parse its value from the characters of the
+ * raw query, without creating strings.
+ * </p>
+ *
+ * <p>Examples:</p>
+ * <pre>{@code
+ * QueryParameters params = URIReference.parse("http://example.com/?q=caf%C3%A9&page=2&tag=a&tag=b").queryParams();
+ *
+ * System.out.println(params.getFirst("q"));       // "café"
+ * System.out.println(params.getAll("tag"));       // "[a, b]"
+ * System.out.println(params.names());             // "[q, page, tag]"
+ * System.out.println(params.getInt("page", 1));   // "2"
+ * System.out.println(params.getInt("size", 20));  // "20"
+ * }</pre>
+ *
+ * <p>
+ * This class is immutable and safe for use by multiple concurrent threads.
+ * </p>
+ *
+ * @see URIReference#queryParams()
+ * @see FormUrlEncodedCodec#parse(CharSequence)
+ *
+ * @author Hideki Ikeda
+ */
+public final class QueryParameters
+{
+    /**
+     * The raw query, or {@code null} if the query is absent.
+     */
+    private final String query;
+
+
+    /**
+     * The charset used for decoding the parameters.
+     */
+    private final Charset charset;
+
+
+    /**
+     * Whether the query is in the {@code application/x-www-form-urlencoded}
+     * format, where {@code "+"} represents a space.
+     */
+    private final boolean form;
+
+
+    /**
+     * The decoded parameters, computed lazily.
+     */
+    private Decoded decoded;
+
+
+    /**
+     * The package-private constructor.
+     *
+     * @param query
+     *         The raw query. May be {@code null}.
+     *
+     * @param charset
+     *         The charset used for decoding the parameters.
+     */
+    QueryParameters(String query, Charset charset)
+    {
+        this(query, charset, false);
+    }
+
+
+    /**
+     * The package-private constructor.
+     *
+     * @param query
+     *         The raw query. May be {@code null}.
+     *
+     * @param charset
+     *         The charset used for decoding the parameters.
+     *
+     * @param form
+     *         {@code true} to decode {@code "+"} as a space.
+     */
+    QueryParameters(String query, Charset charset, boolean form)
+    {
+        this.query   = query;
+        this.charset = charset;
+        this.form    = form;
+    }
+
+
+    /**
+     * Get all the decoded values of the parameters with the given decoded name,
+     * in the order in the query.
+     *
+     * @param name
+     *         The decoded name of the parameters.
+     *
+     * @return
+     *         An unmodifiable list of the values. A parameter without a value
+     *         (e.g. {@code "flag"} in {@code "flag&a=1"}) has a {@code null} value,
+     *         or an empty value in a form body.
+     *         The list is empty if no parameter has the name.
+     *
+     * @throws NullPointerException
+     *         If {@code name} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the query can not be decoded with the charset.
+     */
+    public List<String> getAll(String name)
+    {
+        validateName(name);
+
+        var values = decoded().map.get(name);
+
+        return (values == null) ? List.of() : values;
+    }
+
+
+    /**
+     * Get the decoded value of the first parameter with the given decoded name.
+     *
+     * @param name
+     *         The decoded name of the parameter.
+     *
+     * @return
+     *         The decoded value, or {@code null} if no parameter has the name or
+     *         the first parameter with the name doesn't have a value (except in a
+     *         form body, where such a parameter has an empty value).
+     *
+     * @throws NullPointerException
+     *         If {@code name} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the query can not be decoded with the charset.
+     */
+    public String getFirst(String name)
+    {
+        validateName(name);
+
+        var values = decoded().map.get(name);
+
+        return (values == null) ? null : values.get(0);
+    }
+
+
+    /**
+     * Checks whether a parameter with the given decoded name exists.
+     *
+     * @param name
+     *         The decoded name of the parameter.
+     *
+     * @return
+     *         {@code true} if the parameter exists.
+     *
+     * @throws NullPointerException
+     *         If {@code name} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the query can not be decoded with the charset.
+     */
+    public boolean contains(String name)
+    {
+        validateName(name);
+
+        return decoded().map.containsKey(name);
+    }
+
+
+    /**
+     * Get the decoded names of the parameters, in the order of their first occurrences
+     * in the query.
+     *
+     * @return
+     *         An unmodifiable set of the names.
+     *
+     * @throws IllegalArgumentException
+     *         If the query can not be decoded with the charset.
+     */
+    public Set<String> names()
+    {
+        return decoded().map.keySet();
+    }
+
+
+    /**
+     * Get the value of the first parameter with the given name as an {@code int}.
+     *
+     * @param name
+     *         The decoded name of the parameter.
+     *
+     * @param defaultValue
+     *         The value returned when no parameter has the name, or the parameter
+     *         doesn't have a value.
+     *
+     * @return
+     *         The value of the parameter.
+     *
+     * @throws NullPointerException
+     *         If {@code name} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the value is not a decimal integer in the range of {@code int}.
+     */
+    public int getInt(String name, int defaultValue)
+    {
+        var value = getLong(name, defaultValue);
+
+        if (value < Integer.MIN_VALUE || Integer.MAX_VALUE < value)
+        {
+            throw newIAE("The value of the query parameter \"%s\" is out of the range of int.", name);
+        }
+
+        return (int)value;
+    }
+
+
+    /**
+     * Get the value of the first parameter with the given name as a {@code long}.
+     *
+     * @param name
+     *         The decoded name of the parameter.
+     *
+     * @param defaultValue
+     *         The value returned when no parameter has the name, or the parameter
+     *         doesn't have a value.
+     *
+     * @return
+     *         The value of the parameter.
+     *
+     * @throws NullPointerException
+     *         If {@code name} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the value is not a decimal integer in the range of {@code long}.
+     */
+    public long getLong(String name, long defaultValue)
+    {
+        var start = find(name);
+
+        if (start == -1)
+        {
+            return defaultValue;
+        }
+
+        var end    = end(start);
+        var equals = indexOfEquals(start, end);
+
+        if (equals == -1)
+        {
+            return defaultValue;
+        }
+
+        if (needsDecoding(equals + 1, end))
+        {
+            // Rare. The value contains encoded characters.
+            return parseLong(name, decode(equals + 1, end), 0, -1);
+        }
+
+        return parseLong(name, query, equals + 1, end);
+    }
+
+
+    /**
+     * Get the value of the first parameter with the given name as a {@code boolean}.
+     *
+     * <p>
+     * The values {@code "true"} and {@code "false"} are accepted, ignoring case.
+     * A parameter without a value (e.g. {@code "debug"} in {@code "debug&a=1"})
+     * is regarded as {@code true}.
+     * </p>
+     *
+     * @param name
+     *         The decoded name of the parameter.
+     *
+     * @param defaultValue
+     *         The value returned when no parameter has the name.
+     *
+     * @return
+     *         The value of the parameter.
+     *
+     * @throws NullPointerException
+     *         If {@code name} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the value is neither {@code "true"} nor {@code "false"}.
+     */
+    public boolean getBoolean(String name, boolean defaultValue)
+    {
+        var start = find(name);
+
+        if (start == -1)
+        {
+            return defaultValue;
+        }
+
+        var end    = end(start);
+        var equals = indexOfEquals(start, end);
+
+        if (equals == -1)
+        {
+            // A flag parameter.
+            return true;
+        }
+
+        var length = end - equals - 1;
+
+        if (length == 4 && query.regionMatches(true, equals + 1, "true", 0, 4))
+        {
+            return true;
+        }
+
+        if (length == 5 && query.regionMatches(true, equals + 1, "false", 0, 5))
+        {
+            return false;
+        }
+
+        // The value may be percent-encoded.
+        var value = decode(equals + 1, end);
+
+        if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false"))
+        {
+            return value.equalsIgnoreCase("true");
+        }
+
+        throw newIAE("The value of the query parameter \"%s\" is not a boolean.", name);
+    }
+
+
+    /**
+     * Returns the raw query.
+     *
+     * @return
+     *         The raw query, or an empty string if the query is absent.
+     */
+    @Override
+    public String toString()
+    {
+        return (query == null) ? "" : query;
+    }
+
+
+    private void validateName(String name)
+    {
+        // Ensure the name is not null.
+        if (name == null)
+        {
+            throw newNPE("The name must not be null.");
+        }
+    }
+
+
+    private Decoded decoded()
+    {
+        // Read the field once. The Decoded object is immutable, so it is safe to
+        // publish it without synchronization.
+        var current = decoded;
+
+        if (current == null)
+        {
+            current = new Decoded(this);
+            decoded = current;
+        }
+
+        return current;
+    }
+
+
+    private int find(String name)
+    {
+        validateName(name);
+
+        if (query == null)
+        {
+            return -1;
+        }
+
+        // Find the first parameter whose decoded key is the name.
+        for (var start = 0; start <= query.length(); )
+        {
+            var end    = end(start);
+            var equals = indexOfEquals(start, end);
+            var keyEnd = (equals == -1) ? end : equals;
+
+            // A form body has no empty parameters.
+            if (form && start == end)
+            {
+                start = end + 1;
+                continue;
+            }
+
+            if (keyMatches(name, start, keyEnd))
+            {
+                return start;
+            }
+
+            start = end + 1;
+        }
+
+        return -1;
+    }
+
+
+    private boolean keyMatches(String name, int start, int end)
+    {
+        if (!needsDecoding(start, end))
+        {
+            // The raw key is the decoded key.
+            return end - start == name.length() && query.regionMatches(start, name, 0, name.length());
+        }
+
+        // Rare. The key contains encoded characters.
+        return decode(start, end).equals(name);
+    }
+
+
+    private boolean needsDecoding(int start, int end)
+    {
+        if (form)
+        {
+            return FormUrlEncodedCodec.needsDecoding(query, start, end);
+        }
+
+        for (var i = start; i < end; i++)
+        {
+            if (query.charAt(i) == '%')
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    private String decode(int start, int end)
+    {
+        if (form)
+        {
+            return FormUrlEncodedCodec.decode(query, start, end, charset);
+        }
+
+        return PercentDecoder.decodeIfEncoded(query.substring(start, end), charset);
+    }
+
+
+    private int end(int start)
+    {
+        // The parameter ends at the next "&" or at the end of the query.
+        var end = query.indexOf('&', start);
+
+        return (end == -1) ? query.length() : end;
+    }
+
+
+    private int indexOfEquals(int start, int end)
+    {
+        // Find the first "=" in the parameter.
+        for (var i = start; i < end; i++)
+        {
+            if (query.charAt(i) == '=')
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+
+    private static long parseLong(String name, String value, int start, int end)
+    {
+        if (end == -1)
+        {
+            end = value.length();
+        }
+
+        var negative = start < end && value.charAt(start) == '-';
+        var i        = (negative || (start < end && value.charAt(start) == '+')) ? start + 1 : start;
+
+        if (i == end)
+        {
+            throw newIAE("The value of the query parameter \"%s\" is not an integer.", name);
+        }
+
+        // Accumulate negatively to cover Long.MIN_VALUE.
+        var result = 0L;
+
+        for (; i < end; i++)
+        {
+            var c = value.charAt(i);
+
+            if (!isInRange(c, '0', '9'))
+            {
+                throw newIAE("The value of the query parameter \"%s\" is not an integer.", name);
+            }
+
+            var digit = c - '0';
+
+            if (result < (Long.MIN_VALUE + digit) / 10)
+            {
+                throw newIAE("The value of the query parameter \"%s\" is out of the range of long.", name);
+            }
+
+            result = result * 10 - digit;
+        }
+
+        if (!negative && result == Long.MIN_VALUE)
+        {
+            throw newIAE("The value of the query parameter \"%s\" is out of the range of long.", name);
+        }
+
+        return negative ? result : -result;
+    }
+
+
+    /**
+     * The decoded parameters.
+     */
+    private static final class Decoded
+    {
+        final Map<String, List<String>> map;
+
+
+        Decoded(QueryParameters params)
+        {
+            var map = new LinkedHashMap<String, List<String>>();
+
+            QueryView.of(params.query).forEachRange((query, keyStart, keyEnd, valueStart, valueEnd) ->
+            {
+                // A form body has no empty parameters.
+                if (params.form && keyStart == keyEnd && valueStart == -1)
+                {
+                    return;
+                }
+
+                var key = params.decode(keyStart, keyEnd);
+
+                // A parameter without "=" has an empty value in a form body.
+                var value = (valueStart != -1) ? params.decode(valueStart, valueEnd)
+                          : params.form        ? ""
+                          :                      null;
+
+                map.computeIfAbsent(key, k -> new ArrayList<>(1)).add(value);
+            });
+
+            // Make the lists and the map unmodifiable.
+            for (var entry : map.entrySet())
+            {
+                entry.setValue(Collections.unmodifiableList(entry.getValue()));
+            }
+
+            this.map = Collections.unmodifiableMap(map);
+        }
+    }
+}
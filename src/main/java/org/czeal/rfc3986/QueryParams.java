@@ -19,8 +19,9 @@ package org.czeal.rfc3986;
 import static org.czeal.rfc3986.Utils.newNPE;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 
 /**
@@ -36,6 +37,15 @@ import java.util.stream.Collectors;
  * format.
  * </p>
  *
+ * <p>
+ * The parameters are kept in insertion order in a list, and the positions of
+ * the parameters in the list are indexed by their keys, so that looking up,
+ * replacing and removing parameters by a key take time proportional to the number
+ * of the parameters with the key, not to the number of all the parameters. Removed
+ * parameters are left as {@code null} entries in the list, which are compacted
+ * when they outnumber the remaining parameters.
+ * </p>
+ *
  * @author Hideki Ikeda
  */
 class QueryParams
@@ -76,20 +86,34 @@ class QueryParams
             return null;
         }
 
-        // Convert the input string to a list of QueryPrams.
-        var params = Arrays.stream(queryParams.split("&", -1))
-                           .map(QueryParam::parse)
-                           .collect(Collectors.toList());
+        var params = new QueryParams();
 
-        // Create a Query object.
-        return new QueryParams(params);
+        // Split the input string into parameters without regular expressions.
+        QueryView.of(queryParams).forEachRange((query, keyStart, keyEnd, valueStart, valueEnd) ->
+            params.add(query.substring(keyStart, keyEnd),
+                (valueStart == -1) ? null : query.substring(valueStart, valueEnd)));
+
+        return params;
     }
 
 
     /**
-     * Internal storage for query parameters.
+     * Internal storage for query parameters, in insertion order. Removed parameters
+     * are {@code null}.
+     */
+    private final List<QueryParam> params;
+
+
+    /**
+     * The positions in {@link #params} of the parameters, indexed by their keys.
+     */
+    private final Map<String, Positions> index;
+
+
+    /**
+     * The number of the parameters, excluding the removed ones.
      */
-    private List<QueryParam> params;
+    private int size;
 
 
     /**
@@ -118,7 +142,13 @@ class QueryParams
             throw newNPE("The params must not be null.");
         }
 
-        this.params = params;
+        this.params = new ArrayList<>(params.size());
+        this.index  = new HashMap<>();
+
+        for (var param : params)
+        {
+            add(param);
+        }
     }
 
 
@@ -136,12 +166,30 @@ class QueryParams
      */
     QueryParams add(String key, String value)
     {
-        params.add(new QueryParam(key, value));
+        add(new QueryParam(key, value));
 
         return this;
     }
 
 
+    /**
+     * Gets the value of the first parameter with the specified key.
+     *
+     * @param key
+     *         The key of the query parameter.
+     *
+     * @return
+     *         The value of the first parameter with the key, or {@code null} if
+     *         the parameter doesn't exist or it doesn't have a value.
+     */
+    String get(String key)
+    {
+        var positions = index.get(key);
+
+        return (positions == null) ? null : params.get(positions.get(0)).getValue();
+    }
+
+
     /**
      * Replaces the value of an existing parameter. If the key does not exist, no
      * action is taken.
@@ -157,9 +205,20 @@ class QueryParams
      */
     QueryParams replace(String key, String value)
     {
-        params = params.stream()
-                       .map(e -> e.getKey().equals(key) ? new QueryParam(key, value) : e)
-                       .collect(Collectors.toList());
+        var positions = index.get(key);
+
+        if (positions == null)
+        {
+            return this;
+        }
+
+        // Replace the parameters in place, keeping their positions.
+        var param = new QueryParam(key, value);
+
+        for (var i = 0; i < positions.size; i++)
+        {
+            params.set(positions.get(i), param);
+        }
 
         return this;
     }
@@ -177,9 +236,26 @@ class QueryParams
      */
     QueryParams remove(String key)
     {
-        params = params.stream()
-                       .filter(e -> !e.getKey().equals(key))
-                       .collect(Collectors.toList());
+        var positions = index.remove(key);
+
+        if (positions == null)
+        {
+            return this;
+        }
+
+        // Leave null entries in place of the removed parameters.
+        for (var i = 0; i < positions.size; i++)
+        {
+            params.set(positions.get(i), null);
+        }
+
+        size -= positions.size;
+
+        // Compact the list when most of the entries have been removed.
+        if (params.size() - size > size)
+        {
+            compact();
+        }
 
         return this;
     }
@@ -193,7 +269,7 @@ class QueryParams
      */
     boolean isEmpty()
     {
-        return params.isEmpty();
+        return size == 0;
     }
 
 
@@ -208,8 +284,104 @@ class QueryParams
     @Override
     public String toString()
     {
-        return params.stream()
-                     .map(QueryParam::toString)
-                     .collect(Collectors.joining("&"));
+        // Compute the length of the result to presize the builder.
+        var length = Math.max(size - 1, 0);
+
+        for (var param : params)
+        {
+            if (param != null)
+            {
+                length += param.getKey().length();
+
+                if (param.getValue() != null)
+                {
+                    length += 1 + param.getValue().length();
+                }
+            }
+        }
+
+        var sb    = new StringBuilder(length);
+        var first = true;
+
+        for (var param : params)
+        {
+            if (param == null)
+            {
+                // Skip the removed parameter.
+                continue;
+            }
+
+            if (!first)
+            {
+                sb.append('&');
+            }
+
+            sb.append(param.getKey());
+
+            if (param.getValue() != null)
+            {
+                sb.append('=').append(param.getValue());
+            }
+
+            first = false;
+        }
+
+        return sb.toString();
+    }
+
+
+    private void add(QueryParam param)
+    {
+        // Index the position of the new parameter.
+        index.computeIfAbsent(param.getKey(), k -> new Positions()).add(params.size());
+
+        params.add(param);
+        size++;
+    }
+
+
+    private void compact()
+    {
+        // Rebuild the list and the index without the removed parameters.
+        var remaining = new ArrayList<>(params);
+
+        params.clear();
+        index.clear();
+        size = 0;
+
+        for (var param : remaining)
+        {
+            if (param != null)
+            {
+                add(param);
+            }
+        }
+    }
+
+
+    /**
+     * A growable list of positions.
+     */
+    private static class Positions
+    {
+        int[] values = new int[1];
+        int size;
+
+
+        void add(int position)
+        {
+            if (size == values.length)
+            {
+                values = Arrays.copyOf(values, size * 2);
+            }
+
+            values[size++] = position;
+        }
+
+
+        int get(int i)
+        {
+            return values[i];
+        }
     }
 }
@@ -68,6 +68,14 @@ class QueryValidator extends PercentEncodedStringValidator
             return;
         }
 
+        // Validate a large query in chunks. If it is invalid, validate it again
+        // sequentially to report the first problem.
+        if (ChunkedValidator.isApplicable(query, charset) &&
+            new ChunkedValidator().isValid(this, query, charset))
+        {
+            return;
+        }
+
         process(query, charset, null);
     }
 
@@ -0,0 +1,373 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.czeal.rfc3986.Utils.newNPE;
+import java.util.function.BiConsumer;
+
+
+/**
+ * A read-only view of the parameters in a {@code query} component.
+ *
+ * <p>
+ * The query is interpreted as parameters separated by {@code "&"}, each of which
+ * consists of a key and an optional value separated by the first {@code "="},
+ * such as {@code "key1=value1&key2=value2"}. A parameter without {@code "="} has
+ * a {@code null} value. The keys and the values are raw, that is, they are not
+ * percent-decoded.
+ * </p>
+ *
+ * <p>
+ * A {@link QueryView} doesn't copy the query. The parameters are found by scanning
+ * the query, and the lookup methods such as {@link #getFirst(String)} and {@link
+ * #contains(String)} compare the keys against the query in place, without creating
+ * substrings. {@link #forEachRange(RangeConsumer)} exposes the parameters as index
+ * ranges of the query.
+ * </p>
+ *
+ * <p>Examples:</p>
+ * <pre>{@code
+ * QueryView view = URIReference.parse("http://example.com/?a=1&b&a=2").getQueryView();
+ *
+ * System.out.println(view.getFirst("a"));  // "1"
+ * System.out.println(view.contains("b"));  // "true"
+ * System.out.println(view.getFirst("b"));  // "null"
+ * System.out.println(view.size());         // "3"
+ *
+ * // This will output "a=1", "b=null" and "a=2".
+ * view.forEach((key, value) -> System.out.println(key + "=" + value));
+ * }</pre>
+ *
+ * <p>
+ * This class is immutable.
+ * </p>
+ *
+ * @see URIReference#getQueryView()
+ *
+ * @author Hideki Ikeda
+ */
+public final class QueryView
+{
+    /**
+     * A callback receiving a query parameter as index ranges of the query.
+     */
+    @FunctionalInterface
+    public interface RangeConsumer
+    {
+        /**
+         * Receives a query parameter.
+         *
+         * @param query
+         *         The query.
+         *
+         * @param keyStart
+         *         The index of the first character of the key (inclusive).
+         *
+         * @param keyEnd
+         *         The index after the last character of the key (exclusive).
+         *
+         * @param valueStart
+         *         The index of the first character of the value (inclusive), or
+         *         {@code -1} if the parameter doesn't have a value.
+         *
+         * @param valueEnd
+         *         The index after the last character of the value (exclusive),
+         *         or {@code -1} if the parameter doesn't have a value.
+         */
+        void accept(String query, int keyStart, int keyEnd, int valueStart, int valueEnd);
+    }
+
+
+    /**
+     * The view of an absent query.
+     */
+    private static final QueryView EMPTY = new QueryView(null);
+
+
+    /**
+     * Creates a view of the given query.
+     *
+     * @param query
+     *         A query, such as {@code "key1=value1&key2=value2"}. May be {@code
+     *         null}, in which case the view has no parameters.
+     *
+     * @return
+     *         The view of the query.
+     */
+    public static QueryView of(String query)
+    {
+        return (query == null) ? EMPTY : new QueryView(query);
+    }
+
+
+    /**
+     * The query, or {@code null} if the query is absent.
+     */
+    private final String query;
+
+
+    /**
+     * The private constructor.
+     *
+     * @param query
+     *         The query.
+     */
+    private QueryView(String query)
+    {
+        this.query = query;
+    }
+
+
+    /**
+     * Get the query of this view.
+     *
+     * @return
+     *         The query, or {@code null} if the query is absent.
+     */
+    public String getQuery()
+    {
+        return query;
+    }
+
+
+    /**
+     * Get the number of the parameters. Note that an empty query consists of one
+     * parameter whose key is empty.
+     *
+     * @return
+     *         The number of the parameters.
+     */
+    public int size()
+    {
+        if (query == null)
+        {
+            return 0;
+        }
+
+        var count = 1;
+
+        for (var i = query.indexOf('&'); i != -1; i = query.indexOf('&', i + 1))
+        {
+            count++;
+        }
+
+        return count;
+    }
+
+
+    /**
+     * Checks whether this view has no parameters, that is, the query is absent.
+     *
+     * @return
+     *         {@code true} if this view has no parameters.
+     */
+    public boolean isEmpty()
+    {
+        return query == null;
+    }
+
+
+    /**
+     * Checks whether a parameter with the given raw key exists.
+     *
+     * @param name
+     *         The raw key of the parameter.
+     *
+     * @return
+     *         {@code true} if the parameter exists.
+     *
+     * @throws NullPointerException
+     *         If {@code name} is {@code null}.
+     */
+    public boolean contains(String name)
+    {
+        return indexOf(name) != -1;
+    }
+
+
+    /**
+     * Get the raw value of the first parameter with the given raw key.
+     *
+     * @param name
+     *         The raw key of the parameter.
+     *
+     * @return
+     *         The raw value of the first parameter with the key, or {@code null}
+     *         if the parameter doesn't exist or it doesn't have a value. Use
+     *         {@link #contains(String)} to distinguish them.
+     *
+     * @throws NullPointerException
+     *         If {@code name} is {@code null}.
+     */
+    public String getFirst(String name)
+    {
+        var start = indexOf(name);
+
+        if (start == -1)
+        {
+            return null;
+        }
+
+        var keyEnd = start + name.length();
+
+        if (keyEnd == query.length() || query.charAt(keyEnd) != '=')
+        {
+            // The parameter doesn't have a value.
+            return null;
+        }
+
+        return query.substring(keyEnd + 1, end(keyEnd + 1));
+    }
+
+
+    /**
+     * Performs the given action for each parameter, with its raw key and raw value.
+     *
+     * @param action
+     *         The action receiving the raw key and the raw value ({@code null}
+     *         if the parameter doesn't have a value) of each parameter.
+     *
+     * @throws NullPointerException
+     *         If {@code action} is {@code null}.
+     */
+    public void forEach(BiConsumer<String, String> action)
+    {
+        // Ensure the action is not null.
+        if (action == null)
+        {
+            throw newNPE("The action must not be null.");
+        }
+
+        forEachRange((q, keyStart, keyEnd, valueStart, valueEnd) ->
+            action.accept(q.substring(keyStart, keyEnd),
+                (valueStart == -1) ? null : q.substring(valueStart, valueEnd)));
+    }
+
+
+    /**
+     * Performs the given action for each parameter, with the index ranges of
+     * its key and value in the query. No substrings are created.
+     *
+     * @param action
+     *         The action receiving the index ranges of each parameter.
+     *
+     * @throws NullPointerException
+     *         If {@code action} is {@code null}.
+     */
+    public void forEachRange(RangeConsumer action)
+    {
+        // Ensure the action is not null.
+        if (action == null)
+        {
+            throw newNPE("The action must not be null.");
+        }
+
+        if (query == null)
+        {
+            return;
+        }
+
+        for (var start = 0; start <= query.length(); )
+        {
+            var end    = end(start);
+            var equals = indexOfEquals(start, end);
+
+            if (equals == -1)
+            {
+                // The parameter doesn't have a value.
+                action.accept(query, start, end, -1, -1);
+            }
+            else
+            {
+                action.accept(query, start, equals, equals + 1, end);
+            }
+
+            start = end + 1;
+        }
+    }
+
+
+    /**
+     * Returns the query of this view.
+     *
+     * @return
+     *         The query, or an empty string if the query is absent.
+     */
+    @Override
+    public String toString()
+    {
+        return (query == null) ? "" : query;
+    }
+
+
+    private int indexOf(String name)
+    {
+        // Ensure the name is not null.
+        if (name == null)
+        {
+            throw newNPE("The name must not be null.");
+        }
+
+        // A key never contains "=" or "&".
+        if (query == null || name.indexOf('=') != -1 || name.indexOf('&') != -1)
+        {
+            return -1;
+        }
+
+        var length = name.length();
+
+        for (var start = 0; start <= query.length(); )
+        {
+            var end = end(start);
+
+            // The key ends at the first "=" or at the end of the parameter.
+            if (start + length <= end && query.regionMatches(start, name, 0, length) &&
+                (start + length == end || query.charAt(start + length) == '='))
+            {
+                return start;
+            }
+
+            start = end + 1;
+        }
+
+        return -1;
+    }
+
+
+    private int end(int start)
+    {
+        // The parameter ends at the next "&" or at the end of the query.
+        var end = query.indexOf('&', start);
+
+        return (end == -1) ? query.length() : end;
+    }
+
+
+    private int indexOfEquals(int start, int end)
+    {
+        // Find the first "=" in the parameter.
+        for (var i = start; i < end; i++)
+        {
+            if (query.charAt(i) == '=')
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,422 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.czeal.rfc3986.Utils.newIAE;
+import static org.czeal.rfc3986.Utils.newNPE;
+import java.nio.charset.Charset;
+import java.util.Map;
+
+
+/**
+ * A writer building a {@code query} component from parameters.
+ *
+ * <p>
+ * Parameters are appended as {@code "key=value"} pairs separated by {@code "&"}
+ * into a single buffer. The keys and the values are raw (not percent-encoded)
+ * strings, and they are percent-encoded with {@link EncodeSet#QUERY_PARAM} and
+ * the charset of this writer while they are appended. In particular,
+ * {@code "&"}, {@code "="}, {@code "+"}, {@code "#"} and {@code "%"} are always
+ * percent-encoded, so a key or a value never breaks the structure of the query.
+ * </p>
+ *
+ * <p>
+ * Because the output is always a valid query, {@link URIReferenceBuilder#setQueryFrom(QueryWriter)}
+ * doesn't validate it again when the charset of this writer is the same as the
+ * charset of the builder.
+ * </p>
+ *
+ * <p>Examples:</p>
+ * <pre>{@code
+ * QueryWriter writer = new QueryWriter(64)
+ *         .append("q", "a b&c")
+ *         .append("page", 2)
+ *         .append("debug", true)
+ *         .append("flag", null);
+ *
+ * System.out.println(writer);  // "q=a%20b%26c&page=2&debug=true&flag"
+ *
+ * URIReference uriRef = new URIReferenceBuilder()
+ *         .setScheme("http")
+ *         .setHost("example.com")
+ *         .setPath("/search")
+ *         .setQueryFrom(writer)
+ *         .build();
+ * }</pre>
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @see URIReferenceBuilder#setQueryFrom(QueryWriter)
+ *
+ * @author Hideki Ikeda
+ */
+public final class QueryWriter
+{
+    /**
+     * The buffer holding the query.
+     */
+    private final StringBuilder buffer;
+
+
+    /**
+     * The charset used for percent-encoding characters.
+     */
+    private final Charset charset;
+
+
+    /**
+     * Whether a parameter has been appended. A parameter may be empty, so the
+     * length of the buffer can't tell it.
+     */
+    private boolean appended;
+
+
+    /**
+     * Creates a writer encoding characters with UTF-8.
+     */
+    public QueryWriter()
+    {
+        this(16, UTF_8);
+    }
+
+
+    /**
+     * Creates a writer encoding characters with UTF-8, whose buffer has the given
+     * initial capacity.
+     *
+     * @param capacity
+     *         The expected length of the query.
+     *
+     * @throws IllegalArgumentException
+     *         If {@code capacity} is negative.
+     */
+    public QueryWriter(int capacity)
+    {
+        this(capacity, UTF_8);
+    }
+
+
+    /**
+     * Creates a writer encoding characters with the given charset, whose buffer
+     * has the given initial capacity.
+     *
+     * @param capacity
+     *         The expected length of the query.
+     *
+     * @param charset
+     *         The charset used for percent-encoding characters.
+     *
+     * @throws IllegalArgumentException
+     *         If {@code capacity} is negative.
+     *
+     * @throws NullPointerException
+     *         If {@code charset} is {@code null}.
+     */
+    public QueryWriter(int capacity, Charset charset)
+    {
+        // Ensure the capacity is not negative.
+        if (capacity < 0)
+        {
+            throw newIAE("The capacity must not be negative.");
+        }
+
+        // Ensure the charset is not null.
+        if (charset == null)
+        {
+            throw newNPE("The charset must not be null.");
+        }
+
+        this.buffer  = new StringBuilder(capacity);
+        this.charset = charset;
+    }
+
+
+    /**
+     * Appends a parameter.
+     *
+     * @param key
+     *         The raw key of the parameter.
+     *
+     * @param value
+     *         The raw value of the parameter. If {@code null}, the parameter is
+     *         written without {@code "="} (e.g. {@code "flag"}).
+     *
+     * @return
+     *         {@code this} object.
+     *
+     * @throws NullPointerException
+     *         If {@code key} is {@code null}.
+     */
+    public QueryWriter append(String key, String value)
+    {
+        appendKey(key, (value == null) ? 0 : value.length() + 1);
+
+        if (value != null)
+        {
+            buffer.append('=');
+            encode(value);
+        }
+
+        return this;
+    }
+
+
+    /**
+     * Appends a parameter with a {@code long} value.
+     *
+     * @param key
+     *         The raw key of the parameter.
+     *
+     * @param value
+     *         The value of the parameter.
+     *
+     * @return
+     *         {@code this} object.
+     *
+     * @throws NullPointerException
+     *         If {@code key} is {@code null}.
+     */
+    public QueryWriter append(String key, long value)
+    {
+        // The longest long value has 20 characters.
+        appendKey(key, 21);
+
+        // The digits and "-" need no encoding.
+        buffer.append('=').append(value);
+
+        return this;
+    }
+
+
+    /**
+     * Appends a parameter with a {@code double} value. The value is written in
+     * the format of {@link Double#toString(double)}.
+     *
+     * @param key
+     *         The raw key of the parameter.
+     *
+     * @param value
+     *         The value of the parameter.
+     *
+     * @return
+     *         {@code this} object.
+     *
+     * @throws NullPointerException
+     *         If {@code key} is {@code null}.
+     */
+    public QueryWriter append(String key, double value)
+    {
+        appendKey(key, 25);
+
+        // The characters of a double value need no encoding.
+        buffer.append('=').append(value);
+
+        return this;
+    }
+
+
+    /**
+     * Appends a parameter with a {@code boolean} value, which is written as
+     * {@code "true"} or {@code "false"}.
+     *
+     * @param key
+     *         The raw key of the parameter.
+     *
+     * @param value
+     *         The value of the parameter.
+     *
+     * @return
+     *         {@code this} object.
+     *
+     * @throws NullPointerException
+     *         If {@code key} is {@code null}.
+     */
+    public QueryWriter append(String key, boolean value)
+    {
+        appendKey(key, 6);
+
+        buffer.append('=').append(value);
+
+        return this;
+    }
+
+
+    /**
+     * Appends the entries of the given map as parameters, in the iteration order
+     * of the map. See {@link #appendAll(Iterable)} for how the values are written.
+     *
+     * @param params
+     *         The parameters.
+     *
+     * @return
+     *         {@code this} object.
+     *
+     * @throws NullPointerException
+     *         If {@code params} or any of its keys is {@code null}.
+     */
+    public QueryWriter appendAll(Map<String, ?> params)
+    {
+        // Ensure the parameters are not null.
+        if (params == null)
+        {
+            throw newNPE("The parameters must not be null.");
+        }
+
+        return appendAll(params.entrySet());
+    }
+
+
+    /**
+     * Appends the given entries as parameters.
+     *
+     * <p>
+     * A {@code null} value is written without {@code "="}. A value which is an
+     * {@link Iterable} (e.g. a {@code List<String>}) is written as one parameter
+     * per element, with the same key. Any other value is written as the result
+     * of its {@code toString()} method.
+     * </p>
+     *
+     * @param params
+     *         The parameters.
+     *
+     * @return
+     *         {@code this} object.
+     *
+     * @throws NullPointerException
+     *         If {@code params}, any of the entries or any of their keys is {@code
+     *         null}.
+     */
+    public QueryWriter appendAll(Iterable<? extends Map.Entry<String, ?>> params)
+    {
+        // Ensure the parameters are not null.
+        if (params == null)
+        {
+            throw newNPE("The parameters must not be null.");
+        }
+
+        for (var param : params)
+        {
+            // Ensure the parameter is not null.
+            if (param == null)
+            {
+                throw newNPE("The parameters must not contain a null parameter.");
+            }
+
+            var value = param.getValue();
+
+            if (value instanceof Iterable)
+            {
+                for (var element : (Iterable<?>)value)
+                {
+                    appendObject(param.getKey(), element);
+                }
+            }
+            else
+            {
+                appendObject(param.getKey(), value);
+            }
+        }
+
+        return this;
+    }
+
+
+    /**
+     * Get the length of the query written so far.
+     *
+     * @return
+     *         The length of the query.
+     */
+    public int length()
+    {
+        return buffer.length();
+    }
+
+
+    /**
+     * Get the charset used for percent-encoding characters.
+     *
+     * @return
+     *         The charset.
+     */
+    public Charset getCharset()
+    {
+        return charset;
+    }
+
+
+    /**
+     * Returns the query written so far.
+     *
+     * @return
+     *         The query. It is empty if no parameter has been appended.
+     */
+    @Override
+    public String toString()
+    {
+        return buffer.toString();
+    }
+
+
+    private void appendObject(String key, Object value)
+    {
+        if (value instanceof Long || value instanceof Integer ||
+            value instanceof Short || value instanceof Byte)
+        {
+            append(key, ((Number)value).longValue());
+        }
+        else if (value instanceof Boolean)
+        {
+            append(key, ((Boolean)value).booleanValue());
+        }
+        else
+        {
+            append(key, (value == null) ? null : value.toString());
+        }
+    }
+
+
+    private void appendKey(String key, int valueLength)
+    {
+        // Ensure the key is not null.
+        if (key == null)
+        {
+            throw newNPE("The key must not be null.");
+        }
+
+        // Grow the buffer at most once per parameter.
+        buffer.ensureCapacity(buffer.length() + key.length() + valueLength + 1);
+
+        if (appended)
+        {
+            buffer.append('&');
+        }
+
+        appended = true;
+
+        encode(key);
+    }
+
+
+    private void encode(String input)
+    {
+        URIEncoder.encode(input, 0, EncodeSet.QUERY_PARAM, charset, buffer);
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.czeal.rfc3986.RequestTargetForm.ABSOLUTE;
+import static org.czeal.rfc3986.RequestTargetForm.ORIGIN;
+import static org.czeal.rfc3986.Utils.newISE;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+
+/**
+ * A class representing the request target of an HTTP request.
+ *
+ * <p>
+ * An instance of this class is created by {@link URIReference#parseRequestTarget(CharSequence)}
+ * or {@link URIReference#parseRequestTarget(byte[], int, int)}, which classify
+ * the request target into one of the forms defined in <a href="https://www.rfc-editor.org/rfc/rfc9112#section-3.2">
+ * RFC 9112, 3.2. Request Target</a> and validate its components.
+ * </p>
+ *
+ * <p>Examples:</p>
+ * <pre>{@code
+ * RequestTarget target = URIReference.parseRequestTarget("http://example.com/a?q");
+ *
+ * System.out.println(target.getForm());      // "ABSOLUTE"
+ * System.out.println(target.getAuthority()); // "example.com"
+ *
+ * // Write the origin form ("/a?q") to forward the request to the origin server.
+ * target.writeOriginForm(buffer);
+ * }</pre>
+ *
+ * <p>
+ * This class is immutable.
+ * </p>
+ *
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc9112#section-3.2">RFC 9112,
+ *      3.2. Request Target</a>
+ *
+ * @author Hideki Ikeda
+ */
+public final class RequestTarget
+{
+    /**
+     * The request target.
+     */
+    private final String target;
+
+
+    /**
+     * The form of the request target.
+     */
+    private final RequestTargetForm form;
+
+
+    /**
+     * The absolute URI of a request target in the absolute form.
+     */
+    private final URIReference uriReference;
+
+
+    /**
+     * The authority of a request target in the absolute form or in the authority
+     * form.
+     */
+    private final Authority authority;
+
+
+    /**
+     * The path of a request target in the origin form or in the absolute form.
+     */
+    private final String path;
+
+
+    /**
+     * The query of a request target in the origin form or in the absolute form.
+     */
+    private final String query;
+
+
+    /**
+     * The constructor.
+     */
+    RequestTarget(
+        String target, RequestTargetForm form, URIReference uriReference,
+        Authority authority, String path, String query)
+    {
+        this.target       = target;
+        this.form         = form;
+        this.uriReference = uriReference;
+        this.authority    = authority;
+        this.path         = path;
+        this.query        = query;
+    }
+
+
+    /**
+     * Get the form of this request target.
+     *
+     * @return
+     *         The form of this request target.
+     */
+    public RequestTargetForm getForm()
+    {
+        return form;
+    }
+
+
+    /**
+     * Get the absolute URI of this request target.
+     *
+     * @return
+     *         The absolute URI if this request target is in the absolute form;
+     *         otherwise, {@code null}.
+     */
+    public URIReference getURIReference()
+    {
+        return uriReference;
+    }
+
+
+    /**
+     * Get the authority of this request target.
+     *
+     * @return
+     *         The authority if this request target is in the authority form,
+     *         or it is in the absolute form and has an authority; otherwise,
+     *         {@code null}.
+     */
+    public Authority getAuthority()
+    {
+        return authority;
+    }
+
+
+    /**
+     * Get the path of this request target.
+     *
+     * @return
+     *         The path if this request target is in the origin form or in the
+     *         absolute form; otherwise, {@code null}.
+     */
+    public String getPath()
+    {
+        return path;
+    }
+
+
+    /**
+     * Get the query of this request target.
+     *
+     * @return
+     *         The query if this request target is in the origin form or in the
+     *         absolute form and has a query; otherwise, {@code null}.
+     */
+    public String getQuery()
+    {
+        return query;
+    }
+
+
+    /**
+     * Writes the origin form ({@code absolute-path [ "?" query ]}) of this request
+     * target into the given {@link ByteBuffer} as US-ASCII bytes, starting at the
+     * current position of the buffer, and advances the position by the number of
+     * written bytes. An empty path is written as "/".
+     *
+     * <p>
+     * This is used, for example, by a proxy that forwards a request received in
+     * the absolute form to an origin server, without creating a string. Nothing
+     * is written and the position is not changed if the remaining space of the
+     * buffer is not enough.
+     * </p>
+     *
+     * @param buffer
+     *         The destination.
+     *
+     * @return
+     *         The number of written bytes.
+     *
+     * @throws NullPointerException
+     *         If {@code buffer} is {@code null}.
+     *
+     * @throws BufferOverflowException
+     *         If the remaining space of the buffer is not enough.
+     *
+     * @throws IllegalStateException
+     *         If this request target is neither in the origin form nor in the
+     *         absolute form, or its path is neither empty nor absolute (e.g.
+     *         {@code "urn:example:a"}).
+     *
+     * @see <a href="https://www.rfc-editor.org/rfc/rfc9112#section-3.2.1">RFC 9112,
+     *      3.2.1. origin-form</a>
+     */
+    public int writeOriginForm(ByteBuffer buffer)
+    {
+        // Ensure this request target has a path and a query.
+        if (form != ORIGIN && form != ABSOLUTE)
+        {
+            throw newISE("The request target in the %s form has no origin form.", form);
+        }
+
+        return new URIReferenceWriter().writeOriginForm(path, query, buffer);
+    }
+
+
+    /**
+     * Returns the string representation of this request target.
+     *
+     * @return
+     *         The request target.
+     */
+    @Override
+    public String toString()
+    {
+        return target;
+    }
+}
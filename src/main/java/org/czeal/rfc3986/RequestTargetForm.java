@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+/**
+ * The form of the request target of an HTTP request.
+ *
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc9112#section-3.2">RFC 9112,
+ *      3.2. Request Target</a>
+ *
+ * @author Hideki Ikeda
+ */
+public enum RequestTargetForm
+{
+    /**
+     * Origin form ({@code absolute-path [ "?" query ]}), used by most requests
+     * sent to an origin server.
+     */
+    ORIGIN,
+
+
+    /**
+     * Absolute form ({@code absolute-URI}), used by requests sent to a proxy.
+     */
+    ABSOLUTE,
+
+
+    /**
+     * Authority form ({@code uri-host ":" port}), used only by CONNECT requests.
+     */
+    AUTHORITY,
+
+
+    /**
+     * Asterisk form ({@code "*"}), used only by server-wide OPTIONS requests.
+     */
+    ASTERISK,
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.czeal.rfc3986.RequestTargetForm.ABSOLUTE;
+import static org.czeal.rfc3986.RequestTargetForm.ASTERISK;
+import static org.czeal.rfc3986.RequestTargetForm.AUTHORITY;
+import static org.czeal.rfc3986.RequestTargetForm.ORIGIN;
+import static org.czeal.rfc3986.Utils.isInRange;
+import static org.czeal.rfc3986.Utils.newIAE;
+import static org.czeal.rfc3986.Utils.newNPE;
+import java.util.Objects;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * Parses the request target of an HTTP request, according to <a href="https://www.rfc-editor.org/rfc/rfc9112#section-3.2">
+ * RFC 9112, 3.2. Request Target</a>.
+ *
+ * <pre>
+ * request-target = origin-form
+ *                / absolute-form
+ *                / authority-form
+ *                / asterisk-form
+ *
+ * origin-form    = absolute-path [ "?" query ]
+ * absolute-form  = absolute-URI
+ * authority-form = uri-host ":" port
+ * asterisk-form  = "*"
+ * </pre>
+ *
+ * <p>
+ * The form is determined from the request target itself: a request target
+ * starting with a slash ("/") is in the origin form, "*" is in the asterisk form,
+ * a request target consisting of a host and a port (e.g. {@code "example.com:443"})
+ * is in the authority form, and any other request target is in the absolute form.
+ * Note that a request target such as {@code "example.com:443"} is also a valid
+ * absolute URI whose scheme is {@code "example.com"}; it is classified as the
+ * authority form because an absolute-form request target practically always has
+ * an authority ({@code "scheme://..."}).
+ * </p>
+ *
+ * <p>
+ * The components are validated by the same rules as {@link URIReference#parse(String)},
+ * with the UTF-8 charset.
+ * </p>
+ *
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc9112#section-3.2">RFC 9112,
+ *      3.2. Request Target</a>
+ *
+ * @author Hideki Ikeda
+ */
+class RequestTargetParser
+{
+    /**
+     * Parses a request target.
+     *
+     * @param target
+     *         A request target.
+     *
+     * @return
+     *         The parsed request target.
+     *
+     * @throws NullPointerException
+     *         If {@code target} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If {@code target} is not a valid request target.
+     */
+    RequestTarget parse(CharSequence target)
+    {
+        // Ensure the request target is not null.
+        if (target == null)
+        {
+            throw newNPE("The request target must not be null.");
+        }
+
+        return parse(target.toString());
+    }
+
+
+    /**
+     * Parses a request target read from the request line of an HTTP request.
+     *
+     * @param bytes
+     *         A byte array containing the request target.
+     *
+     * @param offset
+     *         The index of the first byte of the request target.
+     *
+     * @param length
+     *         The number of bytes of the request target.
+     *
+     * @return
+     *         The parsed request target.
+     *
+     * @throws NullPointerException
+     *         If {@code bytes} is {@code null}.
+     *
+     * @throws IndexOutOfBoundsException
+     *         If {@code offset} and {@code length} are out of the bounds of {@code bytes}.
+     *
+     * @throws IllegalArgumentException
+     *         If the bytes are not a valid request target.
+     */
+    RequestTarget parse(byte[] bytes, int offset, int length)
+    {
+        // Ensure the bytes are not null.
+        if (bytes == null)
+        {
+            throw newNPE("The request target must not be null.");
+        }
+
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+
+        // A valid request target consists of visible US-ASCII characters only.
+        // Check the bytes before decoding them, so that a non-ASCII byte is not
+        // reported as an unrelated character.
+        for (var i = 0; i < length; i++)
+        {
+            var b = bytes[offset + i] & 0xFF;
+
+            if (!isInRange((char)b, '!', '~'))
+            {
+                throw newIAE(
+                    "The request target has an invalid byte 0x%02X at the index %d.", b, i);
+            }
+        }
+
+        // Decoding with ISO-8859-1 is a plain copy of the ASCII bytes.
+        return parse(new String(bytes, offset, length, ISO_8859_1));
+    }
+
+
+    private RequestTarget parse(String target)
+    {
+        // Ensure the request target is not empty.
+        if (target.isEmpty())
+        {
+            throw newIAE("The request target must not be empty.");
+        }
+
+        // RFC 9112, 3.2.4. asterisk-form
+        if (target.equals("*"))
+        {
+            return new RequestTarget(target, ASTERISK, null, null, null, null);
+        }
+
+        // RFC 9112, 3.2.1. origin-form
+        if (target.charAt(0) == '/')
+        {
+            return parseOriginForm(target);
+        }
+
+        // RFC 9112, 3.2.3. authority-form
+        if (isAuthorityForm(target))
+        {
+            return parseAuthorityForm(target);
+        }
+
+        // RFC 9112, 3.2.2. absolute-form
+        return parseAbsoluteForm(target);
+    }
+
+
+    private RequestTarget parseOriginForm(String target)
+    {
+        // origin-form = absolute-path [ "?" query ]
+        var index = target.indexOf('?');
+        var path  = (index == -1) ? target : target.substring(0, index);
+        var query = (index == -1) ? null   : target.substring(index + 1);
+
+        // An "absolute-path" (1*( "/" segment )) is a non-empty "path-abempty".
+        new PathValidator().validate(path, UTF_8, false, true);
+
+        // Validate the query.
+        new QueryValidator().validate(query, UTF_8);
+
+        return new RequestTarget(target, ORIGIN, null, null, path, query);
+    }
+
+
+    private boolean isAuthorityForm(String target)
+    {
+        // An absolute URI with an authority has "//" right after the scheme.
+        var colon = target.indexOf(':');
+
+        if (colon != -1 && target.startsWith("//", colon + 1))
+        {
+            return false;
+        }
+
+        // The authority form must end with ":" followed by the port digits.
+        var portStart = target.lastIndexOf(':') + 1;
+
+        if (portStart == 0 || portStart == target.length())
+        {
+            return false;
+        }
+
+        for (var i = portStart; i < target.length(); i++)
+        {
+            if (!isInRange(target.charAt(i), '0', '9'))
+            {
+                return false;
+            }
+        }
+
+        // The host must not contain the delimiters of the other components. It
+        // may contain ":" only when it is an IP-literal.
+        var ipLiteral = target.charAt(0) == '[';
+
+        for (var i = 0; i < portStart - 1; i++)
+        {
+            switch (target.charAt(i))
+            {
+                case '/': case '?': case '#': case '@':
+                    return false;
+
+                case ':':
+                    if (!ipLiteral)
+                    {
+                        return false;
+                    }
+                    break;
+
+                default:
+                    break;
+            }
+        }
+
+        return true;
+    }
+
+
+    private RequestTarget parseAuthorityForm(String target)
+    {
+        // authority-form = uri-host ":" port
+        var authority = Authority.parse(target, UTF_8);
+
+        // Ensure the host is not empty.
+        if (authority.getHost() == null || authority.getHost().getValue() == null ||
+            authority.getHost().getValue().isEmpty())
+        {
+            throw newIAE(
+                "The request target \"%s\" in the authority form must have a host.", target);
+        }
+
+        return new RequestTarget(target, AUTHORITY, null, authority, null, null);
+    }
+
+
+    private RequestTarget parseAbsoluteForm(String target)
+    {
+        // absolute-form = absolute-URI
+        var uriRef = URIReference.parse(target, UTF_8);
+
+        // absolute-URI = scheme ":" hier-part [ "?" query ]
+        if (uriRef.isRelativeReference())
+        {
+            throw newIAE(
+                "The request target \"%s\" is not in any of the request target forms.", target);
+        }
+
+        if (uriRef.getFragment() != null)
+        {
+            throw newIAE(
+                "The request target \"%s\" in the absolute form must not have a fragment.", target);
+        }
+
+        return new RequestTarget(
+            target, ABSOLUTE, uriRef, uriRef.getAuthority(), uriRef.getPath(), uriRef.getQuery());
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.czeal.rfc3986.Utils.newIAE;
+import static org.czeal.rfc3986.Utils.newNPE;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * A base URI compiled for resolving many URI references against it.
+ *
+ * <p>
+ * A {@link ResolvedBase} validates the base URI once, when it is created, and
+ * precomputes the state of the base URI used by every resolution, such as the
+ * prefix that relative-path references are merged with (see <a href="https://www.rfc-editor.org/rfc/rfc3986#section-5.2.3">
+ * RFC 3986, 5.2.3. Merge Paths</a>). The results of its {@code resolve} methods
+ * are the same as the results of {@link URIReference#resolve(String)} and {@link
+ * URIReference#resolve(URIReference)} called on the base URI.
+ * </p>
+ *
+ * <p>
+ * Optionally, a {@link ResolvedBase} can keep a small LRU cache of the results
+ * of {@link #resolve(String)}, which is useful when the same references (e.g.
+ * navigation links in crawled pages) are resolved repeatedly.
+ * </p>
+ *
+ * <p>Examples:</p>
+ * <pre>{@code
+ * // Compile a base URI with a cache of up to 64 results.
+ * ResolvedBase base = URIReference.parse("http://example.com/a/b").compileBase(64);
+ *
+ * // This will output "http://example.com/a/c".
+ * System.out.println(base.resolve("c"));
+ *
+ * // This will output "[http://example.com/x, http://example.com/a/y?q]".
+ * System.out.println(base.resolveAll(List.of("/x", "y?q")));
+ * }</pre>
+ *
+ * <p>
+ * This class is immutable except for its cache, and it is safe for use by multiple
+ * concurrent threads.
+ * </p>
+ *
+ * @see URIReference#compileBase()
+ * @see URIReference#compileBase(int)
+ *
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc3986#section-5">RFC 3986, Section 5:
+ *      Reference Resolution</a>
+ *
+ * @author Hideki Ikeda
+ */
+public final class ResolvedBase
+{
+    /**
+     * The base URI.
+     */
+    private final URIReference base;
+
+
+    /**
+     * The prefix that relative-path references are merged with.
+     */
+    private final String mergePrefix;
+
+
+    /**
+     * The cache of the results of {@link #resolve(String)}, or {@code null} if
+     * the cache is disabled.
+     */
+    private final Map<String, URIReference> cache;
+
+
+    /**
+     * The constructor.
+     *
+     * @param base
+     *         The base URI.
+     *
+     * @param cacheSize
+     *         The maximum number of the results of {@link #resolve(String)} to
+     *         cache. {@code 0} disables the cache.
+     *
+     * @throws NullPointerException
+     *         If {@code base} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If {@code cacheSize} is negative.
+     *
+     * @throws IllegalStateException
+     *         If {@code base} is not an absolute URI.
+     */
+    ResolvedBase(URIReference base, int cacheSize)
+    {
+        // Ensure the base URI is not null.
+        if (base == null)
+        {
+            throw newNPE("The base URI reference must not be null.");
+        }
+
+        // Ensure the cache size is not negative.
+        if (cacheSize < 0)
+        {
+            throw newIAE("The cache size must not be negative.");
+        }
+
+        // Ensure the URI reference can be used as a base URI.
+        URIReferenceResolver.validateBase(base);
+
+        this.base        = base;
+        this.mergePrefix = URIReferenceResolver.mergePrefix(base);
+        this.cache       = (cacheSize == 0) ? null : new LruCache(cacheSize);
+    }
+
+
+    /**
+     * Get the base URI.
+     *
+     * @return
+     *         The base URI.
+     */
+    public URIReference getBase()
+    {
+        return base;
+    }
+
+
+    /**
+     * Get the charset of the base URI, which URI references resolved against
+     * the base URI must use.
+     *
+     * @return
+     *         The charset.
+     */
+    public Charset getCharset()
+    {
+        return base.getCharset();
+    }
+
+
+    /**
+     * Get the prefix that relative-path references are merged with.
+     *
+     * @return
+     *         The prefix.
+     */
+    String getMergePrefix()
+    {
+        return mergePrefix;
+    }
+
+
+    /**
+     * Resolves the given URI reference against the base URI.
+     *
+     * <p>
+     * This method works as if invoking it were equivalent to evaluating the expression
+     * <code>{@link #getBase()}.{@link URIReference#resolve(String) resolve}(uriRef)</code>.
+     * If the cache is enabled, the result for the same string may be returned
+     * from the cache.
+     * </p>
+     *
+     * @param uriRef
+     *         A string representing a URI reference to be resolved against the
+     *         base URI.
+     *
+     * @return
+     *         The URI reference obtained by resolving the input string against
+     *         the base URI.
+     *
+     * @throws NullPointerException
+     *         If {@code uriRef} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If {@code uriRef} is not a valid URI reference.
+     */
+    public URIReference resolve(String uriRef)
+    {
+        if (cache == null)
+        {
+            return resolve(URIReference.parse(uriRef, getCharset()));
+        }
+
+        URIReference resolved;
+
+        synchronized (cache)
+        {
+            resolved = cache.get(uriRef);
+        }
+
+        if (resolved != null)
+        {
+            return resolved;
+        }
+
+        resolved = resolve(URIReference.parse(uriRef, getCharset()));
+
+        synchronized (cache)
+        {
+            cache.put(uriRef, resolved);
+        }
+
+        return resolved;
+    }
+
+
+    /**
+     * Resolves the given URI reference against the base URI.
+     *
+     * <p>
+     * This method works as if invoking it were equivalent to evaluating the expression
+     * <code>{@link #getBase()}.{@link URIReference#resolve(URIReference) resolve}(uriRef)</code>.
+     * </p>
+     *
+     * @param uriRef
+     *         A URI reference to be resolved against the base URI.
+     *
+     * @return
+     *         The URI reference obtained by resolving {@code uriRef} against the
+     *         base URI.
+     *
+     * @throws NullPointerException
+     *         If {@code uriRef} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the charset of {@code uriRef} doesn't match the charset of the
+     *         base URI.
+     */
+    public URIReference resolve(URIReference uriRef)
+    {
+        return new URIReferenceResolver().resolve(uriRef, this);
+    }
+
+
+    /**
+     * Resolves the given URI reference against the base URI and normalizes the
+     * result.
+     *
+     * <p>
+     * This method works as if invoking it were equivalent to evaluating the expression
+     * <code>{@link #getBase()}.{@link URIReference#resolve(String) resolve}(uriRef.toString()).{@link
+     * URIReference#normalize() normalize}()</code>, but it parses, resolves and
+     * normalizes the components in place and creates only the resultant {@link
+     * URIReference} instance. The cache is not used by this method.
+     * </p>
+     *
+     * @param uriRef
+     *         A character sequence representing a URI reference to be resolved
+     *         against the base URI.
+     *
+     * @return
+     *         The normalized URI reference obtained by resolving the input against
+     *         the base URI.
+     *
+     * @throws NullPointerException
+     *         If {@code uriRef} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If {@code uriRef} is not a valid URI reference.
+     */
+    public URIReference resolveAndNormalize(CharSequence uriRef)
+    {
+        return new URIReferenceResolver().resolveAndNormalize(uriRef, base, mergePrefix);
+    }
+
+
+    /**
+     * Resolves the given URI references against the base URI.
+     *
+     * <p>
+     * This method works as if invoking it were equivalent to calling {@link
+     * #resolve(String)} for each element of {@code uriRefs}.
+     * </p>
+     *
+     * @param uriRefs
+     *         Strings representing URI references to be resolved against the
+     *         base URI.
+     *
+     * @return
+     *         The URI references obtained by resolving the input strings, in the
+     *         same order as the input strings.
+     *
+     * @throws NullPointerException
+     *         If {@code uriRefs} or any of its elements is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If any of the elements of {@code uriRefs} is not a valid URI reference.
+     */
+    public List<URIReference> resolveAll(Collection<String> uriRefs)
+    {
+        // Ensure the URI references are not null.
+        if (uriRefs == null)
+        {
+            throw newNPE("The URI references to be resolved must not be null.");
+        }
+
+        var resolved = new ArrayList<URIReference>(uriRefs.size());
+
+        for (var uriRef : uriRefs)
+        {
+            resolved.add(resolve(uriRef));
+        }
+
+        return resolved;
+    }
+
+
+    /**
+     * Returns a string representation of the base URI.
+     *
+     * @return
+     *         The string representation of the base URI.
+     */
+    @Override
+    public String toString()
+    {
+        return base.toString();
+    }
+
+
+    /**
+     * A map that keeps a limited number of entries, evicting the least recently
+     * used entry first.
+     */
+    private static class LruCache extends LinkedHashMap<String, URIReference>
+    {
+        /**
+         * Serial Version UID.
+         */
+        private static final long serialVersionUID = 1L;
+
+
+        /**
+         * The maximum number of entries.
+         */
+        private final int maxSize;
+
+
+        LruCache(int maxSize)
+        {
+            super(16, 0.75f, true);
+
+            this.maxSize = maxSize;
+        }
+
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, URIReference> eldest)
+        {
+            return size() > maxSize;
+        }
+    }
+}
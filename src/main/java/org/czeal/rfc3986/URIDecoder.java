@@ -0,0 +1,395 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.czeal.rfc3986.Utils.fromHexDigit;
+import static org.czeal.rfc3986.Utils.newIAE;
+import static org.czeal.rfc3986.Utils.newNPE;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Objects;
+
+
+/**
+ * A percent-decoder for the components of a URI reference.
+ *
+ * <p>
+ * {@link #decode(CharSequence, Charset)} decodes a percent-encoded value into a
+ * string. {@link #decodeToBytes(CharSequence, int, int)} and {@link
+ * #decodeInto(CharSequence, int, int, ByteBuffer)} decode a percent-encoded
+ * value into octets without a charset, so binary values such as signatures are
+ * not corrupted by a charset. A percent-encoded value ({@code "%XX"}) becomes the
+ * octet it represents, and a literal character, which must be an ASCII character,
+ * becomes the octet of its code.
+ * </p>
+ *
+ * <p>
+ * {@link #decodeInto(CharSequence, int, int, ByteBuffer)} writes into a buffer
+ * provided by the caller, and doesn't allocate any object.
+ * </p>
+ *
+ * <p>Examples:</p>
+ * <pre>{@code
+ * URIDecoder.decode("caf%C3%A9");                // "café"
+ * URIDecoder.decodeToBytes("%00A%FF", 0, 7);     // { 0x00, 0x41, (byte)0xFF }
+ *
+ * // Decode the value of "sig" in a query into a reused buffer.
+ * String query = uriRef.getQuery();
+ * int start = query.indexOf("sig=") + 4;
+ * buffer.clear();
+ * URIDecoder.decodeInto(query, start, query.length(), buffer);
+ * }</pre>
+ *
+ * @see URIEncoder
+ *
+ * @author Hideki Ikeda
+ */
+public final class URIDecoder
+{
+    /**
+     * The private constructor.
+     */
+    private URIDecoder()
+    {
+    }
+
+
+    /**
+     * Decodes the given percent-encoded value with UTF-8.
+     *
+     * @param input
+     *         The percent-encoded value.
+     *
+     * @return
+     *         The decoded string. If the input doesn't contain {@code "%"}, the
+     *         result of {@code input.toString()}.
+     *
+     * @throws NullPointerException
+     *         If {@code input} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the input has an invalid percent-encoded value, or the decoded
+     *         octets are invalid in UTF-8.
+     */
+    public static String decode(CharSequence input)
+    {
+        return decode(input, UTF_8);
+    }
+
+
+    /**
+     * Decodes the given percent-encoded value with the given charset.
+     *
+     * @param input
+     *         The percent-encoded value.
+     *
+     * @param charset
+     *         The charset of the decoded octets.
+     *
+     * @return
+     *         The decoded string. If the input doesn't contain {@code "%"}, the
+     *         result of {@code input.toString()}.
+     *
+     * @throws NullPointerException
+     *         If {@code input} or {@code charset} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the input has an invalid percent-encoded value, or the decoded
+     *         octets are invalid in the charset.
+     */
+    public static String decode(CharSequence input, Charset charset)
+    {
+        validate(input);
+
+        // Ensure the charset is not null.
+        if (charset == null)
+        {
+            throw newNPE("The charset must not be null.");
+        }
+
+        return PercentDecoder.decodeIfEncoded(input.toString(), charset);
+    }
+
+
+    /**
+     * Decodes the given range of the percent-encoded value into octets.
+     *
+     * @param input
+     *         The percent-encoded value.
+     *
+     * @param start
+     *         The index of the first character to decode (inclusive).
+     *
+     * @param end
+     *         The index after the last character to decode (exclusive).
+     *
+     * @return
+     *         The decoded octets.
+     *
+     * @throws NullPointerException
+     *         If {@code input} is {@code null}.
+     *
+     * @throws IndexOutOfBoundsException
+     *         If the range is out of the bounds of {@code input}.
+     *
+     * @throws IllegalArgumentException
+     *         If the range has an invalid percent-encoded value or a non-ASCII
+     *         character.
+     */
+    public static byte[] decodeToBytes(CharSequence input, int start, int end)
+    {
+        var bytes = new byte[decodedLength(input, start, end)];
+
+        write(input, start, end, ByteBuffer.wrap(bytes));
+
+        return bytes;
+    }
+
+
+    /**
+     * Decodes the given range of the percent-encoded value into octets and writes
+     * them into the given buffer, starting at the current position of the buffer.
+     * The position is advanced by the number of written octets.
+     *
+     * <p>
+     * Nothing is written and the position is not changed if the range is invalid
+     * or the remaining space of the buffer is not enough. {@link #decodedLength(
+     * CharSequence, int, int)} tells the required space.
+     * </p>
+     *
+     * @param input
+     *         The percent-encoded value.
+     *
+     * @param start
+     *         The index of the first character to decode (inclusive).
+     *
+     * @param end
+     *         The index after the last character to decode (exclusive).
+     *
+     * @param destination
+     *         The destination.
+     *
+     * @return
+     *         The number of written octets.
+     *
+     * @throws NullPointerException
+     *         If {@code input} or {@code destination} is {@code null}.
+     *
+     * @throws IndexOutOfBoundsException
+     *         If the range is out of the bounds of {@code input}.
+     *
+     * @throws IllegalArgumentException
+     *         If the range has an invalid percent-encoded value or a non-ASCII
+     *         character.
+     *
+     * @throws BufferOverflowException
+     *         If the remaining space of the buffer is not enough.
+     */
+    public static int decodeInto(CharSequence input, int start, int end, ByteBuffer destination)
+    {
+        // Ensure the destination is not null.
+        if (destination == null)
+        {
+            throw newNPE("The destination must not be null.");
+        }
+
+        // Validate the range before writing anything.
+        var length = decodedLength(input, start, end);
+
+        // Ensure the buffer has enough space before writing anything.
+        if (destination.remaining() < length)
+        {
+            throw new BufferOverflowException();
+        }
+
+        write(input, start, end, destination);
+
+        return length;
+    }
+
+
+    /**
+     * Decodes the given percent-encoded value into octets and writes them into
+     * the given buffer. This is equivalent to {@link #decodeInto(CharSequence,
+     * int, int, ByteBuffer) decodeInto(input, 0, input.length(), destination)}.
+     *
+     * @param input
+     *         The percent-encoded value.
+     *
+     * @param destination
+     *         The destination.
+     *
+     * @return
+     *         The number of written octets.
+     *
+     * @throws NullPointerException
+     *         If {@code input} or {@code destination} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the input has an invalid percent-encoded value or a non-ASCII
+     *         character.
+     *
+     * @throws BufferOverflowException
+     *         If the remaining space of the buffer is not enough.
+     */
+    public static int decodeInto(CharSequence input, ByteBuffer destination)
+    {
+        validate(input);
+
+        return decodeInto(input, 0, input.length(), destination);
+    }
+
+
+    /**
+     * Get the number of the octets decoded from the given range of the
+     * percent-encoded value, validating the range.
+     *
+     * @param input
+     *         The percent-encoded value.
+     *
+     * @param start
+     *         The index of the first character to decode (inclusive).
+     *
+     * @param end
+     *         The index after the last character to decode (exclusive).
+     *
+     * @return
+     *         The number of the decoded octets.
+     *
+     * @throws NullPointerException
+     *         If {@code input} is {@code null}.
+     *
+     * @throws IndexOutOfBoundsException
+     *         If the range is out of the bounds of {@code input}.
+     *
+     * @throws IllegalArgumentException
+     *         If the range has an invalid percent-encoded value or a non-ASCII
+     *         character.
+     */
+    public static int decodedLength(CharSequence input, int start, int end)
+    {
+        validate(input);
+
+        // Ensure the range is in the bounds of the input.
+        Objects.checkFromToIndex(start, end, input.length());
+
+        var length = 0;
+
+        for (var i = start; i < end; length++)
+        {
+            var c = input.charAt(i);
+
+            if (c == '%')
+            {
+                // Validate the percent-encoded value.
+                octet(input, i, end);
+                i += 3;
+            }
+            else if (c < 0x80)
+            {
+                i++;
+            }
+            else
+            {
+                throw newIAE(
+                    "The character \"%s\" at the index %d in the value \"%s\" is not " +
+                    "an ASCII character.", c, i, input);
+            }
+        }
+
+        return length;
+    }
+
+
+    private static void validate(CharSequence input)
+    {
+        // Ensure the input is not null.
+        if (input == null)
+        {
+            throw newNPE("The input must not be null.");
+        }
+    }
+
+
+    private static void write(CharSequence input, int start, int end, ByteBuffer destination)
+    {
+        // The range has been validated.
+        for (var i = start; i < end; )
+        {
+            var c = input.charAt(i);
+
+            if (c == '%')
+            {
+                destination.put((byte)octet(input, i, end));
+                i += 3;
+            }
+            else
+            {
+                destination.put((byte)c);
+                i++;
+            }
+        }
+    }
+
+
+    /**
+     * Get the octet represented by the percent-encoded value at the given index.
+     * This is shared with {@link FormUrlEncodedCodec}.
+     *
+     * @param input
+     *         The input.
+     *
+     * @param index
+     *         The index of {@code "%"}.
+     *
+     * @param end
+     *         The end of the range of the input containing the value.
+     *
+     * @return
+     *         The octet.
+     *
+     * @throws IllegalArgumentException
+     *         If {@code "%"} is not followed by two hex digits.
+     */
+    static int octet(CharSequence input, int index, int end)
+    {
+        // Ensure "%" is followed by two characters.
+        if (end < index + 3)
+        {
+            throw newIAE(
+                "The percent symbol \"%%\" at the index %d in the input value \"%s\" " +
+                "is not followed by two characters.", index, input);
+        }
+
+        var high = fromHexDigit(input.charAt(index + 1));
+        var low  = fromHexDigit(input.charAt(index + 2));
+
+        // Ensure the two characters are hex digits.
+        if (high == -1 || low == -1)
+        {
+            var bad = (high == -1) ? index + 1 : index + 2;
+
+            throw newIAE(
+                "The character \"%s\" at the index %d in the input value \"%s\" is invalid " +
+                "as a hex digit.", input.charAt(bad), bad, input);
+        }
+
+        return (high << 4) | low;
+    }
+}
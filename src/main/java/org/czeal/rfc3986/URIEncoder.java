@@ -0,0 +1,667 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.czeal.rfc3986.Utils.newNPE;
+import static org.czeal.rfc3986.Utils.toHexDigit;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.Objects;
+
+
+/**
+ * A percent-encoder for the components of a URI reference.
+ *
+ * <p>
+ * The characters written as they are depend on the component, and they are given
+ * by an {@link EncodeSet}. For example, {@code "/"} is encoded in a path segment
+ * but not in a path, and {@code "&"} is encoded in a query parameter but not in
+ * a query. The other characters, including {@code "%"}, are percent-encoded with
+ * the charset, which is UTF-8 unless specified.
+ * </p>
+ *
+ * <p>
+ * The encoded output can be returned as a string, or written to an {@link Appendable}
+ * or a {@link ByteBuffer} without creating a string. When the input doesn't contain
+ * any character to encode, {@link #encode(CharSequence, EncodeSet)} returns the
+ * input itself (if it is a {@code String}). The {@code byte[]} variants encode
+ * binary values, where every octet outside the encode set is percent-encoded
+ * without a charset.
+ * </p>
+ *
+ * <p>Examples:</p>
+ * <pre>{@code
+ * URIEncoder.encode("a/b c", EncodeSet.PATH_SEGMENT);  // "a%2Fb%20c"
+ * URIEncoder.encode("a/b c", EncodeSet.PATH);          // "a/b%20c"
+ * URIEncoder.encode("a&b=c", EncodeSet.QUERY_PARAM);   // "a%26b%3Dc"
+ * URIEncoder.encode("café", EncodeSet.FRAGMENT);       // "caf%C3%A9"
+ *
+ * // Binary values.
+ * URIEncoder.encode(new byte[] { 0x00, 0x41, (byte)0xFF }, EncodeSet.QUERY_PARAM);  // "%00A%FF"
+ * }</pre>
+ *
+ * @see EncodeSet
+ * @see URIDecoder
+ *
+ * @author Hideki Ikeda
+ */
+public final class URIEncoder
+{
+    /**
+     * The destination of encoded characters.
+     */
+    @FunctionalInterface
+    private interface Sink
+    {
+        void append(char c) throws IOException;
+    }
+
+
+    /**
+     * The private constructor.
+     */
+    private URIEncoder()
+    {
+    }
+
+
+    /**
+     * Percent-encodes the given input with UTF-8.
+     *
+     * @param input
+     *         The input to encode.
+     *
+     * @param set
+     *         The characters written as they are.
+     *
+     * @return
+     *         The encoded string. If the input doesn't contain any character
+     *         to encode, the result of {@code input.toString()}.
+     *
+     * @throws NullPointerException
+     *         If {@code input} or {@code set} is {@code null}.
+     */
+    public static String encode(CharSequence input, EncodeSet set)
+    {
+        return encode(input, set, UTF_8);
+    }
+
+
+    /**
+     * Percent-encodes the given input with the given charset.
+     *
+     * @param input
+     *         The input to encode.
+     *
+     * @param set
+     *         The characters written as they are.
+     *
+     * @param charset
+     *         The charset used for percent-encoding characters.
+     *
+     * @return
+     *         The encoded string. If the input doesn't contain any character
+     *         to encode, the result of {@code input.toString()}.
+     *
+     * @throws NullPointerException
+     *         If {@code input}, {@code set} or {@code charset} is {@code null}.
+     */
+    public static String encode(CharSequence input, EncodeSet set, Charset charset)
+    {
+        validate(input, set, charset);
+
+        var index = indexToEncode(input, set);
+
+        if (index == -1)
+        {
+            // Nothing to encode.
+            return input.toString();
+        }
+
+        // Reserve some space for the encoded characters.
+        var sb = new StringBuilder(input.length() + 16).append(input, 0, index);
+
+        encode(input, index, set, charset, sb);
+
+        return sb.toString();
+    }
+
+
+    /**
+     * Percent-encodes the given input with UTF-8 and writes it to the given
+     * destination.
+     *
+     * @param input
+     *         The input to encode.
+     *
+     * @param set
+     *         The characters written as they are.
+     *
+     * @param destination
+     *         The destination.
+     *
+     * @throws NullPointerException
+     *         If {@code input}, {@code set} or {@code destination} is {@code null}.
+     *
+     * @throws IOException
+     *         If the destination throws it.
+     */
+    public static void encode(
+        CharSequence input, EncodeSet set, Appendable destination) throws IOException
+    {
+        encode(input, set, UTF_8, destination);
+    }
+
+
+    /**
+     * Percent-encodes the given input with the given charset and writes it to
+     * the given destination.
+     *
+     * @param input
+     *         The input to encode.
+     *
+     * @param set
+     *         The characters written as they are.
+     *
+     * @param charset
+     *         The charset used for percent-encoding characters.
+     *
+     * @param destination
+     *         The destination.
+     *
+     * @throws NullPointerException
+     *         If {@code input}, {@code set}, {@code charset} or {@code destination}
+     *         is {@code null}.
+     *
+     * @throws IOException
+     *         If the destination throws it.
+     */
+    public static void encode(
+        CharSequence input, EncodeSet set, Charset charset, Appendable destination) throws IOException
+    {
+        validate(input, set, charset);
+        validate(destination);
+
+        encodeTo(input, 0, input.length(), set, charset, destination::append);
+    }
+
+
+    /**
+     * Percent-encodes the given input with UTF-8 and writes it into the given
+     * buffer as US-ASCII bytes, starting at the current position of the buffer.
+     * The position is advanced by the number of written bytes.
+     *
+     * <p>
+     * Nothing is written and the position is not changed if the remaining space
+     * of the buffer is not enough. {@link #encodedLength(CharSequence, EncodeSet)}
+     * tells the required space.
+     * </p>
+     *
+     * @param input
+     *         The input to encode.
+     *
+     * @param set
+     *         The characters written as they are.
+     *
+     * @param buffer
+     *         The destination.
+     *
+     * @return
+     *         The number of written bytes.
+     *
+     * @throws NullPointerException
+     *         If {@code input}, {@code set} or {@code buffer} is {@code null}.
+     *
+     * @throws BufferOverflowException
+     *         If the remaining space of the buffer is not enough.
+     */
+    public static int encode(CharSequence input, EncodeSet set, ByteBuffer buffer)
+    {
+        validate(input, set, UTF_8);
+        validate(buffer);
+
+        var length = encodedLength(input, set);
+
+        // Ensure the buffer has enough space before writing anything.
+        if (buffer.remaining() < length)
+        {
+            throw new BufferOverflowException();
+        }
+
+        try
+        {
+            encodeTo(input, 0, input.length(), set, UTF_8, c -> buffer.put((byte)c));
+        }
+        catch (IOException e)
+        {
+            // Never happens. Putting into a buffer doesn't throw IOException.
+            throw new UncheckedIOException(e);
+        }
+
+        return length;
+    }
+
+
+    /**
+     * Get the length of the given input percent-encoded with UTF-8.
+     *
+     * @param input
+     *         The input to encode.
+     *
+     * @param set
+     *         The characters written as they are.
+     *
+     * @return
+     *         The number of the characters of the encoded input.
+     *
+     * @throws NullPointerException
+     *         If {@code input} or {@code set} is {@code null}.
+     */
+    public static int encodedLength(CharSequence input, EncodeSet set)
+    {
+        validate(input, set, UTF_8);
+
+        var length = 0;
+        var size   = input.length();
+
+        for (var i = 0; i < size; i++)
+        {
+            var c = input.charAt(i);
+
+            if (set.preserves(c))
+            {
+                length += 1;
+            }
+            else if (c < 0x80)
+            {
+                length += 3;
+            }
+            else if (c < 0x800)
+            {
+                length += 6;
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < size &&
+                     Character.isLowSurrogate(input.charAt(i + 1)))
+            {
+                // A surrogate pair is encoded as four bytes.
+                length += 12;
+                i++;
+            }
+            else if (Character.isSurrogate(c))
+            {
+                // An unpaired surrogate is encoded as "?".
+                length += 3;
+            }
+            else
+            {
+                length += 9;
+            }
+        }
+
+        return length;
+    }
+
+
+    /**
+     * Percent-encodes the given binary value.
+     *
+     * @param input
+     *         The binary value to encode.
+     *
+     * @param set
+     *         The characters written as they are.
+     *
+     * @return
+     *         The encoded string.
+     *
+     * @throws NullPointerException
+     *         If {@code input} or {@code set} is {@code null}.
+     */
+    public static String encode(byte[] input, EncodeSet set)
+    {
+        // Ensure the input is not null.
+        if (input == null)
+        {
+            throw newNPE("The input must not be null.");
+        }
+
+        return encode(input, 0, input.length, set);
+    }
+
+
+    /**
+     * Percent-encodes the given range of the binary value.
+     *
+     * @param input
+     *         The binary value to encode.
+     *
+     * @param offset
+     *         The index of the first byte to encode.
+     *
+     * @param length
+     *         The number of the bytes to encode.
+     *
+     * @param set
+     *         The characters written as they are.
+     *
+     * @return
+     *         The encoded string.
+     *
+     * @throws NullPointerException
+     *         If {@code input} or {@code set} is {@code null}.
+     *
+     * @throws IndexOutOfBoundsException
+     *         If the range is out of the bounds of {@code input}.
+     */
+    public static String encode(byte[] input, int offset, int length, EncodeSet set)
+    {
+        validate(input, offset, length, set);
+
+        var index = indexToEncode(input, offset, length, set);
+
+        if (index == -1)
+        {
+            // Nothing to encode. The preserved bytes are ASCII characters.
+            return new String(input, offset, length, ISO_8859_1);
+        }
+
+        var sb = new StringBuilder(length + 16);
+
+        for (var i = offset; i < index; i++)
+        {
+            sb.append((char)input[i]);
+        }
+
+        try
+        {
+            encodeTo(input, index, offset + length, set, sb::append);
+        }
+        catch (IOException e)
+        {
+            // Never happens. StringBuilder doesn't throw IOException.
+            throw new UncheckedIOException(e);
+        }
+
+        return sb.toString();
+    }
+
+
+    /**
+     * Percent-encodes the given range of the binary value and writes it to the
+     * given destination.
+     *
+     * @param input
+     *         The binary value to encode.
+     *
+     * @param offset
+     *         The index of the first byte to encode.
+     *
+     * @param length
+     *         The number of the bytes to encode.
+     *
+     * @param set
+     *         The characters written as they are.
+     *
+     * @param destination
+     *         The destination.
+     *
+     * @throws NullPointerException
+     *         If {@code input}, {@code set} or {@code destination} is {@code null}.
+     *
+     * @throws IndexOutOfBoundsException
+     *         If the range is out of the bounds of {@code input}.
+     *
+     * @throws IOException
+     *         If the destination throws it.
+     */
+    public static void encode(
+        byte[] input, int offset, int length, EncodeSet set, Appendable destination) throws IOException
+    {
+        validate(input, offset, length, set);
+        validate(destination);
+
+        encodeTo(input, offset, offset + length, set, destination::append);
+    }
+
+
+    /**
+     * Percent-encodes the given input starting at the given index and appends
+     * it to the given builder. The arguments must have been validated.
+     */
+    static void encode(
+        CharSequence input, int start, EncodeSet set, Charset charset, StringBuilder destination)
+    {
+        try
+        {
+            encodeTo(input, start, input.length(), set, charset, destination::append);
+        }
+        catch (IOException e)
+        {
+            // Never happens. StringBuilder doesn't throw IOException.
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * Percent-encodes the given range of the input and writes it to the given
+     * destination. The arguments must have been validated.
+     */
+    static void encode(
+        CharSequence input, int start, int end, EncodeSet set, Charset charset,
+        Appendable destination) throws IOException
+    {
+        encodeTo(input, start, end, set, charset, destination::append);
+    }
+
+
+    private static void validate(CharSequence input, EncodeSet set, Charset charset)
+    {
+        // Ensure the input is not null.
+        if (input == null)
+        {
+            throw newNPE("The input must not be null.");
+        }
+
+        // Ensure the encode set is not null.
+        if (set == null)
+        {
+            throw newNPE("The encode set must not be null.");
+        }
+
+        // Ensure the charset is not null.
+        if (charset == null)
+        {
+            throw newNPE("The charset must not be null.");
+        }
+    }
+
+
+    private static void validate(byte[] input, int offset, int length, EncodeSet set)
+    {
+        // Ensure the input is not null.
+        if (input == null)
+        {
+            throw newNPE("The input must not be null.");
+        }
+
+        // Ensure the encode set is not null.
+        if (set == null)
+        {
+            throw newNPE("The encode set must not be null.");
+        }
+
+        // Ensure the range is in the bounds of the input.
+        Objects.checkFromIndexSize(offset, length, input.length);
+    }
+
+
+    private static void validate(Object destination)
+    {
+        // Ensure the destination is not null.
+        if (destination == null)
+        {
+            throw newNPE("The destination must not be null.");
+        }
+    }
+
+
+    private static int indexToEncode(CharSequence input, EncodeSet set)
+    {
+        for (var i = 0; i < input.length(); i++)
+        {
+            if (!set.preserves(input.charAt(i)))
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+
+    private static int indexToEncode(byte[] input, int offset, int length, EncodeSet set)
+    {
+        for (var i = offset; i < offset + length; i++)
+        {
+            if (!set.preserves(input[i] & 0xFF))
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+
+    private static void encodeTo(
+        CharSequence input, int start, int end, EncodeSet set, Charset charset, Sink sink) throws IOException
+    {
+        var utf8 = UTF_8.equals(charset);
+
+        for (var i = start; i < end; i++)
+        {
+            var c = input.charAt(i);
+
+            if (set.preserves(c))
+            {
+                sink.append(c);
+            }
+            else if (c < 0x80)
+            {
+                appendOctet(sink, c);
+            }
+            else if (utf8)
+            {
+                i = encodeUtf8(input, i, sink);
+            }
+            else
+            {
+                i = encodeWithCharset(input, i, charset, sink);
+            }
+        }
+    }
+
+
+    private static void encodeTo(
+        byte[] input, int start, int end, EncodeSet set, Sink sink) throws IOException
+    {
+        for (var i = start; i < end; i++)
+        {
+            var b = input[i] & 0xFF;
+
+            if (set.preserves(b))
+            {
+                sink.append((char)b);
+            }
+            else
+            {
+                appendOctet(sink, b);
+            }
+        }
+    }
+
+
+    private static int encodeUtf8(CharSequence input, int index, Sink sink) throws IOException
+    {
+        int codePoint = input.charAt(index);
+
+        if (Character.isHighSurrogate((char)codePoint) && index + 1 < input.length() &&
+            Character.isLowSurrogate(input.charAt(index + 1)))
+        {
+            codePoint = Character.toCodePoint((char)codePoint, input.charAt(++index));
+        }
+        else if (Character.isSurrogate((char)codePoint))
+        {
+            // An unpaired surrogate is encoded as "?", as String.getBytes() does.
+            appendOctet(sink, '?');
+            return index;
+        }
+
+        if (codePoint < 0x800)
+        {
+            appendOctet(sink, 0xC0 | (codePoint >> 6));
+        }
+        else if (codePoint < 0x10000)
+        {
+            appendOctet(sink, 0xE0 | (codePoint >> 12));
+            appendOctet(sink, 0x80 | ((codePoint >> 6) & 0x3F));
+        }
+        else
+        {
+            appendOctet(sink, 0xF0 | (codePoint >> 18));
+            appendOctet(sink, 0x80 | ((codePoint >> 12) & 0x3F));
+            appendOctet(sink, 0x80 | ((codePoint >> 6) & 0x3F));
+        }
+
+        appendOctet(sink, 0x80 | (codePoint & 0x3F));
+
+        return index;
+    }
+
+
+    private static int encodeWithCharset(
+        CharSequence input, int index, Charset charset, Sink sink) throws IOException
+    {
+        // Keep a surrogate pair together.
+        var end = (Character.isHighSurrogate(input.charAt(index)) && index + 1 < input.length() &&
+                   Character.isLowSurrogate(input.charAt(index + 1))) ? index + 2 : index + 1;
+
+        var bytes = charset.encode(CharBuffer.wrap(input, index, end));
+
+        while (bytes.hasRemaining())
+        {
+            appendOctet(sink, bytes.get() & 0xFF);
+        }
+
+        return end - 1;
+    }
+
+
+    private static void appendOctet(Sink sink, int octet) throws IOException
+    {
+        sink.append('%');
+        sink.append(toHexDigit(octet >> 4));
+        sink.append(toHexDigit(octet & 0x0F));
+    }
+}
@@ -18,10 +18,14 @@ package org.czeal.rfc3986;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
 import java.util.Objects;
 
 
@@ -133,6 +137,31 @@ public class URIReference implements Serializable, Comparable<URIReference>
     private static final long serialVersionUID = 1L;
 
 
+    /**
+     * The bit indicating that the {@code path} component has not been validated.
+     */
+    static final int UNVALIDATED_PATH = 1;
+
+
+    /**
+     * The bit indicating that the {@code query} component has not been validated.
+     */
+    static final int UNVALIDATED_QUERY = 1 << 1;
+
+
+    /**
+     * The bit indicating that the {@code fragment} component has not been validated.
+     */
+    static final int UNVALIDATED_FRAGMENT = 1 << 2;
+
+
+    /**
+     * The bit indicating that only the syntax of percent-encoded values in the
+     * components which have not been validated is checked.
+     */
+    static final int UNVALIDATED_SYNTAX_ONLY = 1 << 3;
+
+
     /**
      * Internal class that holds intermediate values of the URI components during
      * some process This class is intentionally package-private.
@@ -146,6 +175,40 @@ public class URIReference implements Serializable, Comparable<URIReference>
         String path;
         String query;
         String fragment;
+        int hints;
+        int unvalidated;
+
+
+        /**
+         * The default constructor.
+         */
+        ProcessResult()
+        {
+        }
+
+
+        /**
+         * A constructor that copies the components of the given URI reference,
+         * so that they can be processed (e.g. resolved or normalized) in place.
+         *
+         * @param uriRef
+         *         The URI reference to copy.
+         */
+        ProcessResult(URIReference uriRef)
+        {
+            // Validate the components which have not been validated yet, as
+            // they are read.
+            uriRef.validate();
+
+            this.charset           = uriRef.charset;
+            this.relativeReference = uriRef.relativeReference;
+            this.scheme            = uriRef.scheme;
+            this.authority         = uriRef.authority;
+            this.path              = uriRef.path;
+            this.query             = uriRef.query;
+            this.fragment          = uriRef.fragment;
+            this.hints             = uriRef.hints;
+        }
 
 
         /**
@@ -264,6 +327,352 @@ public class URIReference implements Serializable, Comparable<URIReference>
     }
 
 
+    /**
+     * Parses a string based on <a href="https://www.rfc-editor.org/rfc/rfc3986">
+     * RFC 3986</a> with the given options, and creates a {@code URIReference}
+     * instance if parsing succeeds.
+     *
+     * <p>
+     * This method works in the same way as {@link #parse(String, Charset)}
+     * except that it follows the given options. For example, with {@link
+     * ParseOptions#syntaxOnly()}, percent-encoded values are not decoded with
+     * the charset, and only their syntax is checked.
+     * </p>
+     *
+     * <p>Examples:</p>
+     * <pre>{@code
+     * // Accept a percent-encoded octet which is invalid in UTF-8.
+     * URIReference.parse("http://example.com/a%FF", StandardCharsets.UTF_8, ParseOptions.syntaxOnly());
+     * }</pre>
+     *
+     * @param uriRef
+     *         The input string to be parsed as a {@code URIReference}
+     *         instance.
+     *
+     * @param charset
+     *          The charset used for percent-encoding some characters (e.g. reserved
+     *          characters) contained in the input string.
+     *
+     * @param options
+     *          The options for parsing.
+     *
+     * @return
+     *         The {@code URIReference} instance obtained by parsing the input string.
+     *
+     * @throws NullPointerException
+     *          If any of the arguments is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *          If {@code uriRef} is invalid as a URI reference.
+     *
+     * @see ParseOptions
+     */
+    public static URIReference parse(String uriRef, Charset charset, ParseOptions options)
+    {
+        return new URIReferenceParser().parse(uriRef, charset, options);
+    }
+
+
+    /**
+     * Creates a {@code URIReference} instance from a string which is known to be
+     * a valid URI reference, such as the result of {@link #toString()} of an
+     * instance stored before, without validating it.
+     *
+     * <p>
+     * This method works as if invoking it were equivalent to evaluating the
+     * expression <code>{@link #parseTrusted(String, Charset) parseTrusted}(uriRef,
+     * {@link StandardCharsets}.{@link StandardCharsets#UTF_8 UTF_8})</code>.
+     * </p>
+     *
+     * @param uriRef
+     *         A valid URI reference.
+     *
+     * @return
+     *         The {@code URIReference} instance.
+     *
+     * @throws NullPointerException
+     *          If {@code uriRef} is {@code null}.
+     *
+     * @see #parseTrusted(String, Charset)
+     */
+    public static URIReference parseTrusted(String uriRef)
+    {
+        return parseTrusted(uriRef, UTF_8);
+    }
+
+
+    /**
+     * Creates a {@code URIReference} instance from a string which is known to be
+     * a valid URI reference, such as the result of {@link #toString()} of an
+     * instance stored before, without validating it.
+     *
+     * <p>
+     * Unlike {@link #parse(String, Charset)}, this method only splits the string
+     * into the components and determines the type of the host. The caller is
+     * responsible for the validity of the string; <b>the result for an invalid
+     * string is undefined</b>, and it may break the methods of the instance.
+     * Never use this method for strings from untrusted sources.
+     * </p>
+     *
+     * <p>
+     * When assertions are enabled (e.g. with the {@code -ea} option of the
+     * {@code java} command, as in tests), this method also parses the string with
+     * the full validation, and throws an {@code IllegalArgumentException} if the
+     * string is invalid, or an {@code AssertionError} if it is split differently.
+     * </p>
+     *
+     * <p>Examples:</p>
+     * <pre>{@code
+     * // Load URI references stored after validation and normalization.
+     * URIReference uriRef = URIReference.parseTrusted(stored, StandardCharsets.UTF_8);
+     * }</pre>
+     *
+     * @param uriRef
+     *         A valid URI reference.
+     *
+     * @param charset
+     *          The charset used for percent-encoding some characters (e.g. reserved
+     *          characters) contained in the input string.
+     *
+     * @return
+     *         The {@code URIReference} instance.
+     *
+     * @throws NullPointerException
+     *          If {@code uriRef} or {@code charset} is {@code null}.
+     */
+    public static URIReference parseTrusted(String uriRef, Charset charset)
+    {
+        return new URIReferenceParser().parseTrusted(uriRef, charset);
+    }
+
+
+    /**
+     * Extracts the scheme from a string representing a URI reference, without
+     * parsing the whole string.
+     *
+     * <p>
+     * The string is scanned only up to the colon following the scheme, and the
+     * other components are not validated. The result is the same as the result
+     * of {@link #getScheme()} of the instance which {@link #parse(String)} would
+     * create, if the string is valid.
+     * </p>
+     *
+     * <p>Examples:</p>
+     * <pre>{@code
+     * URIReference.extractScheme("http://example.com/a");   // "http"
+     * URIReference.extractScheme("//example.com/a");        // null
+     * }</pre>
+     *
+     * @param uriRef
+     *         The string representing a URI reference.
+     *
+     * @return
+     *         The scheme, or {@code null} if the string is a relative reference.
+     *
+     * @throws NullPointerException
+     *          If {@code uriRef} is {@code null}.
+     */
+    public static String extractScheme(CharSequence uriRef)
+    {
+        return new URIReferenceExtractor().extractScheme(uriRef);
+    }
+
+
+    /**
+     * Extracts and validates the host from a string representing a URI reference,
+     * without parsing the whole string.
+     *
+     * <p>
+     * The string is scanned only up to the end of the authority, and only the
+     * host is validated, with UTF-8 as {@link #parse(String)} does. Problems in
+     * the other components, such as the userinfo, the port and the query, are
+     * ignored.
+     * </p>
+     *
+     * <p>Examples:</p>
+     * <pre>{@code
+     * // The host of an absolute-form request target.
+     * URIReference.extractHost("http://u@example.com:8080/a?q=[").getValue();   // "example.com"
+     *
+     * URIReference.extractHost("/a");   // null
+     * }</pre>
+     *
+     * @param uriRef
+     *         The string representing a URI reference.
+     *
+     * @return
+     *         The host, or {@code null} if the string doesn't have an authority.
+     *
+     * @throws NullPointerException
+     *          If {@code uriRef} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *          If the host is invalid.
+     */
+    public static Host extractHost(CharSequence uriRef)
+    {
+        return new URIReferenceExtractor().extractHost(uriRef);
+    }
+
+
+    /**
+     * Extracts the origin, that is, the scheme, the host and the port, from a
+     * string representing a URI, without parsing the whole string.
+     *
+     * <p>
+     * The string is scanned only up to the end of the authority, and only the
+     * host and the port are validated. The result is in the form of {@code
+     * scheme "://" host [ ":" port ]}, where the userinfo is removed and the
+     * port is omitted if it is empty. The scheme and the host are not normalized,
+     * but the port is written as a decimal number without leading zeros (e.g.
+     * {@code "080"} becomes {@code "80"}).
+     * </p>
+     *
+     * <p>Examples:</p>
+     * <pre>{@code
+     * URIReference.extractOrigin("https://u@example.com:8443/a?q");   // "https://example.com:8443"
+     * URIReference.extractOrigin("mailto:a@example.com");             // null
+     * }</pre>
+     *
+     * @param uriRef
+     *         The string representing a URI reference.
+     *
+     * @return
+     *         The origin, or {@code null} if the string is not a URI with an
+     *         authority.
+     *
+     * @throws NullPointerException
+     *          If {@code uriRef} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *          If the host or the port is invalid.
+     */
+    public static String extractOrigin(CharSequence uriRef)
+    {
+        return new URIReferenceExtractor().extractOrigin(uriRef);
+    }
+
+
+    /**
+     * Extracts and validates the path from a string representing a URI reference,
+     * without parsing the whole string.
+     *
+     * <p>
+     * The string is scanned only up to the end of the path, and only the path
+     * is validated, with UTF-8 as {@link #parse(String)} does. The authority,
+     * the query and the fragment are not validated.
+     * </p>
+     *
+     * <p>Examples:</p>
+     * <pre>{@code
+     * URIReference.extractPath("http://example.com/a/b?q=[");   // "/a/b"
+     * URIReference.extractPath("a/b#f");                        // "a/b"
+     * }</pre>
+     *
+     * @param uriRef
+     *         The string representing a URI reference.
+     *
+     * @return
+     *         The path, which may be empty.
+     *
+     * @throws NullPointerException
+     *          If {@code uriRef} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *          If the path is invalid.
+     */
+    public static String extractPath(CharSequence uriRef)
+    {
+        return new URIReferenceExtractor().extractPath(uriRef);
+    }
+
+
+    /**
+     * Parse the request target of an HTTP request.
+     *
+     * <p>
+     * The request target is classified into one of the forms defined in <a href=
+     * "https://www.rfc-editor.org/rfc/rfc9112#section-3.2">RFC 9112, 3.2. Request
+     * Target</a> (origin form, absolute form, authority form or asterisk form),
+     * and its components are validated with the UTF-8 charset.
+     * </p>
+     *
+     * <p>Examples:</p>
+     * <pre>{@code
+     * // Example 1. The origin form.
+     * URIReference.parseRequestTarget("/where?q=now");
+     *
+     * // Example 2. The absolute form.
+     * URIReference.parseRequestTarget("http://www.example.org/pub/WWW/TheProject.html");
+     *
+     * // Example 3. The authority form.
+     * URIReference.parseRequestTarget("www.example.com:80");
+     *
+     * // Example 4. The asterisk form.
+     * URIReference.parseRequestTarget("*");
+     * }</pre>
+     *
+     * @param target
+     *         The request target.
+     *
+     * @return
+     *         The parsed request target.
+     *
+     * @throws NullPointerException
+     *         If {@code target} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If {@code target} is not a valid request target.
+     *
+     * @see <a href="https://www.rfc-editor.org/rfc/rfc9112#section-3.2">RFC 9112,
+     *      3.2. Request Target</a>
+     */
+    public static RequestTarget parseRequestTarget(CharSequence target)
+    {
+        return new RequestTargetParser().parse(target);
+    }
+
+
+    /**
+     * Parse the request target of an HTTP request read as bytes from a request
+     * line.
+     *
+     * <p>
+     * This method works in the same way as {@link #parseRequestTarget(CharSequence)},
+     * except that it checks first that the bytes are visible US-ASCII characters,
+     * so that the caller doesn't need to decode the request line.
+     * </p>
+     *
+     * @param bytes
+     *         A byte array containing the request target.
+     *
+     * @param offset
+     *         The index of the first byte of the request target.
+     *
+     * @param length
+     *         The number of bytes of the request target.
+     *
+     * @return
+     *         The parsed request target.
+     *
+     * @throws NullPointerException
+     *         If {@code bytes} is {@code null}.
+     *
+     * @throws IndexOutOfBoundsException
+     *         If {@code offset} and {@code length} are out of the bounds of {@code bytes}.
+     *
+     * @throws IllegalArgumentException
+     *         If the bytes are not a valid request target.
+     *
+     * @see <a href="https://www.rfc-editor.org/rfc/rfc9112#section-3.2">RFC 9112,
+     *      3.2. Request Target</a>
+     */
+    public static RequestTarget parseRequestTarget(byte[] bytes, int offset, int length)
+    {
+        return new RequestTargetParser().parse(bytes, offset, length);
+    }
+
+
     /**
      * The charset used for percent-encoding some characters (e.g. reserved characters)
      * contained in the URI reference.
@@ -307,6 +716,46 @@ public class URIReference implements Serializable, Comparable<URIReference>
     private final String fragment;
 
 
+    /**
+     * The normalization hints, indicating which components are known to be
+     * normalized. See {@link NormalizationHints} for details.
+     */
+    private final int hints;
+
+
+    /**
+     * The components which have not been validated yet, and whether only the
+     * syntax of them is checked. See {@link ParseOptions#lazyValidation()}.
+     * Validating a component more than once in a race is harmless. This field is
+     * not serialized; {@link #writeReplace()} validates the components.
+     */
+    private int unvalidated;
+
+
+    /**
+     * The decoded path, computed lazily by {@link #getDecodedPath()}.
+     */
+    private transient String decodedPath;
+
+
+    /**
+     * The decoded query, computed lazily by {@link #getDecodedQuery()}.
+     */
+    private transient String decodedQuery;
+
+
+    /**
+     * The decoded fragment, computed lazily by {@link #getDecodedFragment()}.
+     */
+    private transient String decodedFragment;
+
+
+    /**
+     * The decoded query parameters, created lazily by {@link #queryParams()}.
+     */
+    private transient QueryParameters queryParameters;
+
+
     /**
      * A private constructor. This is expected to be used by {@link ProcessResult}
      * class.
@@ -323,6 +772,8 @@ public class URIReference implements Serializable, Comparable<URIReference>
         this.path              = res.path;
         this.query             = res.query;
         this.fragment          = res.fragment;
+        this.hints             = res.hints;
+        this.unvalidated       = res.unvalidated;
     }
 
 
@@ -427,10 +878,26 @@ public class URIReference implements Serializable, Comparable<URIReference>
      */
     public String getPath()
     {
+        ensureValidated(UNVALIDATED_PATH);
+
         return path;
     }
 
 
+    /**
+     * Get a read-only view of the segments in the path of this URI reference.
+     * See {@link PathView} for details.
+     *
+     * @return
+     *         The view of the path segments, which decodes the segments with the
+     *         charset of this URI reference.
+     */
+    public PathView getPathView()
+    {
+        return PathView.of(getPath(), charset);
+    }
+
+
     /**
      * Get the query of this URI reference.
      *
@@ -439,10 +906,54 @@ public class URIReference implements Serializable, Comparable<URIReference>
      */
     public String getQuery()
     {
+        ensureValidated(UNVALIDATED_QUERY);
+
         return query;
     }
 
 
+    /**
+     * Get a read-only view of the parameters in the query of this URI reference.
+     * See {@link QueryView} for details.
+     *
+     * @return
+     *         The view of the query parameters. If this URI reference doesn't have
+     *         a query, the view has no parameters.
+     */
+    public QueryView getQueryView()
+    {
+        return QueryView.of(getQuery());
+    }
+
+
+    /**
+     * Get the decoded parameters in the query of this URI reference, decoded with
+     * the charset of this URI reference. See {@link QueryParameters} for details.
+     *
+     * <p>
+     * The {@link QueryParameters} object is created on the first call and cached
+     * on this instance, and it decodes the parameters lazily.
+     * </p>
+     *
+     * @return
+     *         The decoded query parameters. If this URI reference doesn't have a
+     *         query, the result has no parameters.
+     */
+    public QueryParameters queryParams()
+    {
+        // QueryParameters is safe to publish without synchronization.
+        var params = queryParameters;
+
+        if (params == null)
+        {
+            params          = new QueryParameters(getQuery(), charset);
+            queryParameters = params;
+        }
+
+        return params;
+    }
+
+
     /**
      * Get the fragment of this URI reference.
      *
@@ -451,10 +962,168 @@ public class URIReference implements Serializable, Comparable<URIReference>
      */
     public String getFragment()
     {
+        ensureValidated(UNVALIDATED_FRAGMENT);
+
         return fragment;
     }
 
 
+    /**
+     * Get the path of this URI reference, with its percent-encoded values decoded
+     * using the charset of this URI reference.
+     *
+     * <p>
+     * The decoded value is computed on the first call and cached on this instance.
+     * If the path doesn't contain any percent-encoded value, the value returned
+     * by {@link #getPath()} itself is returned.
+     * </p>
+     *
+     * @return
+     *         The decoded path of this URI reference, or {@code null} if this
+     *         URI reference doesn't have a path.
+     *
+     * @throws IllegalArgumentException
+     *         If the path can not be decoded using the charset.
+     */
+    public String getDecodedPath()
+    {
+        // Compute the decoded value on the first call. Strings are immutable, so
+        // a race results only in the same value computed more than once.
+        var decoded = decodedPath;
+
+        if (decoded == null && getPath() != null)
+        {
+            decoded = PercentDecoder.decodeIfEncoded(path, charset);
+            decodedPath = decoded;
+        }
+
+        return decoded;
+    }
+
+
+    /**
+     * Get the query of this URI reference, with its percent-encoded values decoded
+     * using the charset of this URI reference.
+     *
+     * <p>
+     * The decoded value is computed on the first call and cached on this instance.
+     * If the query doesn't contain any percent-encoded value, the value returned
+     * by {@link #getQuery()} itself is returned.
+     * </p>
+     *
+     * @return
+     *         The decoded query of this URI reference, or {@code null} if this
+     *         URI reference doesn't have a query.
+     *
+     * @throws IllegalArgumentException
+     *         If the query can not be decoded using the charset.
+     */
+    public String getDecodedQuery()
+    {
+        // Compute the decoded value on the first call. Strings are immutable, so
+        // a race results only in the same value computed more than once.
+        var decoded = decodedQuery;
+
+        if (decoded == null && getQuery() != null)
+        {
+            decoded = PercentDecoder.decodeIfEncoded(query, charset);
+            decodedQuery = decoded;
+        }
+
+        return decoded;
+    }
+
+
+    /**
+     * Get the fragment of this URI reference, with its percent-encoded values decoded
+     * using the charset of this URI reference.
+     *
+     * <p>
+     * The decoded value is computed on the first call and cached on this instance.
+     * If the fragment doesn't contain any percent-encoded value, the value returned
+     * by {@link #getFragment()} itself is returned.
+     * </p>
+     *
+     * @return
+     *         The decoded fragment of this URI reference, or {@code null} if this
+     *         URI reference doesn't have a fragment.
+     *
+     * @throws IllegalArgumentException
+     *         If the fragment can not be decoded using the charset.
+     */
+    public String getDecodedFragment()
+    {
+        // Compute the decoded value on the first call. Strings are immutable, so
+        // a race results only in the same value computed more than once.
+        var decoded = decodedFragment;
+
+        if (decoded == null && getFragment() != null)
+        {
+            decoded = PercentDecoder.decodeIfEncoded(fragment, charset);
+            decodedFragment = decoded;
+        }
+
+        return decoded;
+    }
+
+
+    /**
+     * Get the userinfo of this URI reference, with its percent-encoded values
+     * decoded using the charset of this URI reference.
+     *
+     * <p>
+     * The decoded value is computed on the first call and cached on the authority
+     * of this URI reference. See {@link Authority#getDecodedUserinfo(Charset)}.
+     * </p>
+     *
+     * @return
+     *         The decoded userinfo of this URI reference, or {@code null} if this
+     *         URI reference doesn't have a userinfo.
+     *
+     * @throws IllegalArgumentException
+     *         If the userinfo can not be decoded using the charset.
+     */
+    public String getDecodedUserinfo()
+    {
+        return hasAuthority() ? getAuthority().getDecodedUserinfo(charset) : null;
+    }
+
+
+    /**
+     * Get the host value of this URI reference, with its percent-encoded values
+     * decoded using the charset of this URI reference.
+     *
+     * <p>
+     * The decoded value is computed on the first call and cached on the authority
+     * of this URI reference. See {@link Authority#getDecodedHost(Charset)}.
+     * </p>
+     *
+     * @return
+     *         The decoded host value of this URI reference, or {@code null} if
+     *         this URI reference doesn't have a host value.
+     *
+     * @throws IllegalArgumentException
+     *         If the host value can not be decoded using the charset.
+     */
+    public String getDecodedHost()
+    {
+        return hasAuthority() ? getAuthority().getDecodedHost(charset) : null;
+    }
+
+
+    /**
+     * Get the normalization hints of this URI reference. See {@link NormalizationHints}
+     * for details.
+     *
+     * @return
+     *         The normalization hints of this URI reference.
+     */
+    int getNormalizationHints()
+    {
+        return hints;
+    }
+
+
     /**
      * Checks whether or not this URI reference has an authority.
      *
@@ -469,52 +1138,235 @@ public class URIReference implements Serializable, Comparable<URIReference>
 
 
     /**
-     * Returns a string representation of this {@link URIReference} object.
+     * Validates the components of this URI reference which have not been
+     * validated yet. See {@link ParseOptions#lazyValidation()}.
      *
      * <p>
-     * The string is constructed by concatenating the {@code scheme}, {@code authority},
-     * {@code path}, {@code query}, and {@code fragment} components, separated by
-     * appropriate delimiters.
+     * This method does nothing if this URI reference was not parsed with {@link
+     * ParseOptions#lazyValidation()}, or all the components have been validated.
      * </p>
      *
+     * <p>Examples:</p>
+     * <pre>{@code
+     * // Validate all the components after reading the host.
+     * URIReference uriRef = URIReference.parse(input, StandardCharsets.UTF_8, ParseOptions.lazyValidation());
+     *
+     * if (allowed.contains(uriRef.getHost().getValue()))
+     * {
+     *     uriRef.validate();
+     * }
+     * }</pre>
+     *
      * @return
-     *         A string representation of this {@link URIReference} object.
+     *         {@code this} object.
+     *
+     * @throws IllegalArgumentException
+     *         If any of the components is invalid.
      */
-    @Override
-    public String toString()
+    public URIReference validate()
     {
-        var sb = new StringBuilder();
+        ensureValidated(UNVALIDATED_PATH);
+        ensureValidated(UNVALIDATED_QUERY);
+        ensureValidated(UNVALIDATED_FRAGMENT);
 
-        // Append a scheme if present.
-        if (getScheme() != null)
-        {
-            sb.append(getScheme()).append(":");
-        }
+        return this;
+    }
 
-        // Append an authority if present.
-        if (getAuthority() != null)
-        {
-            sb.append("//").append(getAuthority().toString());
-        }
 
-        // Append a path if present.
-        if (getPath() != null)
-        {
-            sb.append(getPath());
-        }
+    private void ensureValidated(int component)
+    {
+        var bits = unvalidated;
 
-        // Append a path if present.
-        if (getQuery() != null)
+        // If the component has already been validated.
+        if ((bits & component) == 0)
         {
-            sb.append("?").append(getQuery());
+            return;
         }
 
-        // Append a fragment if present.
-        if (getFragment() != null)
+        // Skip decoding percent-encoded values if only the syntax is checked.
+        var decodingCharset = (bits & UNVALIDATED_SYNTAX_ONLY) != 0 ? null : charset;
+
+        switch (component)
         {
-            sb.append("#").append(getFragment());
+            case UNVALIDATED_PATH:
+                new PathValidator().validate(path, decodingCharset, relativeReference, authority != null);
+                break;
+
+            case UNVALIDATED_QUERY:
+                new QueryValidator().validate(query, decodingCharset);
+                break;
+
+            default:
+                new FragmentValidator().validate(fragment, decodingCharset);
+                break;
         }
 
+        // Record that the component is valid.
+        unvalidated &= ~component;
+    }
+
+
+    /**
+     * Computes the length of the string representation of this {@link URIReference}
+     * object, that is, the length of the string returned by {@link #toString()}.
+     * This can be used to presize a destination for the {@code writeTo} methods.
+     *
+     * @return
+     *         The number of characters of the string representation.
+     */
+    public int serializedLength()
+    {
+        return new URIReferenceWriter().serializedLength(this);
+    }
+
+
+    /**
+     * Appends the string representation of this {@link URIReference} object to the
+     * given {@link Appendable}, without creating an intermediate string.
+     *
+     * @param out
+     *         The destination.
+     *
+     * @throws NullPointerException
+     *         If {@code out} is {@code null}.
+     *
+     * @throws IOException
+     *         If the destination throws it.
+     */
+    public void writeTo(Appendable out) throws IOException
+    {
+        new URIReferenceWriter().writeTo(this, out);
+    }
+
+
+    /**
+     * Appends the string representation of this {@link URIReference} object to the
+     * given {@link StringBuilder}, without creating an intermediate string.
+     *
+     * @param sb
+     *         The destination.
+     *
+     * @throws NullPointerException
+     *         If {@code sb} is {@code null}.
+     */
+    public void writeTo(StringBuilder sb)
+    {
+        new URIReferenceWriter().writeTo(this, sb);
+    }
+
+
+    /**
+     * Writes the string representation of this {@link URIReference} object into the
+     * given {@link ByteBuffer} as US-ASCII bytes, starting at the current position
+     * of the buffer, and advances the position by the number of written bytes.
+     *
+     * <p>
+     * Nothing is written and the position is not changed if the remaining space
+     * of the buffer is not enough.
+     * </p>
+     *
+     * @param buffer
+     *         The destination.
+     *
+     * @return
+     *         The number of written bytes.
+     *
+     * @throws NullPointerException
+     *         If {@code buffer} is {@code null}.
+     *
+     * @throws BufferOverflowException
+     *         If the remaining space of the buffer is less than {@link #serializedLength()}.
+     *
+     * @throws IllegalStateException
+     *         If the string representation contains a non-ASCII character. The
+     *         position of the buffer is not changed in this case.
+     */
+    public int writeAsciiTo(ByteBuffer buffer)
+    {
+        return new URIReferenceWriter().writeAsciiTo(this, buffer);
+    }
+
+
+    /**
+     * Writes the UTF-8 encoding of the string representation of this {@link URIReference}
+     * object into the given byte array.
+     *
+     * @param bytes
+     *         The destination.
+     *
+     * @param offset
+     *         The index in {@code bytes} at which the first byte is written.
+     *
+     * @return
+     *         The number of written bytes.
+     *
+     * @throws NullPointerException
+     *         If {@code bytes} is {@code null}.
+     *
+     * @throws IndexOutOfBoundsException
+     *         If {@code offset} is negative or the array doesn't have enough space
+     *         after {@code offset}. Nothing is written in this case.
+     */
+    public int writeUtf8To(byte[] bytes, int offset)
+    {
+        return new URIReferenceWriter().writeUtf8To(this, bytes, offset);
+    }
+
+
+    /**
+     * Writes the origin form ({@code absolute-path [ "?" query ]}) of this URI
+     * reference into the given {@link ByteBuffer} as US-ASCII bytes, starting at
+     * the current position of the buffer, and advances the position by the number
+     * of written bytes. An empty path is written as "/", and the other components
+     * are omitted.
+     *
+     * <p>
+     * Nothing is written and the position is not changed if the remaining space
+     * of the buffer is not enough.
+     * </p>
+     *
+     * @param buffer
+     *         The destination.
+     *
+     * @return
+     *         The number of written bytes.
+     *
+     * @throws NullPointerException
+     *         If {@code buffer} is {@code null}.
+     *
+     * @throws BufferOverflowException
+     *         If the remaining space of the buffer is not enough.
+     *
+     * @throws IllegalStateException
+     *         If the path of this URI reference is neither empty nor absolute.
+     *
+     * @see <a href="https://www.rfc-editor.org/rfc/rfc9112#section-3.2.1">RFC 9112,
+     *      3.2.1. origin-form</a>
+     */
+    public int writeOriginForm(ByteBuffer buffer)
+    {
+        return new URIReferenceWriter().writeOriginForm(getPath(), getQuery(), buffer);
+    }
+
+
+    /**
+     * Returns a string representation of this {@link URIReference} object.
+     *
+     * <p>
+     * The string is constructed by concatenating the {@code scheme}, {@code authority},
+     * {@code path}, {@code query}, and {@code fragment} components, separated by
+     * appropriate delimiters.
+     * </p>
+     *
+     * @return
+     *         A string representation of this {@link URIReference} object.
+     */
+    @Override
+    public String toString()
+    {
+        var sb = new StringBuilder(serializedLength());
+        writeTo(sb);
+
         return sb.toString();
     }
 
@@ -662,6 +1514,103 @@ public class URIReference implements Serializable, Comparable<URIReference>
     }
 
 
+    /**
+     * Resolves the given URI reference against this URI reference and normalizes
+     * the result.
+     *
+     * <p>
+     * This method works as if invoking it were equivalent to evaluating the expression
+     * <code>{@link #resolve(String) resolve}(uriRef.toString()).{@link #normalize()
+     * normalize}()</code>, but it parses, resolves and normalizes the components
+     * in place and creates only the resultant {@link URIReference} instance.
+     * </p>
+     *
+     * <p>Examples:</p>
+     * <pre>{@code
+     * // A base URI.
+     * URIReference baseUri = URIReference.parse("http://example.com/a/b");
+     *
+     * // This will output "http://example.com/~c".
+     * System.out.println(baseUri.resolveAndNormalize("../%7Ec"));
+     * }</pre>
+     *
+     * @param uriRef
+     *         A character sequence representing a URI reference to be resolved
+     *         against this URI reference.
+     *
+     * @return
+     *         The normalized URI reference obtained by resolving the input against
+     *         this URI reference.
+     *
+     * @throws NullPointerException
+     *         If {@code uriRef} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If {@code uriRef} is not a valid URI reference.
+     *
+     * @throws IllegalStateException
+     *         If this URI reference is not an absolute URI.
+     */
+    public URIReference resolveAndNormalize(CharSequence uriRef)
+    {
+        // Ensure this URI reference can be used as a base URI.
+        URIReferenceResolver.validateBase(this);
+
+        return new URIReferenceResolver().resolveAndNormalize(uriRef, this, null);
+    }
+
+
+    /**
+     * Compiles this URI reference as a base URI for resolving many URI references
+     * against it. This method works as if invoking it were equivalent to evaluating
+     * the expression <code>{@link #compileBase(int) compileBase}(0)</code>, that
+     * is, the returned {@link ResolvedBase} doesn't cache results.
+     *
+     * <p>Examples:</p>
+     * <pre>{@code
+     * // Compile a base URI.
+     * ResolvedBase base = URIReference.parse("http://example.com/a/b").compileBase();
+     *
+     * // This will output "http://example.com/a/c".
+     * System.out.println(base.resolve("c"));
+     * }</pre>
+     *
+     * @return
+     *         A {@link ResolvedBase} whose base URI is this URI reference.
+     *
+     * @throws IllegalStateException
+     *         If this URI reference is not an absolute URI.
+     */
+    public ResolvedBase compileBase()
+    {
+        return compileBase(0);
+    }
+
+
+    /**
+     * Compiles this URI reference as a base URI for resolving many URI references
+     * against it, with a cache of the results of {@link ResolvedBase#resolve(String)}.
+     * The cache keeps up to {@code cacheSize} results, evicting the least recently
+     * used one first.
+     *
+     * @param cacheSize
+     *         The maximum number of results to cache. {@code 0} disables the cache.
+     *
+     * @return
+     *         A {@link ResolvedBase} whose base URI is this URI reference.
+     *
+     * @throws IllegalArgumentException
+     *         If {@code cacheSize} is negative.
+     *
+     * @throws IllegalStateException
+     *         If this URI reference is not an absolute URI.
+     */
+    public ResolvedBase compileBase(int cacheSize)
+    {
+        return new ResolvedBase(this, cacheSize);
+    }
+
+
     /**
      * Normalizes this URI reference.
      *
@@ -688,4 +1637,307 @@ public class URIReference implements Serializable, Comparable<URIReference>
     {
         return new URIReferenceNormalizer().normalize(this);
     }
+
+
+    /**
+     * Returns a URI reference that has the given scheme and the other components of
+     * this URI reference.
+     *
+     * <p>
+     * This URI reference is not modified. Only the new component is validated, and
+     * the other components are shared with this URI reference. The path is validated
+     * again if the result differs from this URI reference in whether it is a
+     * relative reference.
+     * </p>
+     *
+     * @param scheme
+     *         The new scheme, or {@code null} to make the result a relative reference.
+     *
+     * @return
+     *         A new {@code URIReference} instance with the new scheme.
+     *
+     * @throws IllegalArgumentException
+     *         If {@code scheme} is invalid, or the path of this URI reference is
+     *         invalid for the result.
+     */
+    public URIReference withScheme(String scheme)
+    {
+        return new URIReferenceModifier().withScheme(this, scheme);
+    }
+
+
+    /**
+     * Returns a URI reference that has the given authority and the other components
+     * of this URI reference.
+     *
+     * <p>
+     * This URI reference is not modified. Only the new component is validated, and
+     * the other components are shared with this URI reference. The path is validated
+     * again if the result differs from this URI reference in whether it has an
+     * authority.
+     * </p>
+     *
+     * @param authority
+     *         The new authority, or {@code null} to remove the authority.
+     *
+     * @return
+     *         A new {@code URIReference} instance with the new authority.
+     *
+     * @throws IllegalArgumentException
+     *         If {@code authority} is invalid, or the path of this URI reference
+     *         is invalid for the result.
+     */
+    public URIReference withAuthority(String authority)
+    {
+        return new URIReferenceModifier().withAuthority(this, authority);
+    }
+
+
+    /**
+     * Returns a URI reference that has the given host and the other components of
+     * this URI reference, including its userinfo and port.
+     *
+     * <p>
+     * This URI reference is not modified. Only the new component is validated, and
+     * the other components are shared with this URI reference. If this URI reference
+     * doesn't have an authority, the result has an authority consisting of the
+     * host, and the path is validated again.
+     * </p>
+     *
+     * <p>Examples:</p>
+     * <pre>{@code
+     * URIReference uriRef = URIReference.parse("http://user@example.com:8080/a#f");
+     *
+     * // This will output "http://user@example.org:8080/a#f".
+     * System.out.println(uriRef.withHost("example.org"));
+     * }</pre>
+     *
+     * @param host
+     *         The new host.
+     *
+     * @return
+     *         A new {@code URIReference} instance with the new host.
+     *
+     * @throws NullPointerException
+     *         If {@code host} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If {@code host} is invalid, or the path of this URI reference is
+     *         invalid for the result.
+     */
+    public URIReference withHost(String host)
+    {
+        return new URIReferenceModifier().withHost(this, host);
+    }
+
+
+    /**
+     * Returns a URI reference that has the given port and the other components of
+     * this URI reference, including its userinfo and host.
+     *
+     * <p>
+     * This URI reference is not modified. Only the new component is validated, and
+     * the other components are shared with this URI reference.
+     * </p>
+     *
+     * @param port
+     *         The new port, or {@code -1} to remove the port.
+     *
+     * @return
+     *         A new {@code URIReference} instance with the new port.
+     *
+     * @throws IllegalArgumentException
+     *         If {@code port} is invalid.
+     *
+     * @throws IllegalStateException
+     *         If this URI reference doesn't have an authority.
+     */
+    public URIReference withPort(int port)
+    {
+        return new URIReferenceModifier().withPort(this, port);
+    }
+
+
+    /**
+     * Returns a URI reference that has the given path and the other components of
+     * this URI reference.
+     *
+     * <p>
+     * This URI reference is not modified. Only the new component is validated, and
+     * the other components are shared with this URI reference.
+     * </p>
+     *
+     * @param path
+     *         The new path.
+     *
+     * @return
+     *         A new {@code URIReference} instance with the new path.
+     *
+     * @throws NullPointerException
+     *         If {@code path} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If {@code path} is invalid for the result.
+     */
+    public URIReference withPath(String path)
+    {
+        return new URIReferenceModifier().withPath(this, path);
+    }
+
+
+    /**
+     * Returns a URI reference that has the given query and the other components of
+     * this URI reference.
+     *
+     * <p>
+     * This URI reference is not modified. Only the new component is validated, and
+     * the other components are shared with this URI reference.
+     * </p>
+     *
+     * @param query
+     *         The new query, or {@code null} to remove the query.
+     *
+     * @return
+     *         A new {@code URIReference} instance with the new query.
+     *
+     * @throws IllegalArgumentException
+     *         If {@code query} is invalid.
+     */
+    public URIReference withQuery(String query)
+    {
+        return new URIReferenceModifier().withQuery(this, query);
+    }
+
+
+    /**
+     * Returns a URI reference that has the given fragment and the other components
+     * of this URI reference.
+     *
+     * <p>
+     * This URI reference is not modified. Only the new component is validated, and
+     * the other components are shared with this URI reference.
+     * </p>
+     *
+     * @param fragment
+     *         The new fragment, or {@code null} to remove the fragment.
+     *
+     * @return
+     *         A new {@code URIReference} instance with the new fragment.
+     *
+     * @throws IllegalArgumentException
+     *         If {@code fragment} is invalid.
+     */
+    public URIReference withFragment(String fragment)
+    {
+        return new URIReferenceModifier().withFragment(this, fragment);
+    }
+
+
+    /**
+     * Returns a URI reference that has the components of this URI reference except
+     * for the fragment.
+     *
+     * <p>
+     * This method works as if invoking it were equivalent to evaluating the expression
+     * <code>{@link #withFragment(String) withFragment}(null)</code>, except that
+     * this URI reference itself is returned if it doesn't have a fragment.
+     * </p>
+     *
+     * @return
+     *         A {@code URIReference} instance without the fragment.
+     */
+    public URIReference withoutFragment()
+    {
+        return (fragment == null) ? this : withFragment(null);
+    }
+
+
+    /**
+     * Checks whether this URI reference is equivalent to another URI reference.
+     *
+     * <p>
+     * Two URI references are equivalent if their normalized forms (see {@link
+     * #normalize()}) have the same components. This method works as if invoking
+     * it were equivalent to comparing the components of <code>this.{@link #normalize()
+     * normalize}()</code> and <code>other.{@link #normalize() normalize}()</code>,
+     * but it doesn't create the normalized URI references in most cases.
+     * </p>
+     *
+     * <p>Examples:</p>
+     * <pre>{@code
+     * URIReference uriRef1 = URIReference.parse("HTTP://Example.com:80/%7euser");
+     * URIReference uriRef2 = URIReference.parse("http://example.com/~user");
+     *
+     * // This will output "true".
+     * System.out.println(uriRef1.isEquivalentTo(uriRef2));
+     * }</pre>
+     *
+     * @param other
+     *         The URI reference to be compared with this URI reference.
+     *
+     * @return
+     *         {@code true} if the URI references are equivalent; otherwise, {@code
+     *         false}.
+     *
+     * @throws NullPointerException
+     *         If {@code other} is {@code null}.
+     *
+     * @throws IllegalStateException
+     *         If this URI reference or {@code other} has not been resolved yet.
+     */
+    public boolean isEquivalentTo(URIReference other)
+    {
+        return URIReferenceEquivalence.INSTANCE.isEquivalent(this, other);
+    }
+
+
+    /**
+     * Returns a hash code value for this URI reference that is consistent with
+     * {@link #isEquivalentTo(URIReference)}, that is, equivalent URI references
+     * have the same hash code.
+     *
+     * @return
+     *         A hash code value based on the normalized form of this URI reference.
+     *
+     * @throws IllegalStateException
+     *         If this URI reference has not been resolved yet.
+     */
+    public int equivalenceHashCode()
+    {
+        return URIReferenceEquivalence.INSTANCE.hashCode(this);
+    }
+
+
+    /**
+     * Returns a comparator that orders URI references by their normalized forms.
+     * The comparator returns zero if and only if {@link #isEquivalentTo(URIReference)}
+     * returns {@code true}.
+     *
+     * <p>
+     * The comparator throws an {@code IllegalStateException} if either of the
+     * compared URI references has not been resolved yet.
+     * </p>
+     *
+     * @return
+     *         A comparator consistent with the equivalence of URI references.
+     */
+    public static Comparator<URIReference> equivalenceComparator()
+    {
+        return URIReferenceEquivalence.INSTANCE;
+    }
+
+
+    /**
+     * Replaces this object with its compact binary form (see {@link URIReferenceCodec})
+     * in Java serialization. The {@link URIReference} object is restored from the binary
+     * form without validating its components again.
+     *
+     * @return
+     *         The serialization proxy holding the binary form of this object.
+     */
+    @Serial
+    private Object writeReplace()
+    {
+        return new URIReferenceCodec.SerializationProxy(this);
+    }
 }
@@ -19,7 +19,7 @@ package org.czeal.rfc3986;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.czeal.rfc3986.Utils.newNPE;
 import java.nio.charset.Charset;
-import java.util.Optional;
+import java.util.Objects;
 import org.czeal.rfc3986.URIReference.ProcessResult;
 
 
@@ -196,17 +196,43 @@ public class URIReferenceBuilder
 
 
     /**
-     * The path segments of the resultant URI reference.
+     * The path of the resultant URI reference. This is used unless the path has
+     * been decomposed into {@link #pathSegments}.
+     */
+    private String path;
+
+
+    /**
+     * The path segments of the resultant URI reference, or {@code null} if the
+     * path has not been decomposed. The path is decomposed lazily, only when a
+     * method modifying its segments is called.
      */
     private PathSegments pathSegments;
 
 
     /**
-     * The query parameters of the resultant URI reference.
+     * The query of the resultant URI reference. This is used unless the query
+     * has been decomposed into {@link #queryParams}.
+     */
+    private String query;
+
+
+    /**
+     * The query parameters of the resultant URI reference, or {@code null} if
+     * the query has not been decomposed. The query is decomposed lazily, only
+     * when a method modifying its parameters is called.
      */
     private QueryParams queryParams;
 
 
+    /**
+     * The charset of the query written by a {@link QueryWriter}, or {@code null}
+     * if the query has not been set by {@link #setQueryFrom(QueryWriter)}. Such a query
+     * is valid already for this charset.
+     */
+    private Charset queryCharset;
+
+
     /**
      * The fragment of the resultant URI reference.
      */
@@ -219,6 +245,14 @@ public class URIReferenceBuilder
     private boolean authorityRequired = true;
 
 
+    /**
+     * The URI reference this builder has been initialized with, if any. Its
+     * components, which have been validated already, are reused by {@link #build()}
+     * when they are not changed.
+     */
+    private URIReference source;
+
+
     /**
      * Sets information about a given {@link URIReferenceBuilder} instance. Specifically,
      * it copies the following information from the given {@code URIReferenceBuilder}
@@ -250,11 +284,15 @@ public class URIReferenceBuilder
         charset      = uriRef.getCharset();
         scheme       = uriRef.getScheme();
         userinfo     = uriRef.getUserinfo();
-        host         = Optional.ofNullable(uriRef.getHost()).map(Host::getValue).orElse(null);
+        host         = uriRef.getHost() != null ? uriRef.getHost().getValue() : null;
         port         = uriRef.getPort();
-        pathSegments = PathSegments.parse(uriRef.getPath());
-        queryParams  = QueryParams.parse(uriRef.getQuery());
+        path         = uriRef.getPath();
+        pathSegments = null;
+        query        = uriRef.getQuery();
+        queryParams  = null;
+        queryCharset = null;
         fragment     = uriRef.getFragment();
+        source       = uriRef;
 
         return this;
     }
@@ -385,7 +423,8 @@ public class URIReferenceBuilder
      */
     public URIReferenceBuilder setPath(String path)
     {
-        this.pathSegments = PathSegments.parse(path);
+        this.path         = path;
+        this.pathSegments = null;
 
         return this;
     }
@@ -407,7 +446,45 @@ public class URIReferenceBuilder
      */
     public URIReferenceBuilder setQuery(String query)
     {
-        this.queryParams = QueryParams.parse(query);
+        this.query        = query;
+        this.queryParams  = null;
+        this.queryCharset = null;
+
+        return this;
+    }
+
+
+    /**
+     * Sets the query written by the given {@link QueryWriter}.
+     *
+     * <p>
+     * This method replaces the existing {@code query} value with the query of
+     * the writer. An empty query is set if no parameter has been written. The
+     * query is not validated again by {@link #build()} if the charset of the
+     * writer is the same as the charset of this builder, because the writer
+     * always writes a valid query.
+     * </p>
+     *
+     * @param writer
+     *         The writer of the query.
+     *
+     * @return
+     *         {@code this} object.
+     *
+     * @throws NullPointerException
+     *         If {@code writer} is {@code null}.
+     */
+    public URIReferenceBuilder setQueryFrom(QueryWriter writer)
+    {
+        // Ensure the writer is not null.
+        if (writer == null)
+        {
+            throw newNPE("The query writer must not be null.");
+        }
+
+        this.query        = writer.toString();
+        this.queryParams  = null;
+        this.queryCharset = writer.getCharset();
 
         return this;
     }
@@ -468,12 +545,7 @@ public class URIReferenceBuilder
      */
     public URIReferenceBuilder appendQueryParam(String key, String value)
     {
-        if (queryParams == null)
-        {
-            queryParams = new QueryParams();
-        }
-
-        queryParams.add(key, value);
+        decomposeQuery().add(key, value);
 
         return this;
     }
@@ -494,9 +566,9 @@ public class URIReferenceBuilder
      */
     public URIReferenceBuilder replaceQueryParam(String key, String value)
     {
-        if (queryParams != null)
+        if (hasQuery())
         {
-            queryParams.replace(key, value);
+            decomposeQuery().replace(key, value);
         }
 
         return this;
@@ -514,9 +586,9 @@ public class URIReferenceBuilder
      */
     public URIReferenceBuilder removeQueryParam(String key)
     {
-        if (queryParams != null)
+        if (hasQuery())
         {
-            queryParams.remove(key);
+            decomposeQuery().remove(key);
         }
 
         return this;
@@ -534,14 +606,39 @@ public class URIReferenceBuilder
      */
     public URIReferenceBuilder appendPathSegments(String... segment)
     {
+        pathSegments = decomposePath().add(segment);
+
+        return this;
+    }
+
+
+    private PathSegments decomposePath()
+    {
+        // Split the path into segments if it has not been decomposed yet.
         if (pathSegments == null)
         {
-            pathSegments = new PathSegments();
+            pathSegments = (path == null) ? new PathSegments() : PathSegments.parse(path);
         }
 
-        pathSegments = pathSegments.add(segment);
+        return pathSegments;
+    }
 
-        return this;
+
+    private boolean hasQuery()
+    {
+        return queryParams != null || query != null;
+    }
+
+
+    private QueryParams decomposeQuery()
+    {
+        // Split the query into parameters if it has not been decomposed yet.
+        if (queryParams == null)
+        {
+            queryParams = (query == null) ? new QueryParams() : QueryParams.parse(query);
+        }
+
+        return queryParams;
     }
 
 
@@ -556,29 +653,52 @@ public class URIReferenceBuilder
         // The resultant URI reference.
         var res = new ProcessResult();
 
+        // The URI reference whose validated components can be reused.
+        var src = reusableSource();
+
         // Process the charset.
         processCharset(res);
 
         // Process the scheme.
-        processScheme(res);
+        processScheme(res, src);
 
         // Process the authority.
-        processAuthority(res);
+        processAuthority(res, src);
 
         // Process the path.
-        processPath(res);
+        processPath(res, src);
 
         // Process the query.
-        processQuery(res);
+        processQuery(res, src);
 
         // Process the fragment.
-        processFragment(res);
+        processFragment(res, src);
 
         // Build a URI reference instance.
         return res.toURIReference();
     }
 
 
+    private URIReference reusableSource()
+    {
+        // The components of the source URI reference can be reused only if they
+        // are validated with the same charset.
+        if (source == null || charset != source.getCharset())
+        {
+            return null;
+        }
+
+        return source;
+    }
+
+
+    private void reuse(ProcessResult res, URIReference src, int bits)
+    {
+        // Inherit the normalization hints of the reused components.
+        res.hints |= src.getNormalizationHints() & bits;
+    }
+
+
     private void processCharset(ProcessResult res)
     {
         // Set the charset.
@@ -586,12 +706,20 @@ public class URIReferenceBuilder
     }
 
 
-    private void processScheme(ProcessResult res)
+    private void processScheme(ProcessResult res, URIReference src)
     {
         if (scheme != null)
         {
-            // Validate the scheme value.
-            new SchemeValidator().validate(scheme);
+            if (src != null && scheme.equals(src.getScheme()))
+            {
+                // The scheme has not been changed and has been validated already.
+                reuse(res, src, NormalizationHints.SCHEME);
+            }
+            else
+            {
+                // Validate the scheme value.
+                new SchemeValidator().validate(scheme);
+            }
 
             // Set the scheme.
             res.scheme = scheme;
@@ -607,7 +735,7 @@ public class URIReferenceBuilder
     }
 
 
-    private void processAuthority(ProcessResult res)
+    private void processAuthority(ProcessResult res, URIReference src)
     {
         // If the authority is not required.
         if (!authorityRequired)
@@ -615,6 +743,14 @@ public class URIReferenceBuilder
             return;
         }
 
+        // If the authority has not been changed, reuse the validated one.
+        if (isAuthorityUnchanged(src))
+        {
+            res.authority = src.getAuthority();
+            reuse(res, src, NormalizationHints.AUTHORITY);
+            return;
+        }
+
         // Create an authority.
         res.authority = new AuthorityBuilder()
                             .setCharset(charset)
@@ -625,37 +761,75 @@ public class URIReferenceBuilder
     }
 
 
-    private void processPath(ProcessResult res)
+    private boolean isAuthorityUnchanged(URIReference src)
     {
-        // Convert the path segments to a string.
-        var path = pathSegments == null ? null : pathSegments.toString();
+        return src != null && src.hasAuthority() &&
+               Objects.equals(userinfo, src.getUserinfo()) &&
+               Objects.equals(host, src.getHost().getValue()) &&
+               port == src.getPort();
+    }
 
-        // Validate the path.
-        new PathValidator().validate(
-            path, res.charset, res.relativeReference, res.authority != null);
+
+    private void processPath(ProcessResult res, URIReference src)
+    {
+        // Convert the path segments to a string, if the path has been decomposed.
+        var path = pathSegments == null ? this.path : pathSegments.toString();
+
+        // The validity of a path depends on whether the URI reference is relative
+        // and whether it has an authority.
+        if (src != null && Objects.equals(path, src.getPath()) &&
+            res.relativeReference == src.isRelativeReference() &&
+            (res.authority != null) == src.hasAuthority())
+        {
+            // The path has not been changed and has been validated already.
+            reuse(res, src, NormalizationHints.PATH);
+        }
+        else
+        {
+            // Validate the path.
+            new PathValidator().validate(
+                path, res.charset, res.relativeReference, res.authority != null);
+        }
 
         // Set the path.
         res.path = path;
     }
 
 
-    private void processQuery(ProcessResult res)
+    private void processQuery(ProcessResult res, URIReference src)
     {
-        // Convert the query parameters to a string.
-        var query = (queryParams == null || queryParams.isEmpty()) ? null : queryParams.toString();
+        // Convert the query parameters to a string, if the query has been decomposed.
+        var query = queryParams == null ? this.query
+                  : queryParams.isEmpty() ? null : queryParams.toString();
 
-        // Validate the query.
-        new QueryValidator().validate(query, res.charset);
+        if (src != null && Objects.equals(query, src.getQuery()))
+        {
+            // The query has not been changed and has been validated already.
+            reuse(res, src, NormalizationHints.QUERY);
+        }
+        else if (queryParams != null || !res.charset.equals(queryCharset))
+        {
+            // Validate the query.
+            new QueryValidator().validate(query, res.charset);
+        }
 
         // Set the query.
         res.query = query;
     }
 
 
-    private void processFragment(ProcessResult res)
+    private void processFragment(ProcessResult res, URIReference src)
     {
-        // Validate the fragment.
-        new FragmentValidator().validate(fragment, res.charset);
+        if (src != null && Objects.equals(fragment, src.getFragment()))
+        {
+            // The fragment has not been changed and has been validated already.
+            reuse(res, src, NormalizationHints.FRAGMENT);
+        }
+        else
+        {
+            // Validate the fragment.
+            new FragmentValidator().validate(fragment, res.charset);
+        }
 
         // Set the fragment.
         res.fragment = fragment;
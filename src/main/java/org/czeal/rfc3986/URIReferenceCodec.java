@@ -0,0 +1,984 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_16;
+import static java.nio.charset.StandardCharsets.UTF_16BE;
+import static java.nio.charset.StandardCharsets.UTF_16LE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.czeal.rfc3986.Utils.newIAE;
+import static org.czeal.rfc3986.Utils.newNPE;
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.io.Serial;
+import java.io.Serializable;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+
+/**
+ * A compact binary codec for {@link URIReference}.
+ *
+ * <p>
+ * The binary form of a URI reference consists of the following fields. Integers
+ * marked as "varint" are encoded in the unsigned LEB128 format, and strings are
+ * encoded as a varint byte length followed by their UTF-8 bytes.
+ * </p>
+ *
+ * <pre>
+ * flags     1 byte   presence of the components and whether the URI reference
+ *                    is a relative reference
+ * hints     1 byte   normalization hints
+ * charset   1 byte   ID of a standard charset, or 0xFF followed by the name
+ * scheme    string   if present
+ * userinfo  string   if present
+ * host      1 byte   host type, followed by the host value as a string
+ * port      2 bytes  0 to 65534, or 0xFFFF followed by the port as a varint
+ * path      string   if present
+ * query     string   if present
+ * fragment  string   if present
+ * </pre>
+ *
+ * <p>
+ * A typical URI reference is encoded in its length plus 7 to 10 bytes. The components
+ * are not validated again on decoding, so decoding is much faster than parsing,
+ * but the encoded data must come from a trusted source (e.g. data encoded by this
+ * class and spilled to disk). The binary form is also used for the Java serialization
+ * of {@link URIReference}, {@link Authority} and {@link Host}.
+ * </p>
+ *
+ * <p>Examples:</p>
+ * <pre>{@code
+ * ByteBuffer buffer = ByteBuffer.allocate(4096);
+ *
+ * // Encode URI references.
+ * URIReferenceCodec.encodeAll(uriRefs, buffer);
+ *
+ * // Decode them.
+ * buffer.flip();
+ * List<URIReference> decoded = URIReferenceCodec.decodeAll(buffer);
+ * }</pre>
+ *
+ * @author Hideki Ikeda
+ */
+public final class URIReferenceCodec
+{
+    private static final int FLAG_RELATIVE_REFERENCE = 1;
+    private static final int FLAG_SCHEME             = 1 << 1;
+    private static final int FLAG_AUTHORITY          = 1 << 2;
+    private static final int FLAG_USERINFO           = 1 << 3;
+    private static final int FLAG_HOST               = 1 << 4;
+    private static final int FLAG_PORT               = 1 << 5;
+    private static final int FLAG_QUERY              = 1 << 6;
+    private static final int FLAG_FRAGMENT           = 1 << 7;
+
+
+    /**
+     * The bit of the hints byte indicating that the path is absent. The other
+     * bits hold the normalization hints.
+     */
+    private static final int NO_PATH = 1 << 7;
+
+
+    /**
+     * The charsets encoded as IDs. The index is the ID.
+     */
+    private static final Charset[] CHARSETS = {
+        UTF_8, US_ASCII, ISO_8859_1, UTF_16, UTF_16BE, UTF_16LE,
+    };
+
+
+    private static final int CHARSET_NULL = 0xFE;
+    private static final int CHARSET_NAME = 0xFF;
+
+
+    /**
+     * The host type indicating that the host type is {@code null}.
+     */
+    private static final int HOST_TYPE_NULL = 0x3F;
+
+
+    /**
+     * The host types encoded as their ordinals.
+     */
+    private static final HostType[] HOST_TYPES = HostType.values();
+
+
+    /**
+     * The bit of the host type byte indicating that the host value is {@code null}.
+     */
+    private static final int NO_HOST_VALUE = 1 << 7;
+
+
+    /**
+     * The port value indicating that the port is encoded as a varint.
+     */
+    private static final int WIDE_PORT = 0xFFFF;
+
+
+    /**
+     * The private constructor.
+     */
+    private URIReferenceCodec()
+    {
+    }
+
+
+    /**
+     * Computes the number of bytes of the binary form of a URI reference.
+     *
+     * @param uriRef
+     *         A URI reference.
+     *
+     * @return
+     *         The number of bytes written by {@link #encode(URIReference, ByteBuffer)}.
+     *
+     * @throws NullPointerException
+     *         If {@code uriRef} is {@code null}.
+     */
+    public static int encodedLength(URIReference uriRef)
+    {
+        // Ensure the URI reference is not null.
+        if (uriRef == null)
+        {
+            throw newNPE("The URI reference must not be null.");
+        }
+
+        // The flags, the hints and the charset ID.
+        var length = 3 + charsetNameLength(uriRef.getCharset());
+
+        length += stringLength(uriRef.getScheme());
+        length += authorityLength(uriRef.getAuthority());
+        length += stringLength(uriRef.getPath());
+        length += stringLength(uriRef.getQuery());
+        length += stringLength(uriRef.getFragment());
+
+        return length;
+    }
+
+
+    /**
+     * Encodes a URI reference into the given buffer, starting at the current position
+     * of the buffer, and advances the position by the number of written bytes.
+     * Nothing is written and the position is not changed if the remaining space
+     * of the buffer is not enough.
+     *
+     * @param uriRef
+     *         A URI reference.
+     *
+     * @param buffer
+     *         The destination.
+     *
+     * @return
+     *         The number of written bytes.
+     *
+     * @throws NullPointerException
+     *         If {@code uriRef} or {@code buffer} is {@code null}.
+     *
+     * @throws BufferOverflowException
+     *         If the remaining space of the buffer is less than {@link
+     *         #encodedLength(URIReference)}.
+     */
+    public static int encode(URIReference uriRef, ByteBuffer buffer)
+    {
+        // Ensure the buffer has enough space before writing anything.
+        var length = encodedLength(uriRef);
+        validateBuffer(buffer);
+
+        if (buffer.remaining() < length)
+        {
+            throw new BufferOverflowException();
+        }
+
+        var authority = uriRef.getAuthority();
+        var flags     = 0;
+
+        if (uriRef.isRelativeReference())
+        {
+            flags |= FLAG_RELATIVE_REFERENCE;
+        }
+
+        if (uriRef.getScheme() != null)
+        {
+            flags |= FLAG_SCHEME;
+        }
+
+        if (authority != null)
+        {
+            flags |= FLAG_AUTHORITY | authorityFlags(authority);
+        }
+
+        if (uriRef.getQuery() != null)
+        {
+            flags |= FLAG_QUERY;
+        }
+
+        if (uriRef.getFragment() != null)
+        {
+            flags |= FLAG_FRAGMENT;
+        }
+
+        buffer.put((byte)flags);
+        buffer.put((byte)(uriRef.getNormalizationHints() | (uriRef.getPath() == null ? NO_PATH : 0)));
+        putCharset(buffer, uriRef.getCharset());
+        putString(buffer, uriRef.getScheme());
+
+        if (authority != null)
+        {
+            putAuthority(buffer, authority);
+        }
+
+        putString(buffer, uriRef.getPath());
+        putString(buffer, uriRef.getQuery());
+        putString(buffer, uriRef.getFragment());
+
+        return length;
+    }
+
+
+    /**
+     * Encodes a URI reference into a new byte array.
+     *
+     * @param uriRef
+     *         A URI reference.
+     *
+     * @return
+     *         The binary form of the URI reference.
+     *
+     * @throws NullPointerException
+     *         If {@code uriRef} is {@code null}.
+     */
+    public static byte[] encode(URIReference uriRef)
+    {
+        var bytes = new byte[encodedLength(uriRef)];
+        encode(uriRef, ByteBuffer.wrap(bytes));
+
+        return bytes;
+    }
+
+
+    /**
+     * Decodes a URI reference from the given buffer, starting at the current position
+     * of the buffer, and advances the position to the end of the binary form.
+     * The position is not changed if this method throws an exception.
+     *
+     * @param buffer
+     *         The source.
+     *
+     * @return
+     *         The decoded URI reference.
+     *
+     * @throws NullPointerException
+     *         If {@code buffer} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the data in the buffer is not a valid binary form.
+     */
+    public static URIReference decode(ByteBuffer buffer)
+    {
+        validateBuffer(buffer);
+
+        var start = buffer.position();
+
+        try
+        {
+            return getURIReference(buffer);
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e)
+        {
+            buffer.position(start);
+
+            throw newIAE("The encoded URI reference is malformed.");
+        }
+    }
+
+
+    /**
+     * Decodes a URI reference from the given byte array.
+     *
+     * @param bytes
+     *         The binary form of a URI reference.
+     *
+     * @return
+     *         The decoded URI reference.
+     *
+     * @throws NullPointerException
+     *         If {@code bytes} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the byte array is not a valid binary form.
+     */
+    public static URIReference decode(byte[] bytes)
+    {
+        // Ensure the bytes are not null.
+        if (bytes == null)
+        {
+            throw newNPE("The buffer must not be null.");
+        }
+
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+
+    /**
+     * Encodes URI references into the given buffer as a batch, that is, the number
+     * of the URI references as a varint followed by their binary forms. Nothing
+     * is written and the position is not changed if the remaining space of the
+     * buffer is not enough.
+     *
+     * @param uriRefs
+     *         URI references.
+     *
+     * @param buffer
+     *         The destination.
+     *
+     * @return
+     *         The number of written bytes.
+     *
+     * @throws NullPointerException
+     *         If {@code uriRefs}, any of its elements or {@code buffer} is {@code null}.
+     *
+     * @throws BufferOverflowException
+     *         If the remaining space of the buffer is not enough.
+     */
+    public static int encodeAll(Collection<URIReference> uriRefs, ByteBuffer buffer)
+    {
+        // Ensure the URI references are not null.
+        if (uriRefs == null)
+        {
+            throw newNPE("The URI references must not be null.");
+        }
+
+        validateBuffer(buffer);
+
+        // Ensure the buffer has enough space before writing anything.
+        var length = varintLength(uriRefs.size());
+
+        for (var uriRef : uriRefs)
+        {
+            length += encodedLength(uriRef);
+        }
+
+        if (buffer.remaining() < length)
+        {
+            throw new BufferOverflowException();
+        }
+
+        putVarint(buffer, uriRefs.size());
+
+        for (var uriRef : uriRefs)
+        {
+            encode(uriRef, buffer);
+        }
+
+        return length;
+    }
+
+
+    /**
+     * Decodes URI references encoded by {@link #encodeAll(Collection, ByteBuffer)}.
+     * The position is not changed if this method throws an exception.
+     *
+     * @param buffer
+     *         The source.
+     *
+     * @return
+     *         The decoded URI references, in the encoded order.
+     *
+     * @throws NullPointerException
+     *         If {@code buffer} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the data in the buffer is not a valid batch.
+     */
+    public static List<URIReference> decodeAll(ByteBuffer buffer)
+    {
+        validateBuffer(buffer);
+
+        var start = buffer.position();
+
+        try
+        {
+            var count = getVarint(buffer);
+
+            // Each binary form has at least 3 bytes, which bounds the initial
+            // capacity for a malformed count.
+            var uriRefs = new ArrayList<URIReference>(Math.min(count, buffer.remaining() / 3));
+
+            for (var i = 0; i < count; i++)
+            {
+                uriRefs.add(getURIReference(buffer));
+            }
+
+            return uriRefs;
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e)
+        {
+            buffer.position(start);
+
+            throw newIAE("The encoded URI references are malformed.");
+        }
+    }
+
+
+    /**
+     * Encodes an authority. Used for the Java serialization of {@link Authority}.
+     */
+    static byte[] encodeAuthority(Authority authority)
+    {
+        var buffer = ByteBuffer.allocate(1 + authorityLength(authority));
+        buffer.put((byte)authorityFlags(authority));
+        putAuthority(buffer, authority);
+
+        return buffer.array();
+    }
+
+
+    /**
+     * Decodes an authority encoded by {@link #encodeAuthority(Authority)}.
+     */
+    static Authority decodeAuthority(byte[] bytes)
+    {
+        var buffer = ByteBuffer.wrap(bytes);
+
+        return getAuthority(buffer, buffer.get());
+    }
+
+
+    /**
+     * Encodes a host. Used for the Java serialization of {@link Host}.
+     */
+    static byte[] encodeHost(Host host)
+    {
+        var buffer = ByteBuffer.allocate(hostLength(host));
+        putHost(buffer, host);
+
+        return buffer.array();
+    }
+
+
+    /**
+     * Decodes a host encoded by {@link #encodeHost(Host)}.
+     */
+    static Host decodeHost(byte[] bytes)
+    {
+        return getHost(ByteBuffer.wrap(bytes));
+    }
+
+
+    private static void validateBuffer(ByteBuffer buffer)
+    {
+        // Ensure the buffer is not null.
+        if (buffer == null)
+        {
+            throw newNPE("The buffer must not be null.");
+        }
+    }
+
+
+    private static URIReference getURIReference(ByteBuffer buffer)
+    {
+        var flags = buffer.get() & 0xFF;
+        var hints = buffer.get() & 0xFF;
+
+        // The components are set as they are, without validation.
+        var res = new URIReference.ProcessResult();
+        res.relativeReference = (flags & FLAG_RELATIVE_REFERENCE) != 0;
+        res.hints             = hints & NormalizationHints.ALL;
+        res.charset           = getCharset(buffer);
+        res.scheme            = (flags & FLAG_SCHEME) != 0 ? getScheme(buffer) : null;
+        res.authority         = (flags & FLAG_AUTHORITY) != 0 ? getAuthority(buffer, flags) : null;
+        res.path              = (hints & NO_PATH) == 0 ? getString(buffer) : null;
+        res.query             = (flags & FLAG_QUERY) != 0 ? getString(buffer) : null;
+        res.fragment          = (flags & FLAG_FRAGMENT) != 0 ? getString(buffer) : null;
+
+        return res.toURIReference();
+    }
+
+
+    private static int authorityFlags(Authority authority)
+    {
+        var flags = 0;
+
+        if (authority.getUserinfo() != null)
+        {
+            flags |= FLAG_USERINFO;
+        }
+
+        if (authority.getHost() != null)
+        {
+            flags |= FLAG_HOST;
+        }
+
+        if (authority.getPort() != -1)
+        {
+            flags |= FLAG_PORT;
+        }
+
+        return flags;
+    }
+
+
+    private static int authorityLength(Authority authority)
+    {
+        if (authority == null)
+        {
+            return 0;
+        }
+
+        var length = stringLength(authority.getUserinfo()) + hostLength(authority.getHost());
+
+        if (authority.getPort() != -1)
+        {
+            length += (authority.getPort() < WIDE_PORT) ? 2 : 2 + varintLength(authority.getPort());
+        }
+
+        return length;
+    }
+
+
+    private static void putAuthority(ByteBuffer buffer, Authority authority)
+    {
+        putString(buffer, authority.getUserinfo());
+        putHost(buffer, authority.getHost());
+
+        var port = authority.getPort();
+
+        if (port == -1)
+        {
+            return;
+        }
+
+        if (port < WIDE_PORT)
+        {
+            buffer.putShort((short)port);
+        }
+        else
+        {
+            buffer.putShort((short)WIDE_PORT);
+            putVarint(buffer, port);
+        }
+    }
+
+
+    private static Authority getAuthority(ByteBuffer buffer, int flags)
+    {
+        var res = new Authority.ProcessResult();
+
+        if ((flags & FLAG_USERINFO) != 0)
+        {
+            res.userinfo = getString(buffer);
+        }
+
+        if ((flags & FLAG_HOST) != 0)
+        {
+            res.host = getHost(buffer);
+        }
+
+        if ((flags & FLAG_PORT) != 0)
+        {
+            var port = buffer.getShort() & 0xFFFF;
+            res.port = (port == WIDE_PORT) ? getVarint(buffer) : port;
+        }
+
+        return res.toAuthority();
+    }
+
+
+    private static int hostLength(Host host)
+    {
+        if (host == null)
+        {
+            return 0;
+        }
+
+        // The host type and the host value.
+        return 1 + stringLength(host.getValue());
+    }
+
+
+    private static void putHost(ByteBuffer buffer, Host host)
+    {
+        if (host == null)
+        {
+            return;
+        }
+
+        var type = (host.getType() == null) ? HOST_TYPE_NULL : host.getType().ordinal();
+
+        buffer.put((byte)(type | (host.getValue() == null ? NO_HOST_VALUE : 0)));
+        putString(buffer, host.getValue());
+    }
+
+
+    private static Host getHost(ByteBuffer buffer)
+    {
+        var b     = buffer.get() & 0xFF;
+        var type  = b & ~NO_HOST_VALUE;
+        var value = (b & NO_HOST_VALUE) == 0 ? getString(buffer) : null;
+
+        return new Host((type == HOST_TYPE_NULL) ? null : HOST_TYPES[type], value);
+    }
+
+
+    private static int charsetNameLength(Charset charset)
+    {
+        if (charset == null || charsetId(charset) != -1)
+        {
+            return 0;
+        }
+
+        return stringLength(charset.name());
+    }
+
+
+    private static int charsetId(Charset charset)
+    {
+        for (var i = 0; i < CHARSETS.length; i++)
+        {
+            if (CHARSETS[i].equals(charset))
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+
+    private static void putCharset(ByteBuffer buffer, Charset charset)
+    {
+        if (charset == null)
+        {
+            buffer.put((byte)CHARSET_NULL);
+            return;
+        }
+
+        var id = charsetId(charset);
+
+        if (id != -1)
+        {
+            buffer.put((byte)id);
+            return;
+        }
+
+        buffer.put((byte)CHARSET_NAME);
+        putString(buffer, charset.name());
+    }
+
+
+    private static Charset getCharset(ByteBuffer buffer)
+    {
+        var id = buffer.get() & 0xFF;
+
+        if (id == CHARSET_NULL)
+        {
+            return null;
+        }
+
+        if (id == CHARSET_NAME)
+        {
+            // May throw an IllegalArgumentException for an unknown charset.
+            return Charset.forName(getString(buffer));
+        }
+
+        return CHARSETS[id];
+    }
+
+
+    private static String getScheme(ByteBuffer buffer)
+    {
+        // Share the instances of the most common schemes.
+        var length = peekVarint(buffer);
+
+        if (length == 4 && matches(buffer, "http"))
+        {
+            skipString(buffer, length);
+            return "http";
+        }
+
+        if (length == 5 && matches(buffer, "https"))
+        {
+            skipString(buffer, length);
+            return "https";
+        }
+
+        return getString(buffer);
+    }
+
+
+    private static int peekVarint(ByteBuffer buffer)
+    {
+        var position = buffer.position();
+        var value    = getVarint(buffer);
+        buffer.position(position);
+
+        return value;
+    }
+
+
+    private static boolean matches(ByteBuffer buffer, String value)
+    {
+        // The length of a short string is encoded in 1 byte.
+        var offset = buffer.position() + 1;
+
+        if (buffer.limit() - offset < value.length())
+        {
+            return false;
+        }
+
+        for (var i = 0; i < value.length(); i++)
+        {
+            if (buffer.get(offset + i) != value.charAt(i))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    private static void skipString(ByteBuffer buffer, int length)
+    {
+        buffer.position(buffer.position() + varintLength(length) + length);
+    }
+
+
+    private static int stringLength(String value)
+    {
+        if (value == null)
+        {
+            return 0;
+        }
+
+        var length = utf8Length(value);
+
+        return varintLength(length) + length;
+    }
+
+
+    private static int utf8Length(String value)
+    {
+        var length = value.length();
+
+        for (var i = 0; i < value.length(); i++)
+        {
+            var c = value.charAt(i);
+
+            if (c < 0x80)
+            {
+                continue;
+            }
+
+            // The components are ASCII once validated. Let the JDK handle the rest.
+            return value.getBytes(UTF_8).length;
+        }
+
+        return length;
+    }
+
+
+    private static void putString(ByteBuffer buffer, String value)
+    {
+        if (value == null)
+        {
+            return;
+        }
+
+        var length = utf8Length(value);
+        putVarint(buffer, length);
+
+        if (length != value.length())
+        {
+            buffer.put(value.getBytes(UTF_8));
+            return;
+        }
+
+        // ASCII only.
+        for (var i = 0; i < length; i++)
+        {
+            buffer.put((byte)value.charAt(i));
+        }
+    }
+
+
+    private static String getString(ByteBuffer buffer)
+    {
+        var length = getVarint(buffer);
+
+        if (length > buffer.remaining())
+        {
+            throw new BufferUnderflowException();
+        }
+
+        String value;
+
+        if (buffer.hasArray())
+        {
+            value = new String(
+                buffer.array(), buffer.arrayOffset() + buffer.position(), length, UTF_8);
+            buffer.position(buffer.position() + length);
+        }
+        else
+        {
+            var bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, UTF_8);
+        }
+
+        return value;
+    }
+
+
+    private static int varintLength(int value)
+    {
+        var length = 1;
+
+        while ((value >>>= 7) != 0)
+        {
+            length++;
+        }
+
+        return length;
+    }
+
+
+    private static void putVarint(ByteBuffer buffer, int value)
+    {
+        while ((value & ~0x7F) != 0)
+        {
+            buffer.put((byte)((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        buffer.put((byte)value);
+    }
+
+
+    private static int getVarint(ByteBuffer buffer)
+    {
+        var value = 0;
+
+        for (var shift = 0; shift < 32; shift += 7)
+        {
+            var b = buffer.get();
+            value |= (b & 0x7F) << shift;
+
+            if (b >= 0)
+            {
+                if (value < 0)
+                {
+                    throw newIAE("The varint is out of range.");
+                }
+
+                return value;
+            }
+        }
+
+        throw newIAE("The varint is too long.");
+    }
+
+
+    /**
+     * The serialized form of {@link URIReference}, {@link Authority} and {@link
+     * Host}, holding their binary form.
+     */
+    static final class SerializationProxy implements Serializable
+    {
+        /**
+         * Serial Version UID.
+         */
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+
+        private static final byte URI_REFERENCE = 0;
+        private static final byte AUTHORITY     = 1;
+        private static final byte HOST          = 2;
+
+
+        /**
+         * The kind of the serialized object.
+         */
+        private final byte kind;
+
+
+        /**
+         * The binary form of the serialized object.
+         */
+        private final byte[] data;
+
+
+        SerializationProxy(URIReference uriRef)
+        {
+            this.kind = URI_REFERENCE;
+            this.data = encode(uriRef);
+        }
+
+
+        SerializationProxy(Authority authority)
+        {
+            this.kind = AUTHORITY;
+            this.data = encodeAuthority(authority);
+        }
+
+
+        SerializationProxy(Host host)
+        {
+            this.kind = HOST;
+            this.data = encodeHost(host);
+        }
+
+
+        @Serial
+        private Object readResolve() throws ObjectStreamException
+        {
+            try
+            {
+                switch (kind)
+                {
+                    case URI_REFERENCE:
+                        return decode(data);
+
+                    case AUTHORITY:
+                        return decodeAuthority(data);
+
+                    case HOST:
+                        return decodeHost(data);
+
+                    default:
+                        throw new InvalidObjectException("The serialized object is of an unknown kind.");
+                }
+            }
+            catch (RuntimeException e)
+            {
+                var ex = new InvalidObjectException("The serialized object is malformed.");
+                ex.initCause(e);
+
+                throw ex;
+            }
+        }
+    }
+}
@@ -0,0 +1,563 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.czeal.rfc3986.NormalizationHints.PATH;
+import static org.czeal.rfc3986.NormalizationHints.hasDotSegment;
+import static org.czeal.rfc3986.PercentEncodedStringNormalizer.hasNonAsciiOctet;
+import static org.czeal.rfc3986.PercentEncodedStringNormalizer.isTripletNormalizationSupported;
+import static org.czeal.rfc3986.Utils.fromHexDigit;
+import static org.czeal.rfc3986.Utils.isInRange;
+import static org.czeal.rfc3986.Utils.isUnreserved;
+import static org.czeal.rfc3986.Utils.newISE;
+import static org.czeal.rfc3986.Utils.newNPE;
+import static org.czeal.rfc3986.Utils.toHexDigit;
+import java.util.Comparator;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * Compares URI references by the equivalence defined in <a href="https://www.rfc-editor.org/rfc/rfc3986#section-6">
+ * RFC 3986, Section 6: Normalization and Comparison</a>, without creating the
+ * normalized URI references.
+ *
+ * <p>
+ * Two URI references are equivalent if and only if their normalized forms (see
+ * {@link URIReference#normalize()}) have the same {@code scheme}, {@code userinfo},
+ * {@code host}, {@code port}, {@code path}, {@code query} and {@code fragment}.
+ * The components are compared character by character while normalizing them on
+ * the fly, that is, the scheme and the host are compared case-insensitively, the
+ * hex digits of percent-encoded values are compared case-insensitively, percent-encoded
+ * unreserved characters are compared as the characters they represent, an empty
+ * path of a URI with an authority is compared as {@code "/"}, and the default port
+ * of the scheme is compared as no port.
+ * </p>
+ *
+ * <p>
+ * The comparison doesn't allocate objects, except for the following rare cases,
+ * where the component is normalized by the corresponding normalizer beforehand:
+ * a path containing dot segments, a host containing percent-encoded non-ASCII
+ * octets (whose case can only be determined by decoding them), and URI references
+ * using a charset in which percent-encoded values can't be normalized triplet by
+ * triplet.
+ * </p>
+ *
+ * <p>
+ * The hash code computed by {@link #hashCode(URIReference)} and the order defined
+ * by {@link #compare(URIReference, URIReference)} are consistent with the equivalence.
+ * </p>
+ *
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc3986#section-6">RFC 3986,
+ *      Section 6: Normalization and Comparison</a>
+ *
+ * @author Hideki Ikeda
+ */
+class URIReferenceEquivalence implements Comparator<URIReference>
+{
+    /**
+     * The shared instance. This class is stateless.
+     */
+    static final URIReferenceEquivalence INSTANCE = new URIReferenceEquivalence();
+
+
+    /**
+     * The value representing the end of a component in a character comparison.
+     */
+    private static final int END = -1;
+
+
+    /**
+     * Checks whether two URI references are equivalent.
+     *
+     * @param uriRef1
+     *         The first URI reference.
+     *
+     * @param uriRef2
+     *         The second URI reference.
+     *
+     * @return
+     *         {@code true} if the URI references are equivalent; otherwise, {@code
+     *         false}.
+     *
+     * @throws NullPointerException
+     *         If {@code uriRef1} or {@code uriRef2} is {@code null}.
+     *
+     * @throws IllegalStateException
+     *         If {@code uriRef1} or {@code uriRef2} is a relative reference.
+     */
+    boolean isEquivalent(URIReference uriRef1, URIReference uriRef2)
+    {
+        return compare(uriRef1, uriRef2) == 0;
+    }
+
+
+    /**
+     * Compares two URI references by their normalized forms.
+     *
+     * @param uriRef1
+     *         The first URI reference.
+     *
+     * @param uriRef2
+     *         The second URI reference.
+     *
+     * @return
+     *         A negative integer, zero, or a positive integer as the first URI
+     *         reference is less than, equivalent to, or greater than the second
+     *         one.
+     *
+     * @throws NullPointerException
+     *         If {@code uriRef1} or {@code uriRef2} is {@code null}.
+     *
+     * @throws IllegalStateException
+     *         If {@code uriRef1} or {@code uriRef2} is a relative reference.
+     */
+    @Override
+    public int compare(URIReference uriRef1, URIReference uriRef2)
+    {
+        // Validate the URI references.
+        validate(uriRef1);
+        validate(uriRef2);
+
+        if (uriRef1 == uriRef2)
+        {
+            return 0;
+        }
+
+        // Compare the schemes.
+        var result = compare(uriRef1.getScheme(), uriRef2.getScheme(), true);
+
+        if (result != 0)
+        {
+            return result;
+        }
+
+        // Compare the authorities.
+        result = compareAuthorities(uriRef1, uriRef2);
+
+        if (result != 0)
+        {
+            return result;
+        }
+
+        // Compare the paths.
+        result = compare(path(uriRef1), path(uriRef2), false);
+
+        if (result != 0)
+        {
+            return result;
+        }
+
+        // Compare the queries.
+        result = compare(query(uriRef1), query(uriRef2), false);
+
+        if (result != 0)
+        {
+            return result;
+        }
+
+        // Compare the fragments.
+        return compare(fragment(uriRef1), fragment(uriRef2), false);
+    }
+
+
+    /**
+     * Computes the hash code of a URI reference that is consistent with the
+     * equivalence.
+     *
+     * @param uriRef
+     *         A URI reference.
+     *
+     * @return
+     *         The hash code.
+     *
+     * @throws NullPointerException
+     *         If {@code uriRef} is {@code null}.
+     *
+     * @throws IllegalStateException
+     *         If {@code uriRef} is a relative reference.
+     */
+    int hashCode(URIReference uriRef)
+    {
+        // Validate the URI reference.
+        validate(uriRef);
+
+        var hash = hashCode(uriRef.getScheme(), true);
+
+        if (uriRef.hasAuthority())
+        {
+            hash = 31 * hash + hashCode(userinfo(uriRef), false);
+            hash = 31 * hash + hashCode(host(uriRef), true);
+            hash = 31 * hash + port(uriRef);
+        }
+
+        hash = 31 * hash + hashCode(path(uriRef), false);
+        hash = 31 * hash + hashCode(query(uriRef), false);
+        hash = 31 * hash + hashCode(fragment(uriRef), false);
+
+        return hash;
+    }
+
+
+    private void validate(URIReference uriRef)
+    {
+        // Ensure the URI reference is not null.
+        if (uriRef == null)
+        {
+            throw newNPE("The URI reference must not be null.");
+        }
+
+        // Ensure the URI reference has been resolved, as required for normalization.
+        if (uriRef.isRelativeReference())
+        {
+            throw newISE("A relative references must be resolved before it can be compared.");
+        }
+    }
+
+
+    private int compareAuthorities(URIReference uriRef1, URIReference uriRef2)
+    {
+        if (!uriRef1.hasAuthority() || !uriRef2.hasAuthority())
+        {
+            // A URI reference without an authority comes first.
+            return Boolean.compare(uriRef1.hasAuthority(), uriRef2.hasAuthority());
+        }
+
+        // Compare the userinfo.
+        var result = compare(userinfo(uriRef1), userinfo(uriRef2), false);
+
+        if (result != 0)
+        {
+            return result;
+        }
+
+        // Compare the hosts.
+        result = compare(host(uriRef1), host(uriRef2), true);
+
+        if (result != 0)
+        {
+            return result;
+        }
+
+        // Compare the ports.
+        return Integer.compare(port(uriRef1), port(uriRef2));
+    }
+
+
+    private String userinfo(URIReference uriRef)
+    {
+        var userinfo = uriRef.getUserinfo();
+
+        if (userinfo == null || isTripletNormalizationSupported(uriRef.getCharset()))
+        {
+            // The userinfo can be normalized on the fly.
+            return userinfo;
+        }
+
+        return new UserinfoNormalizer().normalize(userinfo, uriRef.getCharset());
+    }
+
+
+    private String host(URIReference uriRef)
+    {
+        var host = uriRef.getHost();
+
+        if (host == null || host.getValue() == null)
+        {
+            return null;
+        }
+
+        var value = host.getValue();
+
+        if (isTripletNormalizationSupported(uriRef.getCharset()) && !hasNonAsciiOctet(value))
+        {
+            // The host can be normalized on the fly.
+            return value;
+        }
+
+        return new HostNormalizer().normalize(host, uriRef.getCharset()).getValue();
+    }
+
+
+    private int port(URIReference uriRef)
+    {
+        // The default port for the scheme is equivalent to no port.
+        return new PortNormalizer().normalize(uriRef.getPort(), uriRef.getScheme());
+    }
+
+
+    private String path(URIReference uriRef)
+    {
+        var path = uriRef.getPath();
+
+        if (path == null || (uriRef.getNormalizationHints() & PATH) != 0)
+        {
+            // The path is already normalized.
+            return path;
+        }
+
+        if (path.isEmpty() || hasDotSegment(path) || !isTripletNormalizationSupported(uriRef.getCharset()))
+        {
+            // An empty path or dot segments require the path normalization.
+            return new PathNormalizer().normalize(path, uriRef.getCharset(), uriRef.hasAuthority());
+        }
+
+        // The path can be normalized on the fly.
+        return path;
+    }
+
+
+    private String query(URIReference uriRef)
+    {
+        var query = uriRef.getQuery();
+
+        if (query == null || isTripletNormalizationSupported(uriRef.getCharset()))
+        {
+            // The query can be normalized on the fly.
+            return query;
+        }
+
+        return new QueryNormalizer().normalize(query, uriRef.getCharset());
+    }
+
+
+    private String fragment(URIReference uriRef)
+    {
+        var fragment = uriRef.getFragment();
+
+        if (fragment == null || isTripletNormalizationSupported(uriRef.getCharset()))
+        {
+            // The fragment can be normalized on the fly.
+            return fragment;
+        }
+
+        return new FragmentNormalizer().normalize(fragment, uriRef.getCharset());
+    }
+
+
+    /**
+     * Compares two component values by their normalized forms. A {@code null}
+     * value comes first.
+     *
+     * @param value1
+     *         The first value.
+     *
+     * @param value2
+     *         The second value.
+     *
+     * @param lowerCase
+     *         Whether the component is case-insensitive or not.
+     *
+     * @return
+     *         A negative integer, zero, or a positive integer as the first value
+     *         is less than, equivalent to, or greater than the second one.
+     */
+    private static int compare(String value1, String value2, boolean lowerCase)
+    {
+        if (value1 == null || value2 == null)
+        {
+            return Boolean.compare(value1 != null, value2 != null);
+        }
+
+        // The positions in the values.
+        var position1 = 0L;
+        var position2 = 0L;
+
+        while (true)
+        {
+            // The normalized characters at the current positions.
+            var c1 = charAt(value1, position1, lowerCase);
+            var c2 = charAt(value2, position2, lowerCase);
+
+            if (c1 != c2 || c1 == END)
+            {
+                return c1 - c2;
+            }
+
+            position1 = next(value1, position1);
+            position2 = next(value2, position2);
+        }
+    }
+
+
+    /**
+     * Computes the hash code of the normalized form of a component value. The
+     * result is equal to {@link String#hashCode()} of the normalized form.
+     *
+     * @param value
+     *         The value.
+     *
+     * @param lowerCase
+     *         Whether the component is case-insensitive or not.
+     *
+     * @return
+     *         The hash code.
+     */
+    private static int hashCode(String value, boolean lowerCase)
+    {
+        if (value == null)
+        {
+            return 0;
+        }
+
+        var hash = 0;
+
+        for (var position = 0L; ; position = next(value, position))
+        {
+            var c = charAt(value, position, lowerCase);
+
+            if (c == END)
+            {
+                return hash;
+            }
+
+            hash = 31 * hash + c;
+        }
+    }
+
+
+    /**
+     * Returns the character at a position in the normalized form of a value.
+     * A position consists of the index in the original value (the upper bits)
+     * and the offset within a percent-encoded value that is kept as-is (the
+     * lower two bits).
+     *
+     * @param value
+     *         The original value.
+     *
+     * @param position
+     *         The position.
+     *
+     * @param lowerCase
+     *         Whether the component is case-insensitive or not.
+     *
+     * @return
+     *         The normalized character, or {@link #END} if the position is at
+     *         the end of the value.
+     */
+    private static int charAt(String value, long position, boolean lowerCase)
+    {
+        var index = (int)(position >>> 2);
+
+        if (index >= value.length())
+        {
+            return END;
+        }
+
+        var octet = octetAt(value, index);
+
+        if (octet == -1)
+        {
+            // A character that is not percent-encoded.
+            return lowerCase ? toLowerCase(value.charAt(index)) : value.charAt(index);
+        }
+
+        if (isUnreserved((char)octet))
+        {
+            // A percent-encoded unreserved character is decoded.
+            return lowerCase ? toLowerCase((char)octet) : octet;
+        }
+
+        // Other percent-encoded values are kept with upper-case hex digits.
+        switch ((int)(position & 3))
+        {
+            case 0:
+                return '%';
+
+            case 1:
+                return toHexDigit(octet >> 4);
+
+            default:
+                return toHexDigit(octet & 0xF);
+        }
+    }
+
+
+    /**
+     * Returns the position next to the given position in the normalized form
+     * of a value.
+     *
+     * @param value
+     *         The original value.
+     *
+     * @param position
+     *         The current position.
+     *
+     * @return
+     *         The next position.
+     */
+    private static long next(String value, long position)
+    {
+        var index = (int)(position >>> 2);
+        var octet = octetAt(value, index);
+
+        if (octet == -1)
+        {
+            // Move to the next character.
+            return (long)(index + 1) << 2;
+        }
+
+        if (isUnreserved((char)octet) || (position & 3) == 2)
+        {
+            // Move to the character after the percent-encoded value.
+            return (long)(index + 3) << 2;
+        }
+
+        // Move to the next character in the percent-encoded value.
+        return position + 1;
+    }
+
+
+    /**
+     * Returns the octet represented by the percent-encoded value at an index.
+     *
+     * @param value
+     *         The value.
+     *
+     * @param index
+     *         The index.
+     *
+     * @return
+     *         The octet, or {@code -1} if the character at the index doesn't start
+     *         a percent-encoded value.
+     */
+    private static int octetAt(String value, int index)
+    {
+        if (value.charAt(index) != '%' || index + 2 >= value.length())
+        {
+            return -1;
+        }
+
+        var higher = fromHexDigit(value.charAt(index + 1));
+        var lower  = fromHexDigit(value.charAt(index + 2));
+
+        if (higher == -1 || lower == -1)
+        {
+            return -1;
+        }
+
+        return (higher << 4) | lower;
+    }
+
+
+    private static char toLowerCase(char c)
+    {
+        return isInRange(c, 'A', 'Z') ? (char)(c + ('a' - 'A')) : c;
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.czeal.rfc3986.URIReferenceParser.indexOfDelimiter;
+import static org.czeal.rfc3986.URIReferenceParser.isSchemeValid;
+import static org.czeal.rfc3986.Utils.newNPE;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * <p>
+ * Extracts a single component from a string representing a URI reference
+ * without parsing the whole string. The string is scanned only as far as
+ * needed to locate the component, and only the component is validated, in
+ * the same way as {@link URIReferenceParser} does with UTF-8. The other
+ * components are neither validated nor created.
+ * </p>
+ *
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc3986#appendix-B">RFC 3986,
+ *      Appendix B. Parsing a URI Reference with a Regular Expression</a>
+ *
+ * @author Hideki Ikeda
+ */
+class URIReferenceExtractor
+{
+    /**
+     * Extracts the scheme.
+     *
+     * @param uriRef
+     *         The string representing a URI reference.
+     *
+     * @return
+     *         The scheme, or {@code null} if the string is a relative reference.
+     */
+    String extractScheme(CharSequence uriRef)
+    {
+        validate(uriRef);
+
+        var colonIndex = indexOfSchemeColon(uriRef);
+
+        return (colonIndex == -1) ? null : uriRef.subSequence(0, colonIndex).toString();
+    }
+
+
+    /**
+     * Extracts and validates the host.
+     *
+     * @param uriRef
+     *         The string representing a URI reference.
+     *
+     * @return
+     *         The host, or {@code null} if the string doesn't have an authority.
+     *
+     * @throws IllegalArgumentException
+     *         If the host is invalid.
+     */
+    Host extractHost(CharSequence uriRef)
+    {
+        validate(uriRef);
+
+        // The start of the authority.
+        var start = indexOfAuthority(uriRef, indexOfSchemeColon(uriRef) + 1);
+
+        if (start == -1)
+        {
+            return null;
+        }
+
+        var end = indexOfDelimiter(uriRef, start, true);
+
+        return Host.parse(host(uriRef, start, end), UTF_8);
+    }
+
+
+    /**
+     * Extracts the origin, that is, the scheme, the host and the port.
+     *
+     * @param uriRef
+     *         The string representing a URI reference.
+     *
+     * @return
+     *         The origin in the form of {@code scheme "://" host [ ":" port ]},
+     *         or {@code null} if the string is not a URI with an authority.
+     *
+     * @throws IllegalArgumentException
+     *         If the host or the port is invalid.
+     */
+    String extractOrigin(CharSequence uriRef)
+    {
+        validate(uriRef);
+
+        var colonIndex = indexOfSchemeColon(uriRef);
+
+        // The origin requires a scheme and an authority.
+        var start = (colonIndex == -1) ? -1 : indexOfAuthority(uriRef, colonIndex + 1);
+
+        if (start == -1)
+        {
+            return null;
+        }
+
+        var end  = indexOfDelimiter(uriRef, start, true);
+        var host = host(uriRef, start, end);
+
+        // Validate the host.
+        Host.parse(host, UTF_8);
+
+        // The port follows the host and ":", if any.
+        var portStart = start + authorityPrefixLength(uriRef, start, end) + host.length() + 1;
+        var rawPort   = (portStart < end) ? uriRef.subSequence(portStart, end).toString() : null;
+
+        // Validate the port.
+        new PortValidator().validate(rawPort);
+
+        var port = new AuthorityParser().parsePort(rawPort);
+
+        var sb = new StringBuilder(end - start + colonIndex + 3)
+                .append(uriRef, 0, colonIndex)
+                .append("://")
+                .append(host);
+
+        if (port != -1)
+        {
+            sb.append(':').append(port);
+        }
+
+        return sb.toString();
+    }
+
+
+    /**
+     * Extracts and validates the path.
+     *
+     * @param uriRef
+     *         The string representing a URI reference.
+     *
+     * @return
+     *         The path, which may be empty.
+     *
+     * @throws IllegalArgumentException
+     *         If the path is invalid.
+     */
+    String extractPath(CharSequence uriRef)
+    {
+        validate(uriRef);
+
+        var colonIndex = indexOfSchemeColon(uriRef);
+        var start      = colonIndex + 1;
+
+        // Skip the authority, if any.
+        var authorityStart = indexOfAuthority(uriRef, start);
+
+        if (authorityStart != -1)
+        {
+            start = indexOfDelimiter(uriRef, authorityStart, true);
+        }
+
+        var path = uriRef.subSequence(start, indexOfDelimiter(uriRef, start, false)).toString();
+
+        // Validate the path.
+        new PathValidator().validate(path, UTF_8, colonIndex == -1, authorityStart != -1);
+
+        return path;
+    }
+
+
+    private void validate(CharSequence uriRef)
+    {
+        // Ensure the input string is not null.
+        if (uriRef == null)
+        {
+            throw newNPE("The input string must not be null.");
+        }
+    }
+
+
+    private int indexOfSchemeColon(CharSequence uriRef)
+    {
+        // The string is a URI if it starts with a valid scheme followed by a
+        // colon, as URIReferenceParser determines.
+        var colonIndex = URIReferenceParser.indexOfSchemeColon(uriRef);
+
+        if (colonIndex > 0 && isSchemeValid(uriRef.subSequence(0, colonIndex).toString()))
+        {
+            return colonIndex;
+        }
+
+        return -1;
+    }
+
+
+    private int indexOfAuthority(CharSequence uriRef, int start)
+    {
+        // The authority is preceded by "//".
+        if (start + 1 < uriRef.length() && uriRef.charAt(start) == '/' && uriRef.charAt(start + 1) == '/')
+        {
+            return start + 2;
+        }
+
+        return -1;
+    }
+
+
+    private int authorityPrefixLength(CharSequence uriRef, int start, int end)
+    {
+        // The length of the userinfo followed by "@", if any. The userinfo
+        // never contains "@".
+        for (var i = start; i < end; i++)
+        {
+            if (uriRef.charAt(i) == '@')
+            {
+                return i + 1 - start;
+            }
+        }
+
+        return 0;
+    }
+
+
+    private String host(CharSequence uriRef, int start, int end)
+    {
+        // The host follows the userinfo and "@", if any.
+        var hostStart = start + authorityPrefixLength(uriRef, start, end);
+
+        // An IP-literal ends with "]" followed by ":" or the end of the authority,
+        // as in the pattern of AuthorityParser.
+        if (hostStart < end && uriRef.charAt(hostStart) == '[')
+        {
+            for (var i = hostStart + 1; i < end; i++)
+            {
+                if (uriRef.charAt(i) == ']')
+                {
+                    if (i + 1 == end || uriRef.charAt(i + 1) == ':')
+                    {
+                        return uriRef.subSequence(hostStart, i + 1).toString();
+                    }
+
+                    break;
+                }
+            }
+        }
+
+        // Otherwise, the host ends with ":".
+        var hostEnd = hostStart;
+
+        while (hostEnd < end && uriRef.charAt(hostEnd) != ':')
+        {
+            hostEnd++;
+        }
+
+        return uriRef.subSequence(hostStart, hostEnd).toString();
+    }
+}
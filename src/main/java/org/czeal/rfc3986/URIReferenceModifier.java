@@ -0,0 +1,345 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.czeal.rfc3986.NormalizationHints.AUTHORITY;
+import static org.czeal.rfc3986.NormalizationHints.FRAGMENT;
+import static org.czeal.rfc3986.NormalizationHints.PATH;
+import static org.czeal.rfc3986.NormalizationHints.QUERY;
+import static org.czeal.rfc3986.NormalizationHints.SCHEME;
+import static org.czeal.rfc3986.NormalizationHints.isPathNormalized;
+import static org.czeal.rfc3986.NormalizationHints.isPercentEncodedStringNormalized;
+import static org.czeal.rfc3986.NormalizationHints.isSchemeNormalized;
+import static org.czeal.rfc3986.URIReference.ProcessResult;
+import static org.czeal.rfc3986.Utils.newISE;
+import static org.czeal.rfc3986.Utils.newNPE;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * Creates a URI reference by replacing one component of another URI reference.
+ *
+ * <p>
+ * Only the new component is validated. The other components are shared with
+ * the original URI reference, except that the path is validated again when the
+ * replacement changes whether the URI reference is relative or whether it has
+ * an authority, because the syntax of the path depends on them (see <a href=
+ * "https://www.rfc-editor.org/rfc/rfc3986#section-3.3">RFC 3986, 3.3. Path</a>).
+ * </p>
+ *
+ * <p>Examples:</p>
+ * <pre>{@code
+ * URIReference uriRef = new URIReferenceModifier().withHost(
+ *     URIReference.parse("http://example.com/a#f"), "example.org");
+ *
+ * System.out.println(uriRef.toString()); // "http://example.org/a#f"
+ * }</pre>
+ *
+ * @author Hideki Ikeda
+ */
+class URIReferenceModifier
+{
+    /**
+     * Replaces the scheme of a URI reference. A {@code null} scheme makes the
+     * result a relative reference.
+     *
+     * @param uriRef
+     *         The original URI reference.
+     *
+     * @param scheme
+     *         The new scheme. May be {@code null}.
+     *
+     * @return
+     *         The URI reference with the new scheme.
+     *
+     * @throws IllegalArgumentException
+     *         If the scheme is invalid, or the path of the original URI reference
+     *         is invalid for the result.
+     */
+    URIReference withScheme(URIReference uriRef, String scheme)
+    {
+        var res = new ProcessResult(uriRef);
+
+        if (scheme != null)
+        {
+            // Validate the scheme.
+            new SchemeValidator().validate(scheme);
+        }
+
+        // Set the scheme.
+        res.scheme            = scheme;
+        res.relativeReference = (scheme == null);
+        setHint(res, SCHEME, isSchemeNormalized(scheme));
+
+        // The path-noscheme rule applies only to relative references.
+        if (res.relativeReference != uriRef.isRelativeReference())
+        {
+            revalidatePath(res);
+        }
+
+        return res.toURIReference();
+    }
+
+
+    /**
+     * Replaces the authority of a URI reference. A {@code null} authority removes
+     * the authority.
+     *
+     * @param uriRef
+     *         The original URI reference.
+     *
+     * @param authority
+     *         The new authority. May be {@code null}.
+     *
+     * @return
+     *         The URI reference with the new authority.
+     *
+     * @throws IllegalArgumentException
+     *         If the authority is invalid, or the path of the original URI reference
+     *         is invalid for the result.
+     */
+    URIReference withAuthority(URIReference uriRef, String authority)
+    {
+        // Parse the authority with the charset of the URI reference.
+        return withAuthority(uriRef, Authority.parse(authority, uriRef.getCharset()));
+    }
+
+
+    /**
+     * Replaces the host of a URI reference, keeping its userinfo and port. If
+     * the URI reference doesn't have an authority, an authority consisting of
+     * the host is added.
+     *
+     * @param uriRef
+     *         The original URI reference.
+     *
+     * @param host
+     *         The new host.
+     *
+     * @return
+     *         The URI reference with the new host.
+     *
+     * @throws NullPointerException
+     *         If {@code host} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the host is invalid, or the path of the original URI reference
+     *         is invalid for the result.
+     */
+    URIReference withHost(URIReference uriRef, String host)
+    {
+        // Ensure the host is not null.
+        if (host == null)
+        {
+            throw newNPE("The host must not be null.");
+        }
+
+        var authority = new Authority.ProcessResult();
+
+        if (uriRef.hasAuthority())
+        {
+            // Keep the userinfo and the port.
+            authority.userinfo = uriRef.getUserinfo();
+            authority.port     = uriRef.getPort();
+        }
+
+        // Parse the host with the charset of the URI reference.
+        authority.host = Host.parse(host, uriRef.getCharset());
+
+        return withAuthority(uriRef, authority.toAuthority());
+    }
+
+
+    /**
+     * Replaces the port of a URI reference, keeping its userinfo and host.
+     *
+     * @param uriRef
+     *         The original URI reference.
+     *
+     * @param port
+     *         The new port, or {@code -1} to remove the port.
+     *
+     * @return
+     *         The URI reference with the new port.
+     *
+     * @throws IllegalArgumentException
+     *         If the port is invalid.
+     *
+     * @throws IllegalStateException
+     *         If the URI reference doesn't have an authority.
+     */
+    URIReference withPort(URIReference uriRef, int port)
+    {
+        // Ensure the URI reference has an authority to hold the port.
+        if (!uriRef.hasAuthority())
+        {
+            throw newISE("The URI reference must have an authority to set the port.");
+        }
+
+        // Validate the port.
+        new PortValidator().validate(port);
+
+        var authority = new Authority.ProcessResult();
+        authority.userinfo = uriRef.getUserinfo();
+        authority.host     = uriRef.getHost();
+        authority.port     = port;
+
+        var res = new ProcessResult(uriRef);
+
+        // The userinfo and the host are unchanged, so are their hints.
+        res.authority = authority.toAuthority();
+
+        return res.toURIReference();
+    }
+
+
+    /**
+     * Replaces the path of a URI reference.
+     *
+     * @param uriRef
+     *         The original URI reference.
+     *
+     * @param path
+     *         The new path.
+     *
+     * @return
+     *         The URI reference with the new path.
+     *
+     * @throws NullPointerException
+     *         If {@code path} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the path is invalid.
+     */
+    URIReference withPath(URIReference uriRef, String path)
+    {
+        // Ensure the path is not null.
+        if (path == null)
+        {
+            throw newNPE("The path must not be null.");
+        }
+
+        var res = new ProcessResult(uriRef);
+
+        // Set the path and validate it.
+        res.path = path;
+        revalidatePath(res);
+
+        return res.toURIReference();
+    }
+
+
+    /**
+     * Replaces the query of a URI reference. A {@code null} query removes the
+     * query.
+     *
+     * @param uriRef
+     *         The original URI reference.
+     *
+     * @param query
+     *         The new query. May be {@code null}.
+     *
+     * @return
+     *         The URI reference with the new query.
+     *
+     * @throws IllegalArgumentException
+     *         If the query is invalid.
+     */
+    URIReference withQuery(URIReference uriRef, String query)
+    {
+        // Validate the query.
+        new QueryValidator().validate(query, uriRef.getCharset());
+
+        var res = new ProcessResult(uriRef);
+
+        // Set the query.
+        res.query = query;
+        setHint(res, QUERY, isPercentEncodedStringNormalized(query, false));
+
+        return res.toURIReference();
+    }
+
+
+    /**
+     * Replaces the fragment of a URI reference. A {@code null} fragment removes
+     * the fragment.
+     *
+     * @param uriRef
+     *         The original URI reference.
+     *
+     * @param fragment
+     *         The new fragment. May be {@code null}.
+     *
+     * @return
+     *         The URI reference with the new fragment.
+     *
+     * @throws IllegalArgumentException
+     *         If the fragment is invalid.
+     */
+    URIReference withFragment(URIReference uriRef, String fragment)
+    {
+        // Validate the fragment.
+        new FragmentValidator().validate(fragment, uriRef.getCharset());
+
+        var res = new ProcessResult(uriRef);
+
+        // Set the fragment.
+        res.fragment = fragment;
+        setHint(res, FRAGMENT, isPercentEncodedStringNormalized(fragment, false));
+
+        return res.toURIReference();
+    }
+
+
+    private URIReference withAuthority(URIReference uriRef, Authority authority)
+    {
+        var res = new ProcessResult(uriRef);
+
+        // Set the authority.
+        res.authority = authority;
+        res.hints     = (res.hints & ~AUTHORITY) | NormalizationHints.of(authority);
+
+        // The syntax of the path depends on whether the authority is present.
+        if ((authority != null) != uriRef.hasAuthority())
+        {
+            revalidatePath(res);
+        }
+
+        return res.toURIReference();
+    }
+
+
+    private void revalidatePath(ProcessResult res)
+    {
+        // Validate the path in the context of the other components of the result.
+        new PathValidator().validate(
+            res.path, res.charset, res.relativeReference, res.authority != null);
+
+        // Whether the path is normalized depends on whether the authority is present.
+        setHint(res, PATH, isPathNormalized(res.path, res.authority != null));
+    }
+
+
+    private void setHint(ProcessResult res, int bit, boolean normalized)
+    {
+        // Set or clear the normalization hint for the replaced component.
+        res.hints = normalized ? (res.hints | bit) : (res.hints & ~bit);
+    }
+}
@@ -16,6 +16,12 @@
 package org.czeal.rfc3986;
 
 
+import static org.czeal.rfc3986.NormalizationHints.ALL;
+import static org.czeal.rfc3986.NormalizationHints.AUTHORITY;
+import static org.czeal.rfc3986.NormalizationHints.FRAGMENT;
+import static org.czeal.rfc3986.NormalizationHints.PATH;
+import static org.czeal.rfc3986.NormalizationHints.QUERY;
+import static org.czeal.rfc3986.NormalizationHints.SCHEME;
 import static org.czeal.rfc3986.URIReference.ProcessResult;
 import static org.czeal.rfc3986.Utils.newISE;
 import static org.czeal.rfc3986.Utils.newNPE;
@@ -84,32 +90,47 @@ class URIReferenceNormalizer
         // Validate the URI reference.
         validate(uriRef);
 
-        // The parse result.
-        var res = new ProcessResult();
+        // The normalization result, which initially holds the components of
+        // the URI reference and is normalized in place.
+        var res = new ProcessResult(uriRef);
 
-        // Set the charset.
-        res.charset = uriRef.getCharset();
+        // Normalize the components.
+        process(res);
 
+        // Build a URI reference instance.
+        return res.toURIReference();
+    }
+
+
+    /**
+     * Normalizes the components held by the given process result in place. The
+     * components must represent a URI, not a relative reference.
+     *
+     * @param res
+     *         The process result holding the components to normalize.
+     */
+    void process(ProcessResult res)
+    {
         // The normalized URI reference is always a URI.
         res.relativeReference = false;
 
         // Process the scheme.
-        processScheme(res, uriRef);
+        processScheme(res);
 
         // Process the authority.
-        processAuthority(res, uriRef);
+        processAuthority(res);
 
         // Process the path.
-        processPath(res, uriRef);
+        processPath(res);
 
         // Process the query.
-        processQuery(res, uriRef);
+        processQuery(res);
 
         // Process the fragment.
-        processFragment(res, uriRef);
+        processFragment(res);
 
-        // Build a URI reference instance.
-        return res.toURIReference();
+        // All the components of the resultant URI reference are normalized.
+        res.hints = ALL;
     }
 
 
@@ -136,41 +157,85 @@ class URIReferenceNormalizer
     }
 
 
-    private void processScheme(ProcessResult res, URIReference uriRef)
+    private boolean isNormalized(ProcessResult res, int bits)
+    {
+        // Check whether the components are known to be normalized already.
+        return (res.hints & bits) == bits;
+    }
+
+
+    private void processScheme(ProcessResult res)
     {
+        // Skip the normalization if the scheme is already normalized.
+        if (isNormalized(res, SCHEME))
+        {
+            return;
+        }
+
         // Normalize the scheme.
-        res.scheme = new SchemeNormalizer().normalize(uriRef.getScheme());
+        res.scheme = new SchemeNormalizer().normalize(res.scheme);
     }
 
 
-    private void processAuthority(ProcessResult res, URIReference uriRef)
+    private void processAuthority(ProcessResult res)
     {
+        // Skip the normalization if the userinfo and the host are already normalized
+        // and the port is not the default one for the scheme.
+        if (isNormalized(res, AUTHORITY) && isPortNormalized(res))
+        {
+            return;
+        }
+
         // Normalize the authority.
         res.authority = new AuthorityNormalizer().normalize(
-            uriRef.getAuthority(), uriRef.getCharset(), res.scheme);
+            res.authority, res.charset, res.scheme);
     }
 
 
-    private void processPath(ProcessResult res, URIReference uriRef)
+    private boolean isPortNormalized(ProcessResult res)
     {
+        // The port is normalized if the normalization doesn't change it.
+        return res.authority == null ||
+               new PortNormalizer().normalize(res.authority.getPort(), res.scheme) == res.authority.getPort();
+    }
+
+
+    private void processPath(ProcessResult res)
+    {
+        // Skip the normalization if the path is already normalized.
+        if (isNormalized(res, PATH))
+        {
+            return;
+        }
+
         // Normalize the path.
         res.path = new PathNormalizer().normalize(
-            uriRef.getPath(), uriRef.getCharset(), uriRef.hasAuthority());
+            res.path, res.charset, res.authority != null);
     }
 
 
-    private void processQuery(ProcessResult res, URIReference uriRef)
+    private void processQuery(ProcessResult res)
     {
+        // Skip the normalization if the query is already normalized.
+        if (isNormalized(res, QUERY))
+        {
+            return;
+        }
+
         // Normalize the query.
-        res.query = new QueryNormalizer().normalize(
-            uriRef.getQuery(), uriRef.getCharset());
+        res.query = new QueryNormalizer().normalize(res.query, res.charset);
     }
 
 
-    private void processFragment(ProcessResult res, URIReference uriRef)
+    private void processFragment(ProcessResult res)
     {
+        // Skip the normalization if the fragment is already normalized.
+        if (isNormalized(res, FRAGMENT))
+        {
+            return;
+        }
+
         // Normalize the fragment.
-        res.fragment = new FragmentNormalizer().normalize(
-            uriRef.getFragment(), uriRef.getCharset());
+        res.fragment = new FragmentNormalizer().normalize(res.fragment, res.charset);
     }
 }
@@ -16,12 +16,21 @@
 package org.czeal.rfc3986;
 
 
+import static org.czeal.rfc3986.NormalizationHints.FRAGMENT;
+import static org.czeal.rfc3986.NormalizationHints.PATH;
+import static org.czeal.rfc3986.NormalizationHints.QUERY;
+import static org.czeal.rfc3986.NormalizationHints.SCHEME;
+import static org.czeal.rfc3986.NormalizationHints.isPathNormalized;
+import static org.czeal.rfc3986.NormalizationHints.isPercentEncodedStringNormalized;
+import static org.czeal.rfc3986.NormalizationHints.isSchemeNormalized;
 import static org.czeal.rfc3986.URIReference.ProcessResult;
+import static org.czeal.rfc3986.URIReference.UNVALIDATED_FRAGMENT;
+import static org.czeal.rfc3986.URIReference.UNVALIDATED_PATH;
+import static org.czeal.rfc3986.URIReference.UNVALIDATED_QUERY;
+import static org.czeal.rfc3986.URIReference.UNVALIDATED_SYNTAX_ONLY;
 import static org.czeal.rfc3986.Utils.newIAE;
 import static org.czeal.rfc3986.Utils.newNPE;
 import java.nio.charset.Charset;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 
 /**
@@ -65,24 +74,14 @@ class URIReferenceParser
      */
     private static class ParseResult extends ProcessResult
     {
-        Matcher matcher;
-    }
-
+        String rawAuthority;
 
-    /**
-     * The pattern for parsing the five components of a URI, according to "RFC
-     * 3986, Appendix B. Parsing a URI Reference with a Regular Expression".
-     */
-    private static final Pattern PATTERN_URI = Pattern.compile(
-        "(?<scheme>[^:/?#]+):(//(?<authority>[^/?#]*))?(?<path>[^?#]*)(\\?(?<query>[^#]*))?(#(?<fragment>.*))?");
-
-
-    /**
-     * The pattern for parsing the five components of a relative reference, according
-     * to "RFC 3986, Appendix B. Parsing a URI Reference with a Regular Expression".
-     */
-    private static final Pattern PATTERN_REGEX_RELATIVE_REFERENCE = Pattern.compile(
-        "(//(?<authority>[^/?#]*))?(?<path>[^?#]*)(\\?(?<query>[^#]*))?(#(?<fragment>.*))?");
+        /**
+         * The charset to decode percent-encoded values with while validating
+         * the components, or {@code null} if only their syntax is checked.
+         */
+        Charset decodingCharset;
+    }
 
 
     /**
@@ -116,9 +115,67 @@ class URIReferenceParser
      *      Uniform Resource Identifier (URI): Generic Syntax</a>
      */
     URIReference parse(String uriRef, Charset charset)
+    {
+        // Parse the input string and build a URI reference instance.
+        return process(uriRef, charset).toURIReference();
+    }
+
+
+    /**
+     * Parses the input string as a URI reference in the same way as {@link
+     * #parse(String, Charset)} does, following the given options.
+     *
+     * @param uriRef
+     *         Required. The input string to parse as a URI reference.
+     *
+     * @param charset
+     *         Required. The charset used in the input string.
+     *
+     * @param options
+     *         Required. The options for parsing.
+     *
+     * @return
+     *         The URI reference obtained by parsing the input string.
+     *
+     * @throws NullPointerException
+     *          If any of the arguments is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *          If the value of {@code uriRef} is invalid as a URI reference.
+     */
+    URIReference parse(String uriRef, Charset charset, ParseOptions options)
+    {
+        // Parse the input string and build a URI reference instance.
+        return process(uriRef, charset, options).toURIReference();
+    }
+
+
+    /**
+     * Splits the input string known to be a valid URI reference into its
+     * components without validating them.
+     *
+     * <p>
+     * When assertions are enabled, the input string is also parsed with the
+     * full validation, and an {@code IllegalArgumentException} or an {@code
+     * AssertionError} is thrown if it is invalid or parsed differently.
+     * </p>
+     *
+     * @param uriRef
+     *         Required. The valid URI reference.
+     *
+     * @param charset
+     *         Required. The charset used in the input string.
+     *
+     * @return
+     *         The URI reference obtained by splitting the input string.
+     *
+     * @throws NullPointerException
+     *          If {@code uriRef} or {@code charset} is {@code null}.
+     */
+    URIReference parseTrusted(String uriRef, Charset charset)
     {
         // Validate the arguments.
-        validate(uriRef, charset);
+        validate(uriRef, charset, ParseOptions.defaults());
 
         // The parse result.
         var res = new ParseResult();
@@ -126,12 +183,104 @@ class URIReferenceParser
         // Set the charset.
         res.charset = charset;
 
+        // The colon following a scheme. A colon before "/", "?" and "#" always
+        // follows a scheme because the first segment of a relative-path reference
+        // can't contain a colon.
+        var colonIndex = indexOfSchemeColon(uriRef);
+
+        if (colonIndex > 0)
+        {
+            splitComponents(res, uriRef, colonIndex + 1);
+            res.scheme            = uriRef.substring(0, colonIndex);
+            res.relativeReference = false;
+        }
+        else
+        {
+            splitComponents(res, uriRef, 0);
+            res.relativeReference = true;
+        }
+
+        // Split the raw authority.
+        res.authority = new AuthorityParser().parseTrusted(res.rawAuthority);
+
+        var trusted = res.toURIReference();
+
+        // Ensure the input string is really valid when assertions are enabled.
+        assert isParsedAs(uriRef, charset, trusted) :
+            String.format("The input string \"%s\" is parsed differently with validation.", uriRef);
+
+        return trusted;
+    }
+
+
+    private boolean isParsedAs(String uriRef, Charset charset, URIReference trusted)
+    {
+        // Parse the input string with the full validation. An invalid input
+        // string causes an IllegalArgumentException.
+        var parsed = parse(uriRef, charset);
+
+        return parsed.equals(trusted) &&
+               (parsed.getHost() == null ||
+                parsed.getHost().getType() == trusted.getHost().getType());
+    }
+
+
+    /**
+     * Parses the input string as a URI reference in the same way as {@link
+     * #parse(String, Charset)} does, but returns the intermediate result instead
+     * of a {@link URIReference} instance, so that the caller can process the
+     * components further (e.g. resolve and normalize them) before building the
+     * final instance.
+     *
+     * @param uriRef
+     *         Required. The input string to parse as a URI reference.
+     *
+     * @param charset
+     *         Required. The charset used in the input string.
+     *
+     * @return
+     *         The components obtained by parsing the input string.
+     *
+     * @throws NullPointerException
+     *          If {@code uriRef} or {@code charset} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *          If the value of {@code uriRef} is invalid as a URI reference.
+     */
+    ProcessResult process(String uriRef, Charset charset)
+    {
+        return process(uriRef, charset, ParseOptions.defaults());
+    }
+
+
+    private ProcessResult process(String uriRef, Charset charset, ParseOptions options)
+    {
+        // Validate the arguments.
+        validate(uriRef, charset, options);
+
+        // The parse result.
+        var res = new ParseResult();
+
+        // Set the charset.
+        res.charset = charset;
+
+        // Skip decoding percent-encoded values if only the syntax is checked.
+        res.decodingCharset = options.isSyntaxOnly() ? null : charset;
+
         // Match the input string as a URI reference.
         processInput(res, uriRef);
 
         // Process the authority.
         processAuthority(res);
 
+        // Defer validating the path, the query and the fragment if requested.
+        if (options.isLazyValidation())
+        {
+            deferValidation(res, options);
+
+            return res;
+        }
+
         // Process the path.
         processPath(res);
 
@@ -141,12 +290,12 @@ class URIReferenceParser
         // Process the fragment.
         processFragment(res);
 
-        // Build a URI reference instance.
-        return res.toURIReference();
+        // Return the parse result.
+        return res;
     }
 
 
-    private void validate(String uriRef, Charset charset)
+    private void validate(String uriRef, Charset charset, ParseOptions options)
     {
         // Ensure the input string is not null.
         if (uriRef == null)
@@ -159,6 +308,12 @@ class URIReferenceParser
         {
             throw newNPE("The charset must not be null.");
         }
+
+        // Ensure the options are not null.
+        if (options == null)
+        {
+            throw newNPE("The parse options must not be null.");
+        }
     }
 
 
@@ -171,34 +326,87 @@ class URIReferenceParser
         //   followed by its colon separator, then the URI-reference is a relative
         //   reference.
 
-        // Get a matcher to match the input string as a URI.
-        var matcher = PATTERN_URI.matcher(uriRef);
+        // The index of the colon following the raw scheme, if any.
+        var colonIndex = indexOfSchemeColon(uriRef);
 
-        // If the input string  matches the URI pattern.
-        if (matcher.matches())
+        // If the input string starts with a raw scheme followed by a colon.
+        if (colonIndex > 0)
         {
             // The raw scheme.
-            var scheme = matcher.group("scheme");
+            var scheme = uriRef.substring(0, colonIndex);
 
             // If the raw scheme is valid.
             if (isSchemeValid(scheme))
             {
-                // The input string  starts with a valid scheme. Then, we can consider
-                // the input string  as a URI.
-                res.matcher           = matcher;
+                // The input string starts with a valid scheme. Then, we can consider
+                // the input string as a URI.
+                splitComponents(res, uriRef, colonIndex + 1);
                 res.scheme            = scheme;
                 res.relativeReference = false;
+
+                // Record whether the scheme is already normalized.
+                if (isSchemeNormalized(scheme))
+                {
+                    res.hints |= SCHEME;
+                }
+
                 return;
             }
         }
 
-        // We reach here if the input string  doesn't start with a valid scheme followed
-        // by a colon. In this case, we consider the input string  as a relative reference.
-        matchAsRelativeReference(res, uriRef);
+        // We reach here if the input string doesn't start with a valid scheme followed
+        // by a colon. In this case, we consider the input string as a relative reference.
+        splitComponents(res, uriRef, 0);
+        res.relativeReference = true;
+    }
+
+
+    /**
+     * Finds the colon following the raw scheme, that is, the first colon before
+     * {@code "/"}, {@code "?"} and {@code "#"}. The raw scheme may be invalid.
+     *
+     * @param uriRef
+     *         The string representing a URI reference.
+     *
+     * @return
+     *         The index of the colon, or {@code -1} if not found.
+     */
+    static int indexOfSchemeColon(CharSequence uriRef)
+    {
+        // RFC 3986, Appendix B. Parsing a URI Reference with a Regular Expression
+        //
+        //   scheme = $2 in ^(([^:/?#]+):)?
+        for (var i = 0; i < uriRef.length(); i++)
+        {
+            switch (uriRef.charAt(i))
+            {
+                case ':':
+                    return i;
+
+                case '/':
+                case '?':
+                case '#':
+                    return -1;
+
+                default:
+                    break;
+            }
+        }
+
+        return -1;
     }
 
 
-    private boolean isSchemeValid(String scheme)
+    /**
+     * Checks whether the given raw scheme is valid.
+     *
+     * @param scheme
+     *         The raw scheme.
+     *
+     * @return
+     *         {@code true} if the scheme is valid; otherwise, {@code false}.
+     */
+    static boolean isSchemeValid(String scheme)
     {
         try
         {
@@ -218,71 +426,167 @@ class URIReferenceParser
     }
 
 
-    private void matchAsRelativeReference(ParseResult res, String uriRef)
+    private void splitComponents(ParseResult res, String uriRef, int start)
     {
-        // Get a matcher to match the input string as a relative reference.
-        var matcher = PATTERN_REGEX_RELATIVE_REFERENCE.matcher(uriRef);
+        // Split the rest of the input string into the raw authority, path, query
+        // and fragment, according to "RFC 3986, Appendix B. Parsing a URI Reference
+        // with a Regular Expression".
+        //
+        //   ^(([^:/?#]+):)?(//([^/?#]*))?([^?#]*)(\?([^#]*))?(#(.*))?
+        var length = uriRef.length();
+        var index  = start;
 
-        // If the input string doesn't match the relative reference pattern.
-        if (!matcher.matches())
+        // The raw authority.
+        if (uriRef.startsWith("//", index))
         {
-            // The input string is invalid as a relative reference.
-            throw newIAE(
-                "The input string \"%s\" is invalid as a relative reference.", uriRef);
+            var end = indexOfDelimiter(uriRef, index + 2, true);
+            res.rawAuthority = uriRef.substring(index + 2, end);
+            index = end;
         }
 
-        // OK. The input string is a valid relative reference.
-        res.matcher           = matcher;
-        res.relativeReference = true;
+        // The raw path.
+        var end = indexOfDelimiter(uriRef, index, false);
+        res.path = uriRef.substring(index, end);
+        index = end;
+
+        // The raw query.
+        if (index < length && uriRef.charAt(index) == '?')
+        {
+            end = uriRef.indexOf('#', index + 1);
+            end = (end == -1) ? length : end;
+            res.query = uriRef.substring(index + 1, end);
+            index = end;
+        }
+
+        // The raw fragment.
+        if (index < length)
+        {
+            res.fragment = uriRef.substring(index + 1);
+
+            // The fragment pattern "(.*)" doesn't match line terminators.
+            if (containsLineTerminator(res.fragment))
+            {
+                throw newIAE(
+                    "The input string \"%s\" is invalid as a relative reference.", uriRef);
+            }
+        }
     }
 
 
-    private void processAuthority(ParseResult res)
+    /**
+     * Finds the end of the component starting at the given index, that is, the
+     * first {@code "?"} or {@code "#"}, or also {@code "/"} if {@code slash} is
+     * {@code true}.
+     *
+     * @param uriRef
+     *         The string representing a URI reference.
+     *
+     * @param start
+     *         The index of the start of the component.
+     *
+     * @param slash
+     *         {@code true} if {@code "/"} ends the component.
+     *
+     * @return
+     *         The index of the delimiter, or the length of the string if not found.
+     */
+    static int indexOfDelimiter(CharSequence uriRef, int start, boolean slash)
     {
-        // The raw authority.
-        var authority = res.matcher.group("authority");
+        for (var i = start; i < uriRef.length(); i++)
+        {
+            var c = uriRef.charAt(i);
+
+            if (c == '?' || c == '#' || (slash && c == '/'))
+            {
+                return i;
+            }
+        }
+
+        return uriRef.length();
+    }
+
+
+    private boolean containsLineTerminator(String value)
+    {
+        for (var i = 0; i < value.length(); i++)
+        {
+            switch (value.charAt(i))
+            {
+                case '\n':
+                case '\r':
+                case '\u0085':
+                case '\u2028':
+                case '\u2029':
+                    return true;
+
+                default:
+                    break;
+            }
+        }
+
+        return false;
+    }
+
 
+    private void processAuthority(ParseResult res)
+    {
         // Parse the raw authority as an Authority instance.
-        res.authority = Authority.parse(authority, res.charset);
+        res.authority = Authority.parse(res.rawAuthority, res.decodingCharset);
+
+        // Record whether the userinfo and the host are already normalized.
+        res.hints |= NormalizationHints.of(res.authority);
     }
 
 
-    private void processPath(ParseResult res)
+    private void deferValidation(ParseResult res, ParseOptions options)
     {
-        // The raw path.
-        var path = res.matcher.group("path");
+        // The components are validated when they are read for the first time.
+        // Their normalization hints are left unknown.
+        res.unvalidated = UNVALIDATED_PATH | UNVALIDATED_QUERY | UNVALIDATED_FRAGMENT;
+
+        if (options.isSyntaxOnly())
+        {
+            res.unvalidated |= UNVALIDATED_SYNTAX_ONLY;
+        }
+    }
+
 
+    private void processPath(ParseResult res)
+    {
         // Validate the raw path.
         new PathValidator().validate(
-            path, res.charset, res.relativeReference, res.authority != null);
+            res.path, res.decodingCharset, res.relativeReference, res.authority != null);
 
-        // Set it to the result.
-        res.path = path;
+        // Record whether the path is already normalized.
+        if (isPathNormalized(res.path, res.authority != null))
+        {
+            res.hints |= PATH;
+        }
     }
 
 
     private void processQuery(ParseResult res)
     {
-        // The raw query.
-        var query = res.matcher.group("query");
-
         // Validate the raw query.
-        new QueryValidator().validate(query, res.charset);
+        new QueryValidator().validate(res.query, res.decodingCharset);
 
-        // Set it to the result.
-        res.query = query;
+        // Record whether the query is already normalized.
+        if (isPercentEncodedStringNormalized(res.query, false))
+        {
+            res.hints |= QUERY;
+        }
     }
 
 
     private void processFragment(ParseResult res)
     {
-        // The raw fragment.
-        var fragment = res.matcher.group("fragment");
-
         // Validate the raw fragment.
-        new FragmentValidator().validate(fragment, res.charset);
+        new FragmentValidator().validate(res.fragment, res.decodingCharset);
 
-        // Set it to the result.
-        res.fragment = fragment;
+        // Record whether the fragment is already normalized.
+        if (isPercentEncodedStringNormalized(res.fragment, false))
+        {
+            res.hints |= FRAGMENT;
+        }
     }
 }
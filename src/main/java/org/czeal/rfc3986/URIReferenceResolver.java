@@ -16,6 +16,11 @@
 package org.czeal.rfc3986;
 
 
+import static org.czeal.rfc3986.NormalizationHints.AUTHORITY;
+import static org.czeal.rfc3986.NormalizationHints.PATH;
+import static org.czeal.rfc3986.NormalizationHints.QUERY;
+import static org.czeal.rfc3986.NormalizationHints.SCHEME;
+import static org.czeal.rfc3986.NormalizationHints.isPathNormalized;
 import static org.czeal.rfc3986.URIReference.ProcessResult;
 import static org.czeal.rfc3986.Utils.dropLastSegment;
 import static org.czeal.rfc3986.Utils.newNPE;
@@ -64,35 +69,26 @@ import static org.czeal.rfc3986.Utils.removeDotSegments;
 class URIReferenceResolver
 {
     /**
-     * Merges a relative-path reference with the path of a base URI according to
-     * <a href="https://www.rfc-editor.org/rfc/rfc3986#section-5.2.3">RFC 3986,
-     * 5.2.3. Merge Paths</a>.
+     * Returns the prefix that a relative-path reference is appended to when it
+     * is merged with the path of a base URI according to <a href="https://www.rfc-editor.org/rfc/rfc3986#section-5.2.3">
+     * RFC 3986, 5.2.3. Merge Paths</a>, that is, the path of the base URI without
+     * the characters after its last slash, or {@code "/"} if the base URI has an
+     * authority and an empty path.
      *
-     * @param uriRefPath
-     *         The path of a URI reference to merge
-     *
-     * @param basePath
-     *         The path of a base URI to merge the
-     *
-     * @param hasAuthority
-     *         Whether the base URI has an authority or not.
+     * @param baseUriRef
+     *         A base URI.
      *
-     * @return The merged path.
+     * @return The prefix of merged paths.
      */
-    private static String mergePath(
-        String uriRefPath, String basePath, boolean hasAuthority)
+    static String mergePrefix(URIReference baseUriRef)
     {
-        // NOTE:
-        //     uriRefPath.length() > 0
-        //     uriRefPath.startsWith("/") != false
-
-        if (hasAuthority && basePath.isEmpty())
+        if (baseUriRef.hasAuthority() && baseUriRef.getPath().isEmpty())
         {
-            return "/".concat(uriRefPath);
+            return "/";
         }
         else
         {
-            return dropLastSegment(basePath, false).concat(uriRefPath);
+            return dropLastSegment(baseUriRef.getPath(), false);
         }
     }
 
@@ -120,17 +116,109 @@ class URIReferenceResolver
         // Validate the arguments.
         validate(uriRef, baseUriRef);
 
-        // The resolution result.
-        var res = new ProcessResult();
+        // Resolve the URI reference against the base URI. The merge prefix is
+        // computed only when it is needed.
+        return resolve(uriRef, baseUriRef, null);
+    }
 
-        // Set the charset.
-        res.charset = uriRef.getCharset();
 
-        // The resolved URI reference is always a URI.
-        res.relativeReference = false;
+    /**
+     * Resolves a URI reference against a compiled base URI, reusing the state
+     * precomputed by the {@link ResolvedBase}.
+     *
+     * @param uriRef
+     *         A URI reference to resolve against the value of {@code base}.
+     *
+     * @param base
+     *         A compiled base URI against which the value of {@code uriRef} is
+     *         resolved.
+     *
+     * @return The URI reference obtained by resolving {@code uriRef} against
+     *         {@code base}.
+     *
+     * @throws NullPointerException
+     *         If {@code uriRef} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the charset of {@code uriRef} doesn't match the charset of
+     *         {@code base}.
+     */
+    URIReference resolve(URIReference uriRef, ResolvedBase base)
+    {
+        // Ensure the URI reference to be resolved is not null.
+        if (uriRef == null)
+        {
+            throw newNPE("The URI reference to be resolved must not be null.");
+        }
+
+        // Check the charset of both URI reference. The base URI itself has been
+        // validated when the ResolvedBase was created.
+        validateCharset(uriRef, base.getBase());
+
+        // Resolve the URI reference against the base URI.
+        return resolve(uriRef, base.getBase(), base.getMergePrefix());
+    }
+
+
+    /**
+     * Parses a string as a URI reference, resolves it against a base URI and
+     * normalizes the result, building only the final {@link URIReference} instance.
+     * The components are parsed, resolved and normalized in place, and the
+     * normalization of components known to be normalized already is skipped.
+     *
+     * @param uriRef
+     *         A string representing a URI reference to resolve against the value
+     *         of {@code baseUriRef}.
+     *
+     * @param baseUriRef
+     *         A base URI against which the value of {@code uriRef} is resolved.
+     *         It must have been validated by {@link #validateBase(URIReference)}.
+     *
+     * @param mergePrefix
+     *         The prefix of merged paths for the base URI, or {@code null} to
+     *         compute it when it is needed.
+     *
+     * @return The normalized URI reference obtained by resolving {@code uriRef}
+     *         against {@code baseUriRef}.
+     *
+     * @throws NullPointerException
+     *         If {@code uriRef} is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If {@code uriRef} is not a valid URI reference.
+     */
+    URIReference resolveAndNormalize(
+        CharSequence uriRef, URIReference baseUriRef, String mergePrefix)
+    {
+        // Ensure the URI reference to be resolved is not null.
+        if (uriRef == null)
+        {
+            throw newNPE("The URI reference to be resolved must not be null.");
+        }
+
+        // Parse the input string with the charset of the base URI.
+        var res = new URIReferenceParser().process(uriRef.toString(), baseUriRef.getCharset());
+
+        // Resolve the URI Reference against the base URI.
+        process(res, baseUriRef, mergePrefix);
+
+        // Normalize the result.
+        new URIReferenceNormalizer().process(res);
+
+        // Return the result.
+        return res.toURIReference();
+    }
+
+
+    private URIReference resolve(
+        URIReference uriRef, URIReference baseUriRef, String mergePrefix)
+    {
+        // The resolution result, which initially holds the components of the
+        // URI reference and is resolved in place.
+        var res = new ProcessResult(uriRef);
 
         // Resolve the URI Reference against the base URI.
-        process(res, uriRef, baseUriRef);
+        process(res, baseUriRef, mergePrefix);
 
         // Return the result.
         return res.toURIReference();
@@ -151,13 +239,36 @@ class URIReferenceResolver
             throw newNPE("The base URI reference must not be null.");
         }
 
+        // Check the charset of both URI reference.
+        validateCharset(uriRef, baseUriRef);
+
+        // Ensure this URI reference can be used as a base URI.
+        validateBase(baseUriRef);
+    }
+
+
+    private void validateCharset(URIReference uriRef, URIReference baseUriRef)
+    {
         // Check the charset of both URI reference.
         if (uriRef.getCharset() != baseUriRef.getCharset())
         {
             throw newIAE(
                 "The charset of the target URI reference doesn't match the charset of the base URI.");
         }
+    }
 
+
+    /**
+     * Ensures a URI reference can be used as a base URI.
+     *
+     * @param baseUriRef
+     *         A base URI.
+     *
+     * @throws IllegalStateException
+     *         If {@code baseUriRef} is not an absolute URI.
+     */
+    static void validateBase(URIReference baseUriRef)
+    {
         // Ensure this URI reference can be used as a base URI.
         //
         // RFC 3986, 5.1. Establishing a Base URI
@@ -190,100 +301,115 @@ class URIReferenceResolver
 
 
     private void process(
-        ProcessResult res, URIReference uriRef, URIReference baseUriRef)
+        ProcessResult res, URIReference baseUriRef, String mergePrefix)
     {
-        if (uriRef.getScheme() != null)
+        // The resolved URI reference is always a URI.
+        res.relativeReference = false;
+
+        if (res.scheme != null)
         {
-            processOnNonNullScheme(res, uriRef);
+            processOnNonNullScheme(res);
         }
         else
         {
-            processOnNullScheme(res, uriRef, baseUriRef);
+            processOnNullScheme(res, baseUriRef, mergePrefix);
+        }
+
+        // The fragment of the URI reference is always kept as is.
+
+        // The path may have been merged and its dot segments have been removed.
+        res.hints &= ~PATH;
+
+        if (isPathNormalized(res.path, res.authority != null))
+        {
+            res.hints |= PATH;
         }
+    }
+
 
-        res.fragment = uriRef.getFragment();
+    private void copyHints(ProcessResult res, URIReference baseUriRef, int bits)
+    {
+        // Replace the normalization hints of the components copied from the
+        // base URI.
+        res.hints = (res.hints & ~bits) | (baseUriRef.getNormalizationHints() & bits);
     }
 
 
-    private void processOnNonNullScheme(ProcessResult res, URIReference uriRef)
+    private void processOnNonNullScheme(ProcessResult res)
     {
-        res.scheme    = uriRef.getScheme();
-        res.authority = uriRef.getAuthority();
-        res.path      = removeDotSegments(uriRef.getPath());
-        res.query     = uriRef.getQuery();
+        // The scheme, the authority and the query of the URI reference are kept
+        // as is.
+        res.path = removeDotSegments(res.path);
     }
 
 
     private void processOnNullScheme(
-        ProcessResult res, URIReference uriRef, URIReference baseUriRef)
+        ProcessResult res, URIReference baseUriRef, String mergePrefix)
     {
-        if (uriRef.getAuthority() != null)
+        if (res.authority != null)
         {
-            processOnNonNullAuthority(res, uriRef);
+            processOnNonNullAuthority(res);
         }
         else
         {
-            processOnNullAuthority(res, uriRef, baseUriRef);
+            processOnNullAuthority(res, baseUriRef, mergePrefix);
         }
 
         res.scheme = baseUriRef.getScheme();
+        copyHints(res, baseUriRef, SCHEME);
     }
 
 
-    private void processOnNonNullAuthority(
-        ProcessResult res, URIReference uriRef)
+    private void processOnNonNullAuthority(ProcessResult res)
     {
-        res.authority = uriRef.getAuthority();
-        res.path      = removeDotSegments(uriRef.getPath());
-        res.query     = uriRef.getQuery();
+        // The authority and the query of the URI reference are kept as is.
+        res.path = removeDotSegments(res.path);
     }
 
 
     private void processOnNullAuthority(
-        ProcessResult res, URIReference uriRef, URIReference baseUriRef)
+        ProcessResult res, URIReference baseUriRef, String mergePrefix)
     {
-        if (!uriRef.getPath().isEmpty())
+        if (!res.path.isEmpty())
         {
-            processOnNonNullPath(res, uriRef, baseUriRef);
+            processOnNonNullPath(res, baseUriRef, mergePrefix);
         }
         else
         {
-            processOnNullPath(res, uriRef, baseUriRef);
+            processOnNullPath(res, baseUriRef);
         }
 
         res.authority = baseUriRef.getAuthority();
+        copyHints(res, baseUriRef, AUTHORITY);
     }
 
 
     private void processOnNonNullPath(
-        ProcessResult res, URIReference uriRef, URIReference baseUriRef)
+        ProcessResult res, URIReference baseUriRef, String mergePrefix)
     {
-        if (uriRef.getPath().startsWith("/"))
+        // The query of the URI reference is kept as is.
+        if (res.path.startsWith("/"))
         {
-            res.path = removeDotSegments(uriRef.getPath());
+            res.path = removeDotSegments(res.path);
         }
         else
         {
-            res.path = removeDotSegments(mergePath(
-                uriRef.getPath(), baseUriRef.getPath(), baseUriRef.hasAuthority()));
-        }
+            // RFC 3986, 5.2.3. Merge Paths
+            var prefix = (mergePrefix != null) ? mergePrefix : mergePrefix(baseUriRef);
 
-        res.query = uriRef.getQuery();
+            res.path = removeDotSegments(prefix, res.path);
+        }
     }
 
 
-    private void processOnNullPath(
-        ProcessResult res, URIReference uriRef, URIReference baseUriRef)
+    private void processOnNullPath(ProcessResult res, URIReference baseUriRef)
     {
         res.path = baseUriRef.getPath();
 
-        if (uriRef.getQuery() != null)
-        {
-            res.query = uriRef.getQuery();
-        }
-        else
+        if (res.query == null)
         {
             res.query = baseUriRef.getQuery();
+            copyHints(res, baseUriRef, QUERY);
         }
     }
 }
@@ -0,0 +1,777 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.czeal.rfc3986.Utils.newISE;
+import static org.czeal.rfc3986.Utils.newNPE;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * Writes the string representation of a {@link URIReference} or an {@link Authority}
+ * into a caller-provided destination, according to <a href="https://www.rfc-editor.org/rfc/rfc3986#section-5.3">
+ * RFC 3986, 5.3. Component Recomposition</a>, without creating intermediate strings.
+ *
+ * <p>
+ * The destinations are represented by {@link Sink} implementations, so that the
+ * recomposition is written once for all the destinations: {@link StringBuilder},
+ * {@link Appendable}, {@link ByteBuffer} (US-ASCII) and {@code byte[]} (UTF-8).
+ * </p>
+ *
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc3986#section-5.3">RFC 3986,
+ *      5.3. Component Recomposition</a>
+ *
+ * @author Hideki Ikeda
+ */
+class URIReferenceWriter
+{
+    /**
+     * A destination of the characters of a string representation.
+     */
+    private interface Sink
+    {
+        void append(char c);
+
+
+        void append(String value);
+
+
+        default void appendPort(int port)
+        {
+            // Write the decimal digits from the most significant one.
+            var divisor = 1;
+
+            while (port / divisor >= 10)
+            {
+                divisor *= 10;
+            }
+
+            for (; divisor > 0; divisor /= 10)
+            {
+                append((char)('0' + (port / divisor) % 10));
+            }
+        }
+    }
+
+
+    /**
+     * A sink counting the characters.
+     */
+    private static class LengthSink implements Sink
+    {
+        int length;
+
+
+        @Override
+        public void append(char c)
+        {
+            length++;
+        }
+
+
+        @Override
+        public void append(String value)
+        {
+            length += value.length();
+        }
+    }
+
+
+    /**
+     * A sink counting the bytes of the UTF-8 encoding of the characters.
+     */
+    private static class Utf8LengthSink implements Sink
+    {
+        int length;
+
+
+        @Override
+        public void append(char c)
+        {
+            // The recomposition delimiters and the port digits are ASCII.
+            length++;
+        }
+
+
+        @Override
+        public void append(String value)
+        {
+            for (var i = 0; i < value.length(); i++)
+            {
+                var c = value.charAt(i);
+
+                if (c < 0x80)
+                {
+                    length += 1;
+                }
+                else if (c < 0x800)
+                {
+                    length += 2;
+                }
+                else if (Character.isHighSurrogate(c) && i + 1 < value.length() &&
+                         Character.isLowSurrogate(value.charAt(i + 1)))
+                {
+                    length += 4;
+                    i++;
+                }
+                else if (Character.isSurrogate(c))
+                {
+                    // An unpaired surrogate is replaced with '?'.
+                    length += 1;
+                }
+                else
+                {
+                    length += 3;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * A sink appending the characters to a {@link StringBuilder}.
+     */
+    private static class StringBuilderSink implements Sink
+    {
+        private final StringBuilder sb;
+
+
+        StringBuilderSink(StringBuilder sb)
+        {
+            this.sb = sb;
+        }
+
+
+        @Override
+        public void append(char c)
+        {
+            sb.append(c);
+        }
+
+
+        @Override
+        public void append(String value)
+        {
+            sb.append(value);
+        }
+
+
+        @Override
+        public void appendPort(int port)
+        {
+            sb.append(port);
+        }
+    }
+
+
+    /**
+     * A sink appending the characters to an {@link Appendable}. An {@code IOException}
+     * thrown by the {@code Appendable} is wrapped in an {@code UncheckedIOException}.
+     */
+    private static class AppendableSink implements Sink
+    {
+        private final Appendable out;
+
+
+        AppendableSink(Appendable out)
+        {
+            this.out = out;
+        }
+
+
+        @Override
+        public void append(char c)
+        {
+            try
+            {
+                out.append(c);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+
+        @Override
+        public void append(String value)
+        {
+            try
+            {
+                out.append(value);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+
+    /**
+     * A sink writing the characters as US-ASCII bytes into a {@link ByteBuffer}.
+     * The bytes are written with absolute puts, so the position of the buffer is
+     * not changed until {@link #commit()} is called.
+     */
+    private static class AsciiSink implements Sink
+    {
+        private final ByteBuffer buffer;
+        private int position;
+
+
+        AsciiSink(ByteBuffer buffer)
+        {
+            this.buffer   = buffer;
+            this.position = buffer.position();
+        }
+
+
+        @Override
+        public void append(char c)
+        {
+            if (c >= 0x80)
+            {
+                throw newISE("The URI reference contains a non-ASCII character \"%c\".", c);
+            }
+
+            buffer.put(position++, (byte)c);
+        }
+
+
+        @Override
+        public void append(String value)
+        {
+            for (var i = 0; i < value.length(); i++)
+            {
+                append(value.charAt(i));
+            }
+        }
+
+
+        void commit()
+        {
+            buffer.position(position);
+        }
+    }
+
+
+    /**
+     * A sink writing the UTF-8 encoding of the characters into a byte array.
+     */
+    private static class Utf8Sink implements Sink
+    {
+        private final byte[] bytes;
+        private int offset;
+
+
+        Utf8Sink(byte[] bytes, int offset)
+        {
+            this.bytes  = bytes;
+            this.offset = offset;
+        }
+
+
+        @Override
+        public void append(char c)
+        {
+            // The recomposition delimiters and the port digits are ASCII.
+            bytes[offset++] = (byte)c;
+        }
+
+
+        @Override
+        public void append(String value)
+        {
+            for (var i = 0; i < value.length(); i++)
+            {
+                var c = value.charAt(i);
+
+                if (c < 0x80)
+                {
+                    bytes[offset++] = (byte)c;
+                }
+                else if (c < 0x800)
+                {
+                    bytes[offset++] = (byte)(0xC0 | (c >> 6));
+                    bytes[offset++] = (byte)(0x80 | (c & 0x3F));
+                }
+                else if (Character.isHighSurrogate(c) && i + 1 < value.length() &&
+                         Character.isLowSurrogate(value.charAt(i + 1)))
+                {
+                    var cp = Character.toCodePoint(c, value.charAt(++i));
+                    bytes[offset++] = (byte)(0xF0 | (cp >> 18));
+                    bytes[offset++] = (byte)(0x80 | ((cp >> 12) & 0x3F));
+                    bytes[offset++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+                    bytes[offset++] = (byte)(0x80 | (cp & 0x3F));
+                }
+                else if (Character.isSurrogate(c))
+                {
+                    // An unpaired surrogate is replaced with '?', as String.getBytes() does.
+                    bytes[offset++] = '?';
+                }
+                else
+                {
+                    bytes[offset++] = (byte)(0xE0 | (c >> 12));
+                    bytes[offset++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+                    bytes[offset++] = (byte)(0x80 | (c & 0x3F));
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Computes the number of characters of the string representation of a URI
+     * reference.
+     *
+     * @param uriRef
+     *         A URI reference.
+     *
+     * @return
+     *         The length of {@code uriRef.toString()}.
+     */
+    int serializedLength(URIReference uriRef)
+    {
+        var sink = new LengthSink();
+        write(uriRef, sink);
+
+        return sink.length;
+    }
+
+
+    /**
+     * Computes the number of characters of the string representation of an authority.
+     *
+     * @param authority
+     *         An authority.
+     *
+     * @return
+     *         The length of {@code authority.toString()}.
+     */
+    int serializedLength(Authority authority)
+    {
+        var sink = new LengthSink();
+        write(authority, sink);
+
+        return sink.length;
+    }
+
+
+    /**
+     * Appends the string representation of a URI reference to a {@link StringBuilder}.
+     *
+     * @param uriRef
+     *         A URI reference.
+     *
+     * @param sb
+     *         The destination.
+     *
+     * @throws NullPointerException
+     *         If {@code sb} is {@code null}.
+     */
+    void writeTo(URIReference uriRef, StringBuilder sb)
+    {
+        validateDestination(sb);
+        write(uriRef, new StringBuilderSink(sb));
+    }
+
+
+    /**
+     * Appends the string representation of an authority to a {@link StringBuilder}.
+     *
+     * @param authority
+     *         An authority.
+     *
+     * @param sb
+     *         The destination.
+     *
+     * @throws NullPointerException
+     *         If {@code sb} is {@code null}.
+     */
+    void writeTo(Authority authority, StringBuilder sb)
+    {
+        validateDestination(sb);
+        write(authority, new StringBuilderSink(sb));
+    }
+
+
+    /**
+     * Appends the string representation of a URI reference to an {@link Appendable}.
+     *
+     * @param uriRef
+     *         A URI reference.
+     *
+     * @param out
+     *         The destination.
+     *
+     * @throws NullPointerException
+     *         If {@code out} is {@code null}.
+     *
+     * @throws IOException
+     *         If the destination throws it.
+     */
+    void writeTo(URIReference uriRef, Appendable out) throws IOException
+    {
+        validateDestination(out);
+
+        try
+        {
+            write(uriRef, new AppendableSink(out));
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+
+    /**
+     * Appends the string representation of an authority to an {@link Appendable}.
+     *
+     * @param authority
+     *         An authority.
+     *
+     * @param out
+     *         The destination.
+     *
+     * @throws NullPointerException
+     *         If {@code out} is {@code null}.
+     *
+     * @throws IOException
+     *         If the destination throws it.
+     */
+    void writeTo(Authority authority, Appendable out) throws IOException
+    {
+        validateDestination(out);
+
+        try
+        {
+            write(authority, new AppendableSink(out));
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+
+    /**
+     * Writes the string representation of a URI reference into a {@link ByteBuffer}
+     * as US-ASCII bytes, starting at the current position of the buffer. The position
+     * is advanced by the number of written bytes. If this method throws an exception,
+     * the position is not changed.
+     *
+     * @param uriRef
+     *         A URI reference.
+     *
+     * @param buffer
+     *         The destination.
+     *
+     * @return
+     *         The number of written bytes.
+     *
+     * @throws NullPointerException
+     *         If {@code buffer} is {@code null}.
+     *
+     * @throws BufferOverflowException
+     *         If the remaining space of the buffer is not enough.
+     *
+     * @throws IllegalStateException
+     *         If the URI reference contains a non-ASCII character.
+     */
+    int writeAsciiTo(URIReference uriRef, ByteBuffer buffer)
+    {
+        validateDestination(buffer);
+
+        // Ensure the buffer has enough space before writing anything.
+        var length = serializedLength(uriRef);
+
+        if (buffer.remaining() < length)
+        {
+            throw new BufferOverflowException();
+        }
+
+        var sink = new AsciiSink(buffer);
+        write(uriRef, sink);
+        sink.commit();
+
+        return length;
+    }
+
+
+    /**
+     * Writes the string representation of an authority into a {@link ByteBuffer}
+     * as US-ASCII bytes. See {@link #writeAsciiTo(URIReference, ByteBuffer)} for
+     * details.
+     *
+     * @param authority
+     *         An authority.
+     *
+     * @param buffer
+     *         The destination.
+     *
+     * @return
+     *         The number of written bytes.
+     */
+    int writeAsciiTo(Authority authority, ByteBuffer buffer)
+    {
+        validateDestination(buffer);
+
+        // Ensure the buffer has enough space before writing anything.
+        var length = serializedLength(authority);
+
+        if (buffer.remaining() < length)
+        {
+            throw new BufferOverflowException();
+        }
+
+        var sink = new AsciiSink(buffer);
+        write(authority, sink);
+        sink.commit();
+
+        return length;
+    }
+
+
+    /**
+     * Writes the UTF-8 encoding of the string representation of a URI reference
+     * into a byte array.
+     *
+     * @param uriRef
+     *         A URI reference.
+     *
+     * @param bytes
+     *         The destination.
+     *
+     * @param offset
+     *         The index in {@code bytes} at which the first byte is written.
+     *
+     * @return
+     *         The number of written bytes.
+     *
+     * @throws NullPointerException
+     *         If {@code bytes} is {@code null}.
+     *
+     * @throws IndexOutOfBoundsException
+     *         If {@code offset} is negative or the array doesn't have enough space
+     *         after {@code offset}. Nothing is written in this case.
+     */
+    int writeUtf8To(URIReference uriRef, byte[] bytes, int offset)
+    {
+        validateDestination(bytes);
+
+        // Ensure the array has enough space before writing anything.
+        var counter = new Utf8LengthSink();
+        write(uriRef, counter);
+        Objects.checkFromIndexSize(offset, counter.length, bytes.length);
+
+        write(uriRef, new Utf8Sink(bytes, offset));
+
+        return counter.length;
+    }
+
+
+    /**
+     * Writes the UTF-8 encoding of the string representation of an authority into
+     * a byte array. See {@link #writeUtf8To(URIReference, byte[], int)} for details.
+     *
+     * @param authority
+     *         An authority.
+     *
+     * @param bytes
+     *         The destination.
+     *
+     * @param offset
+     *         The index in {@code bytes} at which the first byte is written.
+     *
+     * @return
+     *         The number of written bytes.
+     */
+    int writeUtf8To(Authority authority, byte[] bytes, int offset)
+    {
+        validateDestination(bytes);
+
+        // Ensure the array has enough space before writing anything.
+        var counter = new Utf8LengthSink();
+        write(authority, counter);
+        Objects.checkFromIndexSize(offset, counter.length, bytes.length);
+
+        write(authority, new Utf8Sink(bytes, offset));
+
+        return counter.length;
+    }
+
+
+    /**
+     * Writes the origin form ({@code absolute-path [ "?" query ]}) of a request
+     * target into a {@link ByteBuffer} as US-ASCII bytes, according to <a href=
+     * "https://www.rfc-editor.org/rfc/rfc9112#section-3.2.1">RFC 9112, 3.2.1.
+     * origin-form</a>. An empty path is written as "/". The position is advanced
+     * by the number of written bytes. If this method throws an exception, the
+     * position is not changed.
+     *
+     * @param path
+     *         The path. May be {@code null}, which is treated as an empty path.
+     *
+     * @param query
+     *         The query. May be {@code null}.
+     *
+     * @param buffer
+     *         The destination.
+     *
+     * @return
+     *         The number of written bytes.
+     *
+     * @throws NullPointerException
+     *         If {@code buffer} is {@code null}.
+     *
+     * @throws BufferOverflowException
+     *         If the remaining space of the buffer is not enough.
+     *
+     * @throws IllegalStateException
+     *         If the path is neither empty nor absolute.
+     */
+    int writeOriginForm(String path, String query, ByteBuffer buffer)
+    {
+        validateDestination(buffer);
+
+        // RFC 9112, 3.2.1. origin-form
+        //
+        //   If the target URI's path component is empty, the client MUST send
+        //   "/" as the path within the origin-form of request-target.
+        var emptyPath = (path == null || path.isEmpty());
+
+        if (!emptyPath && path.charAt(0) != '/')
+        {
+            throw newISE("The path \"%s\" cannot be written in the origin form.", path);
+        }
+
+        // Ensure the buffer has enough space before writing anything.
+        var length = (emptyPath ? 1 : path.length()) + (query == null ? 0 : 1 + query.length());
+
+        if (buffer.remaining() < length)
+        {
+            throw new BufferOverflowException();
+        }
+
+        var sink = new AsciiSink(buffer);
+
+        // Append the path.
+        if (emptyPath)
+        {
+            sink.append('/');
+        }
+        else
+        {
+            sink.append(path);
+        }
+
+        // Append the query if present.
+        if (query != null)
+        {
+            sink.append('?');
+            sink.append(query);
+        }
+
+        sink.commit();
+
+        return length;
+    }
+
+
+    private void validateDestination(Object destination)
+    {
+        // Ensure the destination is not null.
+        if (destination == null)
+        {
+            throw newNPE("The destination must not be null.");
+        }
+    }
+
+
+    private void write(URIReference uriRef, Sink sink)
+    {
+        // RFC 3986, 5.3. Component Recomposition
+
+        // Append a scheme if present.
+        if (uriRef.getScheme() != null)
+        {
+            sink.append(uriRef.getScheme());
+            sink.append(':');
+        }
+
+        // Append an authority if present.
+        if (uriRef.getAuthority() != null)
+        {
+            sink.append('/');
+            sink.append('/');
+            write(uriRef.getAuthority(), sink);
+        }
+
+        // Append a path if present.
+        if (uriRef.getPath() != null)
+        {
+            sink.append(uriRef.getPath());
+        }
+
+        // Append a query if present.
+        if (uriRef.getQuery() != null)
+        {
+            sink.append('?');
+            sink.append(uriRef.getQuery());
+        }
+
+        // Append a fragment if present.
+        if (uriRef.getFragment() != null)
+        {
+            sink.append('#');
+            sink.append(uriRef.getFragment());
+        }
+    }
+
+
+    private void write(Authority authority, Sink sink)
+    {
+        // Append the userinfo if present.
+        if (authority.getUserinfo() != null)
+        {
+            sink.append(authority.getUserinfo());
+            sink.append('@');
+        }
+
+        // Append the host value if present.
+        if (authority.getHost() != null && authority.getHost().getValue() != null)
+        {
+            sink.append(authority.getHost().getValue());
+        }
+
+        // Append the port if present.
+        if (authority.getPort() != -1)
+        {
+            sink.append(':');
+            sink.appendPort(authority.getPort());
+        }
+    }
+}
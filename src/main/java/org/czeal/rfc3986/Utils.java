@@ -16,7 +16,7 @@
 package org.czeal.rfc3986;
 
 
-import java.util.regex.Pattern;
+import static org.czeal.rfc3986.NormalizationHints.hasDotSegment;
 
 
 /**
@@ -246,68 +246,142 @@ class Utils
      */
     static String removeDotSegments(String path)
     {
-        // Initialize the input with the no-appended path components and the output
-        // with the empty string.
-        var input  = path;
-        var output = "";
+        return removeDotSegments("", path);
+    }
+
+
+    /**
+     * Removes dot segments from the concatenation of the given prefix and path
+     * as stated in <a href="https://www.rfc-editor.org/rfc/rfc3986#section-5.2.4">
+     * "RFC 3986, 5.2.4. Remove Dot Segments"</a>, without creating the concatenated
+     * path as an intermediate string.
+     *
+     * @param prefix
+     *         The prefix of the path, which is either empty or ends with a slash
+     *         (e.g. the prefix obtained by merging paths as stated in "RFC 3986,
+     *         5.2.3. Merge Paths").
+     *
+     * @param path
+     *         The rest of the path.
+     *
+     * @return
+     *         The path from which dot segments are removed.
+     */
+    static String removeDotSegments(String prefix, String path)
+    {
+        // The prefix is empty or ends with a slash, so no segment spans both.
+        if (!hasDotSegment(prefix) && !hasDotSegment(path))
+        {
+            // No dot segments to remove.
+            return prefix.concat(path);
+        }
 
-        // While the input is not empty, loop the following steps.
-        while (!input.isEmpty())
+        // Initialize the input buffer with the no-appended path components and
+        // the output buffer with the empty string.
+        var input  = new char[prefix.length() + path.length()];
+        var length = input.length;
+        var output = new StringBuilder(length);
+        prefix.getChars(0, prefix.length(), input, 0);
+        path.getChars(0, path.length(), input, prefix.length());
+
+        // The index of the beginning of the input buffer.
+        var i = 0;
+
+        // While the input buffer is not empty, loop the following steps.
+        while (i < length)
         {
-            // If the input begins with a prefix of "../" or "./", then
-            // remove that prefix from the input;
-            var m = Pattern.compile("^\\.?\\./").matcher(input);
-            if (m.find())
+            var remaining = length - i;
+
+            // A. If the input buffer begins with a prefix of "../" or "./",
+            //    then remove that prefix from the input buffer.
+            if (startsWith(input, i, "../"))
             {
-                input = m.replaceFirst("");
-                continue;
+                i += 3;
             }
-
-            // If the input begins with a prefix of "/./" or "/.", where
-            // "." is a complete path segment, then replace that prefix
-            // with "/" in the input.
-            m = Pattern.compile("^/\\.(/|$)").matcher(input);
-            if (m.find())
+            else if (startsWith(input, i, "./"))
             {
-                input = m.replaceFirst("/");
-                continue;
+                i += 2;
             }
-
-            // If the input begins with a prefix of "/../" or "/..",
-            // where ".." is a complete path segment, then replace that
-            // prefix with "/" in the input and remove the last segment
-            // and its preceding "/" (if any) from the output.
-            m = Pattern.compile("^/\\.\\.(/|$)").matcher(input);
-            if (m.find())
+            // B. If the input buffer begins with a prefix of "/./" or "/.",
+            //    where "." is a complete path segment, then replace that
+            //    prefix with "/" in the input buffer.
+            else if (startsWith(input, i, "/./"))
             {
-                input = m.replaceFirst("/");
-                output = dropLastSegment(output, true);
-                continue;
+                i += 2;
             }
-
-            // If the input consists only of "." or "..", then remove
-            // that from the input.
-            m = Pattern.compile("^\\.?\\.$").matcher(input);
-            if (m.find())
+            else if (remaining == 2 && startsWith(input, i, "/."))
+            {
+                i += 1;
+                input[i] = '/';
+            }
+            // C. If the input buffer begins with a prefix of "/../" or "/..",
+            //    where ".." is a complete path segment, then replace that
+            //    prefix with "/" in the input buffer and remove the last
+            //    segment and its preceding "/" (if any) from the output buffer.
+            else if (startsWith(input, i, "/../"))
             {
-                input = m.replaceFirst("");
-                continue;
+                i += 3;
+                dropLastSegment(output);
             }
+            else if (remaining == 3 && startsWith(input, i, "/.."))
+            {
+                i += 2;
+                input[i] = '/';
+                dropLastSegment(output);
+            }
+            // D. If the input buffer consists only of "." or "..", then remove
+            //    that from the input buffer.
+            else if ((remaining == 1 && input[i] == '.') ||
+                     (remaining == 2 && startsWith(input, i, "..")))
+            {
+                i = length;
+            }
+            // E. Move the first path segment in the input buffer to the end of
+            //    the output buffer, including the initial "/" character (if
+            //    any) and any subsequent characters up to, but not including,
+            //    the next "/" character or the end of the input buffer.
+            else
+            {
+                var end = (input[i] == '/') ? i + 1 : i;
+
+                while (end < length && input[end] != '/')
+                {
+                    end++;
+                }
+
+                output.append(input, i, end - i);
+                i = end;
+            }
+        }
+
+        return output.toString();
+    }
 
-            // Move the first path segment in the input buffer to the
-            // end of the output, including the initial "/" character
-            // (if any) and any subsequent characters up to, but not
-            // including, the next "/" character or the end of the input.
-            m = Pattern.compile("^(?<firstsegment>/?[^/]*)(?<remaining>.*)$")
-                       .matcher(input);
-            if (m.find())
+
+    private static boolean startsWith(char[] input, int offset, String prefix)
+    {
+        if (input.length - offset < prefix.length())
+        {
+            return false;
+        }
+
+        for (var i = 0; i < prefix.length(); i++)
+        {
+            if (input[offset + i] != prefix.charAt(i))
             {
-                input   = m.group("remaining");
-                output += m.group("firstsegment");
+                return false;
             }
         }
 
-        return output;
+        return true;
+    }
+
+
+    private static void dropLastSegment(StringBuilder output)
+    {
+        // Remove the last segment and its preceding "/" (if any).
+        var lastSlashIndex = output.lastIndexOf("/");
+        output.setLength(lastSlashIndex == -1 ? 0 : lastSlashIndex);
     }
 
 
@@ -23,6 +23,8 @@ import static org.czeal.rfc3986.HostType.IPV4;
 import static org.czeal.rfc3986.HostType.IPV6;
 import static org.czeal.rfc3986.HostType.IPVFUTURE;
 import static org.czeal.rfc3986.HostType.REGNAME;
+import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import java.nio.charset.StandardCharsets;
 import org.junit.jupiter.api.Test;
 
 
@@ -134,4 +136,22 @@ class AuthorityTest
         assertThat(Authority.parse("%65%78%61%6D%70%6C%65%2E%63%6F%6D").toString()).isEqualTo("%65%78%61%6D%70%6C%65%2E%63%6F%6D");
         assertThat(Authority.parse("").toString()).isEqualTo("");
     }
+
+
+    @Test
+    void getDecoded()
+    {
+        var authority = Authority.parse("%6A%6F%68%6E@%C3%A9xample.com:80");
+        assertThat(authority.getDecodedUserinfo()).isEqualTo("john");
+        assertThat(authority.getDecodedHost()).isEqualTo("éxample.com");
+        assertThat(authority.getDecodedHost()).isSameAs(authority.getDecodedHost());
+
+        // Another charset.
+        assertThat(authority.getDecodedHost(StandardCharsets.ISO_8859_1)).isEqualTo("Ã©xample.com");
+
+        assertThat(Authority.parse("example.com").getDecodedUserinfo()).isNull();
+
+        assertThrowsNPE("The charset must not be null.",
+            () -> authority.getDecodedHost(null));
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.UTF_16;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.ChunkedValidator.THRESHOLD;
+import static org.czeal.rfc3986.TestUtils.assertThrowsIAE;
+import org.junit.jupiter.api.Test;
+
+
+class ChunkedValidatorTest
+{
+    private static String repeat(String unit)
+    {
+        return unit.repeat(THRESHOLD / unit.length() + 1);
+    }
+
+
+    @Test
+    void isApplicable()
+    {
+        var large = repeat("a");
+
+        assertThat(ChunkedValidator.isApplicable(large, UTF_8)).isTrue();
+        assertThat(ChunkedValidator.isApplicable(large, null)).isTrue();
+        assertThat(ChunkedValidator.isApplicable(large, UTF_16)).isFalse();
+        assertThat(ChunkedValidator.isApplicable("a", UTF_8)).isFalse();
+        assertThat(ChunkedValidator.isApplicable(null, UTF_8)).isFalse();
+    }
+
+
+    @Test
+    void boundary()
+    {
+        // Outside a percent-encoded value.
+        assertThat(ChunkedValidator.boundary("ab%41cd", 2, 7, UTF_8)).isEqualTo(2);
+        assertThat(ChunkedValidator.boundary("ab%41cd", 3, 7, UTF_8)).isEqualTo(5);
+        assertThat(ChunkedValidator.boundary("ab%41cd", 4, 7, UTF_8)).isEqualTo(5);
+        assertThat(ChunkedValidator.boundary("ab%41cd", 5, 7, UTF_8)).isEqualTo(5);
+        assertThat(ChunkedValidator.boundary("ab%4", 3, 4, UTF_8)).isEqualTo(4);
+
+        // Outside the octets of a character in UTF-8.
+        assertThat(ChunkedValidator.boundary("a%E3%81%82b", 4, 11, UTF_8)).isEqualTo(10);
+        assertThat(ChunkedValidator.boundary("a%E3%81%82b", 7, 11, UTF_8)).isEqualTo(10);
+        assertThat(ChunkedValidator.boundary("a%E3%81%82b", 1, 11, UTF_8)).isEqualTo(1);
+        assertThat(ChunkedValidator.boundary("a%E3%81%82b", 4, 11, null)).isEqualTo(4);
+    }
+
+
+    @Test
+    void isValid()
+    {
+        var query = repeat("a%E3%81%82=");
+
+        assertThat(new ChunkedValidator().isValid(new QueryValidator(), query, UTF_8)).isTrue();
+        assertThat(new ChunkedValidator().isValid(new QueryValidator(), query + "#", UTF_8)).isFalse();
+
+        // A character split by the end of the string.
+        assertThat(new ChunkedValidator().isValid(new QueryValidator(), query + "%E3", UTF_8)).isFalse();
+
+        // Octets which are invalid in UTF-8 are valid when they are not decoded.
+        var binary = repeat("%FF%00");
+
+        assertThat(new ChunkedValidator().isValid(new QueryValidator(), binary, UTF_8)).isFalse();
+        assertThat(new ChunkedValidator().isValid(new QueryValidator(), binary, null)).isTrue();
+    }
+
+
+    @Test
+    void parse()
+    {
+        var path     = repeat("/a%E3%81%82");
+        var query    = repeat("a%E3%81%82=/?");
+        var fragment = repeat("a%E3%81%82#".replace("#", "?"));
+        var input    = "http://example.com" + path + "?" + query + "#" + fragment;
+
+        var uriRef = URIReference.parse(input);
+
+        assertThat(uriRef.getPath()).isEqualTo(path);
+        assertThat(uriRef.getQuery()).isEqualTo(query);
+        assertThat(uriRef.getFragment()).isEqualTo(fragment);
+
+        // Relative references.
+        URIReference.parse(repeat("a%E3%81%82/") + ":");
+        URIReference.parse(repeat("/a%E3%81%82:"));
+
+        // Binary octets when percent-encoded values are not decoded.
+        URIReference.parse("http://example.com/?" + repeat("%FF%00"), UTF_8, ParseOptions.syntaxOnly());
+    }
+
+
+    @Test
+    void parse_invalid()
+    {
+        // The exceptions are the same as the exceptions of sequential validation.
+        var query = repeat("a%E3%81%82=") + "[";
+
+        assertThrowsIAE(
+            String.format("The query value \"%s\" has an invalid character \"[\" at the index %d.",
+                query, query.length() - 1),
+            () -> URIReference.parse("http://example.com/?" + query));
+
+        var fragment = "%E3" + repeat("a");
+
+        assertThrowsIAE(
+            String.format("Failed to decode bytes represented by \"%%E3\" in the fragment value \"%s\".",
+                fragment),
+            () -> URIReference.parse("http://example.com/#" + fragment));
+
+        var segment = repeat("a") + "%G0";
+
+        assertThrowsIAE(
+            String.format("The path segment value \"%s\" has an invalid hex digit \"G\" at the index %d.",
+                segment, segment.length() - 2),
+            () -> URIReference.parse("http://example.com/b/" + segment + "/c"));
+
+        // The first segment of a relative reference without a scheme.
+        var path = "a:" + repeat("/b");
+
+        assertThrowsIAE(
+            "The path segment value \"a:\" has an invalid character \":\" at the index 1.",
+            () -> new PathValidator().validate(path, UTF_8, true, false));
+
+        assertThrowsIAE(
+            "The path must start with a slash.",
+            () -> new PathValidator().validate(repeat("a"), UTF_8, true, true));
+    }
+}
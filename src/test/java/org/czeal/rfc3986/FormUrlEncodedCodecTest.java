@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.TestUtils.assertThrowsIAE;
+import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+
+class FormUrlEncodedCodecTest
+{
+    @Test
+    void parse_charSequence()
+    {
+        var params = FormUrlEncodedCodec.parse(
+            new StringBuilder("name=John+Doe&city=K%C3%B6ln&tag=a&tag=b&flag&a+b=1%2B2&page=%2B3"));
+
+        assertThat(params.getFirst("name")).isEqualTo("John Doe");
+        assertThat(params.getFirst("city")).isEqualTo("Köln");
+        assertThat(params.getAll("tag")).isEqualTo(List.of("a", "b"));
+        assertThat(params.contains("flag")).isTrue();
+        assertThat(params.getFirst("flag")).isEqualTo("");
+        assertThat(params.getFirst("a b")).isEqualTo("1+2");
+        assertThat(params.contains("a+b")).isFalse();
+        assertThat(params.getInt("page", 0)).isEqualTo(3);
+        assertThat(List.copyOf(params.names())).isEqualTo(
+            List.of("name", "city", "tag", "flag", "a b", "page"));
+
+        // An empty body has no parameters.
+        assertThat(FormUrlEncodedCodec.parse("").names().isEmpty()).isTrue();
+
+        // Empty parameters are skipped.
+        assertThat(List.copyOf(FormUrlEncodedCodec.parse("a=1&").names())).isEqualTo(List.of("a"));
+        assertThat(List.copyOf(FormUrlEncodedCodec.parse("&a=1&&b=2").names())).isEqualTo(List.of("a", "b"));
+        assertThat(FormUrlEncodedCodec.parse("&&").names().isEmpty()).isTrue();
+        assertThat(FormUrlEncodedCodec.parse("a=1&&b=2").contains("")).isFalse();
+        assertThat(FormUrlEncodedCodec.parse("a=1&&=2").getFirst("")).isEqualTo("2");
+
+        // A charset other than UTF-8.
+        assertThat(FormUrlEncodedCodec.parse("city=K%F6ln+1", ISO_8859_1).getFirst("city"))
+            .isEqualTo("Köln 1");
+
+        assertThrowsNPE("The body must not be null.", () -> FormUrlEncodedCodec.parse((CharSequence)null));
+        assertThrowsNPE("The charset must not be null.", () -> FormUrlEncodedCodec.parse("a", null));
+    }
+
+
+    @Test
+    void parse_byteBuffer()
+    {
+        var bytes  = "x;name=John+Doe&city=K%C3%B6ln&raw=ö".getBytes(UTF_8);
+        var buffer = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+        var params = FormUrlEncodedCodec.parse(buffer);
+
+        assertThat(buffer.hasRemaining()).isFalse();
+        assertThat(params.getFirst("name")).isEqualTo("John Doe");
+        assertThat(params.getFirst("city")).isEqualTo("Köln");
+        assertThat(params.getFirst("raw")).isEqualTo("ö");
+
+        // A direct buffer.
+        var direct = ByteBuffer.allocateDirect(16);
+        direct.put("a=1+2&b".getBytes(UTF_8)).flip();
+        params = FormUrlEncodedCodec.parse(direct);
+
+        assertThat(direct.hasRemaining()).isFalse();
+        assertThat(params.getFirst("a")).isEqualTo("1 2");
+        assertThat(params.contains("b")).isTrue();
+
+        // Bytes which are invalid in the charset are reported, as invalid
+        // percent-encoded octets are.
+        var invalid = ByteBuffer.wrap(new byte[] { 'a', '=', (byte)0xFF });
+
+        assertThrowsIAE(
+            "The body has bytes which are invalid in the charset \"UTF-8\" at the index 2.",
+            () -> FormUrlEncodedCodec.parse(invalid));
+
+        assertThrowsNPE("The body must not be null.", () -> FormUrlEncodedCodec.parse((ByteBuffer)null));
+    }
+
+
+    @Test
+    void decode()
+    {
+        assertThat(FormUrlEncodedCodec.decode("abc")).isEqualTo("abc");
+        assertThat(FormUrlEncodedCodec.decode("a+b%20c%2B")).isEqualTo("a b c+");
+        assertThat(FormUrlEncodedCodec.decode("%C3%A9%E3%81%82%F0%9F%98%80")).isEqualTo("éあ😀");
+        assertThat(FormUrlEncodedCodec.decode("%c3%a9")).isEqualTo("é");
+        assertThat(FormUrlEncodedCodec.decode("%E9+", ISO_8859_1)).isEqualTo("é ");
+
+        assertThrowsIAE(
+            "The percent symbol \"%\" at the index 1 in the input value \"a%4\" is not followed by two characters.",
+            () -> FormUrlEncodedCodec.decode("a%4"));
+
+        assertThrowsIAE(
+            "The character \"G\" at the index 3 in the input value \"a%4G\" is invalid as a hex digit.",
+            () -> FormUrlEncodedCodec.decode("a%4G"));
+
+        // A lone continuation byte.
+        assertThrowsIAE(
+            "The value \"a%80\" has an invalid UTF-8 sequence at the index 1.",
+            () -> FormUrlEncodedCodec.decode("a%80"));
+
+        // A truncated sequence.
+        assertThrowsIAE(
+            "The value \"%C3a\" has an invalid UTF-8 sequence at the index 3.",
+            () -> FormUrlEncodedCodec.decode("%C3a"));
+
+        // An overlong sequence.
+        assertThrowsIAE(
+            "The value \"%C0%AF\" has an invalid UTF-8 sequence at the index 0.",
+            () -> FormUrlEncodedCodec.decode("%C0%AF"));
+
+        // An encoded surrogate.
+        assertThrowsIAE(
+            "The value \"%ED%A0%80\" has an invalid UTF-8 sequence at the index 0.",
+            () -> FormUrlEncodedCodec.decode("%ED%A0%80"));
+
+        assertThrowsNPE("The value must not be null.", () -> FormUrlEncodedCodec.decode(null));
+    }
+
+
+    @Test
+    void encode() throws IOException
+    {
+        assertThat(encode("azAZ09*-._")).isEqualTo("azAZ09*-._");
+        assertThat(encode("a b+c&d=e~")).isEqualTo("a+b%2Bc%26d%3De%7E");
+        assertThat(encode("éあ😀")).isEqualTo("%C3%A9%E3%81%82%F0%9F%98%80");
+        assertThat(encode("\uD83D")).isEqualTo("%3F");
+
+        var sb = new StringBuilder();
+        FormUrlEncodedCodec.encode("é 😀", ISO_8859_1, sb);
+        assertThat(sb.toString()).isEqualTo("%E9+%3F");
+
+        // The encoded value is decoded to the original.
+        var value = "a b+c&d=e~éあ😀";
+        assertThat(FormUrlEncodedCodec.decode(encode(value))).isEqualTo(value);
+
+        assertThrowsNPE("The value must not be null.", () -> FormUrlEncodedCodec.encode(null, sb));
+        assertThrowsNPE("The destination must not be null.", () -> FormUrlEncodedCodec.encode("a", null));
+    }
+
+
+    @Test
+    void write() throws IOException
+    {
+        var params = new ArrayList<Map.Entry<String, String>>();
+        params.add(Map.entry("q", "a b&c"));
+        params.add(new SimpleEntry<>("flag", null));
+        params.add(Map.entry("city", "Köln"));
+
+        var writer = new StringWriter();
+        FormUrlEncodedCodec.write(params, writer);
+
+        assertThat(writer.toString()).isEqualTo("q=a+b%26c&flag&city=K%C3%B6ln");
+
+        // The written body is parsed to the original parameters.
+        var parsed = FormUrlEncodedCodec.parse(writer.toString());
+        assertThat(parsed.getFirst("q")).isEqualTo("a b&c");
+        assertThat(parsed.contains("flag")).isTrue();
+        assertThat(parsed.getFirst("city")).isEqualTo("Köln");
+
+        var sb = new StringBuilder();
+        FormUrlEncodedCodec.write(List.of(), sb);
+        assertThat(sb.toString()).isEqualTo("");
+
+        assertThrowsNPE("The parameters must not be null.",
+            () -> FormUrlEncodedCodec.write(null, sb));
+
+        assertThrowsNPE("The parameters must not contain a null parameter or a null key.",
+            () -> FormUrlEncodedCodec.write(List.of(new SimpleEntry<>(null, "a")), sb));
+    }
+
+
+    private static String encode(String value) throws IOException
+    {
+        var sb = new StringBuilder();
+
+        FormUrlEncodedCodec.encode(value, sb);
+
+        return sb.toString();
+    }
+}
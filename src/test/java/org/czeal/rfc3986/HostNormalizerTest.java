@@ -57,5 +57,9 @@ class HostNormalizerTest
         var normalized7 = new HostNormalizer().normalize(new Host(REGNAME, null), UTF_8);
         assertThat(normalized7.getType()).isEqualTo(REGNAME);
         assertThat(normalized7.getValue()).isNull();
+
+        var normalized8 = new HostNormalizer().normalize(new Host(REGNAME, "%c3%80.Example.com"), UTF_8);
+        assertThat(normalized8.getType()).isEqualTo(REGNAME);
+        assertThat(normalized8.getValue()).isEqualTo("%C3%A0.example.com");
     }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.NormalizationHints.ALL;
+import static org.czeal.rfc3986.NormalizationHints.FRAGMENT;
+import static org.czeal.rfc3986.NormalizationHints.HOST;
+import static org.czeal.rfc3986.NormalizationHints.PATH;
+import static org.czeal.rfc3986.NormalizationHints.QUERY;
+import static org.czeal.rfc3986.NormalizationHints.SCHEME;
+import static org.czeal.rfc3986.NormalizationHints.USERINFO;
+import org.junit.jupiter.api.Test;
+
+
+class NormalizationHintsTest
+{
+    @Test
+    void isSchemeNormalized()
+    {
+        assertThat(NormalizationHints.isSchemeNormalized(null)).isTrue();
+        assertThat(NormalizationHints.isSchemeNormalized("http")).isTrue();
+        assertThat(NormalizationHints.isSchemeNormalized("a+b-c.d")).isTrue();
+        assertThat(NormalizationHints.isSchemeNormalized("hTTp")).isFalse();
+    }
+
+
+    @Test
+    void isPathNormalized()
+    {
+        assertThat(NormalizationHints.isPathNormalized(null, false)).isTrue();
+        assertThat(NormalizationHints.isPathNormalized("", false)).isTrue();
+        assertThat(NormalizationHints.isPathNormalized("", true)).isFalse();
+        assertThat(NormalizationHints.isPathNormalized("/a/b/c", true)).isTrue();
+        assertThat(NormalizationHints.isPathNormalized("/a/.b/c..", true)).isTrue();
+        assertThat(NormalizationHints.isPathNormalized("/a/./c", true)).isFalse();
+        assertThat(NormalizationHints.isPathNormalized("/a/../c", true)).isFalse();
+        assertThat(NormalizationHints.isPathNormalized("/a/..", true)).isFalse();
+        assertThat(NormalizationHints.isPathNormalized("./a", false)).isFalse();
+        assertThat(NormalizationHints.isPathNormalized("/a%2Fb", true)).isTrue();
+        assertThat(NormalizationHints.isPathNormalized("/a%2fb", true)).isFalse();
+        assertThat(NormalizationHints.isPathNormalized("/%7E", true)).isFalse();
+    }
+
+
+    @Test
+    void isPercentEncodedStringNormalized()
+    {
+        assertThat(NormalizationHints.isPercentEncodedStringNormalized(null, false)).isTrue();
+        assertThat(NormalizationHints.isPercentEncodedStringNormalized("Ab%20", false)).isTrue();
+        assertThat(NormalizationHints.isPercentEncodedStringNormalized("%E3%82%A2", false)).isTrue();
+        assertThat(NormalizationHints.isPercentEncodedStringNormalized("%e3%82%a2", false)).isFalse();
+        assertThat(NormalizationHints.isPercentEncodedStringNormalized("%41", false)).isFalse();
+        assertThat(NormalizationHints.isPercentEncodedStringNormalized("Ab", true)).isFalse();
+        assertThat(NormalizationHints.isPercentEncodedStringNormalized("ab%20", true)).isTrue();
+        assertThat(NormalizationHints.isPercentEncodedStringNormalized("%E3%82%A2", true)).isFalse();
+    }
+
+
+    @Test
+    void parse()
+    {
+        assertThat(URIReference.parse("http://example.com/a?q#f").getNormalizationHints()).isEqualTo(ALL);
+        assertThat(URIReference.parse("hTTp://example.com/a?q#f").getNormalizationHints()).isEqualTo(ALL & ~SCHEME);
+        assertThat(URIReference.parse("http://%75ser@example.com/a").getNormalizationHints()).isEqualTo(ALL & ~USERINFO);
+        assertThat(URIReference.parse("http://Example.com/a").getNormalizationHints()).isEqualTo(ALL & ~HOST);
+        assertThat(URIReference.parse("http://example.com").getNormalizationHints()).isEqualTo(ALL & ~PATH);
+        assertThat(URIReference.parse("http://example.com/a/../b").getNormalizationHints()).isEqualTo(ALL & ~PATH);
+        assertThat(URIReference.parse("http://example.com/a?%7e").getNormalizationHints()).isEqualTo(ALL & ~QUERY);
+        assertThat(URIReference.parse("http://example.com/a#%3a").getNormalizationHints()).isEqualTo(ALL & ~FRAGMENT);
+    }
+
+
+    @Test
+    void normalize()
+    {
+        assertThat(URIReference.parse("hTTp://Example.com:80").normalize().getNormalizationHints()).isEqualTo(ALL);
+        assertThat(URIReference.parse("http://example.com/a").normalize().toString()).isEqualTo("http://example.com/a");
+        assertThat(URIReference.parse("http://example.com:80/a").normalize().toString()).isEqualTo("http://example.com/a");
+        assertThat(URIReference.parse("https://example.com:80/a").normalize().toString()).isEqualTo("https://example.com:80/a");
+    }
+
+
+    @Test
+    void resolve()
+    {
+        var baseUri = URIReference.parse("hTTp://example.com/a/b");
+
+        assertThat(baseUri.resolve("c/./d?%7e").getNormalizationHints()).isEqualTo(ALL & ~SCHEME & ~QUERY);
+        assertThat(baseUri.resolve("//Example.com").getNormalizationHints()).isEqualTo(ALL & ~SCHEME & ~HOST & ~PATH);
+        assertThat(baseUri.resolve("https://example.com/../a").getNormalizationHints()).isEqualTo(ALL);
+    }
+}
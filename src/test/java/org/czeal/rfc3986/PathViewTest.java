@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.TestUtils.assertThrowsException;
+import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+
+
+class PathViewTest
+{
+    @Test
+    void segments()
+    {
+        var view = URIReference.parse("http://example.com/api/v1/users/caf%C3%A9").getPathView();
+
+        assertThat(view.getPath()).isEqualTo("/api/v1/users/caf%C3%A9");
+        assertThat(view.isAbsolute()).isTrue();
+        assertThat(view.segmentCount()).isEqualTo(4);
+        assertThat(view.segment(0).toString()).isEqualTo("api");
+        assertThat(view.segment(3).toString()).isEqualTo("caf%C3%A9");
+        assertThat(view.decodedSegment(3)).isEqualTo("café");
+        assertThat(view.lastSegment().toString()).isEqualTo("caf%C3%A9");
+        assertThat(view.segmentEquals(1, "v1")).isTrue();
+        assertThat(view.segmentEquals(1, "v2")).isFalse();
+        assertThat(view.segmentEquals(1, "v")).isFalse();
+        assertThat(view.segmentEquals(4, "x")).isFalse();
+        assertThat(view.segmentEquals(-1, "x")).isFalse();
+
+        assertThrowsException(IndexOutOfBoundsException.class,
+            "The index 4 is out of the range of the segments.", () -> view.segment(4));
+        assertThrowsException(IndexOutOfBoundsException.class,
+            "The index -1 is out of the range of the segments.", () -> view.decodedSegment(-1));
+        assertThrowsNPE("The segment must not be null.", () -> view.segmentEquals(0, null));
+    }
+
+
+    @Test
+    void segment_structure()
+    {
+        assertThat(segments("")).isEqualTo(List.of());
+        assertThat(segments(null)).isEqualTo(List.of());
+        assertThat(segments("/")).isEqualTo(List.of(""));
+        assertThat(segments("a")).isEqualTo(List.of("a"));
+        assertThat(segments("a/b")).isEqualTo(List.of("a", "b"));
+        assertThat(segments("/a/")).isEqualTo(List.of("a", ""));
+        assertThat(segments("//a")).isEqualTo(List.of("", "a"));
+
+        assertThat(PathView.of("").lastSegment()).isNull();
+        assertThat(PathView.of("a/b").lastSegment().toString()).isEqualTo("b");
+        assertThat(PathView.of("/a/").lastSegment().toString()).isEqualTo("");
+        assertThat(PathView.of("a/b").isAbsolute()).isFalse();
+        assertThat(PathView.of(null).getPath()).isNull();
+        assertThat(PathView.of(null).toString()).isEqualTo("");
+    }
+
+
+    @Test
+    void slice()
+    {
+        var segment = PathView.of("/abc/def").segment(1);
+
+        assertThat(segment.length()).isEqualTo(3);
+        assertThat(segment.charAt(0)).isEqualTo('d');
+        assertThat(segment.subSequence(1, 3).toString()).isEqualTo("ef");
+
+        assertThrowsException(IndexOutOfBoundsException.class,
+            "The index 3 is out of the range of the segment.", () -> segment.charAt(3));
+        assertThrowsException(IndexOutOfBoundsException.class,
+            "The range [2, 4) is out of the range of the segment.", () -> segment.subSequence(2, 4));
+    }
+
+
+    @Test
+    void iterator()
+    {
+        var iterator = PathView.of("/a/bc").iterator();
+
+        var first = iterator.next();
+        assertThat(first.toString()).isEqualTo("a");
+
+        // The same object is reused.
+        assertThat(iterator.next()).isSameAs(first);
+        assertThat(first.toString()).isEqualTo("bc");
+        assertThat(iterator.hasNext()).isFalse();
+
+        assertThrowsException(NoSuchElementException.class, null, iterator::next);
+    }
+
+
+    @Test
+    void decodedSegment_with_charset()
+    {
+        assertThat(PathView.of("/caf%E9", ISO_8859_1).decodedSegment(0)).isEqualTo("café");
+
+        assertThrowsNPE("The charset must not be null.", () -> PathView.of("/a", null));
+    }
+
+
+    private static List<String> segments(String path)
+    {
+        var list = new ArrayList<String>();
+
+        for (var segment : PathView.of(path))
+        {
+            list.add(segment.toString());
+        }
+
+        assertThat(list.size()).isEqualTo(PathView.of(path).segmentCount());
+
+        return list;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.TestUtils.assertThrowsException;
+import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.CharConversionException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import org.junit.jupiter.api.Test;
+
+
+class PercentDecodingChannelTest
+{
+    @Test
+    void read() throws IOException
+    {
+        assertThat(decode(Channels.newChannel(input("%00A%ff+/"))))
+            .isEqualTo(new byte[] { 0x00, 0x41, (byte)0xFF, '+', '/' });
+
+        assertThat(decode(Channels.newChannel(input("")))).isEqualTo(new byte[0]);
+    }
+
+
+    @Test
+    void read_split() throws IOException
+    {
+        // Percent-encoded values split across the reads.
+        assertThat(decode(new OneByteChannel(input("a%DE%ADb"))))
+            .isEqualTo(new byte[] { 'a', (byte)0xDE, (byte)0xAD, 'b' });
+    }
+
+
+    @Test
+    void read_long() throws IOException
+    {
+        var expected = new byte[20000];
+
+        for (var i = 0; i < expected.length; i++)
+        {
+            expected[i] = (byte)i;
+        }
+
+        var encoded = URIEncoder.encode(expected, EncodeSet.PATH);
+
+        assertThat(decode(Channels.newChannel(input(encoded)))).isEqualTo(expected);
+    }
+
+
+    @Test
+    void read_invalid()
+    {
+        assertThrowsException(CharConversionException.class,
+            "The percent symbol \"%\" at the index 3 is not followed by two characters.",
+            () -> decode(new OneByteChannel(input("abc%4"))));
+
+        assertThrowsException(CharConversionException.class,
+            "The character \"G\" at the index 5 is invalid as a hex digit.",
+            () -> decode(Channels.newChannel(input("abc%4G"))));
+    }
+
+
+    @Test
+    void constructor()
+    {
+        assertThrowsNPE("The source must not be null.", () -> new PercentDecodingChannel(null));
+    }
+
+
+    @Test
+    void close() throws IOException
+    {
+        var channel = new PercentDecodingChannel(Channels.newChannel(input("a")));
+
+        assertThat(channel.isOpen()).isTrue();
+
+        channel.close();
+
+        assertThat(channel.isOpen()).isFalse();
+        assertThrowsException(ClosedChannelException.class, null,
+            () -> channel.read(ByteBuffer.allocate(1)));
+    }
+
+
+    private static ByteArrayInputStream input(String input)
+    {
+        return new ByteArrayInputStream(input.getBytes());
+    }
+
+
+    private static byte[] decode(ReadableByteChannel source) throws IOException
+    {
+        var output = new ByteArrayOutputStream();
+        var buffer = ByteBuffer.allocate(7);
+
+        try (var channel = new PercentDecodingChannel(source))
+        {
+            while (channel.read(buffer) != -1)
+            {
+                output.write(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+        }
+
+        return output.toByteArray();
+    }
+
+
+    /**
+     * A channel returning one byte at a time.
+     */
+    private static class OneByteChannel implements ReadableByteChannel
+    {
+        private final ByteArrayInputStream input;
+
+
+        OneByteChannel(ByteArrayInputStream input)
+        {
+            this.input = input;
+        }
+
+
+        @Override
+        public int read(ByteBuffer destination)
+        {
+            var b = input.read();
+
+            if (b == -1)
+            {
+                return -1;
+            }
+
+            destination.put((byte)b);
+
+            return 1;
+        }
+
+
+        @Override
+        public boolean isOpen()
+        {
+            return true;
+        }
+
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
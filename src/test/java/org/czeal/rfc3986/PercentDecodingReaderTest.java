@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.TestUtils.assertThrowsException;
+import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import java.io.CharConversionException;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import org.junit.jupiter.api.Test;
+
+
+class PercentDecodingReaderTest
+{
+    @Test
+    void read() throws IOException
+    {
+        assertThat(decode("a%20b/%E3%81%82", UTF_8, false)).isEqualTo("a b/あ");
+        assertThat(decode("caf%E9", ISO_8859_1, false)).isEqualTo("café");
+        assertThat(decode("a+b%2B", UTF_8, false)).isEqualTo("a+b+");
+        assertThat(decode("a+b%2B", UTF_8, true)).isEqualTo("a b+");
+        assertThat(decode("", UTF_8, false)).isEqualTo("");
+    }
+
+
+    @Test
+    void read_split() throws IOException
+    {
+        // Percent-encoded values and multi-byte sequences split across the reads.
+        var input = "%F0%9F%98%80x%E3%81%82+%41";
+
+        try (var reader = new PercentDecodingReader(new OneCharReader(input), UTF_8, true))
+        {
+            assertThat(readAll(reader)).isEqualTo("😀xあ A");
+        }
+    }
+
+
+    @Test
+    void read_long() throws IOException
+    {
+        // Longer than the internal buffers.
+        var expected = new StringBuilder();
+        var input    = new StringBuilder();
+
+        for (var i = 0; i < 5000; i++)
+        {
+            expected.append("abcあ");
+            input.append("abc%E3%81%82");
+        }
+
+        assertThat(decode(input.toString(), UTF_8, false)).isEqualTo(expected.toString());
+        assertThat(decode(URIEncoder.encode(expected, EncodeSet.PATH), UTF_8, false))
+            .isEqualTo(expected.toString());
+    }
+
+
+    @Test
+    void read_invalid()
+    {
+        assertThrowsException(CharConversionException.class,
+            "The percent symbol \"%\" at the index 3 is not followed by two characters.",
+            () -> decode("abc%4", UTF_8, false));
+
+        assertThrowsException(CharConversionException.class,
+            "The character \"G\" at the index 5 is invalid as a hex digit.",
+            () -> decode("abc%4G", UTF_8, false));
+
+        assertThrowsException(CharacterCodingException.class, null,
+            () -> decode("%E3%81x", UTF_8, false));
+    }
+
+
+    @Test
+    void constructor()
+    {
+        assertThrowsNPE("The source must not be null.",
+            () -> new PercentDecodingReader(null, UTF_8));
+
+        assertThrowsNPE("The charset must not be null.",
+            () -> new PercentDecodingReader(new StringReader(""), (Charset)null));
+    }
+
+
+    @Test
+    void close() throws IOException
+    {
+        var reader = new PercentDecodingReader(new StringReader("a"), UTF_8);
+        reader.close();
+        reader.close();
+
+        assertThrowsException(IOException.class, "The reader has been closed.", () -> reader.read());
+    }
+
+
+    private static String decode(String input, Charset charset, boolean plusAsSpace) throws IOException
+    {
+        try (var reader = new PercentDecodingReader(new StringReader(input), charset, plusAsSpace))
+        {
+            return readAll(reader);
+        }
+    }
+
+
+    private static String readAll(Reader reader) throws IOException
+    {
+        var builder = new StringBuilder();
+        var buffer  = new char[7];
+
+        for (int n; (n = reader.read(buffer, 0, buffer.length)) != -1; )
+        {
+            builder.append(buffer, 0, n);
+        }
+
+        return builder.toString();
+    }
+
+
+    /**
+     * A reader returning one character at a time.
+     */
+    private static class OneCharReader extends FilterReader
+    {
+        OneCharReader(String input)
+        {
+            super(new StringReader(input));
+        }
+
+
+        @Override
+        public int read(char[] buffer, int off, int len) throws IOException
+        {
+            return super.read(buffer, off, Math.min(len, 1));
+        }
+    }
+}
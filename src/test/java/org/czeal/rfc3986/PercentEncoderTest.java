@@ -28,5 +28,6 @@ class PercentEncoderTest
     {
         assertThat(PercentEncoder.encode("aA?", UTF_8)).isEqualTo("aA%3F");
         assertThat(PercentEncoder.encode("abcD123~ア", UTF_8)).isEqualTo("abcD123~%E3%82%A2");
+        assertThat(PercentEncoder.encode("aà", UTF_8)).isEqualTo("a%C3%A0");
     }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.TestUtils.assertThrowsException;
+import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import org.junit.jupiter.api.Test;
+
+
+class PercentEncodingChannelTest
+{
+    @Test
+    void write() throws IOException
+    {
+        var output = new ByteArrayOutputStream();
+
+        try (var channel = new PercentEncodingChannel(Channels.newChannel(output), EncodeSet.QUERY_PARAM))
+        {
+            assertThat(channel.write(ByteBuffer.wrap(new byte[] { 'a', ' ', '&', 0x00, (byte)0xFF })))
+                .isEqualTo(5);
+            assertThat(channel.write(ByteBuffer.wrap("/?".getBytes()))).isEqualTo(2);
+        }
+
+        assertThat(output.toString()).isEqualTo("a%20%26%00%FF/?");
+    }
+
+
+    @Test
+    void write_long() throws IOException
+    {
+        var input = new byte[20000];
+
+        for (var i = 0; i < input.length; i++)
+        {
+            input[i] = (byte)i;
+        }
+
+        var output = new ByteArrayOutputStream();
+
+        try (var channel = new PercentEncodingChannel(Channels.newChannel(output), EncodeSet.PATH))
+        {
+            channel.write(ByteBuffer.wrap(input));
+        }
+
+        assertThat(output.toString()).isEqualTo(URIEncoder.encode(input, EncodeSet.PATH));
+        assertThat(URIDecoder.decodeToBytes(output.toString(), 0, output.size())).isEqualTo(input);
+    }
+
+
+    @Test
+    void constructor()
+    {
+        assertThrowsNPE("The destination must not be null.",
+            () -> new PercentEncodingChannel(null, EncodeSet.PATH));
+
+        assertThrowsNPE("The encode set must not be null.",
+            () -> new PercentEncodingChannel(Channels.newChannel(new ByteArrayOutputStream()), null));
+    }
+
+
+    @Test
+    void close() throws IOException
+    {
+        var channel = new PercentEncodingChannel(
+            Channels.newChannel(new ByteArrayOutputStream()), EncodeSet.PATH);
+
+        channel.close();
+
+        assertThat(channel.isOpen()).isFalse();
+        assertThrowsException(ClosedChannelException.class, null,
+            () -> channel.write(ByteBuffer.allocate(1)));
+    }
+}
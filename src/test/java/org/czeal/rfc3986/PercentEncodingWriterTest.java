@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.TestUtils.assertThrowsException;
+import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import java.io.IOException;
+import java.io.StringWriter;
+import org.junit.jupiter.api.Test;
+
+
+class PercentEncodingWriterTest
+{
+    @Test
+    void write() throws IOException
+    {
+        var destination = new StringWriter();
+
+        try (var writer = new PercentEncodingWriter(destination, EncodeSet.QUERY_PARAM, UTF_8))
+        {
+            writer.write("a b&c=あ");
+            writer.write('/');
+            writer.write("x😀".toCharArray());
+        }
+
+        assertThat(destination.toString()).isEqualTo("a%20b%26c%3D%E3%81%82/x%F0%9F%98%80");
+    }
+
+
+    @Test
+    void write_charset() throws IOException
+    {
+        var destination = new StringWriter();
+
+        try (var writer = new PercentEncodingWriter(destination, EncodeSet.PATH, ISO_8859_1))
+        {
+            writer.write("café/あ");
+        }
+
+        assertThat(destination.toString()).isEqualTo("caf%E9/%3F");
+    }
+
+
+    @Test
+    void write_split() throws IOException
+    {
+        var destination = new StringWriter();
+
+        try (var writer = new PercentEncodingWriter(destination, EncodeSet.PATH, UTF_8))
+        {
+            // A surrogate pair split across the calls.
+            writer.write('\uD83D');
+            writer.write('\uDE00');
+
+            // Unpaired surrogates.
+            writer.write("\uD83Da");
+            writer.write('\uDE00');
+            writer.write('\uD83D');
+        }
+
+        assertThat(destination.toString()).isEqualTo("%F0%9F%98%80%3Fa%3F%3F");
+    }
+
+
+    @Test
+    void write_long() throws IOException
+    {
+        var input = new StringBuilder();
+
+        for (var i = 0; i < 5000; i++)
+        {
+            input.append("abc あ😀");
+        }
+
+        var destination = new StringWriter();
+
+        try (var writer = new PercentEncodingWriter(destination, EncodeSet.PATH_SEGMENT, UTF_8))
+        {
+            writer.write(input.toString());
+        }
+
+        assertThat(destination.toString()).isEqualTo(URIEncoder.encode(input, EncodeSet.PATH_SEGMENT));
+    }
+
+
+    @Test
+    void constructor()
+    {
+        assertThrowsNPE("The destination must not be null.",
+            () -> new PercentEncodingWriter(null, EncodeSet.PATH, UTF_8));
+
+        assertThrowsNPE("The encode set must not be null.",
+            () -> new PercentEncodingWriter(new StringWriter(), null, UTF_8));
+
+        assertThrowsNPE("The charset must not be null.",
+            () -> new PercentEncodingWriter(new StringWriter(), EncodeSet.PATH, null));
+    }
+
+
+    @Test
+    void close() throws IOException
+    {
+        var writer = new PercentEncodingWriter(new StringWriter(), EncodeSet.PATH, UTF_8);
+        writer.close();
+        writer.close();
+
+        assertThrowsException(IOException.class, "The writer has been closed.", () -> writer.write("a"));
+    }
+}
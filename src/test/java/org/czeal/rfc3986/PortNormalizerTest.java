@@ -30,5 +30,7 @@ class PortNormalizerTest
         assertThat(new PortNormalizer().normalize(80, "custom")).isEqualTo(80);
         assertThat(new PortNormalizer().normalize(443, "https")).isEqualTo(-1);
         assertThat(new PortNormalizer().normalize(443, "custom")).isEqualTo(443);
+        assertThat(new PortNormalizer().normalize(80, "HTTP")).isEqualTo(-1);
+        assertThat(new PortNormalizer().normalize(443, "HTTPS")).isEqualTo(-1);
     }
 }
@@ -16,6 +16,7 @@
 package org.czeal.rfc3986;
 
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.Test;
@@ -30,5 +31,8 @@ class QueryNormalizerTest
         assertThat(new QueryNormalizer().normalize("K1=V1&K2=V2", UTF_8)).isEqualTo("K1=V1&K2=V2");
         assertThat(new QueryNormalizer().normalize("", UTF_8)).isEqualTo("");
         assertThat(new QueryNormalizer().normalize(null, UTF_8)).isNull();
+        assertThat(new QueryNormalizer().normalize("k%3d%7e%2D=%e3%82%a2", UTF_8)).isEqualTo("k%3D~-=%E3%82%A2");
+        assertThat(new QueryNormalizer().normalize("k=%c3%a0", UTF_8)).isEqualTo("k=%C3%A0");
+        assertThat(new QueryNormalizer().normalize("k=%e9%41", ISO_8859_1)).isEqualTo("k=%E9A");
     }
 }
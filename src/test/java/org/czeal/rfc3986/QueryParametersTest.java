@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.TestUtils.assertThrowsIAE;
+import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+
+class QueryParametersTest
+{
+    @Test
+    void getAll_getFirst_names()
+    {
+        var params = URIReference.parse(
+            "http://example.com/?q=caf%C3%A9&tag=a&flag&tag=b&%74ag=c&a+b=1+2").queryParams();
+
+        assertThat(params.getFirst("q")).isEqualTo("café");
+        assertThat(params.getAll("tag")).isEqualTo(List.of("a", "b", "c"));
+        assertThat(params.getFirst("flag")).isNull();
+        assertThat(params.contains("flag")).isTrue();
+        assertThat(params.getAll("flag").size()).isEqualTo(1);
+        assertThat(params.getFirst("a+b")).isEqualTo("1+2");
+        assertThat(params.getAll("none").isEmpty()).isTrue();
+        assertThat(params.getFirst("none")).isNull();
+        assertThat(params.contains("none")).isFalse();
+        assertThat(List.copyOf(params.names())).isEqualTo(List.of("q", "tag", "flag", "a+b"));
+
+        // The object is cached on the URI reference.
+        var uriRef = URIReference.parse("http://example.com/?a=1");
+        assertThat(uriRef.queryParams()).isSameAs(uriRef.queryParams());
+
+        assertThrowsNPE("The name must not be null.", () -> params.getFirst(null));
+    }
+
+
+    @Test
+    void no_query()
+    {
+        var params = URIReference.parse("http://example.com/").queryParams();
+
+        assertThat(params.names().isEmpty()).isTrue();
+        assertThat(params.getFirst("a")).isNull();
+        assertThat(params.getInt("a", 7)).isEqualTo(7);
+        assertThat(params.getBoolean("a", true)).isTrue();
+    }
+
+
+    @Test
+    void getInt_getLong()
+    {
+        var params = URIReference.parse(
+            "http://example.com/?page=2&size=-20&id=9223372036854775807&min=-9223372036854775808" +
+            "&big=2147483648&bad=1x&empty=&flag&%70age=3&enc=%31%32&plus=+5").queryParams();
+
+        assertThat(params.getInt("page", 1)).isEqualTo(2);
+        assertThat(params.getInt("size", 0)).isEqualTo(-20);
+        assertThat(params.getInt("plus", 0)).isEqualTo(5);
+        assertThat(params.getInt("enc", 0)).isEqualTo(12);
+        assertThat(params.getInt("flag", 9)).isEqualTo(9);
+        assertThat(params.getInt("none", 9)).isEqualTo(9);
+        assertThat(params.getLong("id", 0)).isEqualTo(Long.MAX_VALUE);
+        assertThat(params.getLong("min", 0)).isEqualTo(Long.MIN_VALUE);
+        assertThat(params.getLong("big", 0)).isEqualTo(2147483648L);
+
+        assertThrowsIAE("The value of the query parameter \"big\" is out of the range of int.",
+            () -> params.getInt("big", 0));
+
+        assertThrowsIAE("The value of the query parameter \"bad\" is not an integer.",
+            () -> params.getInt("bad", 0));
+
+        assertThrowsIAE("The value of the query parameter \"empty\" is not an integer.",
+            () -> params.getInt("empty", 0));
+
+        var params2 = URIReference.parse("http://example.com/?%70age=3&n=9223372036854775808").queryParams();
+        assertThat(params2.getInt("page", 0)).isEqualTo(3);
+
+        assertThrowsIAE("The value of the query parameter \"n\" is out of the range of long.",
+            () -> params2.getLong("n", 0));
+    }
+
+
+    @Test
+    void getBoolean()
+    {
+        var params = URIReference.parse(
+            "http://example.com/?a=true&b=FALSE&c&d=yes&e=%74rue").queryParams();
+
+        assertThat(params.getBoolean("a", false)).isTrue();
+        assertThat(params.getBoolean("b", true)).isFalse();
+        assertThat(params.getBoolean("c", false)).isTrue();
+        assertThat(params.getBoolean("e", false)).isTrue();
+        assertThat(params.getBoolean("none", true)).isTrue();
+
+        assertThrowsIAE("The value of the query parameter \"d\" is not a boolean.",
+            () -> params.getBoolean("d", false));
+    }
+}
@@ -71,4 +71,81 @@ class QueryParamsTest
         assertThat(QueryParams.parse("k1=v1&k2").toString()).isEqualTo("k1=v1&k2");
         assertThat(QueryParams.parse("k1=v1&").toString()).isEqualTo("k1=v1&");
     }
+
+
+    @Test
+    void get()
+    {
+        var params = QueryParams.parse("k1=v1&k2&k1=v3");
+
+        assertThat(params.get("k1")).isEqualTo("v1");
+        assertThat(params.get("k2")).isNull();
+        assertThat(params.get("k3")).isNull();
+
+        params.remove("k1");
+        assertThat(params.get("k1")).isNull();
+
+        params.add("k1", "v4");
+        assertThat(params.get("k1")).isEqualTo("v4");
+    }
+
+
+    @Test
+    void modify()
+    {
+        var params = QueryParams.parse("a=1&b=2&a=3&c&=4");
+
+        // The replaced parameters keep their positions.
+        assertThat(params.replace("a", "x").toString()).isEqualTo("a=x&b=2&a=x&c&=4");
+        assertThat(params.replace("c", "y").toString()).isEqualTo("a=x&b=2&a=x&c=y&=4");
+        assertThat(params.replace("", null).toString()).isEqualTo("a=x&b=2&a=x&c=y&");
+
+        // All the parameters with the key are removed.
+        assertThat(params.remove("a").toString()).isEqualTo("b=2&c=y&");
+        assertThat(params.add("a", "z").toString()).isEqualTo("b=2&c=y&&a=z");
+        assertThat(params.remove("b").remove("c").toString()).isEqualTo("&a=z");
+        assertThat(params.isEmpty()).isFalse();
+
+        assertThat(params.remove("").remove("a").isEmpty()).isTrue();
+        assertThat(params.toString()).isEqualTo("");
+
+        assertThat(params.add("d", "5").replace("d", "6").toString()).isEqualTo("d=6");
+    }
+
+
+    @Test
+    void many_params()
+    {
+        var params = new QueryParams();
+        var sb     = new StringBuilder();
+
+        for (var i = 0; i < 300; i++)
+        {
+            params.add("k" + i, "v" + i);
+        }
+
+        // Remove the even keys, which leaves as many removed entries as the
+        // remaining ones.
+        for (var i = 0; i < 300; i += 2)
+        {
+            params.remove("k" + i);
+        }
+
+        // Removing one more key makes the removed entries the majority, which
+        // compacts the list.
+        params.remove("k1");
+
+        for (var i = 3; i < 300; i += 2)
+        {
+            sb.append(sb.length() == 0 ? "" : "&").append("k").append(i).append("=v").append(i);
+        }
+
+        // The parameters and the index are intact after the compaction.
+        assertThat(params.toString()).isEqualTo(sb.toString());
+        assertThat(params.get("k1")).isNull();
+        assertThat(params.get("k3")).isEqualTo("v3");
+        assertThat(params.get("k299")).isEqualTo("v299");
+        assertThat(params.replace("k3", "x").get("k3")).isEqualTo("x");
+        assertThat(params.add("k0", "y").toString()).isEqualTo(sb.toString().replace("k3=v3", "k3=x") + "&k0=y");
+    }
 }
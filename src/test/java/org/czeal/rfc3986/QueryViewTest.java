@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+
+class QueryViewTest
+{
+    @Test
+    void getFirst_contains()
+    {
+        var view = URIReference.parse("http://example.com/?a=1&b&ab=2&a=3&c=x=y&=e").getQueryView();
+
+        assertThat(view.getFirst("a")).isEqualTo("1");
+        assertThat(view.getFirst("ab")).isEqualTo("2");
+        assertThat(view.getFirst("c")).isEqualTo("x=y");
+        assertThat(view.getFirst("")).isEqualTo("e");
+        assertThat(view.getFirst("b")).isNull();
+        assertThat(view.getFirst("d")).isNull();
+        assertThat(view.getFirst("a=1")).isNull();
+
+        assertThat(view.contains("b")).isTrue();
+        assertThat(view.contains("ab")).isTrue();
+        assertThat(view.contains("x")).isFalse();
+        assertThat(view.contains("a=1")).isFalse();
+        assertThat(view.contains("a&b")).isFalse();
+
+        assertThat(view.size()).isEqualTo(6);
+        assertThat(view.isEmpty()).isFalse();
+
+        assertThrowsNPE("The name must not be null.", () -> view.getFirst(null));
+    }
+
+
+    @Test
+    void forEach()
+    {
+        var pairs = new ArrayList<String>();
+        QueryView.of("a=1&b&&=2&c=").forEach((k, v) -> pairs.add(k + ":" + v));
+
+        assertThat(pairs).isEqualTo(List.of("a:1", "b:null", ":null", ":2", "c:"));
+
+        assertThrowsNPE("The action must not be null.",
+            () -> QueryView.of("a").forEach(null));
+    }
+
+
+    @Test
+    void forEachRange()
+    {
+        var ranges = new ArrayList<String>();
+        QueryView.of("ab=cd&e").forEachRange(
+            (q, ks, ke, vs, ve) -> ranges.add(ks + "," + ke + "," + vs + "," + ve));
+
+        assertThat(ranges).isEqualTo(List.of("0,2,3,5", "6,7,-1,-1"));
+    }
+
+
+    @Test
+    void empty()
+    {
+        var view1 = URIReference.parse("http://example.com/").getQueryView();
+        assertThat(view1.isEmpty()).isTrue();
+        assertThat(view1.size()).isEqualTo(0);
+        assertThat(view1.contains("")).isFalse();
+        assertThat(view1.getQuery()).isNull();
+        assertThat(view1.toString()).isEqualTo("");
+
+        // An empty query has one parameter with an empty key.
+        var view2 = URIReference.parse("http://example.com/?").getQueryView();
+        assertThat(view2.size()).isEqualTo(1);
+        assertThat(view2.contains("")).isTrue();
+        assertThat(view2.getFirst("")).isNull();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.TestUtils.assertThrowsIAE;
+import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+
+class QueryWriterTest
+{
+    @Test
+    void append()
+    {
+        var writer = new QueryWriter(64)
+                .append("q", "a b&c=d+e#f%g")
+                .append("page", 2)
+                .append("min", Long.MIN_VALUE)
+                .append("ratio", 0.5)
+                .append("debug", true)
+                .append("flag", null)
+                .append("", "");
+
+        assertThat(writer.toString()).isEqualTo(
+            "q=a%20b%26c%3Dd%2Be%23f%25g&page=2&min=-9223372036854775808&ratio=0.5&debug=true&flag&=");
+        assertThat(writer.length()).isEqualTo(writer.toString().length());
+        assertThat(writer.getCharset()).isEqualTo(UTF_8);
+
+        // The preserved characters and the non-ASCII characters.
+        assertThat(new QueryWriter().append("k", "!$'()*,/:;?@-._~").toString())
+            .isEqualTo("k=!$'()*,/:;?@-._~");
+        assertThat(new QueryWriter().append("k", "café😀").toString())
+            .isEqualTo("k=caf%C3%A9%F0%9F%98%80");
+        assertThat(new QueryWriter().append("k", "\uD83D").toString())
+            .isEqualTo("k=%3F");
+        assertThat(new QueryWriter(0, ISO_8859_1).append("k", "café").toString())
+            .isEqualTo("k=caf%E9");
+
+        // An empty writer.
+        assertThat(new QueryWriter().toString()).isEqualTo("");
+
+        // Empty parameters are kept.
+        assertThat(new QueryWriter().append("", null).append("a", "1").toString()).isEqualTo("&a=1");
+        assertThat(new QueryWriter().append("", null).append("", null).toString()).isEqualTo("&");
+
+        assertThrowsNPE("The key must not be null.", () -> new QueryWriter().append(null, "v"));
+        assertThrowsNPE("The key must not be null.", () -> new QueryWriter().append(null, 1));
+        assertThrowsIAE("The capacity must not be negative.", () -> new QueryWriter(-1));
+        assertThrowsNPE("The charset must not be null.", () -> new QueryWriter(0, null));
+    }
+
+
+    @Test
+    void appendAll()
+    {
+        var map = new LinkedHashMap<String, Object>();
+        map.put("q", "a b");
+        map.put("page", 2);
+        map.put("debug", false);
+        map.put("flag", null);
+        map.put("tag", List.of("x", "y"));
+
+        assertThat(new QueryWriter().appendAll(map).toString())
+            .isEqualTo("q=a%20b&page=2&debug=false&flag&tag=x&tag=y");
+
+        var entries = new ArrayList<Map.Entry<String, ?>>();
+        entries.add(Map.entry("a", "1"));
+        entries.add(new SimpleEntry<>("a", 2L));
+
+        assertThat(new QueryWriter().append("z", 0).appendAll(entries).toString())
+            .isEqualTo("z=0&a=1&a=2");
+
+        assertThrowsNPE("The parameters must not be null.",
+            () -> new QueryWriter().appendAll((Map<String, ?>)null));
+
+        assertThrowsNPE("The parameters must not contain a null parameter.",
+            () -> new QueryWriter().appendAll(new ArrayList<>(Collections.singletonList(null))));
+
+        assertThrowsNPE("The key must not be null.",
+            () -> new QueryWriter().appendAll(List.of(new SimpleEntry<>(null, "v"))));
+    }
+
+
+    @Test
+    void output_is_decoded_to_the_input()
+    {
+        var writer = new QueryWriter()
+                .append("a&b", "c=d")
+                .append("e f", "g+h")
+                .append("café", "50%");
+
+        var params = URIReference.parse("http://example.com/?" + writer).queryParams();
+
+        assertThat(params.getFirst("a&b")).isEqualTo("c=d");
+        assertThat(params.getFirst("e f")).isEqualTo("g+h");
+        assertThat(params.getFirst("café")).isEqualTo("50%");
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.RequestTargetForm.ABSOLUTE;
+import static org.czeal.rfc3986.RequestTargetForm.ASTERISK;
+import static org.czeal.rfc3986.RequestTargetForm.AUTHORITY;
+import static org.czeal.rfc3986.RequestTargetForm.ORIGIN;
+import static org.czeal.rfc3986.TestUtils.assertThrowsIAE;
+import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import org.junit.jupiter.api.Test;
+
+
+class RequestTargetParserTest
+{
+    @Test
+    void parse_origin_form()
+    {
+        var target1 = new RequestTargetParser().parse("/where?q=now");
+        assertThat(target1.getForm()).isEqualTo(ORIGIN);
+        assertThat(target1.getPath()).isEqualTo("/where");
+        assertThat(target1.getQuery()).isEqualTo("q=now");
+        assertThat(target1.getAuthority()).isNull();
+        assertThat(target1.getURIReference()).isNull();
+        assertThat(target1.toString()).isEqualTo("/where?q=now");
+
+        // An absolute-path may start with empty segments.
+        var target2 = new RequestTargetParser().parse("//a/b");
+        assertThat(target2.getForm()).isEqualTo(ORIGIN);
+        assertThat(target2.getPath()).isEqualTo("//a/b");
+        assertThat(target2.getQuery()).isNull();
+
+        assertThrowsIAE(
+            "The query value \"q#f\" has an invalid character \"#\" at the index 1.",
+            () -> new RequestTargetParser().parse("/a?q#f"));
+    }
+
+
+    @Test
+    void parse_absolute_form()
+    {
+        var target1 = new RequestTargetParser().parse("http://user@example.com:8080/a/b?q");
+        assertThat(target1.getForm()).isEqualTo(ABSOLUTE);
+        assertThat(target1.getURIReference().toString()).isEqualTo("http://user@example.com:8080/a/b?q");
+        assertThat(target1.getAuthority().toString()).isEqualTo("user@example.com:8080");
+        assertThat(target1.getPath()).isEqualTo("/a/b");
+        assertThat(target1.getQuery()).isEqualTo("q");
+
+        var target2 = new RequestTargetParser().parse("urn:example:a");
+        assertThat(target2.getForm()).isEqualTo(ABSOLUTE);
+        assertThat(target2.getAuthority()).isNull();
+        assertThat(target2.getPath()).isEqualTo("example:a");
+
+        // A target whose path ends with ":" and digits is not in the authority form.
+        var target3 = new RequestTargetParser().parse("urn:isbn:123");
+        assertThat(target3.getForm()).isEqualTo(ABSOLUTE);
+        assertThat(target3.getPath()).isEqualTo("isbn:123");
+
+        var target4 = new RequestTargetParser().parse("tel:+1:2:80");
+        assertThat(target4.getForm()).isEqualTo(ABSOLUTE);
+        assertThat(target4.getPath()).isEqualTo("+1:2:80");
+
+        assertThrowsIAE(
+            "The request target \"http://example.com/#f\" in the absolute form must not have a fragment.",
+            () -> new RequestTargetParser().parse("http://example.com/#f"));
+
+        assertThrowsIAE(
+            "The request target \"a/b\" is not in any of the request target forms.",
+            () -> new RequestTargetParser().parse("a/b"));
+    }
+
+
+    @Test
+    void parse_authority_form()
+    {
+        var target1 = new RequestTargetParser().parse("www.example.com:443");
+        assertThat(target1.getForm()).isEqualTo(AUTHORITY);
+        assertThat(target1.getAuthority().getHost().getValue()).isEqualTo("www.example.com");
+        assertThat(target1.getAuthority().getPort()).isEqualTo(443);
+        assertThat(target1.getPath()).isNull();
+
+        var target2 = new RequestTargetParser().parse("[2001:db8::1]:8080");
+        assertThat(target2.getForm()).isEqualTo(AUTHORITY);
+        assertThat(target2.getAuthority().getHost().getType()).isEqualTo(HostType.IPV6);
+
+        assertThrowsIAE(
+            "The request target \":443\" in the authority form must have a host.",
+            () -> new RequestTargetParser().parse(":443"));
+    }
+
+
+    @Test
+    void parse_asterisk_form()
+    {
+        var target = new RequestTargetParser().parse("*");
+        assertThat(target.getForm()).isEqualTo(ASTERISK);
+        assertThat(target.getPath()).isNull();
+        assertThat(target.toString()).isEqualTo("*");
+    }
+
+
+    @Test
+    void parse_bytes()
+    {
+        var bytes = "GET /a?b HTTP/1.1".getBytes(US_ASCII);
+
+        var target = new RequestTargetParser().parse(bytes, 4, 4);
+        assertThat(target.getForm()).isEqualTo(ORIGIN);
+        assertThat(target.getPath()).isEqualTo("/a");
+        assertThat(target.getQuery()).isEqualTo("b");
+
+        assertThrowsIAE(
+            "The request target has an invalid byte 0xE9 at the index 2.",
+            () -> new RequestTargetParser().parse(new byte[] { '/', 'a', (byte)0xE9 }, 0, 3));
+
+        assertThrowsIAE(
+            "The request target has an invalid byte 0x20 at the index 1.",
+            () -> new RequestTargetParser().parse(bytes, 2, 3));
+    }
+
+
+    @Test
+    void parse_invalid()
+    {
+        assertThrowsNPE("The request target must not be null.",
+            () -> new RequestTargetParser().parse((CharSequence)null));
+
+        assertThrowsNPE("The request target must not be null.",
+            () -> new RequestTargetParser().parse(null, 0, 0));
+
+        assertThrowsIAE("The request target must not be empty.",
+            () -> new RequestTargetParser().parse(""));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.TestUtils.assertThrowsIAE;
+import static org.czeal.rfc3986.TestUtils.assertThrowsISE;
+import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+
+class ResolvedBaseTest
+{
+    // RFC 3986, 5.4. Reference Resolution Examples
+    private static final String[][] EXAMPLES = {
+        { "g:h",           "g:h"                    },
+        { "g",             "http://a/b/c/g"         },
+        { "./g",           "http://a/b/c/g"         },
+        { "g/",            "http://a/b/c/g/"        },
+        { "/g",            "http://a/g"             },
+        { "//g",           "http://g"               },
+        { "?y",            "http://a/b/c/d;p?y"     },
+        { "g?y",           "http://a/b/c/g?y"       },
+        { "#s",            "http://a/b/c/d;p?q#s"   },
+        { "g#s",           "http://a/b/c/g#s"       },
+        { ";x",            "http://a/b/c/;x"        },
+        { "",              "http://a/b/c/d;p?q"     },
+        { ".",             "http://a/b/c/"          },
+        { "..",            "http://a/b/"            },
+        { "../g",          "http://a/b/g"           },
+        { "../../../g",    "http://a/g"             },
+        { "/./g",          "http://a/g"             },
+        { "g;x=1/../y",    "http://a/b/c/y"         },
+        { "g#s/../x",      "http://a/b/c/g#s/../x"  },
+    };
+
+
+    @Test
+    void resolve()
+    {
+        var base = URIReference.parse("http://a/b/c/d;p?q").compileBase();
+
+        for (var example : EXAMPLES)
+        {
+            assertThat(base.resolve(example[0]).toString()).isEqualTo(example[1]);
+            assertThat(base.resolve(URIReference.parse(example[0])).toString()).isEqualTo(example[1]);
+        }
+    }
+
+
+    @Test
+    void resolve_empty_base_path()
+    {
+        var base = URIReference.parse("http://example.com").compileBase();
+        assertThat(base.resolve("a/b").toString()).isEqualTo("http://example.com/a/b");
+
+        var base2 = URIReference.parse("foo:").compileBase();
+        assertThat(base2.resolve("a/b").toString()).isEqualTo("foo:a/b");
+    }
+
+
+    @Test
+    void resolve_with_cache()
+    {
+        var base = URIReference.parse("http://a/b/c/d;p?q").compileBase(2);
+
+        var resolved1 = base.resolve("g");
+        assertThat(resolved1.toString()).isEqualTo("http://a/b/c/g");
+        assertThat(base.resolve("g")).isSameAs(resolved1);
+
+        // "g" is the least recently used entry when "h" is added.
+        base.resolve("f");
+        base.resolve("f");
+        base.resolve("h");
+        assertThat(base.resolve("g")).isNotSameAs(resolved1);
+        assertThat(base.resolve("g").toString()).isEqualTo("http://a/b/c/g");
+    }
+
+
+    @Test
+    void resolveAll()
+    {
+        var base = URIReference.parse("http://a/b/c/d;p?q").compileBase(16);
+
+        var resolved = base.resolveAll(List.of("/x", "y?q", "#f"));
+        assertThat(resolved.size()).isEqualTo(3);
+        assertThat(resolved.get(0).toString()).isEqualTo("http://a/x");
+        assertThat(resolved.get(1).toString()).isEqualTo("http://a/b/c/y?q");
+        assertThat(resolved.get(2).toString()).isEqualTo("http://a/b/c/d;p?q#f");
+    }
+
+
+    @Test
+    void compileBase_invalid()
+    {
+        assertThrowsISE("The base URI must have a scheme.",
+            () -> URIReference.parse("//a/b").compileBase());
+
+        assertThrowsISE("The base URI must not have a fragment.",
+            () -> URIReference.parse("http://a/b#f").compileBase());
+
+        assertThrowsIAE("The cache size must not be negative.",
+            () -> URIReference.parse("http://a/b").compileBase(-1));
+    }
+
+
+    @Test
+    void resolve_invalid()
+    {
+        var base = URIReference.parse("http://a/b").compileBase();
+
+        assertThrowsNPE("The URI reference to be resolved must not be null.",
+            () -> base.resolve((URIReference)null));
+
+        assertThrowsNPE("The URI references to be resolved must not be null.",
+            () -> base.resolveAll(null));
+
+        assertThrowsIAE("The charset of the target URI reference doesn't match the charset of the base URI.",
+            () -> base.resolve(URIReference.parse("g", ISO_8859_1)));
+    }
+
+
+    @Test
+    void resolveAndNormalize()
+    {
+        var base = URIReference.parse("hTTp://A/b/c/d;p?q").compileBase();
+
+        for (var example : EXAMPLES)
+        {
+            assertThat(base.resolveAndNormalize(example[0]).toString())
+                .isEqualTo(base.getBase().resolve(example[0]).normalize().toString());
+        }
+
+        assertThat(base.resolveAndNormalize("g/./%41").toString()).isEqualTo("http://a/b/c/g/A");
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.TestUtils.assertThrowsException;
+import static org.czeal.rfc3986.TestUtils.assertThrowsIAE;
+import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import org.junit.jupiter.api.Test;
+
+
+class URIDecoderTest
+{
+    @Test
+    void decode()
+    {
+        var input = "abc";
+
+        assertThat(URIDecoder.decode(input)).isSameAs(input);
+        assertThat(URIDecoder.decode("caf%C3%A9")).isEqualTo("café");
+        assertThat(URIDecoder.decode(new StringBuilder("caf%E9"), ISO_8859_1)).isEqualTo("café");
+        assertThat(URIDecoder.decode("a+b")).isEqualTo("a+b");
+
+        assertThrowsNPE("The input must not be null.", () -> URIDecoder.decode(null));
+        assertThrowsNPE("The charset must not be null.", () -> URIDecoder.decode("a", (Charset)null));
+    }
+
+
+    @Test
+    void decodeToBytes()
+    {
+        assertThat(URIDecoder.decodeToBytes("%00A%ff%2F/", 0, 11))
+            .isEqualTo(new byte[] { 0x00, 0x41, (byte)0xFF, 0x2F, 0x2F });
+        assertThat(URIDecoder.decodeToBytes("sig=%DE%AD&x", 4, 10))
+            .isEqualTo(new byte[] { (byte)0xDE, (byte)0xAD });
+        assertThat(URIDecoder.decodeToBytes("abc", 1, 1)).isEqualTo(new byte[0]);
+
+        assertThrowsIAE(
+            "The percent symbol \"%\" at the index 4 in the input value \"sig=%DE%AD&x\" is not followed by two characters.",
+            () -> URIDecoder.decodeToBytes("sig=%DE%AD&x", 4, 6));
+
+        assertThrowsIAE(
+            "The character \"G\" at the index 2 in the input value \"%AG\" is invalid as a hex digit.",
+            () -> URIDecoder.decodeToBytes("%AG", 0, 3));
+
+        assertThrowsIAE(
+            "The character \"é\" at the index 1 in the value \"aé\" is not an ASCII character.",
+            () -> URIDecoder.decodeToBytes("aé", 0, 2));
+
+        assertThrowsException(IndexOutOfBoundsException.class, null,
+            () -> URIDecoder.decodeToBytes("abc", 2, 4));
+    }
+
+
+    @Test
+    void decodeInto()
+    {
+        var buffer = ByteBuffer.allocate(4);
+        buffer.put((byte)'x');
+
+        assertThat(URIDecoder.decodeInto("%01b", buffer)).isEqualTo(2);
+        assertThat(buffer.position()).isEqualTo(3);
+        assertThat(buffer.array()).isEqualTo(new byte[] { 'x', 0x01, 'b', 0 });
+
+        // Nothing is written if the buffer is too small.
+        assertThrowsException(BufferOverflowException.class, null,
+            () -> URIDecoder.decodeInto("ab", buffer));
+        assertThat(buffer.position()).isEqualTo(3);
+
+        // Nothing is written if the input is invalid.
+        assertThrowsIAE(
+            "The character \"Z\" at the index 2 in the input value \"a%Z0\" is invalid as a hex digit.",
+            () -> URIDecoder.decodeInto("a%Z0", buffer));
+        assertThat(buffer.position()).isEqualTo(3);
+
+        // The buffer is reused.
+        buffer.clear();
+        assertThat(URIDecoder.decodeInto("q=%FF%FE", 2, 8, buffer)).isEqualTo(2);
+        assertThat(buffer.get(0)).isEqualTo((byte)0xFF);
+        assertThat(buffer.get(1)).isEqualTo((byte)0xFE);
+
+        assertThrowsNPE("The destination must not be null.", () -> URIDecoder.decodeInto("a", null));
+    }
+
+
+    @Test
+    void round_trip_with_encoder()
+    {
+        var bytes = new byte[256];
+
+        for (var i = 0; i < bytes.length; i++)
+        {
+            bytes[i] = (byte)i;
+        }
+
+        var encoded = URIEncoder.encode(bytes, EncodeSet.QUERY_PARAM);
+
+        assertThat(URIDecoder.decodedLength(encoded, 0, encoded.length())).isEqualTo(256);
+        assertThat(URIDecoder.decodeToBytes(encoded, 0, encoded.length())).isEqualTo(bytes);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.EncodeSet.FORM;
+import static org.czeal.rfc3986.EncodeSet.FRAGMENT;
+import static org.czeal.rfc3986.EncodeSet.PATH;
+import static org.czeal.rfc3986.EncodeSet.PATH_SEGMENT;
+import static org.czeal.rfc3986.EncodeSet.QUERY;
+import static org.czeal.rfc3986.EncodeSet.QUERY_PARAM;
+import static org.czeal.rfc3986.EncodeSet.USERINFO;
+import static org.czeal.rfc3986.TestUtils.assertThrowsException;
+import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import org.junit.jupiter.api.Test;
+
+
+class URIEncoderTest
+{
+    private static final String ASCII = " !\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~azAZ09";
+
+
+    @Test
+    void encode_with_encode_sets()
+    {
+        assertThat(URIEncoder.encode(ASCII, PATH_SEGMENT)).isEqualTo(
+            "%20!%22%23$%25&'()*+,-.%2F:;%3C=%3E%3F@%5B%5C%5D%5E_%60%7B%7C%7D~azAZ09");
+        assertThat(URIEncoder.encode("a/b c", PATH_SEGMENT)).isEqualTo("a%2Fb%20c");
+        assertThat(URIEncoder.encode("a/b c", PATH)).isEqualTo("a/b%20c");
+        assertThat(URIEncoder.encode("a=b&c?d", QUERY)).isEqualTo("a=b&c?d");
+        assertThat(URIEncoder.encode("a=b&c+d?e", QUERY_PARAM)).isEqualTo("a%3Db%26c%2Bd?e");
+        assertThat(URIEncoder.encode("a#b?c/d", FRAGMENT)).isEqualTo("a%23b?c/d");
+        assertThat(URIEncoder.encode("us:er@h/x", USERINFO)).isEqualTo("us:er%40h%2Fx");
+        assertThat(URIEncoder.encode("50%", PATH)).isEqualTo("50%25");
+        assertThat(URIEncoder.encode("a*-._~ b!", FORM)).isEqualTo("a*-._%7E%20b%21");
+    }
+
+
+    @Test
+    void encode_non_ascii()
+    {
+        assertThat(URIEncoder.encode("caféあ😀", PATH)).isEqualTo("caf%C3%A9%E3%81%82%F0%9F%98%80");
+        assertThat(URIEncoder.encode("\uD83Dx", PATH)).isEqualTo("%3Fx");
+        assertThat(URIEncoder.encode("café", PATH, ISO_8859_1)).isEqualTo("caf%E9");
+        assertThat(URIEncoder.encode("😀", PATH, ISO_8859_1)).isEqualTo("%3F");
+    }
+
+
+    @Test
+    void encode_returns_input_when_nothing_to_encode()
+    {
+        var input = "a/b:c@d";
+
+        assertThat(URIEncoder.encode(input, PATH)).isSameAs(input);
+        assertThat(URIEncoder.encode(new StringBuilder("ab"), PATH)).isEqualTo("ab");
+    }
+
+
+    @Test
+    void encode_to_appendable() throws IOException
+    {
+        var writer = new StringWriter();
+
+        URIEncoder.encode("a b", QUERY_PARAM, writer);
+        URIEncoder.encode("é", QUERY_PARAM, ISO_8859_1, writer);
+
+        assertThat(writer.toString()).isEqualTo("a%20b%E9");
+
+        assertThrowsNPE("The destination must not be null.",
+            () -> URIEncoder.encode("a", PATH, (Appendable)null));
+    }
+
+
+    @Test
+    void encode_to_byte_buffer()
+    {
+        var buffer = ByteBuffer.allocate(16);
+        buffer.put((byte)'x');
+
+        var written = URIEncoder.encode("a é", PATH, buffer);
+
+        assertThat(written).isEqualTo(10);
+        assertThat(buffer.position()).isEqualTo(11);
+        assertThat(new String(buffer.array(), 0, 11, US_ASCII)).isEqualTo("xa%20%C3%A9");
+
+        // Nothing is written if the buffer is too small.
+        var small = ByteBuffer.allocate(4);
+        assertThrowsException(BufferOverflowException.class, null, () -> URIEncoder.encode("a é", PATH, small));
+        assertThat(small.position()).isEqualTo(0);
+
+        assertThrowsNPE("The destination must not be null.",
+            () -> URIEncoder.encode("a", PATH, (ByteBuffer)null));
+    }
+
+
+    @Test
+    void encodedLength()
+    {
+        for (var input : new String[] { "", "abc", "a b", "é", "あ", "😀", "\uD83D", ASCII + "éあ😀" })
+        {
+            assertThat(URIEncoder.encodedLength(input, PATH)).isEqualTo(URIEncoder.encode(input, PATH).length());
+        }
+    }
+
+
+    @Test
+    void encode_bytes() throws IOException
+    {
+        var bytes = new byte[] { 0x00, 0x41, (byte)0xFF, '/', '&' };
+
+        assertThat(URIEncoder.encode(bytes, QUERY_PARAM)).isEqualTo("%00A%FF/%26");
+        assertThat(URIEncoder.encode(bytes, 1, 1, QUERY_PARAM)).isEqualTo("A");
+        assertThat(URIEncoder.encode(bytes, 3, 2, QUERY)).isEqualTo("/&");
+
+        var sb = new StringBuilder();
+        URIEncoder.encode(bytes, 0, 3, PATH_SEGMENT, sb);
+        assertThat(sb.toString()).isEqualTo("%00A%FF");
+
+        assertThrowsException(IndexOutOfBoundsException.class, null,
+            () -> URIEncoder.encode(bytes, 3, 3, PATH));
+        assertThrowsNPE("The input must not be null.", () -> URIEncoder.encode((byte[])null, PATH));
+    }
+
+
+    @Test
+    void encode_with_null()
+    {
+        assertThrowsNPE("The input must not be null.", () -> URIEncoder.encode((CharSequence)null, PATH));
+        assertThrowsNPE("The encode set must not be null.", () -> URIEncoder.encode("a", null));
+        assertThrowsNPE("The charset must not be null.", () -> URIEncoder.encode("a", PATH, (Charset)null));
+    }
+
+
+    @Test
+    void encode_set_preserves()
+    {
+        assertThat(PATH.preserves('/')).isTrue();
+        assertThat(PATH_SEGMENT.preserves('/')).isFalse();
+        assertThat(QUERY_PARAM.preserves('&')).isFalse();
+        assertThat(USERINFO.preserves('@')).isFalse();
+        assertThat(FRAGMENT.preserves('%')).isFalse();
+        assertThat(FORM.preserves('~')).isFalse();
+        assertThat(FORM.preserves('*')).isTrue();
+        assertThat(PATH.preserves(-1)).isFalse();
+        assertThat(PATH.preserves(0xE9)).isFalse();
+
+        // The encoded outputs are valid components.
+        var input = ASCII + "éあ😀";
+        new SegmentValidator().validate(URIEncoder.encode(input, PATH_SEGMENT), UTF_8);
+        new QueryValidator().validate(URIEncoder.encode(input, QUERY), UTF_8);
+        new FragmentValidator().validate(URIEncoder.encode(input, FRAGMENT), UTF_8);
+        new UserinfoValidator().validate(URIEncoder.encode(input, USERINFO), UTF_8);
+    }
+}
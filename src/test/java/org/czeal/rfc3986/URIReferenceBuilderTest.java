@@ -16,6 +16,7 @@
 package org.czeal.rfc3986;
 
 
+import static org.czeal.rfc3986.TestUtils.assertThrowsIAE;
 import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.czeal.rfc3986.HostType.IPV4;
@@ -1078,6 +1079,29 @@ class URIReferenceBuilderTest
     }
 
 
+    @Test
+    void setQueryFrom()
+    {
+        var writer = new QueryWriter().append("q", "a b&c").append("page", 2);
+
+        var uriRef1 = URIReferenceBuilder.fromURIReference("http://example.com").setQueryFrom(writer).build();
+        assertThat(uriRef1.getQuery()).isEqualTo("q=a%20b%26c&page=2");
+        assertThat(uriRef1.queryParams().getFirst("q")).isEqualTo("a b&c");
+
+        // The query can be modified after it is set.
+        var uriRef2 = URIReferenceBuilder.fromURIReference("http://example.com")
+                .setQueryFrom(writer).appendQueryParam("k", "v").build();
+        assertThat(uriRef2.getQuery()).isEqualTo("q=a%20b%26c&page=2&k=v");
+
+        // An empty writer sets an empty query.
+        var uriRef3 = URIReferenceBuilder.fromURIReference("http://example.com").setQueryFrom(new QueryWriter()).build();
+        assertThat(uriRef3.getQuery()).isEqualTo("");
+
+        assertThrowsNPE("The query writer must not be null.",
+            () -> new URIReferenceBuilder().setQueryFrom(null));
+    }
+
+
     @Test
     void setFragment()
     {
@@ -1096,4 +1120,33 @@ class URIReferenceBuilderTest
         var uriRef5 = URIReferenceBuilder.fromURIReference("http://example.com").setFragment(null).build();
         assertThat(uriRef5.getFragment()).isNull();
     }
+
+
+    @Test
+    void build_reuses_unchanged_components()
+    {
+        var source = URIReference.parse("http://user@example.com:8080/a/b?k1=v1&k2=v2#f");
+
+        var uriRef1 = URIReferenceBuilder.fromURIReference(source).replaceQueryParam("k2", "v3").build();
+        assertThat(uriRef1.toString()).isEqualTo("http://user@example.com:8080/a/b?k1=v1&k2=v3#f");
+        assertThat(uriRef1.getAuthority()).isSameAs(source.getAuthority());
+        assertThat(uriRef1.getPath()).isSameAs(source.getPath());
+        assertThat(uriRef1.getFragment()).isSameAs(source.getFragment());
+
+        var uriRef2 = URIReferenceBuilder.fromURIReference(source).setPort(8081).build();
+        assertThat(uriRef2.toString()).isEqualTo("http://user@example.com:8081/a/b?k1=v1&k2=v2#f");
+        assertThat(uriRef2.getAuthority()).isNotSameAs(source.getAuthority());
+        assertThat(uriRef2.getQuery()).isSameAs(source.getQuery());
+    }
+
+
+    @Test
+    void build_revalidates_path_on_structure_change()
+    {
+        // The path "//a" is valid only when the URI reference has an authority.
+        var source = URIReference.parse("http://example.com//a");
+
+        assertThrowsIAE("The path segment value must not be empty.",
+            () -> URIReferenceBuilder.fromURIReference(source).setAuthorityRequired(false).build());
+    }
 }
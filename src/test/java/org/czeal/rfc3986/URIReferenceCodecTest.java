@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.TestUtils.assertThrowsException;
+import static org.czeal.rfc3986.TestUtils.assertThrowsIAE;
+import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+
+class URIReferenceCodecTest
+{
+    private static final String[] URI_REFS = {
+        "http://user@example.com:8080/a/b?k=v#f",
+        "https://example.com",
+        "HTTP://%65xample.com:/a/./b/../c",
+        "http://101.102.103.104:65535/",
+        "http://[2001:db8::1]:99999/a",
+        "http://[v1.fe80::a+en1]/",
+        "mailto:john@example.com",
+        "urn:isbn:0451450523",
+        "//example.com?",
+        "../a?#",
+        "",
+    };
+
+
+    @Test
+    void encode_decode()
+    {
+        for (var uriRef : URI_REFS)
+        {
+            var original = URIReference.parse(uriRef);
+            var bytes    = URIReferenceCodec.encode(original);
+
+            assertThat(bytes.length).isEqualTo(URIReferenceCodec.encodedLength(original));
+
+            var decoded = URIReferenceCodec.decode(bytes);
+            assertRoundTrip(original, decoded);
+
+            // The normalized form is decoded with its hints.
+            var normalized = original.isRelativeReference() ? original : original.normalize();
+            assertRoundTrip(normalized, URIReferenceCodec.decode(URIReferenceCodec.encode(normalized)));
+        }
+    }
+
+
+    @Test
+    void encode_decode_charset()
+    {
+        var charset  = Charset.forName("windows-1252");
+        var original = URIReference.parse("http://example.com/%E9", charset);
+        var decoded  = URIReferenceCodec.decode(URIReferenceCodec.encode(original));
+
+        assertThat(decoded.getCharset()).isEqualTo(charset);
+        assertRoundTrip(original, decoded);
+    }
+
+
+    @Test
+    void encode_size()
+    {
+        // flags + hints + charset + scheme (1 + 4) + host (1 + 1 + 11) + path (1 + 2) = 24.
+        assertThat(URIReferenceCodec.encodedLength(URIReference.parse("http://example.com/a"))).isEqualTo(24);
+
+        // A port is encoded in 2 bytes.
+        assertThat(URIReferenceCodec.encodedLength(URIReference.parse("http://example.com:8080/a"))).isEqualTo(26);
+    }
+
+
+    @Test
+    void encode_buffer()
+    {
+        var buffer = ByteBuffer.allocate(10);
+        buffer.put((byte)1);
+
+        assertThrowsException(BufferOverflowException.class, null,
+            () -> URIReferenceCodec.encode(URIReference.parse("http://example.com/a"), buffer));
+        assertThat(buffer.position()).isEqualTo(1);
+
+        assertThrowsNPE("The URI reference must not be null.",
+            () -> URIReferenceCodec.encode(null, buffer));
+
+        assertThrowsNPE("The buffer must not be null.",
+            () -> URIReferenceCodec.encode(URIReference.parse("http://example.com/a"), null));
+    }
+
+
+    @Test
+    void encodeAll_decodeAll()
+    {
+        var uriRefs = new ArrayList<URIReference>();
+
+        for (var uriRef : URI_REFS)
+        {
+            uriRefs.add(URIReference.parse(uriRef));
+        }
+
+        var buffer  = ByteBuffer.allocateDirect(1024);
+        var written = URIReferenceCodec.encodeAll(uriRefs, buffer);
+        assertThat(buffer.position()).isEqualTo(written);
+
+        buffer.flip();
+        var decoded = URIReferenceCodec.decodeAll(buffer);
+        assertThat(decoded.size()).isEqualTo(uriRefs.size());
+        assertThat(buffer.remaining()).isEqualTo(0);
+
+        for (var i = 0; i < uriRefs.size(); i++)
+        {
+            assertRoundTrip(uriRefs.get(i), decoded.get(i));
+        }
+
+        assertThat(URIReferenceCodec.decodeAll(ByteBuffer.wrap(new byte[] { 0 })).isEmpty()).isTrue();
+    }
+
+
+    @Test
+    void decode_malformed()
+    {
+        var bytes     = URIReferenceCodec.encode(URIReference.parse("http://example.com/a"));
+        var truncated = ByteBuffer.wrap(bytes, 0, bytes.length - 1);
+
+        assertThrowsIAE("The encoded URI reference is malformed.",
+            () -> URIReferenceCodec.decode(truncated));
+        assertThat(truncated.position()).isEqualTo(0);
+
+        // An unknown charset ID.
+        bytes[2] = 0x40;
+        assertThrowsIAE("The encoded URI reference is malformed.",
+            () -> URIReferenceCodec.decode(bytes));
+
+        assertThrowsIAE("The encoded URI references are malformed.",
+            () -> URIReferenceCodec.decodeAll(ByteBuffer.wrap(new byte[] { 2, 0 })));
+
+        assertThrowsNPE("The buffer must not be null.",
+            () -> URIReferenceCodec.decode((ByteBuffer)null));
+    }
+
+
+    @Test
+    void serialization() throws IOException, ClassNotFoundException
+    {
+        var uriRef = URIReference.parse("http://user@example.com:8080/a/b?k=v#f");
+
+        var out = new ByteArrayOutputStream();
+
+        try (var oos = new ObjectOutputStream(out))
+        {
+            oos.writeObject(uriRef);
+            oos.writeObject(uriRef.getAuthority());
+            oos.writeObject(uriRef.getHost());
+            oos.writeObject(List.of(uriRef));
+        }
+
+        try (var ois = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray())))
+        {
+            assertRoundTrip(uriRef, (URIReference)ois.readObject());
+
+            var authority = (Authority)ois.readObject();
+            assertThat(authority.toString()).isEqualTo("user@example.com:8080");
+            assertThat(authority.getHost().getType()).isEqualTo(HostType.REGNAME);
+
+            var host = (Host)ois.readObject();
+            assertThat(host.getValue()).isEqualTo("example.com");
+            assertThat(host.getType()).isEqualTo(HostType.REGNAME);
+
+            var list = (List<?>)ois.readObject();
+            assertRoundTrip(uriRef, (URIReference)list.get(0));
+        }
+
+        // The binary form is much smaller than the default serialized form.
+        assertThat(out.size() < 600).isTrue();
+    }
+
+
+    @Test
+    void serialization_lazyValidation() throws IOException, ClassNotFoundException
+    {
+        // Serialization validates the components which have not been validated.
+        var uriRef = URIReference.parse("http://h/p?q#f", UTF_8, ParseOptions.lazyValidation());
+        var out    = new ByteArrayOutputStream();
+
+        try (var oos = new ObjectOutputStream(out))
+        {
+            oos.writeObject(uriRef);
+        }
+
+        try (var ois = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray())))
+        {
+            assertRoundTrip(uriRef, (URIReference)ois.readObject());
+        }
+
+        var invalid = URIReference.parse("http://h/p?%zz", UTF_8, ParseOptions.lazyValidation());
+
+        assertThrowsIAE(
+            "The query value \"%zz\" has an invalid hex digit \"z\" at the index 1.",
+            () -> new ObjectOutputStream(new ByteArrayOutputStream()).writeObject(invalid));
+    }
+
+
+    private static void assertRoundTrip(URIReference expected, URIReference actual)
+    {
+        assertThat(actual.toString()).isEqualTo(expected.toString());
+        assertThat(actual.getCharset()).isEqualTo(expected.getCharset());
+        assertThat(actual.isRelativeReference()).isEqualTo(expected.isRelativeReference());
+        assertThat(actual.getScheme()).isEqualTo(expected.getScheme());
+        assertThat(actual.getUserinfo()).isEqualTo(expected.getUserinfo());
+        assertThat(actual.getPort()).isEqualTo(expected.getPort());
+        assertThat(actual.getPath()).isEqualTo(expected.getPath());
+        assertThat(actual.getQuery()).isEqualTo(expected.getQuery());
+        assertThat(actual.getFragment()).isEqualTo(expected.getFragment());
+        assertThat(actual.getNormalizationHints()).isEqualTo(expected.getNormalizationHints());
+        assertThat(actual).isEqualTo(expected);
+
+        if (expected.getHost() != null)
+        {
+            assertThat(actual.getHost().getType()).isEqualTo(expected.getHost().getType());
+            assertThat(actual.getHost().getValue()).isEqualTo(expected.getHost().getValue());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.TestUtils.assertThrowsISE;
+import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import org.junit.jupiter.api.Test;
+
+
+class URIReferenceEquivalenceTest
+{
+    private static void assertEquivalent(String uriRef1, String uriRef2)
+    {
+        var u1 = URIReference.parse(uriRef1);
+        var u2 = URIReference.parse(uriRef2);
+
+        assertThat(URIReferenceEquivalence.INSTANCE.isEquivalent(u1, u2)).isTrue();
+        assertThat(URIReferenceEquivalence.INSTANCE.compare(u2, u1)).isEqualTo(0);
+        assertThat(URIReferenceEquivalence.INSTANCE.hashCode(u1))
+            .isEqualTo(URIReferenceEquivalence.INSTANCE.hashCode(u2));
+    }
+
+
+    private static void assertNotEquivalent(String uriRef1, String uriRef2)
+    {
+        var u1 = URIReference.parse(uriRef1);
+        var u2 = URIReference.parse(uriRef2);
+
+        assertThat(URIReferenceEquivalence.INSTANCE.isEquivalent(u1, u2)).isFalse();
+        assertThat(Integer.signum(URIReferenceEquivalence.INSTANCE.compare(u1, u2)))
+            .isEqualTo(-Integer.signum(URIReferenceEquivalence.INSTANCE.compare(u2, u1)));
+    }
+
+
+    @Test
+    void isEquivalent_scheme_and_host()
+    {
+        assertEquivalent("HTTP://EXAMPLE.com/a", "http://example.com/a");
+        assertEquivalent("http://%65xample.com/a", "http://example.com/a");
+        assertEquivalent("http://%c3%80.example.com/", "http://%C3%A0.example.com/");
+        assertNotEquivalent("http://example.com/a", "https://example.com/a");
+        assertNotEquivalent("http://example.com/a", "http://example.org/a");
+    }
+
+
+    @Test
+    void isEquivalent_userinfo_and_port()
+    {
+        assertEquivalent("http://us%65r@example.com:80/", "http://user@example.com/");
+        assertEquivalent("HTTPS://example.com:443/", "https://example.com/");
+        assertNotEquivalent("http://User@example.com/", "http://user@example.com/");
+        assertNotEquivalent("http://example.com:8080/", "http://example.com/");
+        assertNotEquivalent("http://example.com/", "http:/");
+    }
+
+
+    @Test
+    void isEquivalent_path()
+    {
+        assertEquivalent("http://example.com", "http://example.com/");
+        assertEquivalent("http://example.com/a/./b/../c", "http://example.com/a/c");
+        assertEquivalent("http://example.com/%7euser/%2f", "http://example.com/~user/%2F");
+        assertNotEquivalent("http://example.com/A", "http://example.com/a");
+        assertNotEquivalent("http://example.com/%2F", "http://example.com//");
+    }
+
+
+    @Test
+    void isEquivalent_query_and_fragment()
+    {
+        assertEquivalent("http://example.com/?k=%7e%2d", "http://example.com/?k=~-");
+        assertEquivalent("http://example.com/#%e3%82%a2", "http://example.com/#%E3%82%A2");
+        assertNotEquivalent("http://example.com/?", "http://example.com/");
+        assertNotEquivalent("http://example.com/#", "http://example.com/");
+        assertNotEquivalent("http://example.com/?k=%26", "http://example.com/?k=&");
+    }
+
+
+    @Test
+    void isEquivalent_charset()
+    {
+        var u1 = URIReference.parse("http://example.com/%e9%7E", ISO_8859_1);
+        var u2 = URIReference.parse("http://example.com/%E9~", ISO_8859_1);
+
+        assertThat(URIReferenceEquivalence.INSTANCE.isEquivalent(u1, u2)).isTrue();
+    }
+
+
+    @Test
+    void hashCode_consistent_with_normalize()
+    {
+        var uriRef = URIReference.parse("HTTP://Us%65r@%45xample.com:80/a/../%7eb?q=%2a#%7A");
+        var normalized = uriRef.normalize();
+
+        assertThat(URIReferenceEquivalence.INSTANCE.hashCode(uriRef))
+            .isEqualTo(URIReferenceEquivalence.INSTANCE.hashCode(normalized));
+        assertThat(URIReferenceEquivalence.INSTANCE.isEquivalent(uriRef, normalized)).isTrue();
+    }
+
+
+    @Test
+    void compare_null_components_first()
+    {
+        var u1 = URIReference.parse("http://example.com/");
+        var u2 = URIReference.parse("http://example.com/?");
+
+        assertThat(URIReferenceEquivalence.INSTANCE.compare(u1, u2) < 0).isTrue();
+    }
+
+
+    @Test
+    void compare_relative_reference()
+    {
+        var uri    = URIReference.parse("http://example.com/");
+        var relRef = URIReference.parse("/a");
+
+        assertThrowsISE("A relative references must be resolved before it can be compared.",
+            () -> URIReferenceEquivalence.INSTANCE.compare(uri, relRef));
+    }
+
+
+    @Test
+    void compare_null()
+    {
+        var uri = URIReference.parse("http://example.com/");
+
+        assertThrowsNPE("The URI reference must not be null.",
+            () -> URIReferenceEquivalence.INSTANCE.compare(uri, null));
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.HostType.IPV4;
+import static org.czeal.rfc3986.HostType.IPV6;
+import static org.czeal.rfc3986.TestUtils.assertThrowsIAE;
+import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import org.junit.jupiter.api.Test;
+
+
+class URIReferenceExtractorTest
+{
+    private static final String[] VALID_INPUTS = {
+        "http://example.com",
+        "HTTP://u:p@Example.COM:8080/a/./b?q=%E3%81%82#f",
+        "http://101.102.103.104:80/",
+        "http://[2001:db8::1]:8080/a",
+        "http://[v1.fe80::a+en1]/",
+        "http://@:/",
+        "file:///etc/hosts",
+        "mailto:a@example.com",
+        "urn:isbn:0451450523",
+        "//example.com/a?b#c",
+        "./a:b",
+        "a/b?c:d",
+        "?q",
+        "#f",
+        "",
+    };
+
+
+    @Test
+    void extract()
+    {
+        // The results are the same as the results of parse() for valid inputs.
+        for (var input : VALID_INPUTS)
+        {
+            var uriRef = URIReference.parse(input);
+
+            assertThat(URIReference.extractScheme(input)).isEqualTo(uriRef.getScheme());
+            assertThat(URIReference.extractHost(input)).isEqualTo(uriRef.getHost());
+            assertThat(URIReference.extractPath(new StringBuilder(input))).isEqualTo(uriRef.getPath());
+
+            if (uriRef.getHost() != null)
+            {
+                assertThat(URIReference.extractHost(input).getType()).isEqualTo(uriRef.getHost().getType());
+            }
+        }
+    }
+
+
+    @Test
+    void extractScheme()
+    {
+        assertThat(URIReference.extractScheme("svn+ssh://example.com")).isEqualTo("svn+ssh");
+        assertThat(URIReference.extractScheme("http://example.com/[")).isEqualTo("http");
+        assertThat(URIReference.extractScheme(":a")).isNull();
+
+        assertThrowsNPE("The input string must not be null.", () -> URIReference.extractScheme(null));
+    }
+
+
+    @Test
+    void extractHost()
+    {
+        // Only the host is validated.
+        var host = URIReference.extractHost("http://u[@example.com:port/a[?q=[#[");
+        assertThat(host.getValue()).isEqualTo("example.com");
+
+        assertThat(URIReference.extractHost("//101.102.103.104").getType()).isEqualTo(IPV4);
+        assertThat(URIReference.extractHost("//[::1]:80").getType()).isEqualTo(IPV6);
+        assertThat(URIReference.extractHost("http:/a")).isNull();
+
+        assertThrowsIAE(
+            "The host value \"v@w\" has an invalid character \"@\" at the index 1.",
+            () -> URIReference.extractHost("http://u@v@w/a"));
+
+        assertThrowsIAE(
+            "The host value \"[\" start with \"[\" but doesn't end with \"]\".",
+            () -> URIReference.extractHost("http://[::1/a"));
+
+        assertThrowsNPE("The input string must not be null.", () -> URIReference.extractHost(null));
+    }
+
+
+    @Test
+    void extractOrigin()
+    {
+        assertThat(URIReference.extractOrigin("https://u@example.com:8443/a?q=[")).isEqualTo("https://example.com:8443");
+        assertThat(URIReference.extractOrigin("http://example.com:/a")).isEqualTo("http://example.com");
+        assertThat(URIReference.extractOrigin("http://[::1]:080")).isEqualTo("http://[::1]:80");
+        assertThat(URIReference.extractOrigin("http://u@Example.com:080/")).isEqualTo("http://Example.com:80");
+        assertThat(URIReference.extractOrigin("mailto:a@example.com")).isNull();
+        assertThat(URIReference.extractOrigin("//example.com")).isNull();
+
+        assertThrowsIAE(
+            "The port value \"8a\" has an invalid character \"a\" at the index 1.",
+            () -> URIReference.extractOrigin("http://example.com:8a/"));
+
+        assertThrowsIAE(
+            "The port value \"99999999999\" is invalid as a number.",
+            () -> URIReference.extractOrigin("http://example.com:99999999999"));
+
+        assertThrowsNPE("The input string must not be null.", () -> URIReference.extractOrigin(null));
+    }
+
+
+    @Test
+    void extractPath()
+    {
+        // Only the path is validated.
+        assertThat(URIReference.extractPath("http://u@v@w/a/b?q=[#[")).isEqualTo("/a/b");
+        assertThat(URIReference.extractPath("http://example.com?q")).isEqualTo("");
+
+        assertThrowsIAE(
+            "The path segment value \"a[\" has an invalid character \"[\" at the index 1.",
+            () -> URIReference.extractPath("http://example.com/a[?q"));
+
+        assertThrowsNPE("The input string must not be null.", () -> URIReference.extractPath(null));
+    }
+}
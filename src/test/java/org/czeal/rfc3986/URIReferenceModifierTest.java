@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.TestUtils.assertThrowsIAE;
+import static org.czeal.rfc3986.TestUtils.assertThrowsISE;
+import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import org.junit.jupiter.api.Test;
+
+
+class URIReferenceModifierTest
+{
+    private static final URIReference URI_REF =
+        URIReference.parse("http://user@example.com:8080/a/b?k=v#f");
+
+
+    @Test
+    void withScheme()
+    {
+        var uriRef1 = new URIReferenceModifier().withScheme(URI_REF, "https");
+        assertThat(uriRef1.toString()).isEqualTo("https://user@example.com:8080/a/b?k=v#f");
+        assertThat(uriRef1.getAuthority()).isSameAs(URI_REF.getAuthority());
+
+        var uriRef2 = new URIReferenceModifier().withScheme(URI_REF, null);
+        assertThat(uriRef2.toString()).isEqualTo("//user@example.com:8080/a/b?k=v#f");
+        assertThat(uriRef2.isRelativeReference()).isTrue();
+
+        // "a:b" is valid as a path of a URI but not as a path of a relative reference.
+        assertThrowsIAE("The path segment value \"a:b\" has an invalid character \":\" at the index 1.",
+            () -> new URIReferenceModifier().withScheme(URIReference.parse("x:a:b"), null));
+    }
+
+
+    @Test
+    void withAuthority()
+    {
+        var uriRef1 = new URIReferenceModifier().withAuthority(URI_REF, "example.org");
+        assertThat(uriRef1.toString()).isEqualTo("http://example.org/a/b?k=v#f");
+        assertThat(uriRef1.getPath()).isSameAs(URI_REF.getPath());
+
+        var uriRef2 = new URIReferenceModifier().withAuthority(URI_REF, null);
+        assertThat(uriRef2.toString()).isEqualTo("http:/a/b?k=v#f");
+        assertThat(uriRef2.hasAuthority()).isFalse();
+
+        // A path must be empty or start with a slash when an authority is present.
+        assertThrowsIAE("The path must start with a slash.",
+            () -> new URIReferenceModifier().withAuthority(URIReference.parse("mailto:a@b"), "h"));
+    }
+
+
+    @Test
+    void withHost()
+    {
+        var uriRef1 = new URIReferenceModifier().withHost(URI_REF, "[::1]");
+        assertThat(uriRef1.toString()).isEqualTo("http://user@[::1]:8080/a/b?k=v#f");
+        assertThat(uriRef1.getHost().getType()).isEqualTo(HostType.IPV6);
+
+        var uriRef2 = new URIReferenceModifier().withHost(URIReference.parse("file:/a"), "h");
+        assertThat(uriRef2.toString()).isEqualTo("file://h/a");
+
+        assertThrowsNPE("The host must not be null.",
+            () -> new URIReferenceModifier().withHost(URI_REF, null));
+    }
+
+
+    @Test
+    void withPort()
+    {
+        var uriRef1 = new URIReferenceModifier().withPort(URI_REF, 80);
+        assertThat(uriRef1.toString()).isEqualTo("http://user@example.com:80/a/b?k=v#f");
+        assertThat(uriRef1.getHost()).isSameAs(URI_REF.getHost());
+
+        var uriRef2 = new URIReferenceModifier().withPort(URI_REF, -1);
+        assertThat(uriRef2.toString()).isEqualTo("http://user@example.com/a/b?k=v#f");
+
+        assertThrowsIAE("The port value \"-2\" is negative.",
+            () -> new URIReferenceModifier().withPort(URI_REF, -2));
+
+        assertThrowsISE("The URI reference must have an authority to set the port.",
+            () -> new URIReferenceModifier().withPort(URIReference.parse("mailto:a@b"), 25));
+    }
+
+
+    @Test
+    void withPath_withQuery_withFragment()
+    {
+        var uriRef1 = new URIReferenceModifier().withPath(URI_REF, "/c");
+        assertThat(uriRef1.toString()).isEqualTo("http://user@example.com:8080/c?k=v#f");
+
+        var uriRef2 = new URIReferenceModifier().withQuery(URI_REF, null);
+        assertThat(uriRef2.toString()).isEqualTo("http://user@example.com:8080/a/b#f");
+
+        var uriRef3 = new URIReferenceModifier().withFragment(URI_REF, "%7e");
+        assertThat(uriRef3.toString()).isEqualTo("http://user@example.com:8080/a/b?k=v#%7e");
+        assertThat(uriRef3.normalize().getFragment()).isEqualTo("~");
+
+        assertThrowsNPE("The path must not be null.",
+            () -> new URIReferenceModifier().withPath(URI_REF, null));
+
+        assertThrowsIAE("The path must start with a slash.",
+            () -> new URIReferenceModifier().withPath(URI_REF, "c"));
+
+        assertThrowsIAE("The query value \"a b\" has an invalid character \" \" at the index 1.",
+            () -> new URIReferenceModifier().withQuery(URI_REF, "a b"));
+    }
+}
@@ -19,11 +19,15 @@ package org.czeal.rfc3986;
 import static org.czeal.rfc3986.TestUtils.assertThrowsIAE;
 import static org.czeal.rfc3986.TestUtils.assertThrowsISE;
 import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_16BE;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.czeal.rfc3986.HostType.IPV4;
 import static org.czeal.rfc3986.HostType.IPV6;
 import static org.czeal.rfc3986.HostType.IPVFUTURE;
 import static org.czeal.rfc3986.HostType.REGNAME;
+import java.nio.charset.Charset;
 import org.junit.jupiter.api.Test;
 
 
@@ -475,6 +479,190 @@ class URIReferenceTest
     }
 
 
+    @Test
+    void parse_syntaxOnly()
+    {
+        var input = "http://%FFu@ex%FEample.com/a%FF?q=%C3#%80";
+
+        // The octets are invalid in UTF-8.
+        assertThrowsIAE(
+            "Failed to decode bytes represented by \"%FF\" in the userinfo value \"%FFu\".",
+            () -> URIReference.parse(input));
+
+        var uriRef = URIReference.parse(input, UTF_8, ParseOptions.syntaxOnly());
+        assertThat(uriRef.toString()).isEqualTo(input);
+        assertThat(uriRef.getCharset()).isEqualTo(UTF_8);
+        assertThat(uriRef.getUserinfo()).isEqualTo("%FFu");
+        assertThat(uriRef.getHost().getValue()).isEqualTo("ex%FEample.com");
+        assertThat(uriRef.getPath()).isEqualTo("/a%FF");
+        assertThat(uriRef.getQuery()).isEqualTo("q=%C3");
+        assertThat(uriRef.getFragment()).isEqualTo("%80");
+
+        assertThat(URIReference.parse("/a%E3%81%82", UTF_8, ParseOptions.defaults()).getPath())
+            .isEqualTo("/a%E3%81%82");
+
+        // The syntax of percent-encoded values is still checked.
+        assertThrowsIAE(
+            "The path segment value \"a%FG\" has an invalid hex digit \"G\" at the index 3.",
+            () -> URIReference.parse("http://example.com/a%FG", UTF_8, ParseOptions.syntaxOnly()));
+
+        assertThrowsIAE(
+            "The percent symbol \"%\" at the index 2 in the query value \"q=%F\" is not followed by two characters.",
+            () -> URIReference.parse("/?q=%F", UTF_8, ParseOptions.syntaxOnly()));
+
+        assertThrowsNPE("The parse options must not be null.",
+            () -> URIReference.parse("/", UTF_8, null));
+    }
+
+
+    @Test
+    void parse_syntaxOnly_normalize()
+    {
+        var options = ParseOptions.syntaxOnly();
+
+        // The octets which are invalid in the charset are kept percent-encoded
+        // with upper-case hex digits.
+        var uriRef1 = URIReference.parse("http://%ffU@EX%fe%41mple.com/a%ff%7e?q=%c3#%80", UTF_8, options);
+        assertThat(uriRef1.normalize().toString()).isEqualTo("http://%FFU@ex%FEample.com/a%FF~?q=%C3#%80");
+        assertThat(uriRef1.isEquivalentTo(
+            URIReference.parse("http://%FFU@ex%FEample.com/a%FF~?q=%C3#%80", UTF_8, options))).isTrue();
+        assertThat(uriRef1.isEquivalentTo(
+            URIReference.parse("http://%FFU@ex%FDample.com/a%FF~?q=%C3#%80", UTF_8, options))).isFalse();
+
+        // A charset without the triplet-by-triplet normalization.
+        var uriRef2 = URIReference.parse("http://E.com/?q=%ff", UTF_16BE, options);
+        assertThat(uriRef2.normalize().toString()).isEqualTo("http://e.com/?q=%FF");
+        assertThat(uriRef2.isEquivalentTo(URIReference.parse("http://e.com/?q=%FF", UTF_16BE, options))).isTrue();
+    }
+
+
+    @Test
+    void parse_lazyValidation()
+    {
+        var options = ParseOptions.lazyValidation();
+
+        // The path, the query and the fragment are validated when they are read.
+        var uriRef1 = URIReference.parse("http://example.com/a[?q=]#f]", UTF_8, options);
+        assertThat(uriRef1.getScheme()).isEqualTo("http");
+        assertThat(uriRef1.getHost().getValue()).isEqualTo("example.com");
+
+        assertThrowsIAE(
+            "The path segment value \"a[\" has an invalid character \"[\" at the index 1.",
+            () -> uriRef1.getPath());
+
+        assertThrowsIAE(
+            "The query value \"q=]\" has an invalid character \"]\" at the index 2.",
+            () -> uriRef1.getQueryView());
+
+        assertThrowsIAE(
+            "The fragment value \"f]\" has an invalid character \"]\" at the index 1.",
+            () -> uriRef1.getDecodedFragment());
+
+        assertThrowsIAE(
+            "The path segment value \"a[\" has an invalid character \"[\" at the index 1.",
+            () -> uriRef1.toString());
+
+        assertThrowsIAE(
+            "The path segment value \"a[\" has an invalid character \"[\" at the index 1.",
+            () -> uriRef1.withHost("example.org"));
+
+        // An invalid component doesn't prevent reading the other components.
+        var uriRef2 = URIReference.parse("http://example.com/a?q=%FF#[", UTF_8, options);
+        assertThat(uriRef2.getPath()).isEqualTo("/a");
+
+        assertThrowsIAE(
+            "Failed to decode bytes represented by \"%FF\" in the query value \"q=%FF\".",
+            () -> uriRef2.getQuery());
+
+        assertThrowsIAE(
+            "Failed to decode bytes represented by \"%FF\" in the query value \"q=%FF\".",
+            () -> uriRef2.validate());
+
+        assertThrowsIAE(
+            "The fragment value \"[\" has an invalid character \"[\" at the index 0.",
+            () -> uriRef2.getFragment());
+
+        // The scheme and the authority are validated when parsing.
+        assertThrowsIAE(
+            "The host value \"v@w\" has an invalid character \"@\" at the index 1.",
+            () -> URIReference.parse("http://u@v@w/a[", UTF_8, options));
+
+        // Combined with the syntax-only validation.
+        var uriRef3 = URIReference.parse(
+            "http://example.com/a%FF?q=%FF#%FF", UTF_8, options.withSyntaxOnly());
+        assertThat(uriRef3.validate()).isSameAs(uriRef3);
+        assertThat(uriRef3.getQuery()).isEqualTo("q=%FF");
+
+        // A valid URI reference works as the one parsed eagerly.
+        var input   = "HTTP://Example.com/a/./b/../c?q=%7e";
+        var uriRef4 = URIReference.parse(input, UTF_8, options);
+        assertThat(uriRef4).isEqualTo(URIReference.parse(input));
+        assertThat(uriRef4.normalize()).isEqualTo(URIReference.parse(input).normalize());
+        assertThat(uriRef4.resolve("d")).isEqualTo(URIReference.parse(input).resolve("d"));
+        assertThat(uriRef4.queryParams().contains("q")).isTrue();
+
+        assertThat(ParseOptions.defaults().isLazyValidation()).isFalse();
+        assertThat(options.isLazyValidation()).isTrue();
+        assertThat(options.isSyntaxOnly()).isFalse();
+        assertThat(ParseOptions.syntaxOnly().withLazyValidation()).isSameAs(options.withSyntaxOnly());
+    }
+
+
+    @Test
+    void parseTrusted()
+    {
+        var inputs = new String[] {
+            "http://example.com",
+            "HTTP://u:p@Example.COM:8080/a/./b?q=%E3%81%82#f",
+            "http://101.102.103.104:80/",
+            "http://256.1.1.1/",
+            "http://1.2.3/",
+            "http://001.2.3.4/",
+            "http://[2001:db8::1]:8080/a",
+            "http://[v1.fe80::a+en1]/",
+            "http://@:/",
+            "http://:8080/",
+            "//:80",
+            "file:///etc/hosts",
+            "mailto:a@example.com",
+            "urn:isbn:0451450523",
+            "//example.com/a?b#c",
+            "./a:b",
+            "a/b?c:d",
+            "?q",
+            "#f",
+            "",
+        };
+
+        for (var input : inputs)
+        {
+            var trusted = URIReference.parseTrusted(input);
+            var parsed  = URIReference.parse(input);
+
+            assertThat(trusted).isEqualTo(parsed);
+            assertThat(trusted.toString()).isEqualTo(parsed.toString());
+            assertThat(trusted.isRelativeReference()).isEqualTo(parsed.isRelativeReference());
+            assertThat(trusted.getUserinfo()).isEqualTo(parsed.getUserinfo());
+            assertThat(trusted.getPort()).isEqualTo(parsed.getPort());
+
+            if (parsed.getHost() != null)
+            {
+                assertThat(trusted.getHost().getType()).isEqualTo(parsed.getHost().getType());
+            }
+        }
+
+        assertThat(URIReference.parseTrusted("http://a/%E9", ISO_8859_1).getCharset()).isEqualTo(ISO_8859_1);
+
+        // An invalid input string is detected when assertions are enabled.
+        assertThrowsIAE(
+            "The host value \"v@w\" has an invalid character \"@\" at the index 1.",
+            () -> URIReference.parseTrusted("http://u@v@w"));
+
+        assertThrowsNPE("The input string must not be null.", () -> URIReference.parseTrusted(null));
+        assertThrowsNPE("The charset must not be null.", () -> URIReference.parseTrusted("/", null));
+    }
+
+
     @Test
     void isRelativeReference()
     {
@@ -1463,4 +1651,104 @@ class URIReferenceTest
             "A relative references must be resolved before it can be normalized.",
             () -> URIReference.parse("//example.com").normalize());
     }
+
+
+    @Test
+    void isEquivalentTo()
+    {
+        var uriRef1 = URIReference.parse("HTTP://Example.com:80/%7euser");
+        var uriRef2 = URIReference.parse("http://example.com/~user");
+        var uriRef3 = URIReference.parse("http://example.com/~User");
+
+        assertThat(uriRef1.isEquivalentTo(uriRef2)).isTrue();
+        assertThat(uriRef1.isEquivalentTo(uriRef3)).isFalse();
+        assertThat(uriRef1.equivalenceHashCode()).isEqualTo(uriRef2.equivalenceHashCode());
+        assertThat(uriRef1.equivalenceHashCode()).isEqualTo(uriRef1.normalize().equivalenceHashCode());
+        assertThat(URIReference.equivalenceComparator().compare(uriRef1, uriRef2)).isEqualTo(0);
+
+        assertThrowsISE(
+            "A relative references must be resolved before it can be compared.",
+            () -> uriRef1.isEquivalentTo(URIReference.parse("//example.com")));
+    }
+
+
+    @Test
+    void resolveAndNormalize()
+    {
+        var baseUri = URIReference.parse("http://a/b/c/d;p?q");
+
+        var uriRef1 = baseUri.resolveAndNormalize("../%7eg/./h?%2a#F");
+        assertThat(uriRef1.toString()).isEqualTo("http://a/b/~g/h?%2A#F");
+        assertThat(uriRef1.isRelativeReference()).isFalse();
+
+        var uriRef2 = baseUri.resolveAndNormalize(new StringBuilder("HTTP://EXAMPLE.com:80"));
+        assertThat(uriRef2.toString()).isEqualTo("http://example.com/");
+        assertThat(uriRef2.getPort()).isEqualTo(-1);
+
+        var uriRef3 = baseUri.resolveAndNormalize("");
+        assertThat(uriRef3.toString()).isEqualTo("http://a/b/c/d;p?q");
+
+        assertThrowsNPE(
+            "The URI reference to be resolved must not be null.",
+            () -> baseUri.resolveAndNormalize(null));
+
+        assertThrowsISE(
+            "The base URI must have a scheme.",
+            () -> URIReference.parse("//a/b").resolveAndNormalize("c"));
+    }
+
+
+    @Test
+    void withers()
+    {
+        var uriRef = URIReference.parse("http://example.com/a?k=v#f");
+
+        assertThat(uriRef.withScheme("https").toString()).isEqualTo("https://example.com/a?k=v#f");
+        assertThat(uriRef.withAuthority("u@h:1").toString()).isEqualTo("http://u@h:1/a?k=v#f");
+        assertThat(uriRef.withHost("example.org").toString()).isEqualTo("http://example.org/a?k=v#f");
+        assertThat(uriRef.withPort(8080).toString()).isEqualTo("http://example.com:8080/a?k=v#f");
+        assertThat(uriRef.withPath("/b").toString()).isEqualTo("http://example.com/b?k=v#f");
+        assertThat(uriRef.withQuery("x").toString()).isEqualTo("http://example.com/a?x#f");
+        assertThat(uriRef.withFragment("g").toString()).isEqualTo("http://example.com/a?k=v#g");
+        assertThat(uriRef.withoutFragment().toString()).isEqualTo("http://example.com/a?k=v");
+
+        var withoutFragment = uriRef.withoutFragment();
+        assertThat(withoutFragment.withoutFragment()).isSameAs(withoutFragment);
+    }
+
+
+    @Test
+    void getDecoded()
+    {
+        var uriRef1 = URIReference.parse(
+            "http://%6A%6F%68%6E@%65xample.com/%E3%83%91%E3%82%B9?k=%E5%80%A4#%E3%83%95");
+        assertThat(uriRef1.getDecodedUserinfo()).isEqualTo("john");
+        assertThat(uriRef1.getDecodedHost()).isEqualTo("example.com");
+        assertThat(uriRef1.getDecodedPath()).isEqualTo("/パス");
+        assertThat(uriRef1.getDecodedQuery()).isEqualTo("k=値");
+        assertThat(uriRef1.getDecodedFragment()).isEqualTo("フ");
+
+        // The decoded values are cached.
+        assertThat(uriRef1.getDecodedPath()).isSameAs(uriRef1.getDecodedPath());
+        assertThat(uriRef1.getDecodedUserinfo()).isSameAs(uriRef1.getDecodedUserinfo());
+
+        // The raw values are returned when they don't contain "%".
+        var uriRef2 = URIReference.parse("http://john@example.com/a?q#f");
+        assertThat(uriRef2.getDecodedUserinfo()).isSameAs(uriRef2.getUserinfo());
+        assertThat(uriRef2.getDecodedHost()).isSameAs(uriRef2.getHost().getValue());
+        assertThat(uriRef2.getDecodedPath()).isSameAs(uriRef2.getPath());
+        assertThat(uriRef2.getDecodedQuery()).isSameAs(uriRef2.getQuery());
+        assertThat(uriRef2.getDecodedFragment()).isSameAs(uriRef2.getFragment());
+
+        // The absent components.
+        var uriRef3 = URIReference.parse("a");
+        assertThat(uriRef3.getDecodedUserinfo()).isNull();
+        assertThat(uriRef3.getDecodedHost()).isNull();
+        assertThat(uriRef3.getDecodedQuery()).isNull();
+        assertThat(uriRef3.getDecodedFragment()).isNull();
+
+        // The charset of the URI reference is used.
+        var uriRef4 = URIReference.parse("http://example.com/%E9", Charset.forName("windows-1252"));
+        assertThat(uriRef4.getDecodedPath()).isEqualTo("/é");
+    }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2024 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.rfc3986;
+
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.czeal.rfc3986.TestUtils.assertThrowsException;
+import static org.czeal.rfc3986.TestUtils.assertThrowsISE;
+import static org.czeal.rfc3986.TestUtils.assertThrowsNPE;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+
+class URIReferenceWriterTest
+{
+    private static final String[] URI_REFS = {
+        "http://user@example.com:8080/a/b?k=v#f",
+        "http://example.com:0/",
+        "http://[2001:db8::1]:65535/a",
+        "mailto:john@example.com",
+        "//example.com",
+        "../a?#",
+        "",
+        "http://%E3%83%A6@example.com/%E3%83%91?%E3%82%AF#%E3%83%95",
+    };
+
+
+    @Test
+    void serializedLength()
+    {
+        for (var uriRef : URI_REFS)
+        {
+            var parsed = URIReference.parse(uriRef);
+            assertThat(parsed.serializedLength()).isEqualTo(uriRef.length());
+
+            if (parsed.hasAuthority())
+            {
+                var authority = parsed.getAuthority();
+                assertThat(authority.serializedLength()).isEqualTo(authority.toString().length());
+            }
+        }
+    }
+
+
+    @Test
+    void writeTo_StringBuilder()
+    {
+        for (var uriRef : URI_REFS)
+        {
+            var sb = new StringBuilder("prefix:");
+            URIReference.parse(uriRef).writeTo(sb);
+            assertThat(sb.toString()).isEqualTo("prefix:" + uriRef);
+        }
+
+        var sb = new StringBuilder();
+        Authority.parse("user@example.com:80").writeTo(sb);
+        assertThat(sb.toString()).isEqualTo("user@example.com:80");
+
+        assertThrowsNPE("The destination must not be null.",
+            () -> URIReference.parse("http://example.com").writeTo((StringBuilder)null));
+    }
+
+
+    @Test
+    void writeTo_Appendable() throws IOException
+    {
+        for (var uriRef : URI_REFS)
+        {
+            var writer = new StringWriter();
+            URIReference.parse(uriRef).writeTo((Appendable)writer);
+            assertThat(writer.toString()).isEqualTo(uriRef);
+        }
+
+        // An IOException thrown by the destination is propagated as is.
+        Appendable failing = new Appendable() {
+            @Override
+            public Appendable append(CharSequence csq) throws IOException
+            {
+                throw new IOException("failed");
+            }
+
+            @Override
+            public Appendable append(CharSequence csq, int start, int end) throws IOException
+            {
+                throw new IOException("failed");
+            }
+
+            @Override
+            public Appendable append(char c) throws IOException
+            {
+                throw new IOException("failed");
+            }
+        };
+
+        assertThrowsException(IOException.class, "failed",
+            () -> URIReference.parse("http://example.com").writeTo(failing));
+
+        assertThrowsNPE("The destination must not be null.",
+            () -> Authority.parse("example.com").writeTo((Appendable)null));
+    }
+
+
+    @Test
+    void writeAsciiTo()
+    {
+        for (var uriRef : URI_REFS)
+        {
+            var buffer = ByteBuffer.allocate(100);
+            buffer.position(3);
+
+            var written = URIReference.parse(uriRef).writeAsciiTo(buffer);
+            assertThat(written).isEqualTo(uriRef.length());
+            assertThat(buffer.position()).isEqualTo(3 + uriRef.length());
+            assertThat(new String(buffer.array(), 3, written, UTF_8)).isEqualTo(uriRef);
+        }
+
+        // Not enough space. Nothing is written.
+        var buffer = ByteBuffer.allocate(10);
+        assertThrowsException(BufferOverflowException.class, null,
+            () -> URIReference.parse("http://example.com").writeAsciiTo(buffer));
+        assertThat(buffer.position()).isEqualTo(0);
+        assertThat(buffer.get(0)).isEqualTo((byte)0);
+
+        var buffer3 = ByteBuffer.allocate(100);
+        assertThat(Authority.parse("example.com:80").writeAsciiTo(buffer3)).isEqualTo(14);
+        assertThat(buffer3.position()).isEqualTo(14);
+    }
+
+
+    @Test
+    void writeUtf8To()
+    {
+        for (var uriRef : URI_REFS)
+        {
+            var expected = URIReference.parse(uriRef).toString().getBytes(UTF_8);
+            var bytes    = new byte[expected.length + 2];
+
+            var written = URIReference.parse(uriRef).writeUtf8To(bytes, 2);
+            assertThat(written).isEqualTo(expected.length);
+            assertThat(Arrays.equals(bytes, 2, bytes.length, expected, 0, expected.length)).isTrue();
+        }
+
+        // Not enough space. Nothing is written.
+        var bytes = new byte[10];
+        assertThrowsException(IndexOutOfBoundsException.class, null,
+            () -> URIReference.parse("http://example.com").writeUtf8To(bytes, 0));
+        assertThat(Arrays.equals(bytes, new byte[10])).isTrue();
+
+        assertThrowsException(IndexOutOfBoundsException.class, null,
+            () -> Authority.parse("example.com").writeUtf8To(new byte[20], -1));
+    }
+
+
+    @Test
+    void writeOriginForm()
+    {
+        var buffer1 = ByteBuffer.allocate(100);
+        assertThat(URIReference.parse("http://example.com/a/b?k=v#f").writeOriginForm(buffer1)).isEqualTo(8);
+        assertThat(new String(buffer1.array(), 0, buffer1.position(), UTF_8)).isEqualTo("/a/b?k=v");
+
+        // An empty path is written as "/".
+        var buffer2 = ByteBuffer.allocate(100);
+        assertThat(URIReference.parse("http://example.com?q").writeOriginForm(buffer2)).isEqualTo(3);
+        assertThat(new String(buffer2.array(), 0, buffer2.position(), UTF_8)).isEqualTo("/?q");
+
+        var buffer3 = ByteBuffer.allocate(100);
+        assertThat(URIReference.parseRequestTarget("http://example.com/x").writeOriginForm(buffer3)).isEqualTo(2);
+        assertThat(new String(buffer3.array(), 0, buffer3.position(), UTF_8)).isEqualTo("/x");
+
+        // Not enough space. Nothing is written.
+        var buffer4 = ByteBuffer.allocate(3);
+        assertThrowsException(BufferOverflowException.class, null,
+            () -> URIReference.parse("http://example.com/abc").writeOriginForm(buffer4));
+        assertThat(buffer4.position()).isEqualTo(0);
+
+        assertThrowsISE("The path \"example:a\" cannot be written in the origin form.",
+            () -> URIReference.parse("urn:example:a").writeOriginForm(ByteBuffer.allocate(100)));
+
+        assertThrowsISE("The request target in the AUTHORITY form has no origin form.",
+            () -> URIReference.parseRequestTarget("example.com:443").writeOriginForm(ByteBuffer.allocate(100)));
+    }
+}